@@ -0,0 +1,816 @@
+package java.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.DoubleConsumer;
+import java.util.stream.StreamSupport;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.DoubleStream;
+
+/**
+ * Common implementation of the generators {@link Xoshiro256PlusPlus} and
+ * {@link L64X128MixRandom}. Subclasses define only {@link #nextLong()}, from
+ * which all other values are derived as in {@link SplittableRandom}, and
+ * {@link #split()}, which is used to give independent generators to the
+ * halves of split stream spliterators.
+ */
+abstract class AbstractSplittableGenerator {
+	/**
+	 * The golden ratio scaled to 64bits, used to step the default seed
+	 * generator and to expand seeds.
+	 */
+	static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The least non-zero value returned by nextDouble(). This value is scaled
+	 * by a random value of 53 bits to produce a result.
+	 */
+	static final double DOUBLE_UNIT = 0x1.0p-53; // 1.0 / (1L << 53);
+
+	// IllegalArgumentException messages
+	static final String BadBound = "bound must be positive";
+	static final String BadRange = "bound must be greater than origin";
+	static final String BadSize = "size must be non-negative";
+
+	/**
+	 * Computes Stafford variant 13 of 64bit mix function, as in
+	 * SplittableRandom. Used to expand a single seed into a full state.
+	 */
+	static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The seed generator for default constructors.
+	 */
+	private static final AtomicLong defaultGen = new AtomicLong(initialSeed());
+
+	private static long initialSeed() {
+		String pp = java.security.AccessController.doPrivileged(new sun.security.action.GetPropertyAction("java.util.secureRandomSeed"));
+		if ((pp != null) && pp.equalsIgnoreCase("true")) {
+			byte[] seedBytes = java.security.SecureRandom.getSeed(8);
+			long s = (seedBytes[0]) & 0xffL;
+			for (int i = 1; i < 8; ++i) {
+				s = (s << 8) | ((seedBytes[i]) & 0xffL);
+			}
+			return s;
+		}
+		return (mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+	}
+
+	/**
+	 * Returns a seed for a default-constructed generator, distinct from those
+	 * of all others constructed in the current program.
+	 */
+	static long defaultSeed() {
+		return mix64(defaultGen.getAndAdd(GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Returns a pseudorandom {@code long} value.
+	 *
+	 * @return a pseudorandom {@code long} value
+	 */
+	public abstract long nextLong();
+
+	/**
+	 * Constructs and returns a new generator that shares no mutable state
+	 * with this one and whose values are, with very high probability,
+	 * statistically independent of those of this one.
+	 *
+	 * @return the new generator
+	 */
+	public abstract AbstractSplittableGenerator split();
+
+	/*
+	 * Internal versions of nextX methods used by streams, as well as the public
+	 * nextX(origin, bound) methods. These exist mainly to avoid the need for
+	 * multiple versions of stream spliterators across the different exported
+	 * forms of streams. See SplittableRandom for the algorithms.
+	 */
+
+	/**
+	 * The form of nextLong used by LongStream Spliterators. If origin is
+	 * greater than bound, acts as unbounded form of nextLong, else as bounded
+	 * form.
+	 *
+	 * @param origin
+	 *            the least value, unless greater than bound
+	 * @param bound
+	 *            the upper bound (exclusive), must not equal origin
+	 * @return a pseudorandom value
+	 */
+	final long internalNextLong(long origin, long bound) {
+		long r = nextLong();
+		if (origin < bound) {
+			long n = bound - origin, m = n - 1;
+			if ((n & m) == 0L) {
+				r = (r & m) + origin;
+			} else if (n > 0L) { // reject over-represented candidates
+				for (long u = r >>> 1; // ensure nonnegative
+						((u + m) - (r = u % n)) < 0L; // rejection check
+						u = nextLong() >>> 1) {
+					;
+				}
+				r += origin;
+			} else { // range not representable as long
+				while ((r < origin) || (r >= bound)) {
+					r = nextLong();
+				}
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * The form of nextInt used by IntStream Spliterators. Exactly the same as
+	 * long version, except for types.
+	 *
+	 * @param origin
+	 *            the least value, unless greater than bound
+	 * @param bound
+	 *            the upper bound (exclusive), must not equal origin
+	 * @return a pseudorandom value
+	 */
+	final int internalNextInt(int origin, int bound) {
+		int r = nextInt();
+		if (origin < bound) {
+			int n = bound - origin, m = n - 1;
+			if ((n & m) == 0) {
+				r = (r & m) + origin;
+			} else if (n > 0) {
+				for (int u = r >>> 1; ((u + m) - (r = u % n)) < 0; u = nextInt() >>> 1) {
+					;
+				}
+				r += origin;
+			} else {
+				while ((r < origin) || (r >= bound)) {
+					r = nextInt();
+				}
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * The form of nextDouble used by DoubleStream Spliterators.
+	 *
+	 * @param origin
+	 *            the least value, unless greater than bound
+	 * @param bound
+	 *            the upper bound (exclusive), must not equal origin
+	 * @return a pseudorandom value
+	 */
+	final double internalNextDouble(double origin, double bound) {
+		double r = (nextLong() >>> 11) * DOUBLE_UNIT;
+		if (origin < bound) {
+			r = (r * (bound - origin)) + origin;
+			if (r >= bound) {
+				r = Double.longBitsToDouble(Double.doubleToLongBits(bound) - 1);
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * Returns a pseudorandom {@code int} value, the high half of a
+	 * pseudorandom {@code long}.
+	 *
+	 * @return a pseudorandom {@code int} value
+	 */
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code int} value between zero (inclusive) and the
+	 * specified bound (exclusive).
+	 *
+	 * @param bound
+	 *            the upper bound (exclusive). Must be positive.
+	 * @return a pseudorandom {@code int} value between zero (inclusive) and the
+	 *         bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code bound} is not positive
+	 */
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException(BadBound);
+		}
+		return internalNextInt(0, bound);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code int} value between the specified origin
+	 * (inclusive) and the specified bound (exclusive).
+	 *
+	 * @param origin
+	 *            the least value returned
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @return a pseudorandom {@code int} value between the origin (inclusive)
+	 *         and the bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public int nextInt(int origin, int bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return internalNextInt(origin, bound);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code long} value between zero (inclusive) and
+	 * the specified bound (exclusive).
+	 *
+	 * @param bound
+	 *            the upper bound (exclusive). Must be positive.
+	 * @return a pseudorandom {@code long} value between zero (inclusive) and
+	 *         the bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code bound} is not positive
+	 */
+	public long nextLong(long bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException(BadBound);
+		}
+		return internalNextLong(0L, bound);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code long} value between the specified origin
+	 * (inclusive) and the specified bound (exclusive).
+	 *
+	 * @param origin
+	 *            the least value returned
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @return a pseudorandom {@code long} value between the origin (inclusive)
+	 *         and the bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public long nextLong(long origin, long bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return internalNextLong(origin, bound);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code double} value between zero (inclusive) and
+	 * one (exclusive).
+	 *
+	 * @return a pseudorandom {@code double} value between zero (inclusive) and
+	 *         one (exclusive)
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * Returns a pseudorandom {@code double} value between 0.0 (inclusive) and
+	 * the specified bound (exclusive).
+	 *
+	 * @param bound
+	 *            the upper bound (exclusive). Must be positive.
+	 * @return a pseudorandom {@code double} value between zero (inclusive) and
+	 *         the bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code bound} is not positive
+	 */
+	public double nextDouble(double bound) {
+		if (!(bound > 0.0)) {
+			throw new IllegalArgumentException(BadBound);
+		}
+		double result = (nextLong() >>> 11) * DOUBLE_UNIT * bound;
+		return (result < bound) ? result : // correct for rounding
+				Double.longBitsToDouble(Double.doubleToLongBits(bound) - 1);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code double} value between the specified origin
+	 * (inclusive) and bound (exclusive).
+	 *
+	 * @param origin
+	 *            the least value returned
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @return a pseudorandom {@code double} value between the origin
+	 *         (inclusive) and the bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public double nextDouble(double origin, double bound) {
+		if (!(origin < bound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return internalNextDouble(origin, bound);
+	}
+
+	/**
+	 * Returns a pseudorandom {@code boolean} value.
+	 *
+	 * @return a pseudorandom {@code boolean} value
+	 */
+	public boolean nextBoolean() {
+		return nextLong() < 0L;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values, the same
+	 * values as would be returned by successive calls to {@link #nextInt()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextInts(int[] a) {
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = (int) (nextLong() >>> 32);
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values, the same
+	 * values as would be returned by successive calls to {@link #nextLong()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextLongs(long[] a) {
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = nextLong();
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * zero (inclusive) and one (exclusive), the same values as would be
+	 * returned by successive calls to {@link #nextDouble()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextDoubles(double[] a) {
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = (nextLong() >>> 11) * DOUBLE_UNIT;
+		}
+	}
+
+	// stream methods, coded in a way intended to better isolate for
+	// maintenance purposes the small differences across forms.
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code int} values from this generator and/or one split from
+	 * it.
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @return a stream of pseudorandom {@code int} values
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 */
+	public IntStream ints(long streamSize) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		return StreamSupport.intStream(new RandomIntsSpliterator(this, 0L, streamSize, Integer.MAX_VALUE, 0), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code int}
+	 * values from this generator and/or one split from it.
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * ints(Long.MAX_VALUE)}.
+	 *
+	 * @return a stream of pseudorandom {@code int} values
+	 */
+	public IntStream ints() {
+		return StreamSupport.intStream(new RandomIntsSpliterator(this, 0L, Long.MAX_VALUE, Integer.MAX_VALUE, 0), false);
+	}
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code int} values from this generator and/or one split from
+	 * it; each value conforms to the given origin (inclusive) and bound
+	 * (exclusive).
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code int} values, each with the given
+	 *         origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero, or
+	 *             {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public IntStream ints(long streamSize, int randomNumberOrigin, int randomNumberBound) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		if (randomNumberOrigin >= randomNumberBound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.intStream(new RandomIntsSpliterator(this, 0L, streamSize, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code
+	 * int} values from this generator and/or one split from it; each value
+	 * conforms to the given origin (inclusive) and bound (exclusive).
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * ints(Long.MAX_VALUE, randomNumberOrigin, randomNumberBound)}.
+	 *
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code int} values, each with the given
+	 *         origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public IntStream ints(int randomNumberOrigin, int randomNumberBound) {
+		if (randomNumberOrigin >= randomNumberBound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.intStream(new RandomIntsSpliterator(this, 0L, Long.MAX_VALUE, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code long} values from this generator and/or one split
+	 * from it.
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @return a stream of pseudorandom {@code long} values
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 */
+	public LongStream longs(long streamSize) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		return StreamSupport.longStream(new RandomLongsSpliterator(this, 0L, streamSize, Long.MAX_VALUE, 0L), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code
+	 * long} values from this generator and/or one split from it.
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * longs(Long.MAX_VALUE)}.
+	 *
+	 * @return a stream of pseudorandom {@code long} values
+	 */
+	public LongStream longs() {
+		return StreamSupport.longStream(new RandomLongsSpliterator(this, 0L, Long.MAX_VALUE, Long.MAX_VALUE, 0L), false);
+	}
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code long} values from this generator and/or one split
+	 * from it; each value conforms to the given origin (inclusive) and bound
+	 * (exclusive).
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code long} values, each with the given
+	 *         origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero, or
+	 *             {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public LongStream longs(long streamSize, long randomNumberOrigin, long randomNumberBound) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		if (randomNumberOrigin >= randomNumberBound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.longStream(new RandomLongsSpliterator(this, 0L, streamSize, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code
+	 * long} values from this generator and/or one split from it; each value
+	 * conforms to the given origin (inclusive) and bound (exclusive).
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * longs(Long.MAX_VALUE, randomNumberOrigin, randomNumberBound)}.
+	 *
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code long} values, each with the given
+	 *         origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public LongStream longs(long randomNumberOrigin, long randomNumberBound) {
+		if (randomNumberOrigin >= randomNumberBound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.longStream(new RandomLongsSpliterator(this, 0L, Long.MAX_VALUE, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code double} values from this generator and/or one split
+	 * from it; each value is between zero (inclusive) and one (exclusive).
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @return a stream of {@code double} values
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 */
+	public DoubleStream doubles(long streamSize) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		return StreamSupport.doubleStream(new RandomDoublesSpliterator(this, 0L, streamSize, Double.MAX_VALUE, 0.0), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code
+	 * double} values from this generator and/or one split from it; each value
+	 * is between zero (inclusive) and one (exclusive).
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * doubles(Long.MAX_VALUE)}.
+	 *
+	 * @return a stream of pseudorandom {@code double} values
+	 */
+	public DoubleStream doubles() {
+		return StreamSupport.doubleStream(new RandomDoublesSpliterator(this, 0L, Long.MAX_VALUE, Double.MAX_VALUE, 0.0), false);
+	}
+
+	/**
+	 * Returns a stream producing the given {@code streamSize} number of
+	 * pseudorandom {@code double} values from this generator and/or one split
+	 * from it; each value conforms to the given origin (inclusive) and bound
+	 * (exclusive).
+	 *
+	 * @param streamSize
+	 *            the number of values to generate
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code double} values, each with the
+	 *         given origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 * @throws IllegalArgumentException
+	 *             if {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public DoubleStream doubles(long streamSize, double randomNumberOrigin, double randomNumberBound) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		if (!(randomNumberOrigin < randomNumberBound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.doubleStream(new RandomDoublesSpliterator(this, 0L, streamSize, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Returns an effectively unlimited stream of pseudorandom {@code
+	 * double} values from this generator and/or one split from it; each value
+	 * conforms to the given origin (inclusive) and bound (exclusive).
+	 *
+	 * @implNote This method is implemented to be equivalent to {@code
+	 * doubles(Long.MAX_VALUE, randomNumberOrigin, randomNumberBound)}.
+	 *
+	 * @param randomNumberOrigin
+	 *            the origin (inclusive) of each random value
+	 * @param randomNumberBound
+	 *            the bound (exclusive) of each random value
+	 * @return a stream of pseudorandom {@code double} values, each with the
+	 *         given origin (inclusive) and bound (exclusive)
+	 * @throws IllegalArgumentException
+	 *             if {@code randomNumberOrigin} is greater than or equal to
+	 *             {@code randomNumberBound}
+	 */
+	public DoubleStream doubles(double randomNumberOrigin, double randomNumberBound) {
+		if (!(randomNumberOrigin < randomNumberBound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		return StreamSupport.doubleStream(new RandomDoublesSpliterator(this, 0L, Long.MAX_VALUE, randomNumberOrigin, randomNumberBound), false);
+	}
+
+	/**
+	 * Spliterator for int streams. We multiplex the four int versions into one
+	 * class by treating a bound less than origin as unbounded, and also by
+	 * treating "infinite" as equivalent to Long.MAX_VALUE. For splits, it uses
+	 * the standard divide-by-two approach. The long and double versions of this
+	 * class are identical except for types.
+	 */
+	static final class RandomIntsSpliterator implements Spliterator.OfInt {
+		final AbstractSplittableGenerator rng;
+		long index;
+		final long fence;
+		final int origin;
+		final int bound;
+
+		RandomIntsSpliterator(AbstractSplittableGenerator rng, long index, long fence, int origin, int bound) {
+			this.rng = rng;
+			this.index = index;
+			this.fence = fence;
+			this.origin = origin;
+			this.bound = bound;
+		}
+
+		public RandomIntsSpliterator trySplit() {
+			long i = index, m = (i + fence) >>> 1;
+			return (m <= i) ? null : new RandomIntsSpliterator(rng.split(), i, index = m, origin, bound);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return (Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		}
+
+		public boolean tryAdvance(IntConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				consumer.accept(rng.internalNextInt(origin, bound));
+				index = i + 1;
+				return true;
+			}
+			return false;
+		}
+
+		public void forEachRemaining(IntConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				index = f;
+				AbstractSplittableGenerator r = rng;
+				int o = origin, b = bound;
+				do {
+					consumer.accept(r.internalNextInt(o, b));
+				} while (++i < f);
+			}
+		}
+	}
+
+	/**
+	 * Spliterator for long streams.
+	 */
+	static final class RandomLongsSpliterator implements Spliterator.OfLong {
+		final AbstractSplittableGenerator rng;
+		long index;
+		final long fence;
+		final long origin;
+		final long bound;
+
+		RandomLongsSpliterator(AbstractSplittableGenerator rng, long index, long fence, long origin, long bound) {
+			this.rng = rng;
+			this.index = index;
+			this.fence = fence;
+			this.origin = origin;
+			this.bound = bound;
+		}
+
+		public RandomLongsSpliterator trySplit() {
+			long i = index, m = (i + fence) >>> 1;
+			return (m <= i) ? null : new RandomLongsSpliterator(rng.split(), i, index = m, origin, bound);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return (Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		}
+
+		public boolean tryAdvance(LongConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				consumer.accept(rng.internalNextLong(origin, bound));
+				index = i + 1;
+				return true;
+			}
+			return false;
+		}
+
+		public void forEachRemaining(LongConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				index = f;
+				AbstractSplittableGenerator r = rng;
+				long o = origin, b = bound;
+				do {
+					consumer.accept(r.internalNextLong(o, b));
+				} while (++i < f);
+			}
+		}
+
+	}
+
+	/**
+	 * Spliterator for double streams.
+	 */
+	static final class RandomDoublesSpliterator implements Spliterator.OfDouble {
+		final AbstractSplittableGenerator rng;
+		long index;
+		final long fence;
+		final double origin;
+		final double bound;
+
+		RandomDoublesSpliterator(AbstractSplittableGenerator rng, long index, long fence, double origin, double bound) {
+			this.rng = rng;
+			this.index = index;
+			this.fence = fence;
+			this.origin = origin;
+			this.bound = bound;
+		}
+
+		public RandomDoublesSpliterator trySplit() {
+			long i = index, m = (i + fence) >>> 1;
+			return (m <= i) ? null : new RandomDoublesSpliterator(rng.split(), i, index = m, origin, bound);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return (Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		}
+
+		public boolean tryAdvance(DoubleConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				consumer.accept(rng.internalNextDouble(origin, bound));
+				index = i + 1;
+				return true;
+			}
+			return false;
+		}
+
+		public void forEachRemaining(DoubleConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			long i = index, f = fence;
+			if (i < f) {
+				index = f;
+				AbstractSplittableGenerator r = rng;
+				double o = origin, b = bound;
+				do {
+					consumer.accept(r.internalNextDouble(o, b));
+				} while (++i < f);
+			}
+		}
+	}
+
+}
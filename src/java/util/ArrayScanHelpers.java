@@ -0,0 +1,692 @@
+package java.util;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * ForkJoin tasks to perform the Arrays.parallelExclusivePrefix,
+ * parallelSegmentedPrefix, parallelFilter, parallelPartition and
+ * parallelHistogram operations.
+ */
+class ArrayScanHelpers {
+	private ArrayScanHelpers() {
+	} // non-instantiable
+
+	/*
+	 * Unlike the tree-structured tasks of ArrayPrefixHelpers, these
+	 * operations use the simpler reduce-then-scan scheme: the range is split
+	 * into a few chunks per worker, a first parallel pass computes a summary
+	 * of each chunk (its sum, the sum of its last segment, or its number of
+	 * matching elements), a sequential scan of the summaries gives the
+	 * starting value or output offset of each chunk, and a second parallel
+	 * pass processes each chunk from its starting value. The number of chunks
+	 * is small, so the sequential scan is negligible, and each pass reads the
+	 * chunks in order. The last chunk needs no summary, and the first chunk
+	 * needs no starting value, which avoids requiring an identity for
+	 * inclusive scans.
+	 *
+	 * Filtering and partitioning record the result of the predicate in the
+	 * first pass, so that it is evaluated once per element, and are stable.
+	 * Histograms count each chunk into a private table, which are summed at
+	 * the end; chunks are made at least as large as the table so that the
+	 * sum costs no more than the counting.
+	 *
+	 * As in ArrayPrefixHelpers there are 4 versions, that are simple
+	 * copy/paste/adapt variants of each other.
+	 */
+
+	/** The smallest chunk size to use */
+	static final int MIN_CHUNK = 1 << 12;
+
+	static int chunkSize(int n, int min) {
+		int p = n / (ForkJoinPool.getCommonPoolParallelism() << 3);
+		return (p <= min) ? min : p;
+	}
+
+	static int chunkCount(int n, int size) {
+		return ((n - 1) / size) + 1;
+	}
+
+	/**
+	 * Runs the action on each chunk index in {@code [0, chunks)}, in
+	 * parallel, and waits for their completion.
+	 */
+	static void forEachChunk(int chunks, IntConsumer action) {
+		if (chunks == 1) {
+			action.accept(0);
+		} else if (chunks > 1) {
+			new ChunkTask(null, action, 0, chunks).invoke();
+		}
+	}
+
+	static final class ChunkTask extends CountedCompleter<Void> {
+		static final long serialVersionUID = 5212383207914312461L;
+		final IntConsumer action;
+		final int lo, hi;
+
+		ChunkTask(ChunkTask parent, IntConsumer action, int lo, int hi) {
+			super(parent);
+			this.action = action;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		public final void compute() {
+			int l = lo, h = hi;
+			while ((h - l) > 1) {
+				int mid = (l + h) >>> 1;
+				addToPendingCount(1);
+				new ChunkTask(this, action, mid, h).fork();
+				h = mid;
+			}
+			action.accept(l);
+			propagateCompletion();
+		}
+	}
+
+	/** Sums the given tables into the first */
+	static int[] sum(int[][] counts, int bins) {
+		int[] h = counts[0];
+		for (int c = 1; c < counts.length; c++) {
+			int[] t = counts[c];
+			for (int b = 0; b < bins; b++) {
+				h[b] += t[b];
+			}
+		}
+		return h;
+	}
+
+	// Object versions
+
+	@SuppressWarnings("unchecked")
+	static <T> void exclusiveCumulate(T[] a, int from, int to, T identity, BinaryOperator<T> op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final T[] sums = (T[]) new Object[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), hi = lo + size;
+			T s = a[lo];
+			for (int i = lo + 1; i < hi; i++) {
+				s = op.apply(s, a[i]);
+			}
+			sums[c] = s;
+		});
+		T acc = identity;
+		for (int c = 0; c < chunks; c++) {
+			T s = sums[c];
+			sums[c] = acc;
+			if ((c + 1) < chunks) {
+				acc = op.apply(acc, s);
+			}
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size);
+			T s = sums[c];
+			for (int i = lo; i < hi; i++) {
+				T v = a[i];
+				a[i] = s;
+				s = op.apply(s, v);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> void segmentedCumulate(T[] a, boolean[] starts, int from, int to, BinaryOperator<T> op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final T[] tails = (T[]) new Object[chunks];
+		final boolean[] closed = new boolean[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), i = (lo + size) - 1;
+			T s = a[i];
+			while ((i > lo) && !starts[i]) {
+				s = op.apply(a[--i], s);
+			}
+			tails[c] = s;
+			closed[c] = starts[i] || (i == from);
+		});
+		final T[] carries = (T[]) new Object[chunks];
+		for (int c = 1; c < chunks; c++) {
+			carries[c] = (closed[c - 1]) ? tails[c - 1] : op.apply(carries[c - 1], tails[c - 1]);
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size), i = lo;
+			T s;
+			if (c == 0) {
+				s = a[i++];
+			} else {
+				s = carries[c];
+			}
+			for (; i < hi; i++) {
+				a[i] = s = (starts[i]) ? a[i] : op.apply(s, a[i]);
+			}
+		});
+	}
+
+	/**
+	 * Evaluates the predicate on each element into marks, and returns the
+	 * number of matching elements before each chunk, followed by the total.
+	 */
+	private static <T> int[] mark(T[] a, Predicate<? super T> p, boolean[] marks, int size, int chunks) {
+		final int n = a.length;
+		final int[] offsets = new int[chunks + 1];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size), k = 0;
+			for (int i = lo; i < hi; i++) {
+				if (marks[i] = p.test(a[i])) {
+					k++;
+				}
+			}
+			offsets[c] = k;
+		});
+		for (int c = 0, total = 0; c <= chunks; c++) {
+			int k = offsets[c];
+			offsets[c] = total;
+			total += k;
+		}
+		return offsets;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T[] filter(T[] a, Predicate<? super T> p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if (total == n) {
+			return a.clone();
+		}
+		final T[] out = (T[]) Array.newInstance(a.getClass().getComponentType(), total);
+		if (total > 0) {
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c];
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						out[k++] = a[i];
+					}
+				}
+			});
+		}
+		return out;
+	}
+
+	static <T> int partition(T[] a, Predicate<? super T> p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if ((total > 0) && (total < n)) {
+			final T[] src = a.clone();
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c], j = (total + lo) - k;
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						a[k++] = src[i];
+					} else {
+						a[j++] = src[i];
+					}
+				}
+			});
+		}
+		return total;
+	}
+
+	static <T> int[] histogram(T[] a, int bins, ToIntFunction<? super T> binner) {
+		final int n = a.length, size = chunkSize(n, Math.max(MIN_CHUNK, bins)), chunks = chunkCount(n, size);
+		final int[][] counts = new int[chunks][];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size);
+			int[] h = new int[bins];
+			for (int i = lo; i < hi; i++) {
+				h[binner.applyAsInt(a[i])]++;
+			}
+			counts[c] = h;
+		});
+		return sum(counts, bins);
+	}
+
+	// int versions
+
+	static void exclusiveCumulate(int[] a, int from, int to, int identity, IntBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final int[] sums = new int[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), hi = lo + size;
+			int s = a[lo];
+			for (int i = lo + 1; i < hi; i++) {
+				s = op.applyAsInt(s, a[i]);
+			}
+			sums[c] = s;
+		});
+		int acc = identity;
+		for (int c = 0; c < chunks; c++) {
+			int s = sums[c];
+			sums[c] = acc;
+			if ((c + 1) < chunks) {
+				acc = op.applyAsInt(acc, s);
+			}
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size);
+			int s = sums[c];
+			for (int i = lo; i < hi; i++) {
+				int v = a[i];
+				a[i] = s;
+				s = op.applyAsInt(s, v);
+			}
+		});
+	}
+
+	static void segmentedCumulate(int[] a, boolean[] starts, int from, int to, IntBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final int[] tails = new int[chunks];
+		final boolean[] closed = new boolean[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), i = (lo + size) - 1;
+			int s = a[i];
+			while ((i > lo) && !starts[i]) {
+				s = op.applyAsInt(a[--i], s);
+			}
+			tails[c] = s;
+			closed[c] = starts[i] || (i == from);
+		});
+		final int[] carries = new int[chunks];
+		for (int c = 1; c < chunks; c++) {
+			carries[c] = (closed[c - 1]) ? tails[c - 1] : op.applyAsInt(carries[c - 1], tails[c - 1]);
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size), i = lo;
+			int s;
+			if (c == 0) {
+				s = a[i++];
+			} else {
+				s = carries[c];
+			}
+			for (; i < hi; i++) {
+				a[i] = s = (starts[i]) ? a[i] : op.applyAsInt(s, a[i]);
+			}
+		});
+	}
+
+	/**
+	 * Evaluates the predicate on each element into marks, and returns the
+	 * number of matching elements before each chunk, followed by the total.
+	 */
+	private static int[] mark(int[] a, IntPredicate p, boolean[] marks, int size, int chunks) {
+		final int n = a.length;
+		final int[] offsets = new int[chunks + 1];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size), k = 0;
+			for (int i = lo; i < hi; i++) {
+				if (marks[i] = p.test(a[i])) {
+					k++;
+				}
+			}
+			offsets[c] = k;
+		});
+		for (int c = 0, total = 0; c <= chunks; c++) {
+			int k = offsets[c];
+			offsets[c] = total;
+			total += k;
+		}
+		return offsets;
+	}
+
+	static int[] filter(int[] a, IntPredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if (total == n) {
+			return a.clone();
+		}
+		final int[] out = new int[total];
+		if (total > 0) {
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c];
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						out[k++] = a[i];
+					}
+				}
+			});
+		}
+		return out;
+	}
+
+	static int partition(int[] a, IntPredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if ((total > 0) && (total < n)) {
+			final int[] src = a.clone();
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c], j = (total + lo) - k;
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						a[k++] = src[i];
+					} else {
+						a[j++] = src[i];
+					}
+				}
+			});
+		}
+		return total;
+	}
+
+	static int[] histogram(int[] a, int bins, IntUnaryOperator binner) {
+		final int n = a.length, size = chunkSize(n, Math.max(MIN_CHUNK, bins)), chunks = chunkCount(n, size);
+		final int[][] counts = new int[chunks][];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size);
+			int[] h = new int[bins];
+			for (int i = lo; i < hi; i++) {
+				h[binner.applyAsInt(a[i])]++;
+			}
+			counts[c] = h;
+		});
+		return sum(counts, bins);
+	}
+
+	// long versions
+
+	static void exclusiveCumulate(long[] a, int from, int to, long identity, LongBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final long[] sums = new long[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), hi = lo + size;
+			long s = a[lo];
+			for (int i = lo + 1; i < hi; i++) {
+				s = op.applyAsLong(s, a[i]);
+			}
+			sums[c] = s;
+		});
+		long acc = identity;
+		for (int c = 0; c < chunks; c++) {
+			long s = sums[c];
+			sums[c] = acc;
+			if ((c + 1) < chunks) {
+				acc = op.applyAsLong(acc, s);
+			}
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size);
+			long s = sums[c];
+			for (int i = lo; i < hi; i++) {
+				long v = a[i];
+				a[i] = s;
+				s = op.applyAsLong(s, v);
+			}
+		});
+	}
+
+	static void segmentedCumulate(long[] a, boolean[] starts, int from, int to, LongBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final long[] tails = new long[chunks];
+		final boolean[] closed = new boolean[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), i = (lo + size) - 1;
+			long s = a[i];
+			while ((i > lo) && !starts[i]) {
+				s = op.applyAsLong(a[--i], s);
+			}
+			tails[c] = s;
+			closed[c] = starts[i] || (i == from);
+		});
+		final long[] carries = new long[chunks];
+		for (int c = 1; c < chunks; c++) {
+			carries[c] = (closed[c - 1]) ? tails[c - 1] : op.applyAsLong(carries[c - 1], tails[c - 1]);
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size), i = lo;
+			long s;
+			if (c == 0) {
+				s = a[i++];
+			} else {
+				s = carries[c];
+			}
+			for (; i < hi; i++) {
+				a[i] = s = (starts[i]) ? a[i] : op.applyAsLong(s, a[i]);
+			}
+		});
+	}
+
+	/**
+	 * Evaluates the predicate on each element into marks, and returns the
+	 * number of matching elements before each chunk, followed by the total.
+	 */
+	private static int[] mark(long[] a, LongPredicate p, boolean[] marks, int size, int chunks) {
+		final int n = a.length;
+		final int[] offsets = new int[chunks + 1];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size), k = 0;
+			for (int i = lo; i < hi; i++) {
+				if (marks[i] = p.test(a[i])) {
+					k++;
+				}
+			}
+			offsets[c] = k;
+		});
+		for (int c = 0, total = 0; c <= chunks; c++) {
+			int k = offsets[c];
+			offsets[c] = total;
+			total += k;
+		}
+		return offsets;
+	}
+
+	static long[] filter(long[] a, LongPredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if (total == n) {
+			return a.clone();
+		}
+		final long[] out = new long[total];
+		if (total > 0) {
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c];
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						out[k++] = a[i];
+					}
+				}
+			});
+		}
+		return out;
+	}
+
+	static int partition(long[] a, LongPredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if ((total > 0) && (total < n)) {
+			final long[] src = a.clone();
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c], j = (total + lo) - k;
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						a[k++] = src[i];
+					} else {
+						a[j++] = src[i];
+					}
+				}
+			});
+		}
+		return total;
+	}
+
+	static int[] histogram(long[] a, int bins, LongToIntFunction binner) {
+		final int n = a.length, size = chunkSize(n, Math.max(MIN_CHUNK, bins)), chunks = chunkCount(n, size);
+		final int[][] counts = new int[chunks][];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size);
+			int[] h = new int[bins];
+			for (int i = lo; i < hi; i++) {
+				h[binner.applyAsInt(a[i])]++;
+			}
+			counts[c] = h;
+		});
+		return sum(counts, bins);
+	}
+
+	// double versions
+
+	static void exclusiveCumulate(double[] a, int from, int to, double identity, DoubleBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final double[] sums = new double[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), hi = lo + size;
+			double s = a[lo];
+			for (int i = lo + 1; i < hi; i++) {
+				s = op.applyAsDouble(s, a[i]);
+			}
+			sums[c] = s;
+		});
+		double acc = identity;
+		for (int c = 0; c < chunks; c++) {
+			double s = sums[c];
+			sums[c] = acc;
+			if ((c + 1) < chunks) {
+				acc = op.applyAsDouble(acc, s);
+			}
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size);
+			double s = sums[c];
+			for (int i = lo; i < hi; i++) {
+				double v = a[i];
+				a[i] = s;
+				s = op.applyAsDouble(s, v);
+			}
+		});
+	}
+
+	static void segmentedCumulate(double[] a, boolean[] starts, int from, int to, DoubleBinaryOperator op) {
+		final int size = chunkSize(to - from, MIN_CHUNK), chunks = chunkCount(to - from, size);
+		final double[] tails = new double[chunks];
+		final boolean[] closed = new boolean[chunks];
+		forEachChunk(chunks - 1, c -> {
+			int lo = from + (c * size), i = (lo + size) - 1;
+			double s = a[i];
+			while ((i > lo) && !starts[i]) {
+				s = op.applyAsDouble(a[--i], s);
+			}
+			tails[c] = s;
+			closed[c] = starts[i] || (i == from);
+		});
+		final double[] carries = new double[chunks];
+		for (int c = 1; c < chunks; c++) {
+			carries[c] = (closed[c - 1]) ? tails[c - 1] : op.applyAsDouble(carries[c - 1], tails[c - 1]);
+		}
+		forEachChunk(chunks, c -> {
+			int lo = from + (c * size), hi = Math.min(to, lo + size), i = lo;
+			double s;
+			if (c == 0) {
+				s = a[i++];
+			} else {
+				s = carries[c];
+			}
+			for (; i < hi; i++) {
+				a[i] = s = (starts[i]) ? a[i] : op.applyAsDouble(s, a[i]);
+			}
+		});
+	}
+
+	/**
+	 * Evaluates the predicate on each element into marks, and returns the
+	 * number of matching elements before each chunk, followed by the total.
+	 */
+	private static int[] mark(double[] a, DoublePredicate p, boolean[] marks, int size, int chunks) {
+		final int n = a.length;
+		final int[] offsets = new int[chunks + 1];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size), k = 0;
+			for (int i = lo; i < hi; i++) {
+				if (marks[i] = p.test(a[i])) {
+					k++;
+				}
+			}
+			offsets[c] = k;
+		});
+		for (int c = 0, total = 0; c <= chunks; c++) {
+			int k = offsets[c];
+			offsets[c] = total;
+			total += k;
+		}
+		return offsets;
+	}
+
+	static double[] filter(double[] a, DoublePredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if (total == n) {
+			return a.clone();
+		}
+		final double[] out = new double[total];
+		if (total > 0) {
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c];
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						out[k++] = a[i];
+					}
+				}
+			});
+		}
+		return out;
+	}
+
+	static int partition(double[] a, DoublePredicate p) {
+		final int n = a.length, size = chunkSize(n, MIN_CHUNK), chunks = chunkCount(n, size);
+		final boolean[] marks = new boolean[n];
+		final int[] offsets = mark(a, p, marks, size, chunks);
+		final int total = offsets[chunks];
+		if ((total > 0) && (total < n)) {
+			final double[] src = a.clone();
+			forEachChunk(chunks, c -> {
+				int lo = c * size, hi = Math.min(n, lo + size), k = offsets[c], j = (total + lo) - k;
+				for (int i = lo; i < hi; i++) {
+					if (marks[i]) {
+						a[k++] = src[i];
+					} else {
+						a[j++] = src[i];
+					}
+				}
+			});
+		}
+		return total;
+	}
+
+	static int[] histogram(double[] a, int bins, DoubleToIntFunction binner) {
+		final int n = a.length, size = chunkSize(n, Math.max(MIN_CHUNK, bins)), chunks = chunkCount(n, size);
+		final int[][] counts = new int[chunks][];
+		forEachChunk(chunks, c -> {
+			int lo = c * size, hi = Math.min(n, lo + size);
+			int[] h = new int[bins];
+			for (int i = lo; i < hi; i++) {
+				h[binner.applyAsInt(a[i])]++;
+			}
+			counts[c] = h;
+		});
+		return sum(counts, bins);
+	}
+}
@@ -5,12 +5,21 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
 import java.util.function.IntBinaryOperator;
 import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
 import java.util.function.IntToDoubleFunction;
 import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
 import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
@@ -46,22 +55,82 @@ public class Arrays {
 		}
 	}
 
+	private static void workCheck(int workLength, int n) {
+		if (workLength < n) {
+			throw new IllegalArgumentException("work.length(" + workLength + ") < " + n);
+		}
+	}
+
 	public static void sort(int[] a) {
-		DualPivotQuicksort.sort(a, 0, a.length - 1, null, 0, 0);
+		RadixSort.sort(a, 0, a.length, null);
 	}
 
 	public static void sort(int[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+		RadixSort.sort(a, fromIndex, toIndex, null);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #sort(int[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void sort(int[] a, int fromIndex, int toIndex, int[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		workCheck(work.length, toIndex - fromIndex);
+		RadixSort.sort(a, fromIndex, toIndex, work);
 	}
 
 	public static void sort(long[] a) {
-		DualPivotQuicksort.sort(a, 0, a.length - 1, null, 0, 0);
+		RadixSort.sort(a, 0, a.length, null);
 	}
 
 	public static void sort(long[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+		RadixSort.sort(a, fromIndex, toIndex, null);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #sort(long[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void sort(long[] a, int fromIndex, int toIndex, long[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		workCheck(work.length, toIndex - fromIndex);
+		RadixSort.sort(a, fromIndex, toIndex, work);
 	}
 
 	public static void sort(short[] a) {
@@ -92,21 +161,75 @@ public class Arrays {
 	}
 
 	public static void sort(float[] a) {
-		DualPivotQuicksort.sort(a, 0, a.length - 1, null, 0, 0);
+		RadixSort.sort(a, 0, a.length, null);
 	}
 
 	public static void sort(float[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+		RadixSort.sort(a, fromIndex, toIndex, null);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #sort(float[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void sort(float[] a, int fromIndex, int toIndex, float[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		workCheck(work.length, toIndex - fromIndex);
+		RadixSort.sort(a, fromIndex, toIndex, work);
 	}
 
 	public static void sort(double[] a) {
-		DualPivotQuicksort.sort(a, 0, a.length - 1, null, 0, 0);
+		RadixSort.sort(a, 0, a.length, null);
 	}
 
 	public static void sort(double[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+		RadixSort.sort(a, fromIndex, toIndex, null);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #sort(double[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void sort(double[] a, int fromIndex, int toIndex, double[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		workCheck(work.length, toIndex - fromIndex);
+		RadixSort.sort(a, fromIndex, toIndex, work);
 	}
 
 	/**
@@ -328,17 +451,15 @@ public class Arrays {
 	/**
 	 * Sorts the specified array into ascending numerical order.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(int[]) Arrays.sort} method. If the length of
-	 *           the specified array is less than the minimum granularity, then
-	 *           it is sorted using the appropriate {@link Arrays#sort(int[])
-	 *           Arrays.sort} method. The algorithm requires a working space no
-	 *           greater than the size of the original array. The
-	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
-	 *           to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(int[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -346,11 +467,11 @@ public class Arrays {
 	 * @since 1.8
 	 */
 	public static void parallelSort(int[] a) {
-		int n = a.length, p, g;
+		int n = a.length, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+			RadixSort.sort(a, 0, n, null);
 		} else {
-			new ArraysParallelSortHelpers.FJInt.Sorter(null, a, new int[n], 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, 0, n, null, p);
 		}
 	}
 
@@ -360,17 +481,15 @@ public class Arrays {
 	 * inclusive, to the index {@code toIndex}, exclusive. If
 	 * {@code fromIndex == toIndex}, the range to be sorted is empty.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(int[]) Arrays.sort} method. If the length of
-	 *           the specified array is less than the minimum granularity, then
-	 *           it is sorted using the appropriate {@link Arrays#sort(int[])
-	 *           Arrays.sort} method. The algorithm requires a working space no
-	 *           greater than the size of the specified range of the original
-	 *           array. The {@link ForkJoinPool#commonPool() ForkJoin common
-	 *           pool} is used to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(int[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -388,28 +507,58 @@ public class Arrays {
 	 */
 	public static void parallelSort(int[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		int n = toIndex - fromIndex, p, g;
+		int n = toIndex - fromIndex, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+			RadixSort.sort(a, fromIndex, toIndex, null);
+		} else {
+			RadixSort.parallelSort(a, fromIndex, toIndex, null, p);
+		}
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #parallelSort(int[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void parallelSort(int[] a, int fromIndex, int toIndex, int[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		workCheck(work.length, n);
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			RadixSort.sort(a, fromIndex, toIndex, work);
 		} else {
-			new ArraysParallelSortHelpers.FJInt.Sorter(null, a, new int[n], fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, fromIndex, toIndex, work, p);
 		}
 	}
 
 	/**
 	 * Sorts the specified array into ascending numerical order.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(long[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(long[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           original array. The {@link ForkJoinPool#commonPool() ForkJoin
-	 *           common pool} is used to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(long[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -417,11 +566,11 @@ public class Arrays {
 	 * @since 1.8
 	 */
 	public static void parallelSort(long[] a) {
-		int n = a.length, p, g;
+		int n = a.length, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+			RadixSort.sort(a, 0, n, null);
 		} else {
-			new ArraysParallelSortHelpers.FJLong.Sorter(null, a, new long[n], 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, 0, n, null, p);
 		}
 	}
 
@@ -431,18 +580,15 @@ public class Arrays {
 	 * inclusive, to the index {@code toIndex}, exclusive. If
 	 * {@code fromIndex == toIndex}, the range to be sorted is empty.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(long[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(long[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           specified range of the original array. The
-	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
-	 *           to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(long[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -460,11 +606,43 @@ public class Arrays {
 	 */
 	public static void parallelSort(long[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		int n = toIndex - fromIndex, p, g;
+		int n = toIndex - fromIndex, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+			RadixSort.sort(a, fromIndex, toIndex, null);
+		} else {
+			RadixSort.parallelSort(a, fromIndex, toIndex, null, p);
+		}
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #parallelSort(long[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void parallelSort(long[] a, int fromIndex, int toIndex, long[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		workCheck(work.length, n);
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			RadixSort.sort(a, fromIndex, toIndex, work);
 		} else {
-			new ArraysParallelSortHelpers.FJLong.Sorter(null, a, new long[n], fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, fromIndex, toIndex, work, p);
 		}
 	}
 
@@ -480,17 +658,15 @@ public class Arrays {
 	 * {@code 0.0f} and {@code Float.NaN} is considered greater than any other
 	 * value and all {@code Float.NaN} values are considered equal.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(float[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(float[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           original array. The {@link ForkJoinPool#commonPool() ForkJoin
-	 *           common pool} is used to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(float[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -498,11 +674,11 @@ public class Arrays {
 	 * @since 1.8
 	 */
 	public static void parallelSort(float[] a) {
-		int n = a.length, p, g;
+		int n = a.length, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+			RadixSort.sort(a, 0, n, null);
 		} else {
-			new ArraysParallelSortHelpers.FJFloat.Sorter(null, a, new float[n], 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, 0, n, null, p);
 		}
 	}
 
@@ -521,18 +697,15 @@ public class Arrays {
 	 * {@code 0.0f} and {@code Float.NaN} is considered greater than any other
 	 * value and all {@code Float.NaN} values are considered equal.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(float[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(float[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           specified range of the original array. The
-	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
-	 *           to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(float[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -550,11 +723,43 @@ public class Arrays {
 	 */
 	public static void parallelSort(float[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		int n = toIndex - fromIndex, p, g;
+		int n = toIndex - fromIndex, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+			RadixSort.sort(a, fromIndex, toIndex, null);
+		} else {
+			RadixSort.parallelSort(a, fromIndex, toIndex, null, p);
+		}
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #parallelSort(float[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void parallelSort(float[] a, int fromIndex, int toIndex, float[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		workCheck(work.length, n);
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			RadixSort.sort(a, fromIndex, toIndex, work);
 		} else {
-			new ArraysParallelSortHelpers.FJFloat.Sorter(null, a, new float[n], fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, fromIndex, toIndex, work, p);
 		}
 	}
 
@@ -570,17 +775,15 @@ public class Arrays {
 	 * {@code 0.0d} and {@code Double.NaN} is considered greater than any other
 	 * value and all {@code Double.NaN} values are considered equal.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(double[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(double[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           original array. The {@link ForkJoinPool#commonPool() ForkJoin
-	 *           common pool} is used to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(double[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -588,11 +791,11 @@ public class Arrays {
 	 * @since 1.8
 	 */
 	public static void parallelSort(double[] a) {
-		int n = a.length, p, g;
+		int n = a.length, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+			RadixSort.sort(a, 0, n, null);
 		} else {
-			new ArraysParallelSortHelpers.FJDouble.Sorter(null, a, new double[n], 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, 0, n, null, p);
 		}
 	}
 
@@ -611,18 +814,15 @@ public class Arrays {
 	 * {@code 0.0d} and {@code Double.NaN} is considered greater than any other
 	 * value and all {@code Double.NaN} values are considered equal.
 	 *
-	 * @implNote The sorting algorithm is a parallel sort-merge that breaks the
-	 *           array into sub-arrays that are themselves sorted and then
-	 *           merged. When the sub-array length reaches a minimum
-	 *           granularity, the sub-array is sorted using the appropriate
-	 *           {@link Arrays#sort(double[]) Arrays.sort} method. If the length
-	 *           of the specified array is less than the minimum granularity,
-	 *           then it is sorted using the appropriate
-	 *           {@link Arrays#sort(double[]) Arrays.sort} method. The algorithm
-	 *           requires a working space no greater than the size of the
-	 *           specified range of the original array. The
-	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
-	 *           to execute any parallel tasks.
+	 * @implNote The sorting algorithm is a least-significant-digit radix
+	 *           sort, taking one byte of the keys per pass, in which the
+	 *           array is divided into chunks that are counted and scattered
+	 *           in parallel. Arrays shorter than the minimum granularity, and
+	 *           short enough that a comparison sort is faster, are sorted
+	 *           using the appropriate {@link Arrays#sort(double[]) Arrays.sort}
+	 *           method. The algorithm requires a working space of the size of
+	 *           the range to be sorted. The {@link ForkJoinPool#commonPool()
+	 *           ForkJoin common pool} is used to execute any parallel tasks.
 	 *
 	 * @param a
 	 *            the array to be sorted
@@ -640,11 +840,43 @@ public class Arrays {
 	 */
 	public static void parallelSort(double[] a, int fromIndex, int toIndex) {
 		rangeCheck(a.length, fromIndex, toIndex);
-		int n = toIndex - fromIndex, p, g;
+		int n = toIndex - fromIndex, p;
 		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
-			DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+			RadixSort.sort(a, fromIndex, toIndex, null);
+		} else {
+			RadixSort.parallelSort(a, fromIndex, toIndex, null, p);
+		}
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending order as by
+	 * {@link #parallelSort(double[], int, int)}, using the given array as working space
+	 * rather than allocating one, so that repeated sorts of large arrays need
+	 * not allocate.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element, inclusive, to be sorted
+	 * @param toIndex
+	 *            the index of the last element, exclusive, to be sorted
+	 * @param work
+	 *            an array of length at least {@code toIndex - fromIndex},
+	 *            whose contents are overwritten
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the work array is too
+	 *             short
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 */
+	public static void parallelSort(double[] a, int fromIndex, int toIndex, double[] work) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		workCheck(work.length, n);
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			RadixSort.sort(a, fromIndex, toIndex, work);
 		} else {
-			new ArraysParallelSortHelpers.FJDouble.Sorter(null, a, new double[n], fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ? MIN_ARRAY_SORT_GRAN : g).invoke();
+			RadixSort.parallelSort(a, fromIndex, toIndex, work, p);
 		}
 	}
 
@@ -875,39 +1107,439 @@ public class Arrays {
 		}
 	}
 
-	/*
-	 * Sorting of complex type arrays.
+	/**
+	 * The length below which sorts by primitive keys use a comparator instead
+	 * of extracting the keys.
 	 */
+	private static final int MIN_KEY_SORT = 1 << 10;
+
 	/**
-	 * Old merge sort implementation can be selected (for compatibility with
-	 * broken comparators) using a system property. Cannot be a static boolean
-	 * in the enclosing class due to circular dependencies. To be removed in a
-	 * future release.
+	 * Sets a[from + i] to the element previously at a[from + order[i]], if
+	 * order is not null.
 	 */
-	static final class LegacyMergeSort {
-		private static final boolean userRequested = java.security.AccessController.doPrivileged(new sun.security.action.GetBooleanAction("java.util.Arrays.useLegacyMergeSort")).booleanValue();
+	private static void permute(Object[] a, int from, int[] order, boolean parallel) {
+		if (order != null) {
+			Object[] src = copyOfRange(a, from, from + order.length);
+			if (parallel) {
+				IntStream.range(0, order.length).parallel().forEach(i -> a[from + i] = src[order[i]]);
+			} else {
+				for (int i = 0; i < order.length; i++) {
+					a[from + i] = src[order[i]];
+				}
+			}
+		}
 	}
 
 	/**
-	 * Sorts the specified array of objects into ascending order, according to
-	 * the {@linkplain Comparable natural ordering} of its elements. All
-	 * elements in the array must implement the {@link Comparable} interface.
-	 * Furthermore, all elements in the array must be <i>mutually comparable</i>
-	 * (that is, {@code e1.compareTo(e2)} must not throw a
-	 * {@code ClassCastException} for any elements {@code e1} and {@code e2} in
-	 * the array).
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code int} keys extracted by the given function, as would
+	 * {@code sort(a, Comparator.comparingInt(keyExtractor))}. The key of each
+	 * element is extracted once, and the keys are sorted together with the
+	 * indices of their elements by a radix sort of primitive values, after
+	 * which the elements are moved to their sorted positions. This avoids
+	 * extracting keys from both elements of every comparison, at the cost of
+	 * working space for the keys and indices and a copy of the array.
 	 *
 	 * <p>
-	 * This sort is guaranteed to be <i>stable</i>: equal elements will not be
-	 * reordered as a result of the sort.
+	 * This sort is guaranteed to be <i>stable</i>: elements with equal keys
+	 * will not be reordered as a result of the sort.
 	 *
-	 * <p>
-	 * Implementation note: This implementation is a stable, adaptive, iterative
-	 * mergesort that requires far fewer than n lg(n) comparisons when the input
-	 * array is partially sorted, while offering the performance of a
-	 * traditional mergesort when the input array is randomly ordered. If the
-	 * input array is nearly sorted, the implementation requires approximately n
-	 * comparisons. Temporary storage requirements vary from a small constant
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByIntKey(T[] a, ToIntFunction<? super T> keyExtractor) {
+		sortByIntKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code int} keys extracted by the given function, as by
+	 * {@link #sortByIntKey(Object[], ToIntFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByIntKey(T[] a, int fromIndex, int toIndex, ToIntFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (n < MIN_KEY_SORT) {
+			TimSort.sort(a, fromIndex, toIndex, Comparator.<T> comparingInt(keyExtractor), null, 0, 0);
+		} else {
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = keyExtractor.applyAsInt(a[fromIndex + i]);
+			}
+			permute(a, fromIndex, RadixSort.sortIndices(keys, 1), false);
+		}
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code int} keys extracted by the given function, as by
+	 * {@link #sortByIntKey(Object[], ToIntFunction)}.
+	 *
+	 * @implNote The keys are extracted, radix sorted and permuted in parallel
+	 *           as for {@link #parallelSort(int[])}. Arrays shorter than
+	 *           the minimum granularity are sorted using
+	 *           {@link #sortByIntKey(Object[], ToIntFunction)}. The
+	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
+	 *           to execute any parallel tasks.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByIntKey(T[] a, ToIntFunction<? super T> keyExtractor) {
+		parallelSortByIntKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code int} keys extracted by the given function, as by
+	 * {@link #parallelSortByIntKey(Object[], ToIntFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByIntKey(T[] a, int fromIndex, int toIndex, ToIntFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			sortByIntKey(a, fromIndex, toIndex, keyExtractor);
+		} else {
+			int[] keys = new int[n];
+			parallelSetAll(keys, i -> keyExtractor.applyAsInt(a[fromIndex + i]));
+			permute(a, fromIndex, RadixSort.sortIndices(keys, p), true);
+		}
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code long} keys extracted by the given function, as would
+	 * {@code sort(a, Comparator.comparingLong(keyExtractor))}. The key of each
+	 * element is extracted once, and the keys are sorted together with the
+	 * indices of their elements by a radix sort of primitive values, after
+	 * which the elements are moved to their sorted positions. This avoids
+	 * extracting keys from both elements of every comparison, at the cost of
+	 * working space for the keys and indices and a copy of the array.
+	 *
+	 * <p>
+	 * This sort is guaranteed to be <i>stable</i>: elements with equal keys
+	 * will not be reordered as a result of the sort.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByLongKey(T[] a, ToLongFunction<? super T> keyExtractor) {
+		sortByLongKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code long} keys extracted by the given function, as by
+	 * {@link #sortByLongKey(Object[], ToLongFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByLongKey(T[] a, int fromIndex, int toIndex, ToLongFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (n < MIN_KEY_SORT) {
+			TimSort.sort(a, fromIndex, toIndex, Comparator.<T> comparingLong(keyExtractor), null, 0, 0);
+		} else {
+			long[] keys = new long[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = keyExtractor.applyAsLong(a[fromIndex + i]);
+			}
+			permute(a, fromIndex, RadixSort.sortIndices(keys, 1), false);
+		}
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code long} keys extracted by the given function, as by
+	 * {@link #sortByLongKey(Object[], ToLongFunction)}.
+	 *
+	 * @implNote The keys are extracted, radix sorted and permuted in parallel
+	 *           as for {@link #parallelSort(long[])}. Arrays shorter than
+	 *           the minimum granularity are sorted using
+	 *           {@link #sortByLongKey(Object[], ToLongFunction)}. The
+	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
+	 *           to execute any parallel tasks.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByLongKey(T[] a, ToLongFunction<? super T> keyExtractor) {
+		parallelSortByLongKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code long} keys extracted by the given function, as by
+	 * {@link #parallelSortByLongKey(Object[], ToLongFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByLongKey(T[] a, int fromIndex, int toIndex, ToLongFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			sortByLongKey(a, fromIndex, toIndex, keyExtractor);
+		} else {
+			long[] keys = new long[n];
+			parallelSetAll(keys, i -> keyExtractor.applyAsLong(a[fromIndex + i]));
+			permute(a, fromIndex, RadixSort.sortIndices(keys, p), true);
+		}
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code double} keys extracted by the given function, as would
+	 * {@code sort(a, Comparator.comparingDouble(keyExtractor))}. The key of each
+	 * element is extracted once, and the keys are sorted together with the
+	 * indices of their elements by a radix sort of primitive values, after
+	 * which the elements are moved to their sorted positions. This avoids
+	 * extracting keys from both elements of every comparison, at the cost of
+	 * working space for the keys and indices and a copy of the array.
+	 *
+	 * <p>
+	 * Keys are ordered as by {@link Double#compare}: {@code -0.0} is less
+	 * than {@code 0.0}, and NaN is greater than any other value and equal
+	 * to itself.
+	 *
+	 * <p>
+	 * This sort is guaranteed to be <i>stable</i>: elements with equal keys
+	 * will not be reordered as a result of the sort.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByDoubleKey(T[] a, ToDoubleFunction<? super T> keyExtractor) {
+		sortByDoubleKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code double} keys extracted by the given function, as by
+	 * {@link #sortByDoubleKey(Object[], ToDoubleFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void sortByDoubleKey(T[] a, int fromIndex, int toIndex, ToDoubleFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (n < MIN_KEY_SORT) {
+			TimSort.sort(a, fromIndex, toIndex, Comparator.<T> comparingDouble(keyExtractor), null, 0, 0);
+		} else {
+			long[] keys = new long[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = RadixSort.orderedBits(keyExtractor.applyAsDouble(a[fromIndex + i]));
+			}
+			permute(a, fromIndex, RadixSort.sortIndices(keys, 1), false);
+		}
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order of the
+	 * {@code double} keys extracted by the given function, as by
+	 * {@link #sortByDoubleKey(Object[], ToDoubleFunction)}.
+	 *
+	 * @implNote The keys are extracted, radix sorted and permuted in parallel
+	 *           as for {@link #parallelSort(long[])}. Arrays shorter than
+	 *           the minimum granularity are sorted using
+	 *           {@link #sortByDoubleKey(Object[], ToDoubleFunction)}. The
+	 *           {@link ForkJoinPool#commonPool() ForkJoin common pool} is used
+	 *           to execute any parallel tasks.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByDoubleKey(T[] a, ToDoubleFunction<? super T> keyExtractor) {
+		parallelSortByDoubleKey(a, 0, a.length, keyExtractor);
+	}
+
+	/**
+	 * Sorts the specified range of the array of objects into ascending order
+	 * of the {@code double} keys extracted by the given function, as by
+	 * {@link #parallelSortByDoubleKey(Object[], ToDoubleFunction)}.
+	 *
+	 * @param <T>
+	 *            the class of the objects to be sorted
+	 * @param a
+	 *            the array to be sorted
+	 * @param fromIndex
+	 *            the index of the first element (inclusive) to be sorted
+	 * @param toIndex
+	 *            the index of the last element (exclusive) to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > a.length}
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	public static <T> void parallelSortByDoubleKey(T[] a, int fromIndex, int toIndex, ToDoubleFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex, p;
+		if ((n <= MIN_ARRAY_SORT_GRAN) || ((p = ForkJoinPool.getCommonPoolParallelism()) == 1)) {
+			sortByDoubleKey(a, fromIndex, toIndex, keyExtractor);
+		} else {
+			long[] keys = new long[n];
+			parallelSetAll(keys, i -> RadixSort.orderedBits(keyExtractor.applyAsDouble(a[fromIndex + i])));
+			permute(a, fromIndex, RadixSort.sortIndices(keys, p), true);
+		}
+	}
+
+	/*
+	 * Sorting of complex type arrays.
+	 */
+	/**
+	 * Old merge sort implementation can be selected (for compatibility with
+	 * broken comparators) using a system property. Cannot be a static boolean
+	 * in the enclosing class due to circular dependencies. To be removed in a
+	 * future release.
+	 */
+	static final class LegacyMergeSort {
+		private static final boolean userRequested = java.security.AccessController.doPrivileged(new sun.security.action.GetBooleanAction("java.util.Arrays.useLegacyMergeSort")).booleanValue();
+	}
+
+	/**
+	 * Sorts the specified array of objects into ascending order, according to
+	 * the {@linkplain Comparable natural ordering} of its elements. All
+	 * elements in the array must implement the {@link Comparable} interface.
+	 * Furthermore, all elements in the array must be <i>mutually comparable</i>
+	 * (that is, {@code e1.compareTo(e2)} must not throw a
+	 * {@code ClassCastException} for any elements {@code e1} and {@code e2} in
+	 * the array).
+	 *
+	 * <p>
+	 * This sort is guaranteed to be <i>stable</i>: equal elements will not be
+	 * reordered as a result of the sort.
+	 *
+	 * <p>
+	 * Implementation note: This implementation is a stable, adaptive, iterative
+	 * mergesort that requires far fewer than n lg(n) comparisons when the input
+	 * array is partially sorted, while offering the performance of a
+	 * traditional mergesort when the input array is randomly ordered. If the
+	 * input array is nearly sorted, the implementation requires approximately n
+	 * comparisons. Temporary storage requirements vary from a small constant
 	 * for nearly sorted input arrays to n/2 object references for randomly
 	 * ordered input arrays.
 	 *
@@ -1501,26 +2133,780 @@ public class Arrays {
 		}
 	}
 
-	// Searching
 	/**
-	 * Searches the specified array of longs for the specified value using the
-	 * binary search algorithm. The array must be sorted (as by the
-	 * {@link #sort(long[])} method) prior to making this call. If it is not
-	 * sorted, the results are undefined. If the array contains multiple
-	 * elements with the specified value, there is no guarantee which one will
-	 * be found.
+	 * Replaces, in parallel, each element of the given array by the
+	 * cumulation of the elements before it, using the supplied function and
+	 * starting from the given identity. For example if the array initially
+	 * holds {@code [2, 1, 0, 3]}, the identity is {@code 0} and the operation
+	 * performs addition, then upon return the array holds
+	 * {@code [0, 2, 3, 3]}.
 	 *
-	 * @param a
-	 *            the array to be searched
-	 * @param key
-	 *            the value to be searched for
-	 * @return index of the search key, if it is contained in the array;
-	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>. The
-	 *         <i>insertion point</i> is defined as the point at which the key
-	 *         would be inserted into the array: the index of the first element
-	 *         greater than the key, or <tt>a.length</tt> if all elements in the
-	 *         array are less than the specified key. Note that this guarantees
-	 *         that the return value will be &gt;= 0 if and only if the key is
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static <T> void parallelExclusivePrefix(T[] array, T identity, BinaryOperator<T> op) {
+		Objects.requireNonNull(op);
+		if (array.length > 0) {
+			ArrayScanHelpers.exclusiveCumulate(array, 0, array.length, identity, op);
+		}
+	}
+
+	/**
+	 * Performs {@link #parallelExclusivePrefix(Object[], Object, BinaryOperator)} for the given
+	 * subrange of the array.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static <T> void parallelExclusivePrefix(T[] array, int fromIndex, int toIndex, T identity, BinaryOperator<T> op) {
+		Objects.requireNonNull(op);
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.exclusiveCumulate(array, fromIndex, toIndex, identity, op);
+		}
+	}
+
+	/**
+	 * Cumulates, in parallel, each element of the given array in place, as
+	 * {@link #parallelPrefix(Object[], BinaryOperator)} does, but restarting the cumulation
+	 * at each element for which {@code segmentStarts} is {@code true}. For
+	 * example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+	 * segment starts are {@code [false, false, true, false, true]} and the
+	 * operation performs addition, then upon return the array holds
+	 * {@code [2, 3, 0, 3, 4]}. The first element always starts a segment.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static <T> void parallelSegmentedPrefix(T[] array, boolean[] segmentStarts, BinaryOperator<T> op) {
+		parallelSegmentedPrefix(array, 0, array.length, segmentStarts, op);
+	}
+
+	/**
+	 * Performs {@link #parallelSegmentedPrefix(Object[], boolean[], BinaryOperator)} for
+	 * the given subrange of the array. The element at {@code fromIndex} always
+	 * starts a segment.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the arrays differ in length
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static <T> void parallelSegmentedPrefix(T[] array, int fromIndex, int toIndex, boolean[] segmentStarts, BinaryOperator<T> op) {
+		Objects.requireNonNull(op);
+		if (segmentStarts.length != array.length) {
+			throw new IllegalArgumentException("segmentStarts.length(" + segmentStarts.length + ") != array.length(" + array.length + ")");
+		}
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.segmentedCumulate(array, segmentStarts, fromIndex, toIndex, op);
+		}
+	}
+
+	/**
+	 * Returns, computing in parallel, a new array of the elements of the given
+	 * array that match the given predicate, in their original order. The
+	 * predicate is applied once to each element.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array, which is not modified
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to keep
+	 * @return the matching elements, in an array of the same runtime type
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static <T> T[] parallelFilter(T[] array, Predicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.filter(array, predicate);
+	}
+
+	/**
+	 * Rearranges, in parallel, the elements of the given array so that those
+	 * matching the given predicate come first. The partition is stable: the
+	 * elements of each part keep their original relative order. The predicate
+	 * is applied once to each element.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to move to
+	 *            the front
+	 * @return the number of matching elements, which is the index of the first
+	 *         element of the second part
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static <T> int parallelPartition(T[] array, Predicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.partition(array, predicate);
+	}
+
+	/**
+	 * Counts, in parallel, the elements of the given array falling into each
+	 * of the given number of bins, as computed by the given function.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the array
+	 * @param array
+	 *            the array, which is not modified
+	 * @param bins
+	 *            the number of bins
+	 * @param binner
+	 *            a side-effect-free function returning the bin of an element,
+	 *            from {@code 0} to {@code bins - 1}
+	 * @return a new array holding the number of elements in each bin
+	 * @throws IllegalArgumentException
+	 *             if {@code bins} is negative
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the function returns a bin out of range
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static <T> int[] parallelHistogram(T[] array, int bins, ToIntFunction<? super T> binner) {
+		Objects.requireNonNull(binner);
+		if (bins < 0) {
+			throw new IllegalArgumentException("bins(" + bins + ") < 0");
+		}
+		return ArrayScanHelpers.histogram(array, bins, binner);
+	}
+
+	/**
+	 * Replaces, in parallel, each element of the given array by the
+	 * cumulation of the elements before it, using the supplied function and
+	 * starting from the given identity. For example if the array initially
+	 * holds {@code [2, 1, 0, 3]}, the identity is {@code 0} and the operation
+	 * performs addition, then upon return the array holds
+	 * {@code [0, 2, 3, 3]}.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(long[] array, long identity, LongBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (array.length > 0) {
+			ArrayScanHelpers.exclusiveCumulate(array, 0, array.length, identity, op);
+		}
+	}
+
+	/**
+	 * Performs {@link #parallelExclusivePrefix(long[], long, LongBinaryOperator)} for the given
+	 * subrange of the array.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(long[] array, int fromIndex, int toIndex, long identity, LongBinaryOperator op) {
+		Objects.requireNonNull(op);
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.exclusiveCumulate(array, fromIndex, toIndex, identity, op);
+		}
+	}
+
+	/**
+	 * Cumulates, in parallel, each element of the given array in place, as
+	 * {@link #parallelPrefix(long[], LongBinaryOperator)} does, but restarting the cumulation
+	 * at each element for which {@code segmentStarts} is {@code true}. For
+	 * example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+	 * segment starts are {@code [false, false, true, false, true]} and the
+	 * operation performs addition, then upon return the array holds
+	 * {@code [2, 3, 0, 3, 4]}. The first element always starts a segment.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(long[] array, boolean[] segmentStarts, LongBinaryOperator op) {
+		parallelSegmentedPrefix(array, 0, array.length, segmentStarts, op);
+	}
+
+	/**
+	 * Performs {@link #parallelSegmentedPrefix(long[], boolean[], LongBinaryOperator)} for
+	 * the given subrange of the array. The element at {@code fromIndex} always
+	 * starts a segment.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the arrays differ in length
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(long[] array, int fromIndex, int toIndex, boolean[] segmentStarts, LongBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (segmentStarts.length != array.length) {
+			throw new IllegalArgumentException("segmentStarts.length(" + segmentStarts.length + ") != array.length(" + array.length + ")");
+		}
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.segmentedCumulate(array, segmentStarts, fromIndex, toIndex, op);
+		}
+	}
+
+	/**
+	 * Returns, computing in parallel, a new array of the elements of the given
+	 * array that match the given predicate, in their original order. The
+	 * predicate is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to keep
+	 * @return the matching elements
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static long[] parallelFilter(long[] array, LongPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.filter(array, predicate);
+	}
+
+	/**
+	 * Rearranges, in parallel, the elements of the given array so that those
+	 * matching the given predicate come first. The partition is stable: the
+	 * elements of each part keep their original relative order. The predicate
+	 * is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to move to
+	 *            the front
+	 * @return the number of matching elements, which is the index of the first
+	 *         element of the second part
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static int parallelPartition(long[] array, LongPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.partition(array, predicate);
+	}
+
+	/**
+	 * Counts, in parallel, the elements of the given array falling into each
+	 * of the given number of bins, as computed by the given function.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param bins
+	 *            the number of bins
+	 * @param binner
+	 *            a side-effect-free function returning the bin of an element,
+	 *            from {@code 0} to {@code bins - 1}
+	 * @return a new array holding the number of elements in each bin
+	 * @throws IllegalArgumentException
+	 *             if {@code bins} is negative
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the function returns a bin out of range
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static int[] parallelHistogram(long[] array, int bins, LongToIntFunction binner) {
+		Objects.requireNonNull(binner);
+		if (bins < 0) {
+			throw new IllegalArgumentException("bins(" + bins + ") < 0");
+		}
+		return ArrayScanHelpers.histogram(array, bins, binner);
+	}
+
+	/**
+	 * Replaces, in parallel, each element of the given array by the
+	 * cumulation of the elements before it, using the supplied function and
+	 * starting from the given identity. For example if the array initially
+	 * holds {@code [2.0, 1.0, 0.0, 3.0]}, the identity is {@code 0.0} and the
+	 * operation performs addition, then upon return the array holds
+	 * {@code [0.0, 2.0, 3.0, 3.0]}.
+	 *
+	 * <p>
+	 * Because floating-point operations may not be strictly associative, the
+	 * result may not be identical to the value that would be obtained if the
+	 * operation was performed sequentially.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(double[] array, double identity, DoubleBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (array.length > 0) {
+			ArrayScanHelpers.exclusiveCumulate(array, 0, array.length, identity, op);
+		}
+	}
+
+	/**
+	 * Performs {@link #parallelExclusivePrefix(double[], double, DoubleBinaryOperator)} for the given
+	 * subrange of the array.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(double[] array, int fromIndex, int toIndex, double identity, DoubleBinaryOperator op) {
+		Objects.requireNonNull(op);
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.exclusiveCumulate(array, fromIndex, toIndex, identity, op);
+		}
+	}
+
+	/**
+	 * Cumulates, in parallel, each element of the given array in place, as
+	 * {@link #parallelPrefix(double[], DoubleBinaryOperator)} does, but restarting the cumulation
+	 * at each element for which {@code segmentStarts} is {@code true}. For
+	 * example if the array initially holds
+	 * {@code [2.0, 1.0, 0.0, 3.0, 4.0]}, the segment starts are
+	 * {@code [false, false, true, false, true]} and the operation performs
+	 * addition, then upon return the array holds
+	 * {@code [2.0, 3.0, 0.0, 3.0, 4.0]}. The first element always starts a
+	 * segment.
+	 *
+	 * <p>
+	 * Because floating-point operations may not be strictly associative, the
+	 * result may not be identical to the value that would be obtained if the
+	 * operation was performed sequentially.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(double[] array, boolean[] segmentStarts, DoubleBinaryOperator op) {
+		parallelSegmentedPrefix(array, 0, array.length, segmentStarts, op);
+	}
+
+	/**
+	 * Performs {@link #parallelSegmentedPrefix(double[], boolean[], DoubleBinaryOperator)} for
+	 * the given subrange of the array. The element at {@code fromIndex} always
+	 * starts a segment.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the arrays differ in length
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(double[] array, int fromIndex, int toIndex, boolean[] segmentStarts, DoubleBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (segmentStarts.length != array.length) {
+			throw new IllegalArgumentException("segmentStarts.length(" + segmentStarts.length + ") != array.length(" + array.length + ")");
+		}
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.segmentedCumulate(array, segmentStarts, fromIndex, toIndex, op);
+		}
+	}
+
+	/**
+	 * Returns, computing in parallel, a new array of the elements of the given
+	 * array that match the given predicate, in their original order. The
+	 * predicate is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to keep
+	 * @return the matching elements
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static double[] parallelFilter(double[] array, DoublePredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.filter(array, predicate);
+	}
+
+	/**
+	 * Rearranges, in parallel, the elements of the given array so that those
+	 * matching the given predicate come first. The partition is stable: the
+	 * elements of each part keep their original relative order. The predicate
+	 * is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to move to
+	 *            the front
+	 * @return the number of matching elements, which is the index of the first
+	 *         element of the second part
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static int parallelPartition(double[] array, DoublePredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.partition(array, predicate);
+	}
+
+	/**
+	 * Counts, in parallel, the elements of the given array falling into each
+	 * of the given number of bins, as computed by the given function.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param bins
+	 *            the number of bins
+	 * @param binner
+	 *            a side-effect-free function returning the bin of an element,
+	 *            from {@code 0} to {@code bins - 1}
+	 * @return a new array holding the number of elements in each bin
+	 * @throws IllegalArgumentException
+	 *             if {@code bins} is negative
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the function returns a bin out of range
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static int[] parallelHistogram(double[] array, int bins, DoubleToIntFunction binner) {
+		Objects.requireNonNull(binner);
+		if (bins < 0) {
+			throw new IllegalArgumentException("bins(" + bins + ") < 0");
+		}
+		return ArrayScanHelpers.histogram(array, bins, binner);
+	}
+
+	/**
+	 * Replaces, in parallel, each element of the given array by the
+	 * cumulation of the elements before it, using the supplied function and
+	 * starting from the given identity. For example if the array initially
+	 * holds {@code [2, 1, 0, 3]}, the identity is {@code 0} and the operation
+	 * performs addition, then upon return the array holds
+	 * {@code [0, 2, 3, 3]}.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(int[] array, int identity, IntBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (array.length > 0) {
+			ArrayScanHelpers.exclusiveCumulate(array, 0, array.length, identity, op);
+		}
+	}
+
+	/**
+	 * Performs {@link #parallelExclusivePrefix(int[], int, IntBinaryOperator)} for the given
+	 * subrange of the array.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param identity
+	 *            the identity value for the function
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static void parallelExclusivePrefix(int[] array, int fromIndex, int toIndex, int identity, IntBinaryOperator op) {
+		Objects.requireNonNull(op);
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.exclusiveCumulate(array, fromIndex, toIndex, identity, op);
+		}
+	}
+
+	/**
+	 * Cumulates, in parallel, each element of the given array in place, as
+	 * {@link #parallelPrefix(int[], IntBinaryOperator)} does, but restarting the cumulation
+	 * at each element for which {@code segmentStarts} is {@code true}. For
+	 * example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+	 * segment starts are {@code [false, false, true, false, true]} and the
+	 * operation performs addition, then upon return the array holds
+	 * {@code [2, 3, 0, 3, 4]}. The first element always starts a segment.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(int[] array, boolean[] segmentStarts, IntBinaryOperator op) {
+		parallelSegmentedPrefix(array, 0, array.length, segmentStarts, op);
+	}
+
+	/**
+	 * Performs {@link #parallelSegmentedPrefix(int[], boolean[], IntBinaryOperator)} for
+	 * the given subrange of the array. The element at {@code fromIndex} always
+	 * starts a segment.
+	 *
+	 * @param array
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first element, inclusive
+	 * @param toIndex
+	 *            the index of the last element, exclusive
+	 * @param segmentStarts
+	 *            flags marking the first element of each segment, of the same
+	 *            length as the array
+	 * @param op
+	 *            a side-effect-free, associative function to perform the
+	 *            cumulation
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the arrays differ in length
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > array.length}
+	 * @throws NullPointerException
+	 *             if any argument is null
+	 */
+	public static void parallelSegmentedPrefix(int[] array, int fromIndex, int toIndex, boolean[] segmentStarts, IntBinaryOperator op) {
+		Objects.requireNonNull(op);
+		if (segmentStarts.length != array.length) {
+			throw new IllegalArgumentException("segmentStarts.length(" + segmentStarts.length + ") != array.length(" + array.length + ")");
+		}
+		rangeCheck(array.length, fromIndex, toIndex);
+		if (fromIndex < toIndex) {
+			ArrayScanHelpers.segmentedCumulate(array, segmentStarts, fromIndex, toIndex, op);
+		}
+	}
+
+	/**
+	 * Returns, computing in parallel, a new array of the elements of the given
+	 * array that match the given predicate, in their original order. The
+	 * predicate is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to keep
+	 * @return the matching elements
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static int[] parallelFilter(int[] array, IntPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.filter(array, predicate);
+	}
+
+	/**
+	 * Rearranges, in parallel, the elements of the given array so that those
+	 * matching the given predicate come first. The partition is stable: the
+	 * elements of each part keep their original relative order. The predicate
+	 * is applied once to each element.
+	 *
+	 * @param array
+	 *            the array, which is modified in-place by this method
+	 * @param predicate
+	 *            a side-effect-free predicate selecting the elements to move to
+	 *            the front
+	 * @return the number of matching elements, which is the index of the first
+	 *         element of the second part
+	 * @throws NullPointerException
+	 *             if the specified array or predicate is null
+	 */
+	public static int parallelPartition(int[] array, IntPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return ArrayScanHelpers.partition(array, predicate);
+	}
+
+	/**
+	 * Counts, in parallel, the elements of the given array falling into each
+	 * of the given number of bins, as computed by the given function.
+	 *
+	 * @param array
+	 *            the array, which is not modified
+	 * @param bins
+	 *            the number of bins
+	 * @param binner
+	 *            a side-effect-free function returning the bin of an element,
+	 *            from {@code 0} to {@code bins - 1}
+	 * @return a new array holding the number of elements in each bin
+	 * @throws IllegalArgumentException
+	 *             if {@code bins} is negative
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the function returns a bin out of range
+	 * @throws NullPointerException
+	 *             if the specified array or function is null
+	 */
+	public static int[] parallelHistogram(int[] array, int bins, IntUnaryOperator binner) {
+		Objects.requireNonNull(binner);
+		if (bins < 0) {
+			throw new IllegalArgumentException("bins(" + bins + ") < 0");
+		}
+		return ArrayScanHelpers.histogram(array, bins, binner);
+	}
+
+	// Searching
+	/**
+	 * Searches the specified array of longs for the specified value using the
+	 * binary search algorithm. The array must be sorted (as by the
+	 * {@link #sort(long[])} method) prior to making this call. If it is not
+	 * sorted, the results are undefined. If the array contains multiple
+	 * elements with the specified value, there is no guarantee which one will
+	 * be found.
+	 *
+	 * @param a
+	 *            the array to be searched
+	 * @param key
+	 *            the value to be searched for
+	 * @return index of the search key, if it is contained in the array;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>. The
+	 *         <i>insertion point</i> is defined as the point at which the key
+	 *         would be inserted into the array: the index of the first element
+	 *         greater than the key, or <tt>a.length</tt> if all elements in the
+	 *         array are less than the specified key. Note that this guarantees
+	 *         that the return value will be &gt;= 0 if and only if the key is
 	 *         found.
 	 */
 	public static int binarySearch(long[] a, long key) {
@@ -2275,12 +3661,225 @@ public class Arrays {
 				return mid; // key found
 			}
 		}
-		return -(low + 1); // key not found.
+		return -(low + 1); // key not found.
+	}
+
+	// Equality Testing
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of longs are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(long[] a, long[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of ints are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(int[] a, int[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of shorts are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(short[] a, short a2[]) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of chars are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(char[] a, char[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of bytes are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(byte[] a, byte[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of booleans are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 */
+	public static boolean equals(boolean[] a, boolean[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the two specified arrays of doubles are
+	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * arrays contain the same number of elements, and all corresponding pairs
+	 * of elements in the two arrays are equal. In other words, two arrays are
+	 * equal if they contain the same elements in the same order. Also, two
+	 * array references are considered equal if both are <tt>null</tt>.
+	 * <p>
+	 *
+	 * Two doubles <tt>d1</tt> and <tt>d2</tt> are considered equal if:
+	 *
+	 * <pre>
+	 *     <tt>new Double(d1).equals(new Double(d2))</tt>
+	 * </pre>
+	 *
+	 * (Unlike the <tt>==</tt> operator, this method considers <tt>NaN</tt>
+	 * equals to itself, and 0.0d unequal to -0.0d.)
+	 *
+	 * @param a
+	 *            one array to be tested for equality
+	 * @param a2
+	 *            the other array to be tested for equality
+	 * @return <tt>true</tt> if the two arrays are equal
+	 * @see Double#equals(Object)
+	 */
+	public static boolean equals(double[] a, double[] a2) {
+		if (a == a2) {
+			return true;
+		}
+		if ((a == null) || (a2 == null)) {
+			return false;
+		}
+		int length = a.length;
+		if (a2.length != length) {
+			return false;
+		}
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
 	}
 
-	// Equality Testing
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of longs are
+	 * Returns <tt>true</tt> if the two specified arrays of floats are
 	 * <i>equal</i> to one another. Two arrays are considered equal if both
 	 * arrays contain the same number of elements, and all corresponding pairs
 	 * of elements in the two arrays are equal. In other words, two arrays are
@@ -2288,13 +3887,23 @@ public class Arrays {
 	 * array references are considered equal if both are <tt>null</tt>.
 	 * <p>
 	 *
+	 * Two floats <tt>f1</tt> and <tt>f2</tt> are considered equal if:
+	 *
+	 * <pre>
+	 *     <tt>new Float(f1).equals(new Float(f2))</tt>
+	 * </pre>
+	 *
+	 * (Unlike the <tt>==</tt> operator, this method considers <tt>NaN</tt>
+	 * equals to itself, and 0.0f unequal to -0.0f.)
+	 *
 	 * @param a
 	 *            one array to be tested for equality
 	 * @param a2
 	 *            the other array to be tested for equality
 	 * @return <tt>true</tt> if the two arrays are equal
+	 * @see Float#equals(Object)
 	 */
-	public static boolean equals(long[] a, long[] a2) {
+	public static boolean equals(float[] a, float[] a2) {
 		if (a == a2) {
 			return true;
 		}
@@ -2305,21 +3914,18 @@ public class Arrays {
 		if (a2.length != length) {
 			return false;
 		}
-		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
-				return false;
-			}
-		}
-		return true;
+		return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of ints are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
+	 * Returns <tt>true</tt> if the two specified arrays of Objects are
+	 * <i>equal</i> to one another. The two arrays are considered equal if both
 	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
+	 * of elements in the two arrays are equal. Two objects <tt>e1</tt> and
+	 * <tt>e2</tt> are considered <i>equal</i> if <tt>(e1==null ? e2==null
+	 * : e1.equals(e2))</tt>. In other words, the two arrays are equal if they
+	 * contain the same elements in the same order. Also, two array references
+	 * are considered equal if both are <tt>null</tt>.
 	 * <p>
 	 *
 	 * @param a
@@ -2328,7 +3934,7 @@ public class Arrays {
 	 *            the other array to be tested for equality
 	 * @return <tt>true</tt> if the two arrays are equal
 	 */
-	public static boolean equals(int[] a, int[] a2) {
+	public static boolean equals(Object[] a, Object[] a2) {
 		if (a == a2) {
 			return true;
 		}
@@ -2340,273 +3946,1087 @@ public class Arrays {
 			return false;
 		}
 		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
+			Object o1 = a[i];
+			Object o2 = a2[i];
+			if (!(o1 == null ? o2 == null : o1.equals(o2))) {
 				return false;
 			}
 		}
 		return true;
 	}
 
+	// Comparison
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>long</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(long[] a, long[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>long</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(long[] a, int aFromIndex, int aToIndex, long[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>long</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Long#compare(long, long)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(long[], long[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(long[] a, long[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Long.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>int</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(int[] a, int[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>int</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(int[] a, int aFromIndex, int aToIndex, int[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>int</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Integer#compare(int, int)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(int[], int[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(int[] a, int[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Integer.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>short</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(short[] a, short[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>short</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(short[] a, int aFromIndex, int aToIndex, short[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>short</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Short#compare(short, short)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(short[], short[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(short[] a, short[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Short.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>char</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(char[] a, char[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>char</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(char[] a, int aFromIndex, int aToIndex, char[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>char</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Character#compare(char, char)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(char[], char[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(char[] a, char[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Character.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>byte</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>byte</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(byte[] a, int aFromIndex, int aToIndex, byte[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>byte</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Byte#compare(byte, byte)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(byte[], byte[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(byte[] a, byte[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Byte.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>boolean</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(boolean[] a, boolean[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>boolean</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(boolean[] a, int aFromIndex, int aToIndex, boolean[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>boolean</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Boolean#compare(boolean, boolean)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(boolean[], boolean[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(boolean[] a, boolean[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Boolean.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>double</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * <p>
+	 * Two elements are considered equal as by <tt>equals</tt>: Double.NaN is equal
+	 * to itself, and 0.0 is not equal to -0.0.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(double[] a, double[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>double</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(double[] a, int aFromIndex, int aToIndex, double[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
+	/**
+	 * Compares two <tt>double</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Double#compare(double, double)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
+	 * <p>
+	 * This comparison is consistent with {@link #equals(double[], double[]) equals}.
+	 *
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(double[] a, double[] b) {
+		if (a == b) {
+			return 0;
+		}
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Double.compare(a[i], b[i]);
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>float</tt> arrays, otherwise return -1 if no mismatch is found. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * <p>
+	 * Two elements are considered equal as by <tt>equals</tt>: Float.NaN is equal
+	 * to itself, and 0.0 is not equal to -0.0.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(float[] a, float[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a == b) {
+			return -1;
+		}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+		return ((i < 0) && (a.length != b.length)) ? length : i;
+	}
+
+	/**
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>float</tt> arrays over the specified ranges, otherwise return -1 if no
+	 * mismatch is found. The index will be in the range of 0 (inclusive) up to
+	 * the length (inclusive) of the smaller range.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(float[] a, int aFromIndex, int aToIndex, float[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+		return ((i < 0) && (aLength != bLength)) ? length : i;
+	}
+
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of shorts are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
+	 * Compares two <tt>float</tt> arrays lexicographically. If the two arrays
+	 * share a common prefix then the lexicographic comparison is the result of
+	 * comparing two elements, as if by {@link Float#compare(float, float)}, at the index
+	 * of the first mismatch. Otherwise, one array is a proper prefix of the
+	 * other and the lexicographic comparison is the result of comparing the
+	 * two array lengths. A <tt>null</tt> array reference is considered
+	 * lexicographically less than a non-<tt>null</tt> array reference, and two
+	 * <tt>null</tt> array references are considered equal.
+	 *
 	 * <p>
+	 * This comparison is consistent with {@link #equals(float[], float[]) equals}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 */
-	public static boolean equals(short[] a, short a2[]) {
-		if (a == a2) {
-			return true;
-		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compare(float[] a, float[] b) {
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
-		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
-				return false;
-			}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Float.compare(a[i], b[i]);
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of chars are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
-	 * <p>
+	 * Compares two <tt>long</tt> arrays lexicographically, numerically treating
+	 * elements as unsigned. This is as {@link #compare(long[], long[])}, but
+	 * comparing elements as if by {@link Long#compareUnsigned(long, long)}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 */
-	public static boolean equals(char[] a, char[] a2) {
-		if (a == a2) {
-			return true;
-		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compareUnsigned(long[] a, long[] b) {
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
-		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
-				return false;
-			}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Long.compareUnsigned(a[i], b[i]);
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of bytes are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
-	 * <p>
+	 * Compares two <tt>int</tt> arrays lexicographically, numerically treating
+	 * elements as unsigned. This is as {@link #compare(int[], int[])}, but
+	 * comparing elements as if by {@link Integer#compareUnsigned(int, int)}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 */
-	public static boolean equals(byte[] a, byte[] a2) {
-		if (a == a2) {
-			return true;
-		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compareUnsigned(int[] a, int[] b) {
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
-		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
-				return false;
-			}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Integer.compareUnsigned(a[i], b[i]);
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of booleans are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
-	 * <p>
+	 * Compares two <tt>short</tt> arrays lexicographically, numerically treating
+	 * elements as unsigned. This is as {@link #compare(short[], short[])}, but
+	 * comparing elements as if by {@link Short#toUnsignedInt(short)}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 */
-	public static boolean equals(boolean[] a, boolean[] a2) {
-		if (a == a2) {
-			return true;
-		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compareUnsigned(short[] a, short[] b) {
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
-		for (int i = 0; i < length; i++) {
-			if (a[i] != a2[i]) {
-				return false;
-			}
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Short.toUnsignedInt(a[i]) - Short.toUnsignedInt(b[i]);
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of doubles are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
-	 * <p>
-	 *
-	 * Two doubles <tt>d1</tt> and <tt>d2</tt> are considered equal if:
-	 *
-	 * <pre>
-	 *     <tt>new Double(d1).equals(new Double(d2))</tt>
-	 * </pre>
-	 *
-	 * (Unlike the <tt>==</tt> operator, this method considers <tt>NaN</tt>
-	 * equals to itself, and 0.0d unequal to -0.0d.)
+	 * Compares two <tt>byte</tt> arrays lexicographically, numerically treating
+	 * elements as unsigned. This is as {@link #compare(byte[], byte[])}, but
+	 * comparing elements as if by {@link Byte#toUnsignedInt(byte)}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 * @see Double#equals(Object)
-	 */
-	public static boolean equals(double[] a, double[] a2) {
-		if (a == a2) {
-			return true;
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static int compareUnsigned(byte[] a, byte[] b) {
+		if (a == b) {
+			return 0;
 		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+		if (i >= 0) {
+			return Byte.toUnsignedInt(a[i]) - Byte.toUnsignedInt(b[i]);
 		}
-		for (int i = 0; i < length; i++) {
-			if (Double.doubleToLongBits(a[i]) != Double.doubleToLongBits(a2[i])) {
-				return false;
+		return a.length - b.length;
+	}
+
+	/**
+	 * Finds and returns the index of the first mismatch between two
+	 * <tt>Object</tt> arrays, otherwise return -1 if no mismatch is found.
+	 * Two elements are considered equal as by {@link Objects#equals}. If the
+	 * arrays are of different lengths and one is a proper prefix of the other,
+	 * the index returned is the length of the smaller array.
+	 *
+	 * @param a
+	 *            the first array to be tested for a mismatch
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @return the index of the first mismatch between the two arrays, otherwise
+	 *         <tt>-1</tt>
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(Object[] a, Object[] b) {
+		int length = Math.min(a.length, b.length);
+		if (a != b) {
+			for (int i = 0; i < length; i++) {
+				if (!Objects.equals(a[i], b[i])) {
+					return i;
+				}
 			}
 		}
-		return true;
+		return (a.length != b.length) ? length : -1;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of floats are
-	 * <i>equal</i> to one another. Two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. In other words, two arrays are
-	 * equal if they contain the same elements in the same order. Also, two
-	 * array references are considered equal if both are <tt>null</tt>.
-	 * <p>
-	 *
-	 * Two floats <tt>f1</tt> and <tt>f2</tt> are considered equal if:
-	 *
-	 * <pre>
-	 *     <tt>new Float(f1).equals(new Float(f2))</tt>
-	 * </pre>
-	 *
-	 * (Unlike the <tt>==</tt> operator, this method considers <tt>NaN</tt>
-	 * equals to itself, and 0.0f unequal to -0.0f.)
+	 * Finds and returns the relative index of the first mismatch between two
+	 * <tt>Object</tt> arrays over the specified ranges, otherwise return -1 if
+	 * no mismatch is found. The index will be in the range of 0 (inclusive) up
+	 * to the length (inclusive) of the smaller range. Two elements are
+	 * considered equal as by {@link Objects#equals}.
 	 *
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
-	 * @see Float#equals(Object)
-	 */
-	public static boolean equals(float[] a, float[] a2) {
-		if (a == a2) {
-			return true;
+	 *            the first array to be tested for a mismatch
+	 * @param aFromIndex
+	 *            the index (inclusive) of the first element in the first array
+	 *            to be tested
+	 * @param aToIndex
+	 *            the index (exclusive) of the last element in the first array
+	 *            to be tested
+	 * @param b
+	 *            the second array to be tested for a mismatch
+	 * @param bFromIndex
+	 *            the index (inclusive) of the first element in the second array
+	 *            to be tested
+	 * @param bToIndex
+	 *            the index (exclusive) of the last element in the second array
+	 *            to be tested
+	 * @return the relative index of the first mismatch between the two arrays
+	 *         over the specified ranges, otherwise <tt>-1</tt>
+	 * @throws IllegalArgumentException
+	 *             if {@code aFromIndex > aToIndex} or if
+	 *             {@code bFromIndex > bToIndex}
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code aFromIndex < 0 or aToIndex > a.length} or if
+	 *             {@code bFromIndex < 0 or bToIndex > b.length}
+	 * @throws NullPointerException
+	 *             if either array is <tt>null</tt>
+	 */
+	public static int mismatch(Object[] a, int aFromIndex, int aToIndex, Object[] b, int bFromIndex, int bToIndex) {
+		rangeCheck(a.length, aFromIndex, aToIndex);
+		rangeCheck(b.length, bFromIndex, bToIndex);
+		int aLength = aToIndex - aFromIndex, bLength = bToIndex - bFromIndex, length = Math.min(aLength, bLength);
+		if ((a != b) || (aFromIndex != bFromIndex)) {
+			for (int i = 0; i < length; i++) {
+				if (!Objects.equals(a[aFromIndex + i], b[bFromIndex + i])) {
+					return i;
+				}
+			}
 		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+		return (aLength != bLength) ? length : -1;
+	}
+
+	/**
+	 * Compares two <tt>Object</tt> arrays, within comparable elements,
+	 * lexicographically. The arrays are compared as by
+	 * {@link #compare(long[], long[])}, elements being compared as by
+	 * {@link Comparable#compareTo}, and a <tt>null</tt> element being less
+	 * than a non-<tt>null</tt> element.
+	 *
+	 * @param <T>
+	 *            the type of comparable array elements
+	 * @param a
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 */
+	public static <T extends Comparable<? super T>> int compare(T[] a, T[] b) {
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
+		int length = Math.min(a.length, b.length);
 		for (int i = 0; i < length; i++) {
-			if (Float.floatToIntBits(a[i]) != Float.floatToIntBits(a2[i])) {
-				return false;
+			T oa = a[i], ob = b[i];
+			if (oa != ob) {
+				if ((oa == null) || (ob == null)) {
+					return (oa == null) ? -1 : 1;
+				}
+				int v = oa.compareTo(ob);
+				if (v != 0) {
+					return v;
+				}
 			}
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	/**
-	 * Returns <tt>true</tt> if the two specified arrays of Objects are
-	 * <i>equal</i> to one another. The two arrays are considered equal if both
-	 * arrays contain the same number of elements, and all corresponding pairs
-	 * of elements in the two arrays are equal. Two objects <tt>e1</tt> and
-	 * <tt>e2</tt> are considered <i>equal</i> if <tt>(e1==null ? e2==null
-	 * : e1.equals(e2))</tt>. In other words, the two arrays are equal if they
-	 * contain the same elements in the same order. Also, two array references
-	 * are considered equal if both are <tt>null</tt>.
-	 * <p>
+	 * Compares two <tt>Object</tt> arrays lexicographically using a specified
+	 * comparator. The arrays are compared as by
+	 * {@link #compare(long[], long[])}, elements being compared with the
+	 * comparator.
 	 *
+	 * @param <T>
+	 *            the type of array elements
 	 * @param a
-	 *            one array to be tested for equality
-	 * @param a2
-	 *            the other array to be tested for equality
-	 * @return <tt>true</tt> if the two arrays are equal
+	 *            the first array to compare
+	 * @param b
+	 *            the second array to compare
+	 * @param cmp
+	 *            the comparator to compare array elements
+	 * @return the value {@code 0} if the arrays are equal, a value less than
+	 *         {@code 0} if the first array is lexicographically less than the
+	 *         second array, and a value greater than {@code 0} otherwise
+	 * @throws NullPointerException
+	 *             if the comparator is <tt>null</tt>
 	 */
-	public static boolean equals(Object[] a, Object[] a2) {
-		if (a == a2) {
-			return true;
-		}
-		if ((a == null) || (a2 == null)) {
-			return false;
+	public static <T> int compare(T[] a, T[] b, Comparator<? super T> cmp) {
+		Objects.requireNonNull(cmp);
+		if (a == b) {
+			return 0;
 		}
-		int length = a.length;
-		if (a2.length != length) {
-			return false;
+		if ((a == null) || (b == null)) {
+			return (a == null) ? -1 : 1;
 		}
+		int length = Math.min(a.length, b.length);
 		for (int i = 0; i < length; i++) {
-			Object o1 = a[i];
-			Object o2 = a2[i];
-			if (!(o1 == null ? o2 == null : o1.equals(o2))) {
-				return false;
+			T oa = a[i], ob = b[i];
+			if (oa != ob) {
+				int v = cmp.compare(oa, ob);
+				if (v != 0) {
+					return v;
+				}
 			}
 		}
-		return true;
+		return a.length - b.length;
 	}
 
 	// Filling
@@ -3883,12 +6303,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (long element : a) {
-			int elementHash = (int) (element ^ (element >>> 32));
-			result = (31 * result) + elementHash;
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -3913,11 +6328,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (int element : a) {
-			result = (31 * result) + element;
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -3942,11 +6353,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (short element : a) {
-			result = (31 * result) + element;
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -3971,11 +6378,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (char element : a) {
-			result = (31 * result) + element;
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -4000,11 +6403,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (byte element : a) {
-			result = (31 * result) + element;
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -4029,11 +6428,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (boolean element : a) {
-			result = (31 * result) + (element ? 1231 : 1237);
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -4058,11 +6453,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (float element : a) {
-			result = (31 * result) + Float.floatToIntBits(element);
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
@@ -4087,12 +6478,7 @@ public class Arrays {
 		if (a == null) {
 			return 0;
 		}
-		int result = 1;
-		for (double element : a) {
-			long bits = Double.doubleToLongBits(element);
-			result = (31 * result) + (int) (bits ^ (bits >>> 32));
-		}
-		return result;
+		return ArraysSupport.hashCode(a);
 	}
 
 	/**
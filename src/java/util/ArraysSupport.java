@@ -0,0 +1,251 @@
+package java.util;
+
+import sun.misc.Unsafe;
+
+/**
+ * Word-at-a-time comparison and unrolled hashing of primitive arrays, used
+ * by the equals, mismatch, compare and hashCode methods of {@link Arrays}.
+ */
+final class ArraysSupport {
+	private ArraysSupport() {
+	} // non-instantiable
+
+	private static final Unsafe U = Unsafe.getUnsafe();
+
+	/** Whether the most significant byte of a word is stored first */
+	private static final boolean BIG_ENDIAN;
+	static {
+		long[] probe = { 1L };
+		BIG_ENDIAN = (U.getByte(probe, (long) Unsafe.ARRAY_LONG_BASE_OFFSET) == 0);
+	}
+
+	/** Ranges of fewer bytes are compared a byte at a time */
+	private static final int MIN_WORD_MISMATCH = 16;
+
+	/**
+	 * Returns the index of the first differing element of two ranges of
+	 * arrays of the same primitive type, or -1 if they are identical,
+	 * comparing the raw memory of the elements a word at a time. The words are
+	 * read at aligned addresses, so that this is portable to platforms that do
+	 * not support unaligned access, and ranges that cannot both be aligned
+	 * are compared a byte at a time. The first differing byte lies in the
+	 * first differing element, whose index is recovered from its offset.
+	 *
+	 * @param a
+	 *            the first array
+	 * @param aOffset
+	 *            the offset of the first element of the first range
+	 * @param b
+	 *            the second array
+	 * @param bOffset
+	 *            the offset of the first element of the second range
+	 * @param length
+	 *            the number of elements of each range
+	 * @param log2IndexScale
+	 *            the base 2 logarithm of the size of an element
+	 * @return the index of the first differing element relative to the ranges,
+	 *         or -1
+	 */
+	static int mismatch(Object a, long aOffset, Object b, long bOffset, int length, int log2IndexScale) {
+		final long bytes = (long) length << log2IndexScale;
+		long i = 0;
+		if ((bytes >= MIN_WORD_MISMATCH) && (((aOffset ^ bOffset) & 7) == 0)) {
+			for (; ((aOffset + i) & 7) != 0; i++) {
+				if (U.getByte(a, aOffset + i) != U.getByte(b, bOffset + i)) {
+					return (int) (i >> log2IndexScale);
+				}
+			}
+			for (long end = bytes - 8; i <= end; i += 8) {
+				long x = U.getLong(a, aOffset + i) ^ U.getLong(b, bOffset + i);
+				if (x != 0) {
+					int bit = (BIG_ENDIAN) ? Long.numberOfLeadingZeros(x) : Long.numberOfTrailingZeros(x);
+					return (int) ((i + (bit >>> 3)) >> log2IndexScale);
+				}
+			}
+		}
+		for (; i < bytes; i++) {
+			if (U.getByte(a, aOffset + i) != U.getByte(b, bOffset + i)) {
+				return (int) (i >> log2IndexScale);
+			}
+		}
+		return -1;
+	}
+
+	static int mismatch(boolean[] a, int aFrom, boolean[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + (long) aFrom, b, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + (long) bFrom, length, 0);
+	}
+
+	static int mismatch(byte[] a, int aFrom, byte[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) aFrom, b, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) bFrom, length, 0);
+	}
+
+	static int mismatch(char[] a, int aFrom, char[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) aFrom << 1), b, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) bFrom << 1), length, 1);
+	}
+
+	static int mismatch(short[] a, int aFrom, short[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) aFrom << 1), b, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) bFrom << 1), length, 1);
+	}
+
+	static int mismatch(int[] a, int aFrom, int[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) aFrom << 2), b, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) bFrom << 2), length, 2);
+	}
+
+	static int mismatch(long[] a, int aFrom, long[] b, int bFrom, int length) {
+		return mismatch(a, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) aFrom << 3), b, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) bFrom << 3), length, 3);
+	}
+
+	/**
+	 * As for the other primitive types, but skipping pairs of elements that
+	 * are both NaN, which compare equal by their canonical representation.
+	 */
+	static int mismatch(float[] a, int aFrom, float[] b, int bFrom, int length) {
+		int i = 0;
+		while (i < length) {
+			int m = mismatch(a, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) (aFrom + i) << 2), b, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) (bFrom + i) << 2), length - i, 2);
+			if (m < 0) {
+				return -1;
+			}
+			i += m;
+			if (!(Float.isNaN(a[aFrom + i]) && Float.isNaN(b[bFrom + i]))) {
+				return i;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	static int mismatch(double[] a, int aFrom, double[] b, int bFrom, int length) {
+		int i = 0;
+		while (i < length) {
+			int m = mismatch(a, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) (aFrom + i) << 3), b, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) (bFrom + i) << 3), length - i, 3);
+			if (m < 0) {
+				return -1;
+			}
+			i += m;
+			if (!(Double.isNaN(a[aFrom + i]) && Double.isNaN(b[bFrom + i]))) {
+				return i;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/*
+	 * Hash codes are computed eight elements at a time: as h(n+1) = 31 * h(n)
+	 * + e(n), eight steps give h(n+8) = 31^8 * h(n) + 31^7 * e(n) + ... +
+	 * e(n+7), in which the products of the elements are independent, rather
+	 * than a chain of eight dependent multiplications. Products overflow in
+	 * the same way, so that the result is identical to the simple loop.
+	 */
+
+	private static final int P1 = 31, P2 = P1 * 31, P3 = P2 * 31, P4 = P3 * 31, P5 = P4 * 31, P6 = P5 * 31, P7 = P6 * 31, P8 = P7 * 31;
+
+	static int hashCode(long[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * hash(a[i])) + (P6 * hash(a[i + 1])) + (P5 * hash(a[i + 2])) + (P4 * hash(a[i + 3])) + (P3 * hash(a[i + 4])) + (P2 * hash(a[i + 5])) + (P1 * hash(a[i + 6])) + hash(a[i + 7]);
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + hash(a[i]);
+		}
+		return result;
+	}
+
+	static int hashCode(int[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * a[i]) + (P6 * a[i + 1]) + (P5 * a[i + 2]) + (P4 * a[i + 3]) + (P3 * a[i + 4]) + (P2 * a[i + 5]) + (P1 * a[i + 6]) + a[i + 7];
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + a[i];
+		}
+		return result;
+	}
+
+	static int hashCode(short[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * a[i]) + (P6 * a[i + 1]) + (P5 * a[i + 2]) + (P4 * a[i + 3]) + (P3 * a[i + 4]) + (P2 * a[i + 5]) + (P1 * a[i + 6]) + a[i + 7];
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + a[i];
+		}
+		return result;
+	}
+
+	static int hashCode(char[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * a[i]) + (P6 * a[i + 1]) + (P5 * a[i + 2]) + (P4 * a[i + 3]) + (P3 * a[i + 4]) + (P2 * a[i + 5]) + (P1 * a[i + 6]) + a[i + 7];
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + a[i];
+		}
+		return result;
+	}
+
+	static int hashCode(byte[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * a[i]) + (P6 * a[i + 1]) + (P5 * a[i + 2]) + (P4 * a[i + 3]) + (P3 * a[i + 4]) + (P2 * a[i + 5]) + (P1 * a[i + 6]) + a[i + 7];
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + a[i];
+		}
+		return result;
+	}
+
+	static int hashCode(boolean[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * hash(a[i])) + (P6 * hash(a[i + 1])) + (P5 * hash(a[i + 2])) + (P4 * hash(a[i + 3])) + (P3 * hash(a[i + 4])) + (P2 * hash(a[i + 5])) + (P1 * hash(a[i + 6])) + hash(a[i + 7]);
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + hash(a[i]);
+		}
+		return result;
+	}
+
+	static int hashCode(float[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * Float.floatToIntBits(a[i])) + (P6 * Float.floatToIntBits(a[i + 1])) + (P5 * Float.floatToIntBits(a[i + 2])) + (P4 * Float.floatToIntBits(a[i + 3])) + (P3 * Float.floatToIntBits(a[i + 4])) + (P2 * Float.floatToIntBits(a[i + 5])) + (P1 * Float.floatToIntBits(a[i + 6])) + Float.floatToIntBits(a[i + 7]);
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + Float.floatToIntBits(a[i]);
+		}
+		return result;
+	}
+
+	static int hashCode(double[] a) {
+		int result = 1, i = 0;
+		final int n = a.length;
+		for (int end = n - 7; i < end; i += 8) {
+			result = (P8 * result) + (P7 * hash(a[i])) + (P6 * hash(a[i + 1])) + (P5 * hash(a[i + 2])) + (P4 * hash(a[i + 3])) + (P3 * hash(a[i + 4])) + (P2 * hash(a[i + 5])) + (P1 * hash(a[i + 6])) + hash(a[i + 7]);
+		}
+		for (; i < n; i++) {
+			result = (P1 * result) + hash(a[i]);
+		}
+		return result;
+	}
+
+	private static int hash(long e) {
+		return (int) (e ^ (e >>> 32));
+	}
+
+	private static int hash(double e) {
+		return hash(Double.doubleToLongBits(e));
+	}
+
+	private static int hash(boolean e) {
+		return (e) ? 1231 : 1237;
+	}
+}
@@ -0,0 +1,783 @@
+package java.util;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.function.Consumer;
+import sun.misc.SharedSecrets;
+
+/**
+ * A resizable-array implementation of the {@code List} and {@code Deque}
+ * interfaces that stores its elements in a circular buffer with the same
+ * power-of-two layout as {@link ArrayDeque}. Unlike {@code ArrayDeque} it
+ * permits {@code null} elements and positional access: {@code get} and
+ * {@code set} run in constant time, adding or removing at either end runs in
+ * amortized constant time, and adding or removing at an index moves the
+ * elements on the shorter side of it, so takes time proportional to the
+ * distance to the nearer end.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> The
+ * iterators and spliterators returned by this class are <i>fail-fast</i> on a
+ * best-effort basis.
+ *
+ * @param <E>
+ *            the type of elements held in this list
+ * @see ArrayDeque
+ * @see ArrayList
+ */
+public class CircularArrayList<E> extends AbstractList<E> implements List<E>, Deque<E>, RandomAccess, Cloneable, Serializable {
+	private static final long serialVersionUID = 3125712393541271387L;
+
+	/**
+	 * The array in which the elements are stored. Its length is always a power
+	 * of two, and the element at index {@code i} is stored at
+	 * {@code (head + i) & (elements.length - 1)}.
+	 */
+	transient Object[] elements;
+	/** The slot of the element at index 0 */
+	transient int head;
+	/** The number of elements in the list */
+	transient int size;
+	private static final int MIN_INITIAL_CAPACITY = 8;
+
+	private static int calculateSize(int numElements) {
+		int initialCapacity = MIN_INITIAL_CAPACITY;
+		if (numElements >= initialCapacity) {
+			initialCapacity = numElements;
+			initialCapacity |= (initialCapacity >>> 1);
+			initialCapacity |= (initialCapacity >>> 2);
+			initialCapacity |= (initialCapacity >>> 4);
+			initialCapacity |= (initialCapacity >>> 8);
+			initialCapacity |= (initialCapacity >>> 16);
+			initialCapacity++;
+			if (initialCapacity < 0) {
+				throw new IllegalStateException("Sorry, list too big");
+			}
+		}
+		return initialCapacity;
+	}
+
+	/**
+	 * Moves the elements into a new array with room for at least the given
+	 * number of elements, starting at slot 0.
+	 */
+	private void resize(int minCapacity) {
+		Object[] a = new Object[calculateSize(minCapacity)];
+		copyTo(a, 0);
+		elements = a;
+		head = 0;
+	}
+
+	/** Copies the elements in order into the given array */
+	private void copyTo(Object[] a, int offset) {
+		Object[] es = elements;
+		int r = Math.min(size, es.length - head);
+		System.arraycopy(es, head, a, offset, r);
+		System.arraycopy(es, 0, a, offset + r, size - r);
+	}
+
+	private void ensureCapacityInternal(int minCapacity) {
+		if (minCapacity < 0) {
+			throw new IllegalStateException("Sorry, list too big");
+		}
+		if (minCapacity > elements.length) {
+			resize(minCapacity);
+		}
+	}
+
+	/**
+	 * Moves the {@code len} elements starting at index {@code from} so that
+	 * they start at index {@code to}. The ranges may overlap, and either index
+	 * may lie outside the list as long as both ranges fit in the array.
+	 */
+	private void shift(int from, int to, int len) {
+		final Object[] es = elements;
+		final int n = es.length, mask = n - 1;
+		if (to < from) {
+			int s = (head + from) & mask, d = (head + to) & mask;
+			while (len > 0) {
+				int c = Math.min(len, Math.min(n - s, n - d));
+				System.arraycopy(es, s, es, d, c);
+				s = (s + c) & mask;
+				d = (d + c) & mask;
+				len -= c;
+			}
+		} else if (to > from) {
+			int s = (head + from + len) & mask, d = (head + to + len) & mask;
+			while (len > 0) {
+				int c = Math.min(len, Math.min((s == 0) ? n : s, (d == 0) ? n : d));
+				s = (s - c) & mask;
+				d = (d - c) & mask;
+				System.arraycopy(es, s, es, d, c);
+				len -= c;
+			}
+		}
+	}
+
+	/** Nulls out the {@code len} slots starting at index {@code from} */
+	private void clearSlots(int from, int len) {
+		final Object[] es = elements;
+		final int n = es.length;
+		int s = (head + from) & (n - 1);
+		while (len > 0) {
+			int c = Math.min(len, n - s);
+			Arrays.fill(es, s, s + c, null);
+			s = (s + c) & (n - 1);
+			len -= c;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		return (E) elements[(head + index) & (elements.length - 1)];
+	}
+
+	private void rangeCheck(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+		}
+	}
+
+	private void rangeCheckForAdd(int index) {
+		if ((index < 0) || (index > size)) {
+			throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+		}
+	}
+
+	private String outOfBoundsMsg(int index) {
+		return "Index: " + index + ", Size: " + size;
+	}
+
+	/**
+	 * Constructs an empty list with an initial capacity sufficient to hold 16
+	 * elements.
+	 */
+	public CircularArrayList() {
+		elements = new Object[16];
+	}
+
+	/**
+	 * Constructs an empty list with an initial capacity sufficient to hold the
+	 * specified number of elements.
+	 *
+	 * @param numElements
+	 *            lower bound on initial capacity of the list
+	 * @throws IllegalArgumentException
+	 *             if the specified number of elements is negative
+	 */
+	public CircularArrayList(int numElements) {
+		if (numElements < 0) {
+			throw new IllegalArgumentException("Illegal Capacity: " + numElements);
+		}
+		elements = new Object[calculateSize(numElements)];
+	}
+
+	/**
+	 * Constructs a list containing the elements of the specified collection,
+	 * in the order they are returned by the collection's iterator.
+	 *
+	 * @param c
+	 *            the collection whose elements are to be placed into the list
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public CircularArrayList(Collection<? extends E> c) {
+		Object[] a = c.toArray();
+		elements = new Object[calculateSize(a.length)];
+		System.arraycopy(a, 0, elements, 0, a.length);
+		size = a.length;
+	}
+
+	/**
+	 * Increases the capacity of this list, if necessary, to ensure that it can
+	 * hold at least the specified number of elements without growing.
+	 *
+	 * @param minCapacity
+	 *            the desired minimum capacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			modCount++;
+			resize(minCapacity);
+		}
+	}
+
+	/**
+	 * Trims the capacity of this list to the smallest power of two that holds
+	 * its elements.
+	 */
+	public void trimToSize() {
+		if (calculateSize(size) < elements.length) {
+			modCount++;
+			resize(size);
+		}
+	}
+
+	// Positional access
+
+	@Override
+	public E get(int index) {
+		rangeCheck(index);
+		return elementAt(index);
+	}
+
+	@Override
+	public E set(int index, E element) {
+		rangeCheck(index);
+		int i = (head + index) & (elements.length - 1);
+		@SuppressWarnings("unchecked")
+		E oldValue = (E) elements[i];
+		elements[i] = element;
+		return oldValue;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list,
+	 * moving the elements before or after it, whichever are fewer.
+	 *
+	 * @param index
+	 *            index at which the specified element is to be inserted
+	 * @param element
+	 *            element to be inserted
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public void add(int index, E element) {
+		rangeCheckForAdd(index);
+		modCount++;
+		if (size == elements.length) {
+			resize(size + 1);
+		}
+		if (index < (size >>> 1)) {
+			shift(0, -1, index);
+			head = (head - 1) & (elements.length - 1);
+		} else {
+			shift(index, index + 1, size - index);
+		}
+		elements[(head + index) & (elements.length - 1)] = element;
+		size++;
+	}
+
+	/**
+	 * Removes the element at the specified position in this list, moving the
+	 * elements before or after it, whichever are fewer.
+	 *
+	 * @param index
+	 *            the index of the element to be removed
+	 * @return the element previously at the specified position
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public E remove(int index) {
+		rangeCheck(index);
+		modCount++;
+		E oldValue = elementAt(index);
+		if (index < (size >>> 1)) {
+			shift(0, 1, index);
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+		} else {
+			shift(index + 1, index, size - index - 1);
+			elements[(head + size - 1) & (elements.length - 1)] = null;
+		}
+		size--;
+		return oldValue;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		rangeCheckForAdd(index);
+		Object[] a = c.toArray();
+		int numNew = a.length;
+		modCount++;
+		if (numNew == 0) {
+			return false;
+		}
+		ensureCapacityInternal(size + numNew);
+		if (index < (size - index)) {
+			shift(0, -numNew, index);
+			head = (head - numNew) & (elements.length - 1);
+		} else {
+			shift(index, index + numNew, size - index);
+		}
+		final Object[] es = elements;
+		final int n = es.length;
+		for (int s = (head + index) & (n - 1), i = 0; i < numNew;) {
+			int cnt = Math.min(numNew - i, n - s);
+			System.arraycopy(a, i, es, s, cnt);
+			s = (s + cnt) & (n - 1);
+			i += cnt;
+		}
+		size += numNew;
+		return true;
+	}
+
+	/**
+	 * Removes the elements with indexes from {@code fromIndex}, inclusive, to
+	 * {@code toIndex}, exclusive, moving the elements before or after them,
+	 * whichever are fewer.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if ((fromIndex < 0) || (toIndex > size) || (fromIndex > toIndex)) {
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+		}
+		int n = toIndex - fromIndex;
+		if (n == 0) {
+			return;
+		}
+		modCount++;
+		if (fromIndex < (size - toIndex)) {
+			shift(0, n, fromIndex);
+			clearSlots(0, n);
+			head = (head + n) & (elements.length - 1);
+		} else {
+			shift(toIndex, fromIndex, size - toIndex);
+			clearSlots(size - n, n);
+		}
+		size -= n;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		clearSlots(0, size);
+		head = 0;
+		size = 0;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < size; i++) {
+			if (Objects.equals(o, elementAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (Objects.equals(o, elementAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] a = new Object[size];
+		copyTo(a, 0);
+		return a;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (a.length < size) {
+			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+		}
+		copyTo(a, 0);
+		if (a.length > size) {
+			a[size] = null;
+		}
+		return a;
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		final int expectedModCount = modCount;
+		for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
+			action.accept(elementAt(i));
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Sorts this list in place, first moving the elements to the start of the
+	 * array if they wrap around its end.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		final int expectedModCount = modCount;
+		if (head + size > elements.length) {
+			Object[] a = new Object[elements.length];
+			copyTo(a, 0);
+			elements = a;
+			head = 0;
+		}
+		Arrays.sort((E[]) elements, head, head + size, c);
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+		modCount++;
+	}
+
+	// Deque operations
+
+	@Override
+	public void addFirst(E e) {
+		modCount++;
+		if (size == elements.length) {
+			resize(size + 1);
+		}
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = e;
+		size++;
+	}
+
+	@Override
+	public void addLast(E e) {
+		modCount++;
+		if (size == elements.length) {
+			resize(size + 1);
+		}
+		elements[(head + size) & (elements.length - 1)] = e;
+		size++;
+	}
+
+	@Override
+	public boolean offerFirst(E e) {
+		addFirst(e);
+		return true;
+	}
+
+	@Override
+	public boolean offerLast(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public E removeFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return pollFirst();
+	}
+
+	@Override
+	public E removeLast() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return pollLast();
+	}
+
+	@Override
+	public E pollFirst() {
+		if (size == 0) {
+			return null;
+		}
+		modCount++;
+		@SuppressWarnings("unchecked")
+		E result = (E) elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return result;
+	}
+
+	@Override
+	public E pollLast() {
+		if (size == 0) {
+			return null;
+		}
+		modCount++;
+		int t = (head + size - 1) & (elements.length - 1);
+		@SuppressWarnings("unchecked")
+		E result = (E) elements[t];
+		elements[t] = null;
+		size--;
+		return result;
+	}
+
+	@Override
+	public E getFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return elementAt(0);
+	}
+
+	@Override
+	public E getLast() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return elementAt(size - 1);
+	}
+
+	@Override
+	public E peekFirst() {
+		return (size == 0) ? null : elementAt(0);
+	}
+
+	@Override
+	public E peekLast() {
+		return (size == 0) ? null : elementAt(size - 1);
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		int i = indexOf(o);
+		if (i < 0) {
+			return false;
+		}
+		remove(i);
+		return true;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		int i = lastIndexOf(o);
+		if (i < 0) {
+			return false;
+		}
+		remove(i);
+		return true;
+	}
+
+	@Override
+	public boolean offer(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	@Override
+	public E poll() {
+		return pollFirst();
+	}
+
+	@Override
+	public E element() {
+		return getFirst();
+	}
+
+	@Override
+	public E peek() {
+		return peekFirst();
+	}
+
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		final ListIterator<E> it = listIterator(size);
+		return new Iterator<E>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasPrevious();
+			}
+
+			@Override
+			public E next() {
+				return it.previous();
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+			}
+		};
+	}
+
+	/**
+	 * Returns a shallow copy of this list: the elements themselves are not
+	 * cloned.
+	 *
+	 * @return a shallow copy of this list
+	 */
+	@Override
+	public CircularArrayList<E> clone() {
+		try {
+			@SuppressWarnings("unchecked")
+			CircularArrayList<E> result = (CircularArrayList<E>) super.clone();
+			result.elements = Arrays.copyOf(elements, elements.length);
+			result.modCount = 0;
+			return result;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Saves this list to a stream (that is, serializes it).
+	 *
+	 * @serialData The current size ({@code int}) of the list, followed by all
+	 *             of its elements (each an object reference) in order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		int expectedModCount = modCount;
+		s.defaultWriteObject();
+		s.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			s.writeObject(elementAt(i));
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Reconstitutes this list from a stream (that is, deserializes it).
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		int n = s.readInt();
+		if (n < 0) {
+			throw new java.io.StreamCorruptedException("Illegal size: " + n);
+		}
+		int capacity = calculateSize(n);
+		SharedSecrets.getJavaOISAccess().checkArray(s, Object[].class, capacity);
+		elements = new Object[capacity];
+		for (int i = 0; i < n; i++) {
+			elements[i] = s.readObject();
+		}
+		head = 0;
+		size = n;
+	}
+
+	/**
+	 * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+	 * and <em>fail-fast</em> {@link Spliterator} over the elements in this
+	 * list, which splits by index.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED},
+	 * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+	 *
+	 * @return a {@code Spliterator} over the elements in this list
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new CircularListSpliterator<>(this, 0, -1, 0);
+	}
+
+	/** Index-based split-by-two, lazily initialized Spliterator */
+	static final class CircularListSpliterator<E> implements Spliterator<E> {
+		private final CircularArrayList<E> list;
+		private int index; // current index, modified on advance/split
+		private int fence; // -1 until used; then one past last index
+		private int expectedModCount; // initialized when fence set
+
+		CircularListSpliterator(CircularArrayList<E> list, int origin, int fence, int expectedModCount) {
+			this.list = list;
+			this.index = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence() { // initialize fence to size on first use
+			int hi;
+			if ((hi = fence) < 0) {
+				expectedModCount = list.modCount;
+				hi = fence = list.size;
+			}
+			return hi;
+		}
+
+		@Override
+		public CircularListSpliterator<E> trySplit() {
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			return (lo >= mid) ? null : // divide range in half unless too small
+					new CircularListSpliterator<>(list, lo, index = mid, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence(), i = index;
+			if (i < hi) {
+				index = i + 1;
+				E e = list.elementAt(i);
+				action.accept(e);
+				if (list.modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence(), i = index;
+			index = hi;
+			final CircularArrayList<E> lst = list;
+			for (; (i < hi) && (lst.modCount == expectedModCount); i++) {
+				action.accept(lst.elementAt(i));
+			}
+			if (lst.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+}
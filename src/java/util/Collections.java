@@ -9,6 +9,9 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -35,6 +38,93 @@ public class Collections {
 		list.sort(c);
 	}
 
+	/**
+	 * Sorts the specified list into ascending order of the {@code int} keys
+	 * extracted by the given function, as by
+	 * {@link Arrays#sortByIntKey(Object[], ToIntFunction)}, which extracts the key of
+	 * each element only once. This sort is stable.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the list
+	 * @param list
+	 *            the list to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws UnsupportedOperationException
+	 *             if the specified list's list-iterator does not support the
+	 *             {@code set} operation
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> void sortByIntKey(List<T> list, ToIntFunction<? super T> keyExtractor) {
+		Object[] a = list.toArray();
+		Arrays.sortByIntKey(a, (ToIntFunction) keyExtractor);
+		ListIterator<T> i = list.listIterator();
+		for (Object e : a) {
+			i.next();
+			i.set((T) e);
+		}
+	}
+
+	/**
+	 * Sorts the specified list into ascending order of the {@code long} keys
+	 * extracted by the given function, as by
+	 * {@link Arrays#sortByLongKey(Object[], ToLongFunction)}, which extracts the key of
+	 * each element only once. This sort is stable.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the list
+	 * @param list
+	 *            the list to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws UnsupportedOperationException
+	 *             if the specified list's list-iterator does not support the
+	 *             {@code set} operation
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> void sortByLongKey(List<T> list, ToLongFunction<? super T> keyExtractor) {
+		Object[] a = list.toArray();
+		Arrays.sortByLongKey(a, (ToLongFunction) keyExtractor);
+		ListIterator<T> i = list.listIterator();
+		for (Object e : a) {
+			i.next();
+			i.set((T) e);
+		}
+	}
+
+	/**
+	 * Sorts the specified list into ascending order of the {@code double} keys
+	 * extracted by the given function, as by
+	 * {@link Arrays#sortByDoubleKey(Object[], ToDoubleFunction)}, which extracts the key of
+	 * each element only once. This sort is stable.
+	 *
+	 * @param <T>
+	 *            the class of the objects in the list
+	 * @param list
+	 *            the list to be sorted
+	 * @param keyExtractor
+	 *            the function extracting the sort key of an element
+	 * @throws UnsupportedOperationException
+	 *             if the specified list's list-iterator does not support the
+	 *             {@code set} operation
+	 * @throws NullPointerException
+	 *             if the key extractor is null
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> void sortByDoubleKey(List<T> list, ToDoubleFunction<? super T> keyExtractor) {
+		Object[] a = list.toArray();
+		Arrays.sortByDoubleKey(a, (ToDoubleFunction) keyExtractor);
+		ListIterator<T> i = list.listIterator();
+		for (Object e : a) {
+			i.next();
+			i.set((T) e);
+		}
+	}
+
 	public static <T> int binarySearch(List<? extends Comparable<? super T>> list, T key) {
 		if ((list instanceof RandomAccess) || (list.size() < BINARYSEARCH_THRESHOLD)) {
 			return Collections.indexedBinarySearch(list, key);
@@ -1490,6 +1580,261 @@ public class Collections {
 		}
 	}
 
+	/**
+	 * Sets whether a synchronized collection is in <i>read-mostly</i> mode.
+	 * The collection must have been returned by one of the
+	 * {@code synchronized} methods of this class, or be a {@link Vector}, or
+	 * a view of either; the mode then applies to the collection or map whose
+	 * lock it uses, and to all the views that share that lock.
+	 *
+	 * <p>
+	 * In read-mostly mode, {@code size}, {@code isEmpty}, {@code contains}
+	 * and {@code containsAll}, and also {@code get}, {@code indexOf} and
+	 * {@code lastIndexOf} of lists and {@code containsKey},
+	 * {@code containsValue}, {@code get} and {@code getOrDefault} of maps,
+	 * first call the backing collection without locking. Then, in the manner
+	 * of a sequence lock, they validate that no write intervened, made through
+	 * the synchronized collection, its views, or their iterators. Only if one
+	 * did, or if the call threw an exception, do they call again holding the
+	 * lock. Concurrent readers therefore no longer contend for the lock, at
+	 * the cost of a little more work for each write. Writes still hold the
+	 * lock, so synchronizing on the collection still excludes them, and the
+	 * results are the same as in the default mode.
+	 *
+	 * <p>
+	 * The mode requires that the reads of the backing collection do not modify
+	 * it, and that they return or throw, rather than fail in some other way,
+	 * when they race with one of its writes. It can therefore only be enabled
+	 * when the backing collection is an instance of exactly one of
+	 * {@link ArrayList}, {@link LinkedList}, {@link ArrayDeque},
+	 * {@link PriorityQueue}, {@link CircularArrayList},
+	 * {@link UnrolledLinkedList}, {@link HashSet}, {@link LinkedHashSet},
+	 * {@link CompactHashSet}, {@link CompactLinkedHashSet} and
+	 * {@link TreeSet}, or is an {@link EnumSet}, and when the backing map is an
+	 * instance of exactly one of {@link HashMap}, {@link TreeMap},
+	 * {@link IdentityHashMap} and {@link EnumMap}, or an insertion-ordered
+	 * {@link LinkedHashMap}. Subclasses, views such as the key set of a map,
+	 * and collections backed by other maps, such as those of a
+	 * {@link WeakHashMap}, are rejected. As always, all access to the backing
+	 * collection must be through the synchronized collection. Setting the
+	 * value of a map entry is not treated as a write, which is safe when, as
+	 * for the maps listed, it replaces a single reference.
+	 *
+	 * @param c
+	 *            the synchronized collection
+	 * @param readMostly
+	 *            whether to read optimistically
+	 * @throws IllegalArgumentException
+	 *             if the collection is not a synchronized collection, or
+	 *             {@code readMostly} is true and its backing collection or map
+	 *             is not one of those listed above
+	 */
+	public static void setReadMostly(Collection<?> c, boolean readMostly) {
+		setReadMostlyMutex((c instanceof SynchronizedCollection) ? ((SynchronizedCollection<?>) c).mutex : c, readMostly);
+	}
+
+	/**
+	 * Sets whether a synchronized map is in <i>read-mostly</i> mode. The map
+	 * must have been returned by one of the {@code synchronized} methods of
+	 * this class, or be a view of one; see
+	 * {@link #setReadMostly(Collection, boolean)}.
+	 *
+	 * @param m
+	 *            the synchronized map
+	 * @param readMostly
+	 *            whether to read optimistically
+	 * @throws IllegalArgumentException
+	 *             if the map is not a synchronized map, or {@code readMostly}
+	 *             is true and its backing map is not one of those listed at
+	 *             {@link #setReadMostly(Collection, boolean)}
+	 */
+	public static void setReadMostly(Map<?, ?> m, boolean readMostly) {
+		setReadMostlyMutex((m instanceof SynchronizedMap) ? ((SynchronizedMap<?, ?>) m).mutex : m, readMostly);
+	}
+
+	private static void setReadMostlyMutex(Object mutex, boolean readMostly) {
+		if (mutex instanceof Vector) {
+			((Vector<?>) mutex).setReadMostly(readMostly);
+			return;
+		}
+		synchronized (mutex) {
+			SequenceLock sl;
+			if (mutex instanceof SynchronizedCollection) {
+				SynchronizedCollection<?> sc = (SynchronizedCollection<?>) mutex;
+				if (readMostly && !hasPureReads(sc.c)) {
+					throw new IllegalArgumentException("Reads of the backing collection may modify it");
+				}
+				if (((sl = sc.seqLock) == null) && readMostly) {
+					sc.seqLock = sl = new SequenceLock();
+				}
+			} else if (mutex instanceof SynchronizedMap) {
+				SynchronizedMap<?, ?> sm = (SynchronizedMap<?, ?>) mutex;
+				if (readMostly && !hasPureReads(sm.m)) {
+					throw new IllegalArgumentException("Reads of the backing map may modify it");
+				}
+				if (((sl = sm.seqLock) == null) && readMostly) {
+					sm.seqLock = sl = new SequenceLock();
+				}
+			} else {
+				throw new IllegalArgumentException("Not a synchronized collection");
+			}
+			if (sl != null) {
+				sl.setEnabled(readMostly);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given backing collection or map is one of those
+	 * whose reads are known not to modify it. Classes are matched exactly,
+	 * since a subclass may override a read; EnumSet cannot be subclassed
+	 * outside this package.
+	 */
+	private static boolean hasPureReads(Object backing) {
+		Class<?> k = backing.getClass();
+		if (k == LinkedHashMap.class) {
+			return !((LinkedHashMap<?, ?>) backing).accessOrder;
+		}
+		return (k == ArrayList.class) || (k == LinkedList.class) || (k == ArrayDeque.class) || (k == PriorityQueue.class) || (k == CircularArrayList.class) || (k == UnrolledLinkedList.class) || (k == HashSet.class) || (k == LinkedHashSet.class) || (k == CompactHashSet.class) || (k == CompactLinkedHashSet.class) || (k == TreeSet.class) || (backing instanceof EnumSet) || (k == HashMap.class) || (k == TreeMap.class) || (k == IdentityHashMap.class) || (k == EnumMap.class);
+	}
+
+	/**
+	 * Returns the lock validating the optimistic reads of the synchronized
+	 * collection, map or vector that is the given mutex, or null if it has
+	 * never been in read-mostly mode. Once set, the lock does not change.
+	 */
+	static SequenceLock sequenceLock(Object mutex) {
+		if (mutex instanceof SynchronizedCollection) {
+			return ((SynchronizedCollection<?>) mutex).seqLock;
+		} else if (mutex instanceof SynchronizedMap) {
+			return ((SynchronizedMap<?, ?>) mutex).seqLock;
+		} else if (mutex instanceof Vector) {
+			return ((Vector<?>) mutex).seqLock;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a stamp for an optimistic read of a collection locked by the
+	 * given mutex, or zero if it is not in read-mostly mode or being written.
+	 */
+	static long tryOptimisticRead(Object mutex) {
+		SequenceLock sl = sequenceLock(mutex);
+		return (sl == null) ? 0L : sl.tryOptimisticRead();
+	}
+
+	static boolean validate(Object mutex, long stamp) {
+		return sequenceLock(mutex).validate(stamp);
+	}
+
+	/**
+	 * Begins a write of a collection locked by the given mutex, which must be
+	 * held, for read-mostly mode. Must be followed by {@link #endWrite} in a
+	 * {@code finally} block.
+	 */
+	static SequenceLock beginWrite(Object mutex) {
+		SequenceLock sl = sequenceLock(mutex);
+		if (sl != null) {
+			sl.beginWrite();
+		}
+		return sl;
+	}
+
+	static void endWrite(SequenceLock sl) {
+		if (sl != null) {
+			sl.endWrite();
+		}
+	}
+
+	/**
+	 * An iterator of a collection that has been in read-mostly mode, whose
+	 * writes, made holding the lock as for any iteration of a synchronized
+	 * collection, fail the validation of concurrent optimistic reads.
+	 */
+	static class SequencedIterator<E> implements Iterator<E> {
+		final Iterator<E> it;
+		final SequenceLock sl;
+
+		SequencedIterator(Iterator<E> it, SequenceLock sl) {
+			this.it = it;
+			this.sl = sl;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+
+		@Override
+		public E next() {
+			return it.next();
+		}
+
+		@Override
+		public void remove() {
+			sl.beginWrite();
+			try {
+				it.remove();
+			} finally {
+				sl.endWrite();
+			}
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			it.forEachRemaining(action);
+		}
+	}
+
+	static final class SequencedListIterator<E> extends SequencedIterator<E> implements ListIterator<E> {
+		final ListIterator<E> lit;
+
+		SequencedListIterator(ListIterator<E> lit, SequenceLock sl) {
+			super(lit, sl);
+			this.lit = lit;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return lit.hasPrevious();
+		}
+
+		@Override
+		public E previous() {
+			return lit.previous();
+		}
+
+		@Override
+		public int nextIndex() {
+			return lit.nextIndex();
+		}
+
+		@Override
+		public int previousIndex() {
+			return lit.previousIndex();
+		}
+
+		@Override
+		public void set(E e) {
+			sl.beginWrite();
+			try {
+				lit.set(e);
+			} finally {
+				sl.endWrite();
+			}
+		}
+
+		@Override
+		public void add(E e) {
+			sl.beginWrite();
+			try {
+				lit.add(e);
+			} finally {
+				sl.endWrite();
+			}
+		}
+	}
+
 	public static <T> Collection<T> synchronizedCollection(Collection<T> c) {
 		return new SynchronizedCollection<>(c);
 	}
@@ -1502,6 +1847,8 @@ public class Collections {
 		private static final long serialVersionUID = 3053995032091335093L;
 		final Collection<E> c;
 		final Object mutex;
+		/** Set once if this is the mutex of a collection put in read-mostly mode */
+		transient volatile SequenceLock seqLock;
 
 		SynchronizedCollection(Collection<E> c) {
 			this.c = Objects.requireNonNull(c);
@@ -1515,6 +1862,17 @@ public class Collections {
 
 		@Override
 		public int size() {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					int r = c.size();
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return c.size();
 			}
@@ -1522,6 +1880,17 @@ public class Collections {
 
 		@Override
 		public boolean isEmpty() {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = c.isEmpty();
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return c.isEmpty();
 			}
@@ -1529,6 +1898,17 @@ public class Collections {
 
 		@Override
 		public boolean contains(Object o) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = c.contains(o);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return c.contains(o);
 			}
@@ -1550,25 +1930,47 @@ public class Collections {
 
 		@Override
 		public Iterator<E> iterator() {
-			return c.iterator();
+			SequenceLock sl = sequenceLock(mutex);
+			return (sl == null) ? c.iterator() : new SequencedIterator<>(c.iterator(), sl);
 		}
 
 		@Override
 		public boolean add(E e) {
 			synchronized (mutex) {
-				return c.add(e);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.add(e);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean remove(Object o) {
 			synchronized (mutex) {
-				return c.remove(o);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.remove(o);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean containsAll(Collection<?> coll) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = c.containsAll(coll);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return c.containsAll(coll);
 			}
@@ -1577,28 +1979,48 @@ public class Collections {
 		@Override
 		public boolean addAll(Collection<? extends E> coll) {
 			synchronized (mutex) {
-				return c.addAll(coll);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.addAll(coll);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean removeAll(Collection<?> coll) {
 			synchronized (mutex) {
-				return c.removeAll(coll);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.removeAll(coll);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean retainAll(Collection<?> coll) {
 			synchronized (mutex) {
-				return c.retainAll(coll);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.retainAll(coll);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public void clear() {
 			synchronized (mutex) {
-				c.clear();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					c.clear();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -1619,7 +2041,12 @@ public class Collections {
 		@Override
 		public boolean removeIf(Predicate<? super E> filter) {
 			synchronized (mutex) {
-				return c.removeIf(filter);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return c.removeIf(filter);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -1840,14 +2267,24 @@ public class Collections {
 		@Override
 		public E pollFirst() {
 			synchronized (mutex) {
-				return ns.pollFirst();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return ns.pollFirst();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public E pollLast() {
 			synchronized (mutex) {
-				return ns.pollLast();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return ns.pollLast();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -1949,6 +2386,17 @@ public class Collections {
 
 		@Override
 		public E get(int index) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					E r = list.get(index);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return list.get(index);
 			}
@@ -1957,26 +2405,52 @@ public class Collections {
 		@Override
 		public E set(int index, E element) {
 			synchronized (mutex) {
-				return list.set(index, element);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return list.set(index, element);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public void add(int index, E element) {
 			synchronized (mutex) {
-				list.add(index, element);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					list.add(index, element);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public E remove(int index) {
 			synchronized (mutex) {
-				return list.remove(index);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return list.remove(index);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public int indexOf(Object o) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					int r = list.indexOf(o);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return list.indexOf(o);
 			}
@@ -1984,6 +2458,17 @@ public class Collections {
 
 		@Override
 		public int lastIndexOf(Object o) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					int r = list.lastIndexOf(o);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return list.lastIndexOf(o);
 			}
@@ -1992,18 +2477,24 @@ public class Collections {
 		@Override
 		public boolean addAll(int index, Collection<? extends E> c) {
 			synchronized (mutex) {
-				return list.addAll(index, c);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return list.addAll(index, c);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public ListIterator<E> listIterator() {
-			return list.listIterator();
+			return listIterator(0);
 		}
 
 		@Override
 		public ListIterator<E> listIterator(int index) {
-			return list.listIterator(index);
+			SequenceLock sl = sequenceLock(mutex);
+			return (sl == null) ? list.listIterator(index) : new SequencedListIterator<>(list.listIterator(index), sl);
 		}
 
 		@Override
@@ -2016,14 +2507,24 @@ public class Collections {
 		@Override
 		public void replaceAll(UnaryOperator<E> operator) {
 			synchronized (mutex) {
-				list.replaceAll(operator);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					list.replaceAll(operator);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public void sort(Comparator<? super E> c) {
 			synchronized (mutex) {
-				list.sort(c);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					list.sort(c);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -2063,6 +2564,8 @@ public class Collections {
 		private static final long serialVersionUID = 1978198479659022715L;
 		private final Map<K, V> m;
 		final Object mutex;
+		/** Set once if this is the mutex of a map put in read-mostly mode */
+		transient volatile SequenceLock seqLock;
 
 		SynchronizedMap(Map<K, V> m) {
 			this.m = Objects.requireNonNull(m);
@@ -2076,6 +2579,17 @@ public class Collections {
 
 		@Override
 		public int size() {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					int r = m.size();
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.size();
 			}
@@ -2083,6 +2597,17 @@ public class Collections {
 
 		@Override
 		public boolean isEmpty() {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = m.isEmpty();
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.isEmpty();
 			}
@@ -2090,6 +2615,17 @@ public class Collections {
 
 		@Override
 		public boolean containsKey(Object key) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = m.containsKey(key);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.containsKey(key);
 			}
@@ -2097,6 +2633,17 @@ public class Collections {
 
 		@Override
 		public boolean containsValue(Object value) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					boolean r = m.containsValue(value);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.containsValue(value);
 			}
@@ -2104,6 +2651,17 @@ public class Collections {
 
 		@Override
 		public V get(Object key) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					V r = m.get(key);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.get(key);
 			}
@@ -2112,28 +2670,48 @@ public class Collections {
 		@Override
 		public V put(K key, V value) {
 			synchronized (mutex) {
-				return m.put(key, value);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.put(key, value);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V remove(Object key) {
 			synchronized (mutex) {
-				return m.remove(key);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.remove(key);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public void putAll(Map<? extends K, ? extends V> map) {
 			synchronized (mutex) {
-				m.putAll(map);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					m.putAll(map);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public void clear() {
 			synchronized (mutex) {
-				m.clear();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					m.clear();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -2197,6 +2775,17 @@ public class Collections {
 
 		@Override
 		public V getOrDefault(Object k, V defaultValue) {
+			long stamp = tryOptimisticRead(mutex);
+			if (stamp != 0L) {
+				try {
+					V r = m.getOrDefault(k, defaultValue);
+					if (validate(mutex, stamp)) {
+						return r;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or failed; call again holding the lock
+				}
+			}
 			synchronized (mutex) {
 				return m.getOrDefault(k, defaultValue);
 			}
@@ -2212,63 +2801,108 @@ public class Collections {
 		@Override
 		public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
 			synchronized (mutex) {
-				m.replaceAll(function);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					m.replaceAll(function);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V putIfAbsent(K key, V value) {
 			synchronized (mutex) {
-				return m.putIfAbsent(key, value);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.putIfAbsent(key, value);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean remove(Object key, Object value) {
 			synchronized (mutex) {
-				return m.remove(key, value);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.remove(key, value);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public boolean replace(K key, V oldValue, V newValue) {
 			synchronized (mutex) {
-				return m.replace(key, oldValue, newValue);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.replace(key, oldValue, newValue);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V replace(K key, V value) {
 			synchronized (mutex) {
-				return m.replace(key, value);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.replace(key, value);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
 			synchronized (mutex) {
-				return m.computeIfAbsent(key, mappingFunction);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.computeIfAbsent(key, mappingFunction);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 			synchronized (mutex) {
-				return m.computeIfPresent(key, remappingFunction);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.computeIfPresent(key, remappingFunction);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 			synchronized (mutex) {
-				return m.compute(key, remappingFunction);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.compute(key, remappingFunction);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
 			synchronized (mutex) {
-				return m.merge(key, value, remappingFunction);
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return m.merge(key, value, remappingFunction);
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
@@ -2486,14 +3120,24 @@ public class Collections {
 		@Override
 		public Entry<K, V> pollFirstEntry() {
 			synchronized (mutex) {
-				return nm.pollFirstEntry();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return nm.pollFirstEntry();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
 		@Override
 		public Entry<K, V> pollLastEntry() {
 			synchronized (mutex) {
-				return nm.pollLastEntry();
+				SequenceLock sl = beginWrite(mutex);
+				try {
+					return nm.pollLastEntry();
+				} finally {
+					endWrite(sl);
+				}
 			}
 		}
 
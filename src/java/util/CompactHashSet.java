@@ -0,0 +1,626 @@
+package java.util;
+
+import java.io.InvalidObjectException;
+import java.util.function.Consumer;
+
+/**
+ * A hash table implementation of the {@link Set} interface using open
+ * addressing, which stores its elements without a per-element entry object.
+ * It may be used in place of {@link HashSet}, which wraps a {@link HashMap}
+ * whose nodes cost about 48 bytes per element: this set stores each element
+ * as a reference in one array and its hash code in a parallel
+ * {@code int[]}, which takes 8 to 12 bytes per slot, or about 11 to 21 bytes
+ * per element at the default load factor of 0.75.
+ *
+ * <p>
+ * Collisions are resolved by linear probing, from a home slot computed by
+ * Fibonacci hashing of the element's hash code, so that sequential and
+ * poorly distributed hash codes spread over the table. The cached hash codes
+ * avoid calls to {@code equals} for most elements that are not equal, and
+ * avoid recomputing hash codes when the table grows. Removal shifts the
+ * following elements of the cluster back rather than leaving deleted
+ * markers, so that the table does not degrade under repeated additions and
+ * removals.
+ *
+ * <p>
+ * This set permits the {@code null} element, and makes no guarantees as to
+ * its iteration order. Like {@link HashSet}, it is not synchronized, and its
+ * iterators and spliterators are <i>fail-fast</i>: if the set is modified
+ * after an iterator is created, in any way except through the iterator's own
+ * {@code remove} method, the iterator throws a
+ * {@link ConcurrentModificationException} on a best-effort basis. The
+ * spliterator splits the table into ranges of slots, for parallel streams.
+ *
+ * @param <E>
+ *            the type of elements maintained by this set
+ * @see CompactLinkedHashSet
+ * @see HashSet
+ */
+public class CompactHashSet<E> extends AbstractSet<E> implements Set<E>, Cloneable, java.io.Serializable {
+	private static final long serialVersionUID = 7308416395370224178L;
+
+	/** The default load factor */
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	/** The smallest table, which must leave a shift of less than 32 */
+	static final int MIN_CAPACITY = 4;
+
+	/** The largest table */
+	static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/** Represents the null element in the table, where null marks a free slot */
+	static final Object NULL_KEY = new Object();
+
+	/** The elements, with null for free slots and NULL_KEY for null */
+	transient Object[] keys;
+
+	/** The hash code of the element in each slot */
+	transient int[] hashes;
+
+	/** The shift that reduces a Fibonacci hash to a slot index */
+	transient int shift;
+
+	/** The size at which the table grows */
+	transient int threshold;
+
+	transient int size;
+
+	transient int modCount;
+
+	/** The load factor of the table */
+	final float loadFactor;
+
+	/**
+	 * Constructs an empty set with room for 12 elements before it grows, and
+	 * the default load factor (0.75).
+	 */
+	public CompactHashSet() {
+		this(12, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructs an empty set with room for the given number of elements
+	 * before it grows, and the default load factor (0.75).
+	 *
+	 * @param expectedSize
+	 *            the number of elements to make room for
+	 * @throws IllegalArgumentException
+	 *             if the expected size is negative
+	 */
+	public CompactHashSet(int expectedSize) {
+		this(expectedSize, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructs an empty set with room for the given number of elements
+	 * before it grows, and the given load factor.
+	 *
+	 * @param expectedSize
+	 *            the number of elements to make room for
+	 * @param loadFactor
+	 *            the ratio of the number of elements to the number of slots
+	 *            at which the table grows, which must be less than 1
+	 * @throws IllegalArgumentException
+	 *             if the expected size is negative, or the load factor is not
+	 *             positive or not less than 1
+	 */
+	public CompactHashSet(int expectedSize, float loadFactor) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+		}
+		if (!((loadFactor > 0) && (loadFactor < 1))) {
+			throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+		}
+		this.loadFactor = loadFactor;
+		allocate(capacityFor(expectedSize, loadFactor));
+	}
+
+	/**
+	 * Constructs a new set containing the elements in the specified
+	 * collection, with the default load factor (0.75).
+	 *
+	 * @param c
+	 *            the collection whose elements are to be placed into this set
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public CompactHashSet(Collection<? extends E> c) {
+		this(c.size(), DEFAULT_LOAD_FACTOR);
+		addAll(c);
+	}
+
+	/**
+	 * Returns the smallest table with room for the given number of elements.
+	 */
+	static int capacityFor(int expectedSize, float loadFactor) {
+		int cap = MIN_CAPACITY;
+		while ((cap < MAXIMUM_CAPACITY) && ((int) (cap * loadFactor) < expectedSize)) {
+			cap <<= 1;
+		}
+		return cap;
+	}
+
+	/**
+	 * Replaces the table by an empty table of the given capacity.
+	 */
+	void allocate(int capacity) {
+		keys = new Object[capacity];
+		hashes = new int[capacity];
+		shift = Integer.numberOfLeadingZeros(capacity) + 1;
+		// Always leave a free slot, which ends every probe sequence
+		threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+	}
+
+	static Object maskNull(Object o) {
+		return (o == null) ? NULL_KEY : o;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> E unmaskNull(Object k) {
+		return (k == NULL_KEY) ? null : (E) k;
+	}
+
+	static int hash(Object k) {
+		return (k == NULL_KEY) ? 0 : k.hashCode();
+	}
+
+	/**
+	 * Returns the home slot of the given hash code.
+	 */
+	final int home(int h) {
+		return (h * 0x9e3779b9) >>> shift;
+	}
+
+	/**
+	 * Returns the slot holding the given masked element, or -1 if it is
+	 * absent.
+	 */
+	final int findSlot(Object k, int h) {
+		final Object[] tab = keys;
+		final int[] hs = hashes;
+		final int mask = tab.length - 1;
+		for (int i = home(h);; i = (i + 1) & mask) {
+			Object e = tab[i];
+			if (e == null) {
+				return -1;
+			}
+			if ((hs[i] == h) && ((e == k) || ((k != NULL_KEY) && k.equals(e)))) {
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Stores a masked element known to be absent, without growing the table,
+	 * and returns its slot.
+	 */
+	final int place(Object k, int h) {
+		final Object[] tab = keys;
+		final int mask = tab.length - 1;
+		int i = home(h);
+		while (tab[i] != null) {
+			i = (i + 1) & mask;
+		}
+		tab[i] = k;
+		hashes[i] = h;
+		return i;
+	}
+
+	/**
+	 * Replaces the table by one of the given capacity holding the same
+	 * elements.
+	 */
+	void rehash(int newCapacity) {
+		Object[] oldKeys = keys;
+		int[] oldHashes = hashes;
+		allocate(newCapacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object k = oldKeys[i];
+			if (k != null) {
+				place(k, oldHashes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Called after an element is stored in the given slot by an addition.
+	 */
+	void inserted(int slot) {
+	}
+
+	/**
+	 * Called before the element in the given slot is removed.
+	 */
+	void removing(int slot) {
+	}
+
+	/**
+	 * Called after the element in slot from is moved to slot to.
+	 */
+	void moved(int from, int to) {
+	}
+
+	/**
+	 * Removes the element in the given slot, and moves back the following
+	 * elements of its cluster that may take its place, reporting the moves to
+	 * the given iterator if any.
+	 */
+	final void removeSlot(int slot, Itr it) {
+		removing(slot);
+		final Object[] tab = keys;
+		final int[] hs = hashes;
+		final int mask = tab.length - 1;
+		int hole = slot;
+		for (int j = (hole + 1) & mask;; j = (j + 1) & mask) {
+			Object e = tab[j];
+			if (e == null) {
+				break;
+			}
+			int h = hs[j];
+			// The element may move back if the hole lies between its home and j
+			if (((j - home(h)) & mask) >= ((j - hole) & mask)) {
+				tab[hole] = e;
+				hs[hole] = h;
+				moved(j, hole);
+				if (it != null) {
+					it.movedBack(j, hole, e);
+				}
+				hole = j;
+			}
+		}
+		tab[hole] = null;
+		hs[hole] = 0;
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this set contains the specified element.
+	 *
+	 * @param o
+	 *            element whose presence in this set is to be tested
+	 * @return <tt>true</tt> if this set contains the specified element
+	 */
+	@Override
+	public boolean contains(Object o) {
+		Object k = maskNull(o);
+		return findSlot(k, hash(k)) >= 0;
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present.
+	 *
+	 * @param e
+	 *            element to be added to this set
+	 * @return <tt>true</tt> if this set did not already contain the specified
+	 *         element
+	 * @throws IllegalStateException
+	 *             if the set already holds the largest supported number of
+	 *             elements
+	 */
+	@Override
+	public boolean add(E e) {
+		Object k = maskNull(e);
+		int h = hash(k);
+		final Object[] tab = keys;
+		final int[] hs = hashes;
+		final int mask = tab.length - 1;
+		int i = home(h);
+		for (Object x; (x = tab[i]) != null; i = (i + 1) & mask) {
+			if ((hs[i] == h) && ((x == k) || ((k != NULL_KEY) && k.equals(x)))) {
+				return false;
+			}
+		}
+		if (size >= threshold) {
+			if (tab.length == MAXIMUM_CAPACITY) {
+				throw new IllegalStateException("Set full");
+			}
+			rehash(tab.length << 1);
+			i = place(k, h);
+		} else {
+			tab[i] = k;
+			hs[i] = h;
+		}
+		size++;
+		modCount++;
+		inserted(i);
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present.
+	 *
+	 * @param o
+	 *            object to be removed from this set, if present
+	 * @return <tt>true</tt> if the set contained the specified element
+	 */
+	@Override
+	public boolean remove(Object o) {
+		Object k = maskNull(o);
+		int slot = findSlot(k, hash(k));
+		if (slot < 0) {
+			return false;
+		}
+		removeSlot(slot, null);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this set, keeping its capacity.
+	 */
+	@Override
+	public void clear() {
+		if (size > 0) {
+			allocate(keys.length);
+			size = 0;
+			modCount++;
+		}
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		final Object[] tab = keys;
+		final int mc = modCount;
+		for (int i = tab.length - 1; (i >= 0) && (modCount == mc); i--) {
+			Object k = tab[i];
+			if (k != null) {
+				action.accept(unmaskNull(k));
+			}
+		}
+		if (modCount != mc) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Iterates over the slots from the last to the first. Removing an element
+	 * through the iterator may move back an element from the start of the
+	 * table, not yet visited, to a slot after the current one, when a cluster
+	 * wraps around the end of the table; such elements are set aside and
+	 * returned once the slots are exhausted.
+	 */
+	final class Itr implements Iterator<E> {
+		/** The next slot holding an element, or -1 */
+		int next;
+		/** The slot of the last element returned, or -1 */
+		int last = -1;
+		/** The last element returned, masked, or null if removed */
+		Object lastKey;
+		/** Elements moved from unvisited to visited slots, or null */
+		ArrayList<Object> wrapped;
+		int wrappedIndex;
+		int expectedModCount = modCount;
+
+		Itr() {
+			next = seek(keys.length - 1);
+		}
+
+		private int seek(int i) {
+			final Object[] tab = keys;
+			while ((i >= 0) && (tab[i] == null)) {
+				i--;
+			}
+			return i;
+		}
+
+		void movedBack(int from, int to, Object k) {
+			if ((from < last) && (to >= last)) {
+				if (wrapped == null) {
+					wrapped = new ArrayList<>(2);
+				}
+				wrapped.add(k);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return (next >= 0) || ((wrapped != null) && (wrappedIndex < wrapped.size()));
+		}
+
+		@Override
+		public E next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= 0) {
+				last = next;
+				lastKey = keys[last];
+				next = seek(last - 1);
+			} else if ((wrapped != null) && (wrappedIndex < wrapped.size())) {
+				last = -1;
+				lastKey = wrapped.get(wrappedIndex++);
+			} else {
+				throw new NoSuchElementException();
+			}
+			return unmaskNull(lastKey);
+		}
+
+		@Override
+		public void remove() {
+			if (lastKey == null) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (last >= 0) {
+				removeSlot(last, this);
+				next = seek(last - 1);
+			} else {
+				removeSlot(findSlot(lastKey, hash(lastKey)), null);
+			}
+			lastKey = null;
+			expectedModCount = modCount;
+		}
+	}
+
+	/**
+	 * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+	 * and <em>fail-fast</em> {@link Spliterator} over the elements in this
+	 * set, which splits the table into halves.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED} and
+	 * {@link Spliterator#DISTINCT}.
+	 *
+	 * @return a {@code Spliterator} over the elements in this set
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new SlotSpliterator<>(this, 0, -1, 0, 0);
+	}
+
+	static final class SlotSpliterator<E> implements Spliterator<E> {
+		final CompactHashSet<E> set;
+		int index; // current slot, modified on advance/split
+		int fence; // one past last slot, or -1 until first use
+		int est; // size estimate
+		int expectedModCount; // for comodification checks
+
+		SlotSpliterator(CompactHashSet<E> set, int origin, int fence, int est, int expectedModCount) {
+			this.set = set;
+			this.index = origin;
+			this.fence = fence;
+			this.est = est;
+			this.expectedModCount = expectedModCount;
+		}
+
+		final int getFence() { // initialize fence and size on first use
+			int hi;
+			if ((hi = fence) < 0) {
+				est = set.size;
+				expectedModCount = set.modCount;
+				hi = fence = set.keys.length;
+			}
+			return hi;
+		}
+
+		@Override
+		public SlotSpliterator<E> trySplit() {
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			return (lo >= mid) ? null : new SlotSpliterator<>(set, lo, index = mid, est >>>= 1, expectedModCount);
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence(), i = index;
+			final Object[] tab = set.keys;
+			index = hi;
+			for (; i < hi; i++) {
+				Object k = tab[i];
+				if (k != null) {
+					action.accept(unmaskNull(k));
+				}
+			}
+			if (set.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence();
+			final Object[] tab = set.keys;
+			while (index < hi) {
+				Object k = tab[index++];
+				if (k != null) {
+					action.accept(unmaskNull(k));
+					if (set.modCount != expectedModCount) {
+						throw new ConcurrentModificationException();
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public long estimateSize() {
+			getFence(); // force init
+			return est;
+		}
+
+		@Override
+		public int characteristics() {
+			return (((fence < 0) || (est == set.size)) ? Spliterator.SIZED : 0) | Spliterator.DISTINCT;
+		}
+	}
+
+	/**
+	 * Returns a shallow copy of this set: the elements themselves are not
+	 * cloned.
+	 *
+	 * @return a shallow copy of this set
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object clone() {
+		try {
+			CompactHashSet<E> result = (CompactHashSet<E>) super.clone();
+			result.keys = keys.clone();
+			result.hashes = hashes.clone();
+			result.modCount = 0;
+			return result;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Save the state of this set to a stream (that is, serialize it).
+	 *
+	 * @serialData The load factor is emitted by the default serialization,
+	 *             followed by the size of the set (int), followed by all of its
+	 *             elements (each an Object) in iteration order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		int mc = modCount;
+		s.defaultWriteObject();
+		s.writeInt(size);
+		for (Iterator<E> it = iterator(); it.hasNext();) {
+			s.writeObject(it.next());
+		}
+		if (modCount != mc) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		if (!((loadFactor > 0) && (loadFactor < 1))) {
+			throw new InvalidObjectException("Illegal load factor: " + loadFactor);
+		}
+		int n = s.readInt();
+		if (n < 0) {
+			throw new InvalidObjectException("Illegal size: " + n);
+		}
+		allocate(capacityFor(n, loadFactor));
+		for (int i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			E e = (E) s.readObject();
+			add(e);
+		}
+	}
+}
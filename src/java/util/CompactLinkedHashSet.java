@@ -0,0 +1,248 @@
+package java.util;
+
+import java.util.function.Consumer;
+
+/**
+ * An insertion-ordered variant of {@link CompactHashSet}, which may be used
+ * in place of {@link LinkedHashSet}. The elements are linked in the order in
+ * which they were added by two {@code int[]} arrays parallel to the table,
+ * holding the slots of the previous and next elements, so that the set still
+ * has no per-element objects; it takes 8 more bytes per slot than
+ * {@link CompactHashSet}. Adding an element that is already present does not
+ * change its position.
+ *
+ * <p>
+ * Iteration takes time proportional to the size of the set regardless of
+ * its capacity, and the iterators and spliterators are <i>fail-fast</i>. The
+ * spliterator reports {@link Spliterator#ORDERED} and splits by taking
+ * batches of elements from the iterator, for parallel streams.
+ *
+ * @param <E>
+ *            the type of elements maintained by this set
+ * @see CompactHashSet
+ * @see LinkedHashSet
+ */
+public class CompactLinkedHashSet<E> extends CompactHashSet<E> {
+	private static final long serialVersionUID = -5343869815424460451L;
+
+	/** The slot of the previous and next element of each element, or -1 */
+	transient int[] before, after;
+
+	/** The slot of the first and last element, or -1 */
+	transient int head, tail;
+
+	/**
+	 * Constructs an empty set with room for 12 elements before it grows, and
+	 * the default load factor (0.75).
+	 */
+	public CompactLinkedHashSet() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty set with room for the given number of elements
+	 * before it grows, and the default load factor (0.75).
+	 *
+	 * @param expectedSize
+	 *            the number of elements to make room for
+	 * @throws IllegalArgumentException
+	 *             if the expected size is negative
+	 */
+	public CompactLinkedHashSet(int expectedSize) {
+		super(expectedSize);
+	}
+
+	/**
+	 * Constructs an empty set with room for the given number of elements
+	 * before it grows, and the given load factor.
+	 *
+	 * @param expectedSize
+	 *            the number of elements to make room for
+	 * @param loadFactor
+	 *            the ratio of the number of elements to the number of slots
+	 *            at which the table grows, which must be less than 1
+	 * @throws IllegalArgumentException
+	 *             if the expected size is negative, or the load factor is not
+	 *             positive or not less than 1
+	 */
+	public CompactLinkedHashSet(int expectedSize, float loadFactor) {
+		super(expectedSize, loadFactor);
+	}
+
+	/**
+	 * Constructs a new set containing the elements in the specified
+	 * collection, in the order they are returned by its iterator, with the
+	 * default load factor (0.75).
+	 *
+	 * @param c
+	 *            the collection whose elements are to be placed into this set
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public CompactLinkedHashSet(Collection<? extends E> c) {
+		super(c);
+	}
+
+	@Override
+	void allocate(int capacity) {
+		super.allocate(capacity);
+		before = new int[capacity];
+		after = new int[capacity];
+		head = tail = -1;
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		Object[] oldKeys = keys;
+		int[] oldHashes = hashes;
+		int[] oldAfter = after;
+		int s = head;
+		allocate(newCapacity);
+		for (; s >= 0; s = oldAfter[s]) {
+			inserted(place(oldKeys[s], oldHashes[s]));
+		}
+	}
+
+	@Override
+	void inserted(int slot) {
+		before[slot] = tail;
+		after[slot] = -1;
+		if (tail < 0) {
+			head = slot;
+		} else {
+			after[tail] = slot;
+		}
+		tail = slot;
+	}
+
+	@Override
+	void removing(int slot) {
+		int b = before[slot], a = after[slot];
+		if (b < 0) {
+			head = a;
+		} else {
+			after[b] = a;
+		}
+		if (a < 0) {
+			tail = b;
+		} else {
+			before[a] = b;
+		}
+	}
+
+	@Override
+	void moved(int from, int to) {
+		int b = before[from], a = after[from];
+		before[to] = b;
+		after[to] = a;
+		if (b < 0) {
+			head = to;
+		} else {
+			after[b] = to;
+		}
+		if (a < 0) {
+			tail = to;
+		} else {
+			before[a] = to;
+		}
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new LinkedItr();
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		final int mc = modCount;
+		for (int s = head; (s >= 0) && (modCount == mc); s = after[s]) {
+			action.accept(unmaskNull(keys[s]));
+		}
+		if (modCount != mc) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Follows the links from the first element. Removing an element may move
+	 * the next one to another slot, which is then found again by its hash.
+	 */
+	final class LinkedItr implements Iterator<E> {
+		int next = head;
+		int last = -1;
+		int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public E next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next < 0) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = after[last];
+			return unmaskNull(keys[last]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Object nextKey = (next >= 0) ? keys[next] : null;
+			removeSlot(last, null);
+			if ((nextKey != null) && (keys[next] != nextKey)) {
+				next = findSlot(nextKey, hash(nextKey));
+			}
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	/**
+	 * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+	 * and <em>fail-fast</em> {@code Spliterator} over the elements in this set.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED},
+	 * {@link Spliterator#DISTINCT}, and {@code ORDERED}.
+	 *
+	 * @implNote The implementation creates a
+	 *           <em><a href="Spliterator.html#binding">late-binding</a></em>
+	 *           spliterator from the set's {@code Iterator}. The spliterator
+	 *           inherits the <em>fail-fast</em> properties of the set's
+	 *           iterator. The created {@code Spliterator} additionally reports
+	 *           {@link Spliterator#SUBSIZED}.
+	 *
+	 * @return a {@code Spliterator} over the elements in this set
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.ORDERED);
+	}
+
+	/**
+	 * Returns a shallow copy of this set: the elements themselves are not
+	 * cloned.
+	 *
+	 * @return a shallow copy of this set
+	 */
+	@Override
+	public Object clone() {
+		@SuppressWarnings("unchecked")
+		CompactLinkedHashSet<E> result = (CompactLinkedHashSet<E>) super.clone();
+		result.before = before.clone();
+		result.after = after.clone();
+		return result;
+	}
+}
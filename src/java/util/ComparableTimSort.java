@@ -9,26 +9,34 @@ class ComparableTimSort {
 	private Object[] tmp;
 	private int tmpBase;
 	private int tmpLen;
+	private boolean tmpCached;
+	private int tmpUsed;
 	private int stackSize = 0;
 	private final int[] runBase;
 	private final int[] runLen;
+	private final int[] runPower;
+	private final int sortBase, sortLen;
 
-	private ComparableTimSort(Object[] a, Object[] work, int workBase, int workLen) {
+	private ComparableTimSort(Object[] a, Object[] work, int workBase, int workLen, int lo, int n) {
 		this.a = a;
+		this.sortBase = lo;
+		this.sortLen = n;
 		int len = a.length;
 		int tlen = (len < (2 * INITIAL_TMP_STORAGE_LENGTH)) ? len >>> 1 : INITIAL_TMP_STORAGE_LENGTH;
 		if ((work == null) || (workLen < tlen) || ((workBase + tlen) > work.length)) {
-			tmp = new Object[tlen];
+			tmp = MergeBuffers.acquire(tlen);
 			tmpBase = 0;
-			tmpLen = tlen;
+			tmpLen = tmp.length;
+			tmpCached = true;
 		} else {
 			tmp = work;
 			tmpBase = workBase;
 			tmpLen = workLen;
 		}
-		int stackLen = (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24 : 49);
+		int stackLen = 34 - Integer.numberOfLeadingZeros(n);
 		runBase = new int[stackLen];
 		runLen = new int[stackLen];
+		runPower = new int[stackLen];
 	}
 
 	/**
@@ -64,26 +72,30 @@ class ComparableTimSort {
 		}
 		/**
 		 * March over the array once, left to right, finding natural runs,
-		 * extending short natural runs to minRun elements, and merging runs to
-		 * maintain stack invariant.
+		 * extending short natural runs to minRun elements, and merging runs
+		 * as the merge policy directs.
 		 */
-		ComparableTimSort ts = new ComparableTimSort(a, work, workBase, workLen);
-		int minRun = minRunLength(nRemaining);
-		do {
-			int runLen = countRunAndMakeAscending(a, lo, hi);
-			if (runLen < minRun) {
-				int force = nRemaining <= minRun ? nRemaining : minRun;
-				binarySort(a, lo, lo + force, lo + runLen);
-				runLen = force;
-			}
-			ts.pushRun(lo, runLen);
-			ts.mergeCollapse();
-			lo += runLen;
-			nRemaining -= runLen;
-		} while (nRemaining != 0);
-		assert lo == hi;
-		ts.mergeForceCollapse();
-		assert ts.stackSize == 1;
+		ComparableTimSort ts = new ComparableTimSort(a, work, workBase, workLen, lo, nRemaining);
+		try {
+			int minRun = minRunLength(nRemaining);
+			do {
+				int runLen = countRunAndMakeAscending(a, lo, hi);
+				if (runLen < minRun) {
+					int force = nRemaining <= minRun ? nRemaining : minRun;
+					binarySort(a, lo, lo + force, lo + runLen);
+					runLen = force;
+				}
+				ts.mergeCollapse(runLen);
+				ts.pushRun(lo, runLen);
+				lo += runLen;
+				nRemaining -= runLen;
+			} while (nRemaining != 0);
+			assert lo == hi;
+			ts.mergeForceCollapse();
+			assert ts.stackSize == 1;
+		} finally {
+			ts.releaseTmp();
+		}
 	}
 
 	@SuppressWarnings({ "fallthrough", "rawtypes", "unchecked" })
@@ -165,19 +177,14 @@ class ComparableTimSort {
 		stackSize++;
 	}
 
-	private void mergeCollapse() {
-		while (stackSize > 1) {
-			int n = stackSize - 2;
-			if ((n > 0) && (runLen[n - 1] <= (runLen[n] + runLen[n + 1]))) {
-				if (runLen[n - 1] < runLen[n + 1]) {
-					n--;
-				}
-				mergeAt(n);
-			} else if (runLen[n] <= runLen[n + 1]) {
-				mergeAt(n);
-			} else {
-				break;
+	private void mergeCollapse(int len2) {
+		if (stackSize > 0) {
+			int n = stackSize - 1;
+			int power = TimSort.nodePower(runBase[n] - sortBase, runLen[n], len2, sortLen);
+			while ((stackSize > 1) && (runPower[stackSize - 2] > power)) {
+				mergeAt(stackSize - 2);
 			}
+			runPower[stackSize - 1] = power;
 		}
 	}
 
@@ -513,6 +520,9 @@ class ComparableTimSort {
 	}
 
 	private Object[] ensureCapacity(int minCapacity) {
+		if (tmpUsed < minCapacity) {
+			tmpUsed = minCapacity;
+		}
 		if (tmpLen < minCapacity) {
 			int newSize = minCapacity;
 			newSize |= newSize >> 1;
@@ -526,6 +536,10 @@ class ComparableTimSort {
 			} else {
 				newSize = Math.min(newSize, a.length >>> 1);
 			}
+			if (tmpCached) {
+				MergeBuffers.release(tmp, tmpLen);
+				tmpUsed = minCapacity;
+			}
 			@SuppressWarnings({ "UnnecessaryLocalVariable" })
 			Object[] newArray = new Object[newSize];
 			tmp = newArray;
@@ -534,4 +548,10 @@ class ComparableTimSort {
 		}
 		return tmp;
 	}
+
+	private void releaseTmp() {
+		if (tmpCached) {
+			MergeBuffers.release(tmp, Math.min(tmpUsed, tmpLen));
+		}
+	}
 }
@@ -0,0 +1,1700 @@
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of non-negative {@code int} indices with the methods of {@link BitSet},
+ * stored in compressed form. Unlike a {@code BitSet}, whose size is
+ * proportional to its highest set bit, a {@code CompressedBitSet} uses space
+ * proportional to the number of set bits or to the number of runs of
+ * consecutive set bits, whichever is smaller, so that a few scattered indices
+ * near {@code Integer.MAX_VALUE} take a few bytes rather than 256 MB.
+ *
+ * <p>
+ * Following the Roaring bitmap design of Chambi, Lemire et al., the index
+ * space is divided into chunks of 2<sup>16</sup> indices, keyed by the high 16
+ * bits of the index. Each non-empty chunk is stored in one of three kinds of
+ * container according to its contents:
+ * <ul>
+ * <li>a sorted array of the low 16 bits, for chunks with at most 4096 set
+ * bits;</li>
+ * <li>a bitmap of 1024 words, for denser chunks;</li>
+ * <li>a sorted array of runs, for chunks consisting of few runs. Run containers
+ * are created by {@link #set(int, int)} and by {@link #runOptimize()}.</li>
+ * </ul>
+ * Logical operations between two sets proceed chunk by chunk, merging sorted
+ * arrays or combining bitmap words according to the kinds of the containers.
+ *
+ * <p>
+ * {@link #serialize(ByteBuffer)} writes the set in a portable format that
+ * {@link #map(ByteBuffer)} can query in place, without deserializing it, for
+ * example in a memory-mapped file. The format is little-endian: an
+ * {@code int} magic number, the {@code int} number of containers <i>n</i>,
+ * <i>n</i> descriptors each of a {@code char} key, a {@code char} kind and
+ * an {@code int} cardinality, <i>n</i> {@code int} offsets of the containers
+ * from the start, and the containers, as 16-bit values, 64-bit words, or a
+ * 16-bit count of runs followed by the 16-bit start and length less one of
+ * each run.
+ *
+ * <p>
+ * A {@code CompressedBitSet} is not safe for multithreaded use without
+ * external synchronization.
+ *
+ * @see BitSet
+ */
+public class CompressedBitSet implements Cloneable, Serializable {
+	private static final long serialVersionUID = -2716374389523412907L;
+
+	/** The largest cardinality of an array container */
+	static final int ARRAY_MAX = 4096;
+	/** The number of words of a bitmap container */
+	static final int WORDS = 1024;
+	/** The number of indices of a chunk */
+	static final int CHUNK = 1 << 16;
+
+	static final int MAGIC = 0x43425331;
+	static final int ARRAY = 0, BITMAP = 1, RUN = 2;
+
+	/** The high 16 bits of the chunks, in ascending order */
+	private transient char[] keys;
+	/** The non-empty container of each chunk */
+	private transient Container[] containers;
+	private transient int size;
+
+	/**
+	 * Creates a new empty set.
+	 */
+	public CompressedBitSet() {
+		keys = new char[4];
+		containers = new Container[4];
+	}
+
+	private CompressedBitSet(char[] keys, Container[] containers, int size) {
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a new set containing the bits of the given long array, in the
+	 * order of {@link BitSet#valueOf(long[])}.
+	 *
+	 * @param longs
+	 *            a long array containing a little-endian representation of a
+	 *            sequence of bits
+	 * @return a {@code CompressedBitSet} containing the bits in the long array
+	 * @throws IllegalArgumentException
+	 *             if a bit beyond index {@code Integer.MAX_VALUE} is set
+	 */
+	public static CompressedBitSet valueOf(long[] longs) {
+		CompressedBitSet s = new CompressedBitSet();
+		for (int from = 0, key = 0; from < longs.length; from += WORDS, key++) {
+			int to = Math.min(from + WORDS, longs.length), card = 0;
+			for (int i = from; i < to; i++) {
+				card += Long.bitCount(longs[i]);
+			}
+			if (card != 0) {
+				if (key >= (CHUNK >>> 1)) {
+					throw new IllegalArgumentException("bit index > Integer.MAX_VALUE");
+				}
+				s.insertAt(s.size, key, Container.ofWords(Arrays.copyOfRange(longs, from, from + WORDS), card));
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Returns a new set containing the bits of the given {@code BitSet}.
+	 *
+	 * @param bs
+	 *            the bits
+	 * @return a {@code CompressedBitSet} containing the same bits
+	 */
+	public static CompressedBitSet valueOf(BitSet bs) {
+		return valueOf(bs.toLongArray());
+	}
+
+	/**
+	 * Returns a new long array containing all the bits in this set, in the
+	 * order of {@link BitSet#toLongArray()}.
+	 *
+	 * @return a long array containing a little-endian representation of all
+	 *         the bits in this set
+	 */
+	public long[] toLongArray() {
+		int len = length();
+		long[] r = new long[(len + 63) >>> 6];
+		for (int i = 0; i < size; i++) {
+			int at = keys[i] * WORDS;
+			System.arraycopy(containers[i].words(), 0, r, at, Math.min(WORDS, r.length - at));
+		}
+		return r;
+	}
+
+	/**
+	 * Returns a new {@code BitSet} containing all the bits in this set.
+	 *
+	 * @return a {@code BitSet} containing the same bits
+	 */
+	public BitSet toBitSet() {
+		return BitSet.valueOf(toLongArray());
+	}
+
+	private static void checkRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+		}
+		if (toIndex < 0) {
+			throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+		}
+		if (fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
+		}
+	}
+
+	private int indexOf(int key) {
+		return Arrays.binarySearch(keys, 0, size, (char) key);
+	}
+
+	private void insertAt(int i, int key, Container c) {
+		if (size == keys.length) {
+			int n = Math.min(CHUNK, size + (size >> 1) + 4);
+			keys = Arrays.copyOf(keys, n);
+			containers = Arrays.copyOf(containers, n);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = (char) key;
+		containers[i] = c;
+		size++;
+	}
+
+	private void removeAt(int i) {
+		System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+		System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+		containers[--size] = null;
+	}
+
+	private void replaceAt(int i, Container c) {
+		if (c.cardinality() == 0) {
+			removeAt(i);
+		} else {
+			containers[i] = c;
+		}
+	}
+
+	public void set(int bitIndex) {
+		if (bitIndex < 0) {
+			throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+		}
+		int i = indexOf(bitIndex >>> 16);
+		if (i >= 0) {
+			containers[i] = containers[i].add(bitIndex & 0xFFFF);
+		} else {
+			insertAt(-(i + 1), bitIndex >>> 16, new ArrayContainer(4).add(bitIndex & 0xFFFF));
+		}
+	}
+
+	public void set(int bitIndex, boolean value) {
+		if (value) {
+			set(bitIndex);
+		} else {
+			clear(bitIndex);
+		}
+	}
+
+	/**
+	 * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+	 * specified {@code toIndex} (exclusive). Chunks that did not yet contain
+	 * any set bits are stored as runs.
+	 *
+	 * @param fromIndex
+	 *            index of the first bit to be set
+	 * @param toIndex
+	 *            index after the last bit to be set
+	 * @throws IndexOutOfBoundsException
+	 *             if {@code fromIndex} is negative, or {@code toIndex} is
+	 *             negative, or {@code fromIndex} is larger than {@code toIndex}
+	 */
+	public void set(int fromIndex, int toIndex) {
+		checkRange(fromIndex, toIndex);
+		if (fromIndex == toIndex) {
+			return;
+		}
+		int last = toIndex - 1, firstKey = fromIndex >>> 16, lastKey = last >>> 16;
+		for (int key = firstKey; key <= lastKey; key++) {
+			int lo = (key == firstKey) ? (fromIndex & 0xFFFF) : 0;
+			int hi = (key == lastKey) ? ((last & 0xFFFF) + 1) : CHUNK;
+			int i = indexOf(key);
+			if (i >= 0) {
+				containers[i] = containers[i].addRange(lo, hi);
+			} else {
+				insertAt(-(i + 1), key, RunContainer.range(lo, hi));
+			}
+		}
+	}
+
+	public void set(int fromIndex, int toIndex, boolean value) {
+		if (value) {
+			set(fromIndex, toIndex);
+		} else {
+			clear(fromIndex, toIndex);
+		}
+	}
+
+	public void clear(int bitIndex) {
+		if (bitIndex < 0) {
+			throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+		}
+		int i = indexOf(bitIndex >>> 16);
+		if (i >= 0) {
+			replaceAt(i, containers[i].remove(bitIndex & 0xFFFF));
+		}
+	}
+
+	public void clear(int fromIndex, int toIndex) {
+		checkRange(fromIndex, toIndex);
+		if (fromIndex == toIndex) {
+			return;
+		}
+		int last = toIndex - 1, firstKey = fromIndex >>> 16, lastKey = last >>> 16;
+		int i = indexOf(firstKey);
+		if (i < 0) {
+			i = -(i + 1);
+		}
+		while ((i < size) && (keys[i] <= lastKey)) {
+			int key = keys[i];
+			int lo = (key == firstKey) ? (fromIndex & 0xFFFF) : 0;
+			int hi = (key == lastKey) ? ((last & 0xFFFF) + 1) : CHUNK;
+			if ((lo == 0) && (hi == CHUNK)) {
+				removeAt(i);
+			} else {
+				replaceAt(i, containers[i].removeRange(lo, hi));
+				if ((i < size) && (keys[i] == key)) {
+					i++;
+				}
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(containers, 0, size, null);
+		size = 0;
+	}
+
+	public void flip(int bitIndex) {
+		if (get(bitIndex)) {
+			clear(bitIndex);
+		} else {
+			set(bitIndex);
+		}
+	}
+
+	public boolean get(int bitIndex) {
+		if (bitIndex < 0) {
+			throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+		}
+		int i = indexOf(bitIndex >>> 16);
+		return (i >= 0) && containers[i].contains(bitIndex & 0xFFFF);
+	}
+
+	public int nextSetBit(int fromIndex) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+		}
+		int i = indexOf(fromIndex >>> 16);
+		if (i >= 0) {
+			int v = containers[i].nextValue(fromIndex & 0xFFFF);
+			if (v >= 0) {
+				return (keys[i] << 16) | v;
+			}
+			i++;
+		} else {
+			i = -(i + 1);
+		}
+		return (i < size) ? ((keys[i] << 16) | containers[i].nextValue(0)) : -1;
+	}
+
+	public int length() {
+		return (size == 0) ? 0 : (((keys[size - 1] << 16) | containers[size - 1].last()) + 1);
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int cardinality() {
+		int sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += containers[i].cardinality();
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the number of bits set at indices less than or equal to the
+	 * given index.
+	 *
+	 * @param bitIndex
+	 *            the index
+	 * @return the number of set bits up to and including {@code bitIndex}
+	 * @throws IndexOutOfBoundsException
+	 *             if the specified index is negative
+	 */
+	public int rank(int bitIndex) {
+		if (bitIndex < 0) {
+			throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+		}
+		int key = bitIndex >>> 16, r = 0;
+		for (int i = 0; (i < size) && (keys[i] <= key); i++) {
+			Container c = containers[i];
+			r += (keys[i] < key) ? c.cardinality() : c.rank(bitIndex & 0xFFFF);
+		}
+		return r;
+	}
+
+	/**
+	 * Returns the index of the set bit of the given rank, counting from zero,
+	 * so that {@code rank(select(j)) == j + 1}.
+	 *
+	 * @param j
+	 *            the number of set bits preceding the one to return
+	 * @return the index of that bit
+	 * @throws IndexOutOfBoundsException
+	 *             if {@code j} is negative or not less than the cardinality
+	 */
+	public int select(int j) {
+		if (j >= 0) {
+			for (int i = 0; i < size; i++) {
+				int c = containers[i].cardinality();
+				if (j < c) {
+					return (keys[i] << 16) | containers[i].select(j);
+				}
+				j -= c;
+			}
+		}
+		throw new IndexOutOfBoundsException("no set bit of rank " + j);
+	}
+
+	public boolean intersects(CompressedBitSet set) {
+		for (int i = 0, j = 0; (i < size) && (j < set.size);) {
+			if (keys[i] < set.keys[j]) {
+				i++;
+			} else if (keys[i] > set.keys[j]) {
+				j++;
+			} else if (containers[i++].intersects(set.containers[j++])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void and(CompressedBitSet set) {
+		int k = 0;
+		for (int i = 0, j = 0; (i < size) && (j < set.size);) {
+			if (keys[i] < set.keys[j]) {
+				i++;
+			} else if (keys[i] > set.keys[j]) {
+				j++;
+			} else {
+				Container c = containers[i].and(set.containers[j++]);
+				if (c.cardinality() != 0) {
+					keys[k] = keys[i];
+					containers[k++] = c;
+				}
+				i++;
+			}
+		}
+		Arrays.fill(containers, k, size, null);
+		size = k;
+	}
+
+	public void or(CompressedBitSet set) {
+		merge(set, true, false);
+	}
+
+	public void xor(CompressedBitSet set) {
+		merge(set, true, true);
+	}
+
+	public void andNot(CompressedBitSet set) {
+		merge(set, false, true);
+	}
+
+	/**
+	 * Merges the chunks of this set and the given one. Chunks only in this set
+	 * are kept; chunks only in the other are copied if {@code union}; chunks
+	 * in both are combined by xor, and-not or or according to the flags.
+	 */
+	private void merge(CompressedBitSet set, boolean union, boolean difference) {
+		int m = size, n = set.size;
+		char[] k2 = new char[Math.max(4, union ? m + n : m)];
+		Container[] c2 = new Container[k2.length];
+		int i = 0, j = 0, k = 0;
+		while ((i < m) || (j < n)) {
+			int a = (i < m) ? keys[i] : CHUNK, b = (j < n) ? set.keys[j] : CHUNK;
+			Container c;
+			if (a < b) {
+				c = containers[i++];
+			} else if (a > b) {
+				c = union ? set.containers[j].copy() : null;
+				j++;
+			} else if (union) {
+				c = difference ? containers[i++].xor(set.containers[j++]) : containers[i++].or(set.containers[j++]);
+			} else {
+				c = containers[i++].andNot(set.containers[j++]);
+			}
+			if ((c != null) && (c.cardinality() != 0)) {
+				k2[k] = (char) Math.min(a, b);
+				c2[k++] = c;
+			}
+		}
+		keys = k2;
+		containers = c2;
+		size = k;
+	}
+
+	/**
+	 * Converts each container to whichever of the array, bitmap and run kinds
+	 * is smallest for its contents. Sets built up by individual calls of
+	 * {@link #set(int)} and by logical operations never use runs otherwise.
+	 *
+	 * @return {@code true} if any container is now stored as runs
+	 */
+	public boolean runOptimize() {
+		boolean runs = false;
+		for (int i = 0; i < size; i++) {
+			Container c = containers[i] = containers[i].optimize();
+			runs |= c instanceof RunContainer;
+		}
+		return runs;
+	}
+
+	/**
+	 * Returns an iterator over the indices of the set bits, in ascending
+	 * order.
+	 *
+	 * @return an iterator over the set bits
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new Itr(this);
+	}
+
+	/**
+	 * Performs the given action for the index of each set bit, in ascending
+	 * order.
+	 *
+	 * @param action
+	 *            the action to be performed
+	 */
+	public void forEach(IntConsumer action) {
+		Objects.requireNonNull(action);
+		for (int i = 0; i < size; i++) {
+			containers[i].forEach(keys[i] << 16, action);
+		}
+	}
+
+	public IntStream stream() {
+		return StreamSupport.intStream(() -> Spliterators.spliterator(iterator(), cardinality(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED), Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED, false);
+	}
+
+	static final class Itr implements PrimitiveIterator.OfInt {
+		private final CompressedBitSet set;
+		private int i;
+		private PrimitiveIterator.OfInt current;
+
+		Itr(CompressedBitSet set) {
+			this.set = set;
+			this.current = (set.size == 0) ? null : set.containers[0].iterator(set.keys[0] << 16);
+		}
+
+		public boolean hasNext() {
+			while ((current != null) && !current.hasNext()) {
+				current = (++i < set.size) ? set.containers[i].iterator(set.keys[i] << 16) : null;
+			}
+			return current != null;
+		}
+
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.nextInt();
+		}
+	}
+
+	/**
+	 * Returns the number of bytes written by {@link #serialize(ByteBuffer)}.
+	 *
+	 * @return the size of the serialized form
+	 */
+	public int serializedSize() {
+		int s = 8 + (12 * size);
+		for (int i = 0; i < size; i++) {
+			s += containers[i].serializedSize();
+		}
+		return s;
+	}
+
+	/**
+	 * Writes this set at the current position of the given buffer in the
+	 * format described above, advancing its position by
+	 * {@link #serializedSize()} bytes.
+	 *
+	 * @param buf
+	 *            the buffer
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer has insufficient space remaining
+	 */
+	public void serialize(ByteBuffer buf) {
+		ByteBuffer b = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+		b.putInt(MAGIC).putInt(size);
+		for (int i = 0; i < size; i++) {
+			Container c = containers[i];
+			b.putChar(keys[i]).putChar((char) c.kind()).putInt(c.cardinality());
+		}
+		for (int i = 0, off = 8 + (12 * size); i < size; i++) {
+			b.putInt(off);
+			off += containers[i].serializedSize();
+		}
+		for (int i = 0; i < size; i++) {
+			containers[i].write(b);
+		}
+		buf.position(buf.position() + b.position());
+	}
+
+	/**
+	 * Reads a set written by {@link #serialize(ByteBuffer)} from the current
+	 * position of the given buffer, advancing its position past it.
+	 *
+	 * @param buf
+	 *            the buffer
+	 * @return the set
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not contain a serialized set
+	 */
+	public static CompressedBitSet deserialize(ByteBuffer buf) {
+		Mapped m = map(buf);
+		CompressedBitSet s = m.toCompressedBitSet();
+		buf.position(buf.position() + m.serializedSize());
+		return s;
+	}
+
+	/**
+	 * Returns a read-only view of the set written by
+	 * {@link #serialize(ByteBuffer)} at the current position of the given
+	 * buffer, which queries the buffer in place. The position of the buffer is
+	 * not changed, and its contents must not change while the view is in use.
+	 *
+	 * @param buf
+	 *            the buffer, for example a
+	 *            {@link java.nio.MappedByteBuffer MappedByteBuffer}
+	 * @return the view
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not contain a serialized set
+	 */
+	public static Mapped map(ByteBuffer buf) {
+		return new Mapped(buf.slice().order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * A read-only view of a serialized {@code CompressedBitSet}, obtained from
+	 * {@link CompressedBitSet#map(ByteBuffer)}. Membership tests read the
+	 * buffer directly; other queries decode at most one container at a time.
+	 */
+	public static final class Mapped {
+		private final ByteBuffer buf;
+		private final int n;
+
+		Mapped(ByteBuffer buf) {
+			if ((buf.remaining() < 8) || (buf.getInt(0) != MAGIC)) {
+				throw new IllegalArgumentException("not a serialized CompressedBitSet");
+			}
+			int n = buf.getInt(4);
+			if ((n < 0) || (n > (CHUNK >>> 1)) || ((8 + (12L * n)) > buf.limit())) {
+				throw new IllegalArgumentException("corrupt CompressedBitSet");
+			}
+			this.buf = buf;
+			this.n = n;
+		}
+
+		private int key(int i) {
+			return buf.getChar(8 + (i << 3));
+		}
+
+		private int kind(int i) {
+			return buf.getChar(10 + (i << 3));
+		}
+
+		private int card(int i) {
+			return buf.getInt(12 + (i << 3));
+		}
+
+		private int offset(int i) {
+			return buf.getInt(8 + (n << 3) + (i << 2));
+		}
+
+		private int indexOf(int key) {
+			int lo = 0, hi = n - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1, k = key(mid);
+				if (k < key) {
+					lo = mid + 1;
+				} else if (k > key) {
+					hi = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(lo + 1);
+		}
+
+		int serializedSize() {
+			if (n == 0) {
+				return 8;
+			}
+			int i = n - 1, off = offset(i);
+			switch (kind(i)) {
+			case ARRAY:
+				return off + (card(i) << 1);
+			case BITMAP:
+				return off + (WORDS << 3);
+			default:
+				return off + 2 + (buf.getChar(off) << 2);
+			}
+		}
+
+		private Container load(int i) {
+			int off = offset(i), card = card(i);
+			switch (kind(i)) {
+			case ARRAY:
+				char[] content = new char[card];
+				for (int k = 0; k < card; k++) {
+					content[k] = buf.getChar(off + (k << 1));
+				}
+				return new ArrayContainer(content, card);
+			case BITMAP:
+				long[] words = new long[WORDS];
+				for (int k = 0; k < WORDS; k++) {
+					words[k] = buf.getLong(off + (k << 3));
+				}
+				return new BitmapContainer(words, card);
+			case RUN:
+				int nRuns = buf.getChar(off);
+				char[] runs = new char[nRuns << 1];
+				for (int k = 0; k < runs.length; k++) {
+					runs[k] = buf.getChar(off + 2 + (k << 1));
+				}
+				return new RunContainer(runs, nRuns);
+			default:
+				throw new IllegalStateException("corrupt CompressedBitSet");
+			}
+		}
+
+		public boolean get(int bitIndex) {
+			if (bitIndex < 0) {
+				throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+			}
+			int i = indexOf(bitIndex >>> 16);
+			if (i < 0) {
+				return false;
+			}
+			int x = bitIndex & 0xFFFF, off = offset(i);
+			switch (kind(i)) {
+			case ARRAY: {
+				int lo = 0, hi = card(i) - 1;
+				while (lo <= hi) {
+					int mid = (lo + hi) >>> 1, v = buf.getChar(off + (mid << 1));
+					if (v < x) {
+						lo = mid + 1;
+					} else if (v > x) {
+						hi = mid - 1;
+					} else {
+						return true;
+					}
+				}
+				return false;
+			}
+			case BITMAP:
+				return (buf.getLong(off + ((x >>> 6) << 3)) & (1L << x)) != 0;
+			default: {
+				int lo = 0, hi = buf.getChar(off) - 1;
+				off += 2;
+				while (lo <= hi) {
+					int mid = (lo + hi) >>> 1;
+					if (buf.getChar(off + (mid << 2)) <= x) {
+						lo = mid + 1;
+					} else {
+						hi = mid - 1;
+					}
+				}
+				return (hi >= 0) && (x <= (buf.getChar(off + (hi << 2)) + buf.getChar(off + (hi << 2) + 2)));
+			}
+			}
+		}
+
+		public boolean isEmpty() {
+			return n == 0;
+		}
+
+		public int cardinality() {
+			int sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += card(i);
+			}
+			return sum;
+		}
+
+		/**
+		 * Returns the number of bits set at indices less than or equal to the
+		 * given index.
+		 *
+		 * @param bitIndex
+		 *            the index
+		 * @return the number of set bits up to and including {@code bitIndex}
+		 * @see CompressedBitSet#rank(int)
+		 */
+		public int rank(int bitIndex) {
+			if (bitIndex < 0) {
+				throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+			}
+			int key = bitIndex >>> 16, r = 0;
+			for (int i = 0; i < n; i++) {
+				int k = key(i);
+				if (k > key) {
+					break;
+				}
+				r += (k < key) ? card(i) : load(i).rank(bitIndex & 0xFFFF);
+			}
+			return r;
+		}
+
+		/**
+		 * Returns the index of the set bit of the given rank, counting from
+		 * zero.
+		 *
+		 * @param j
+		 *            the number of set bits preceding the one to return
+		 * @return the index of that bit
+		 * @see CompressedBitSet#select(int)
+		 */
+		public int select(int j) {
+			if (j >= 0) {
+				for (int i = 0; i < n; i++) {
+					int c = card(i);
+					if (j < c) {
+						return (key(i) << 16) | load(i).select(j);
+					}
+					j -= c;
+				}
+			}
+			throw new IndexOutOfBoundsException("no set bit of rank " + j);
+		}
+
+		public int nextSetBit(int fromIndex) {
+			if (fromIndex < 0) {
+				throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+			}
+			int i = indexOf(fromIndex >>> 16);
+			if (i >= 0) {
+				int v = load(i).nextValue(fromIndex & 0xFFFF);
+				if (v >= 0) {
+					return (key(i) << 16) | v;
+				}
+				i++;
+			} else {
+				i = -(i + 1);
+			}
+			return (i < n) ? ((key(i) << 16) | load(i).nextValue(0)) : -1;
+		}
+
+		public PrimitiveIterator.OfInt iterator() {
+			return new PrimitiveIterator.OfInt() {
+				private int i = -1;
+				private PrimitiveIterator.OfInt current;
+
+				public boolean hasNext() {
+					while ((current == null) || !current.hasNext()) {
+						if (++i >= n) {
+							i = n;
+							return false;
+						}
+						current = load(i).iterator(key(i) << 16);
+					}
+					return true;
+				}
+
+				public int nextInt() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return current.nextInt();
+				}
+			};
+		}
+
+		public IntStream stream() {
+			return StreamSupport.intStream(() -> Spliterators.spliterator(iterator(), cardinality(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED), Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED, false);
+		}
+
+		/**
+		 * Returns a new modifiable set with the same bits as this view.
+		 *
+		 * @return the set
+		 */
+		public CompressedBitSet toCompressedBitSet() {
+			char[] keys = new char[Math.max(4, n)];
+			Container[] containers = new Container[keys.length];
+			for (int i = 0; i < n; i++) {
+				keys[i] = (char) key(i);
+				containers[i] = load(i);
+			}
+			return new CompressedBitSet(keys, containers, n);
+		}
+	}
+
+	/**
+	 * Returns the same hash code as a {@code BitSet} containing the same bits.
+	 */
+	public int hashCode() {
+		long h = 1234;
+		for (int i = 0; i < size; i++) {
+			long[] w = containers[i].words();
+			long base = (long) keys[i] * WORDS;
+			for (int j = 0; j < WORDS; j++) {
+				if (w[j] != 0) {
+					h ^= w[j] * (base + j + 1);
+				}
+			}
+		}
+		return (int) ((h >> 32) ^ h);
+	}
+
+	public boolean equals(Object obj) {
+		if (!(obj instanceof CompressedBitSet)) {
+			return false;
+		}
+		if (this == obj) {
+			return true;
+		}
+		CompressedBitSet set = (CompressedBitSet) obj;
+		if (size != set.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (keys[i] != set.keys[i]) {
+				return false;
+			}
+			Container a = containers[i], b = set.containers[i];
+			int card = a.cardinality();
+			if ((card != b.cardinality()) || (a.and(b).cardinality() != card)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public Object clone() {
+		try {
+			CompressedBitSet result = (CompressedBitSet) super.clone();
+			result.keys = keys.clone();
+			result.containers = containers.clone();
+			for (int i = 0; i < size; i++) {
+				result.containers[i] = containers[i].copy();
+			}
+			return result;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		byte[] b = new byte[serializedSize()];
+		serialize(ByteBuffer.wrap(b));
+		s.writeInt(b.length);
+		s.write(b);
+	}
+
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		byte[] b = new byte[s.readInt()];
+		s.readFully(b);
+		CompressedBitSet t;
+		try {
+			t = deserialize(ByteBuffer.wrap(b));
+		} catch (RuntimeException e) {
+			throw new java.io.StreamCorruptedException(e.toString());
+		}
+		keys = t.keys;
+		containers = t.containers;
+		size = t.size;
+	}
+
+	public String toString() {
+		StringBuilder b = new StringBuilder(6 * Math.min(cardinality(), 1 << 20) + 2);
+		b.append('{');
+		PrimitiveIterator.OfInt it = iterator();
+		if (it.hasNext()) {
+			b.append(it.nextInt());
+			while (it.hasNext()) {
+				b.append(", ").append(it.nextInt());
+			}
+		}
+		b.append('}');
+		return b.toString();
+	}
+
+	/**
+	 * The set bits of one chunk, as values from 0 to 65535. Operations that
+	 * may change the kind of container return the container to use in place
+	 * of this one, which may be this one modified; binary operations leave
+	 * both operands unchanged.
+	 */
+	abstract static class Container {
+		abstract int cardinality();
+
+		abstract boolean contains(int x);
+
+		abstract Container add(int x);
+
+		abstract Container remove(int x);
+
+		/** Returns the number of values less than or equal to x */
+		abstract int rank(int x);
+
+		abstract int select(int j);
+
+		/** Returns the least value greater than or equal to x, or -1 */
+		abstract int nextValue(int x);
+
+		abstract int last();
+
+		abstract int runCount();
+
+		/** Sets the bits of this container in the given 1024 words */
+		abstract void orInto(long[] words);
+
+		abstract Container copy();
+
+		abstract PrimitiveIterator.OfInt iterator(int high);
+
+		abstract void forEach(int high, IntConsumer action);
+
+		abstract int kind();
+
+		abstract int serializedSize();
+
+		abstract void write(ByteBuffer b);
+
+		/** Returns the bitmap words of this container, which must not be modified */
+		long[] words() {
+			long[] w = new long[WORDS];
+			orInto(w);
+			return w;
+		}
+
+		BitmapContainer toBitmap() {
+			return new BitmapContainer(words(), cardinality());
+		}
+
+		final boolean isFull() {
+			return cardinality() == CHUNK;
+		}
+
+		static Container ofWords(long[] w, int card) {
+			return (card <= ARRAY_MAX) ? ArrayContainer.fromWords(w, card) : new BitmapContainer(w, card);
+		}
+
+		Container addRange(int from, int to) {
+			if ((from == 0) && (to == CHUNK)) {
+				return RunContainer.range(0, CHUNK);
+			}
+			BitmapContainer b = (this instanceof BitmapContainer) ? (BitmapContainer) this : toBitmap();
+			setRange(b.words, from, to);
+			b.recount();
+			return b.repair();
+		}
+
+		Container removeRange(int from, int to) {
+			BitmapContainer b = (this instanceof BitmapContainer) ? (BitmapContainer) this : toBitmap();
+			clearRange(b.words, from, to);
+			b.recount();
+			return b.repair();
+		}
+
+		Container and(Container o) {
+			if (this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(o, true);
+			}
+			if (o instanceof ArrayContainer) {
+				return ((ArrayContainer) o).filter(this, true);
+			}
+			long[] a = words(), b = o.words(), r = new long[WORDS];
+			int card = 0;
+			for (int i = 0; i < WORDS; i++) {
+				card += Long.bitCount(r[i] = a[i] & b[i]);
+			}
+			return ofWords(r, card);
+		}
+
+		Container andNot(Container o) {
+			if (this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(o, false);
+			}
+			long[] a = words(), b = o.words(), r = new long[WORDS];
+			int card = 0;
+			for (int i = 0; i < WORDS; i++) {
+				card += Long.bitCount(r[i] = a[i] & ~b[i]);
+			}
+			return ofWords(r, card);
+		}
+
+		Container or(Container o) {
+			if (isFull()) {
+				return copy();
+			}
+			if (o.isFull()) {
+				return o.copy();
+			}
+			if ((this instanceof ArrayContainer) && (o instanceof ArrayContainer) && ((cardinality() + o.cardinality()) <= ARRAY_MAX)) {
+				return ArrayContainer.merge((ArrayContainer) this, (ArrayContainer) o, false);
+			}
+			long[] a = words(), b = o.words(), r = new long[WORDS];
+			int card = 0;
+			for (int i = 0; i < WORDS; i++) {
+				card += Long.bitCount(r[i] = a[i] | b[i]);
+			}
+			return ofWords(r, card);
+		}
+
+		Container xor(Container o) {
+			if ((this instanceof ArrayContainer) && (o instanceof ArrayContainer)) {
+				ArrayContainer c = ArrayContainer.merge((ArrayContainer) this, (ArrayContainer) o, true);
+				return (c.card <= ARRAY_MAX) ? c : c.toBitmap();
+			}
+			long[] a = words(), b = o.words(), r = new long[WORDS];
+			int card = 0;
+			for (int i = 0; i < WORDS; i++) {
+				card += Long.bitCount(r[i] = a[i] ^ b[i]);
+			}
+			return ofWords(r, card);
+		}
+
+		boolean intersects(Container o) {
+			if (this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).intersects(o);
+			}
+			if (o instanceof ArrayContainer) {
+				return ((ArrayContainer) o).intersects(this);
+			}
+			long[] a = words(), b = o.words();
+			for (int i = 0; i < WORDS; i++) {
+				if ((a[i] & b[i]) != 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Returns the smallest of the array or bitmap container and the run
+		 * container for the values of this one.
+		 */
+		Container optimize() {
+			int card = cardinality(), runs = runCount();
+			int plainBytes = (card <= ARRAY_MAX) ? (card << 1) : (WORDS << 3);
+			if ((2 + (runs << 2)) < plainBytes) {
+				return (this instanceof RunContainer) ? this : toRun(runs);
+			}
+			return (this instanceof RunContainer) ? ofWords(words(), card) : this;
+		}
+
+		RunContainer toRun(int nRuns) {
+			char[] runs = new char[nRuns << 1];
+			int k = 0, start = -1, prev = -2;
+			for (PrimitiveIterator.OfInt it = iterator(0); it.hasNext();) {
+				int v = it.nextInt();
+				if (v != (prev + 1)) {
+					if (start >= 0) {
+						runs[k++] = (char) start;
+						runs[k++] = (char) (prev - start);
+					}
+					start = v;
+				}
+				prev = v;
+			}
+			if (start >= 0) {
+				runs[k++] = (char) start;
+				runs[k++] = (char) (prev - start);
+			}
+			return new RunContainer(runs, nRuns);
+		}
+	}
+
+	/** Sets the bits from (inclusive) to to (exclusive) of 1024 words */
+	static void setRange(long[] words, int from, int to) {
+		int u = from >>> 6, v = (to - 1) >>> 6;
+		long first = -1L << from, last = -1L >>> -to;
+		if (u == v) {
+			words[u] |= first & last;
+		} else {
+			words[u] |= first;
+			for (int i = u + 1; i < v; i++) {
+				words[i] = -1L;
+			}
+			words[v] |= last;
+		}
+	}
+
+	/** Clears the bits from (inclusive) to to (exclusive) of 1024 words */
+	static void clearRange(long[] words, int from, int to) {
+		int u = from >>> 6, v = (to - 1) >>> 6;
+		long first = -1L << from, last = -1L >>> -to;
+		if (u == v) {
+			words[u] &= ~(first & last);
+		} else {
+			words[u] &= ~first;
+			for (int i = u + 1; i < v; i++) {
+				words[i] = 0L;
+			}
+			words[v] &= ~last;
+		}
+	}
+
+	/** At most 4096 values, in a sorted array */
+	static final class ArrayContainer extends Container {
+		char[] content;
+		int card;
+
+		ArrayContainer(int capacity) {
+			content = new char[capacity];
+		}
+
+		ArrayContainer(char[] content, int card) {
+			this.content = content;
+			this.card = card;
+		}
+
+		static ArrayContainer fromWords(long[] words, int card) {
+			char[] c = new char[card];
+			for (int i = 0, k = 0; k < card; i++) {
+				for (long w = words[i]; w != 0; w &= w - 1) {
+					c[k++] = (char) ((i << 6) + Long.numberOfTrailingZeros(w));
+				}
+			}
+			return new ArrayContainer(c, card);
+		}
+
+		/** Returns the union, or the symmetric difference if xor, of a and b */
+		static ArrayContainer merge(ArrayContainer a, ArrayContainer b, boolean xor) {
+			char[] x = a.content, y = b.content, r = new char[a.card + b.card];
+			int m = a.card, n = b.card, i = 0, j = 0, k = 0;
+			while ((i < m) && (j < n)) {
+				char p = x[i], q = y[j];
+				if (p < q) {
+					r[k++] = p;
+					i++;
+				} else if (p > q) {
+					r[k++] = q;
+					j++;
+				} else {
+					if (!xor) {
+						r[k++] = p;
+					}
+					i++;
+					j++;
+				}
+			}
+			while (i < m) {
+				r[k++] = x[i++];
+			}
+			while (j < n) {
+				r[k++] = y[j++];
+			}
+			return new ArrayContainer(r, k);
+		}
+
+		/** Returns the values of this container that o contains iff keep */
+		ArrayContainer filter(Container o, boolean keep) {
+			char[] r = new char[card];
+			int k = 0;
+			for (int i = 0; i < card; i++) {
+				char v = content[i];
+				if (o.contains(v) == keep) {
+					r[k++] = v;
+				}
+			}
+			return new ArrayContainer((k < (card >>> 1)) ? Arrays.copyOf(r, k) : r, k);
+		}
+
+		boolean intersects(Container o) {
+			for (int i = 0; i < card; i++) {
+				if (o.contains(content[i])) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		int cardinality() {
+			return card;
+		}
+
+		boolean contains(int x) {
+			return Arrays.binarySearch(content, 0, card, (char) x) >= 0;
+		}
+
+		Container add(int x) {
+			int i = Arrays.binarySearch(content, 0, card, (char) x);
+			if (i >= 0) {
+				return this;
+			}
+			if (card >= ARRAY_MAX) {
+				return toBitmap().add(x);
+			}
+			i = -(i + 1);
+			if (card == content.length) {
+				content = Arrays.copyOf(content, Math.min(ARRAY_MAX, card + ((card < 64) ? (card + 2) : (card >> 1))));
+			}
+			System.arraycopy(content, i, content, i + 1, card - i);
+			content[i] = (char) x;
+			card++;
+			return this;
+		}
+
+		Container remove(int x) {
+			int i = Arrays.binarySearch(content, 0, card, (char) x);
+			if (i >= 0) {
+				System.arraycopy(content, i + 1, content, i, card - i - 1);
+				card--;
+			}
+			return this;
+		}
+
+		int rank(int x) {
+			int i = Arrays.binarySearch(content, 0, card, (char) x);
+			return (i >= 0) ? (i + 1) : -(i + 1);
+		}
+
+		int select(int j) {
+			return content[j];
+		}
+
+		int nextValue(int x) {
+			int i = Arrays.binarySearch(content, 0, card, (char) x);
+			if (i < 0) {
+				i = -(i + 1);
+			}
+			return (i < card) ? content[i] : -1;
+		}
+
+		int last() {
+			return content[card - 1];
+		}
+
+		int runCount() {
+			int r = 0;
+			for (int i = 0; i < card; i++) {
+				if ((i == 0) || (content[i] != (content[i - 1] + 1))) {
+					r++;
+				}
+			}
+			return r;
+		}
+
+		void orInto(long[] words) {
+			for (int i = 0; i < card; i++) {
+				int v = content[i];
+				words[v >>> 6] |= 1L << v;
+			}
+		}
+
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(content, card), card);
+		}
+
+		PrimitiveIterator.OfInt iterator(final int high) {
+			return new PrimitiveIterator.OfInt() {
+				private int i;
+
+				public boolean hasNext() {
+					return i < card;
+				}
+
+				public int nextInt() {
+					if (i >= card) {
+						throw new NoSuchElementException();
+					}
+					return high | content[i++];
+				}
+			};
+		}
+
+		void forEach(int high, IntConsumer action) {
+			for (int i = 0; i < card; i++) {
+				action.accept(high | content[i]);
+			}
+		}
+
+		int kind() {
+			return ARRAY;
+		}
+
+		int serializedSize() {
+			return card << 1;
+		}
+
+		void write(ByteBuffer b) {
+			for (int i = 0; i < card; i++) {
+				b.putChar(content[i]);
+			}
+		}
+	}
+
+	/** More than 4096 values, as 1024 words of bits */
+	static final class BitmapContainer extends Container {
+		final long[] words;
+		int card;
+
+		BitmapContainer(long[] words, int card) {
+			this.words = words;
+			this.card = card;
+		}
+
+		void recount() {
+			int c = 0;
+			for (long w : words) {
+				c += Long.bitCount(w);
+			}
+			card = c;
+		}
+
+		Container repair() {
+			return (card <= ARRAY_MAX) ? ArrayContainer.fromWords(words, card) : this;
+		}
+
+		int cardinality() {
+			return card;
+		}
+
+		boolean contains(int x) {
+			return (words[x >>> 6] & (1L << x)) != 0;
+		}
+
+		Container add(int x) {
+			long m = 1L << x;
+			int i = x >>> 6;
+			if ((words[i] & m) == 0) {
+				words[i] |= m;
+				card++;
+			}
+			return this;
+		}
+
+		Container remove(int x) {
+			long m = 1L << x;
+			int i = x >>> 6;
+			if ((words[i] & m) != 0) {
+				words[i] &= ~m;
+				card--;
+			}
+			return repair();
+		}
+
+		int rank(int x) {
+			int u = x >>> 6, r = 0;
+			for (int i = 0; i < u; i++) {
+				r += Long.bitCount(words[i]);
+			}
+			return r + Long.bitCount(words[u] & (-1L >>> (63 - (x & 63))));
+		}
+
+		int select(int j) {
+			for (int i = 0; i < WORDS; i++) {
+				long w = words[i];
+				int c = Long.bitCount(w);
+				if (j < c) {
+					for (; j > 0; j--) {
+						w &= w - 1;
+					}
+					return (i << 6) + Long.numberOfTrailingZeros(w);
+				}
+				j -= c;
+			}
+			return -1;
+		}
+
+		int nextValue(int x) {
+			int u = x >>> 6;
+			long w = words[u] & (-1L << x);
+			while (true) {
+				if (w != 0) {
+					return (u << 6) + Long.numberOfTrailingZeros(w);
+				}
+				if (++u == WORDS) {
+					return -1;
+				}
+				w = words[u];
+			}
+		}
+
+		int last() {
+			for (int i = WORDS - 1; i >= 0; i--) {
+				if (words[i] != 0) {
+					return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+				}
+			}
+			return -1;
+		}
+
+		int runCount() {
+			int r = 0;
+			long prev = 0;
+			for (long w : words) {
+				r += Long.bitCount(w & ~((w << 1) | (prev >>> 63)));
+				prev = w;
+			}
+			return r;
+		}
+
+		void orInto(long[] w) {
+			for (int i = 0; i < WORDS; i++) {
+				w[i] |= words[i];
+			}
+		}
+
+		long[] words() {
+			return words;
+		}
+
+		BitmapContainer toBitmap() {
+			return this;
+		}
+
+		Container copy() {
+			return new BitmapContainer(words.clone(), card);
+		}
+
+		PrimitiveIterator.OfInt iterator(final int high) {
+			return new PrimitiveIterator.OfInt() {
+				private int u;
+				private long w = words[0];
+
+				public boolean hasNext() {
+					while (w == 0) {
+						if (++u >= WORDS) {
+							u = WORDS;
+							return false;
+						}
+						w = words[u];
+					}
+					return true;
+				}
+
+				public int nextInt() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int v = (u << 6) + Long.numberOfTrailingZeros(w);
+					w &= w - 1;
+					return high | v;
+				}
+			};
+		}
+
+		void forEach(int high, IntConsumer action) {
+			for (int i = 0; i < WORDS; i++) {
+				for (long w = words[i]; w != 0; w &= w - 1) {
+					action.accept(high | ((i << 6) + Long.numberOfTrailingZeros(w)));
+				}
+			}
+		}
+
+		int kind() {
+			return BITMAP;
+		}
+
+		int serializedSize() {
+			return WORDS << 3;
+		}
+
+		void write(ByteBuffer b) {
+			for (long w : words) {
+				b.putLong(w);
+			}
+		}
+	}
+
+	/**
+	 * Values in runs, as the start and the length less one of each run, in
+	 * ascending order. Adding or removing single values converts the
+	 * container to an array or bitmap.
+	 */
+	static final class RunContainer extends Container {
+		final char[] runs;
+		final int nRuns;
+		final int card;
+
+		RunContainer(char[] runs, int nRuns) {
+			int c = 0;
+			for (int i = 0; i < nRuns; i++) {
+				c += runs[(i << 1) + 1] + 1;
+			}
+			this.runs = runs;
+			this.nRuns = nRuns;
+			this.card = c;
+		}
+
+		static RunContainer range(int from, int to) {
+			return new RunContainer(new char[] { (char) from, (char) (to - from - 1) }, 1);
+		}
+
+		/** Returns the index of the last run starting at or before x, or -1 */
+		private int find(int x) {
+			int lo = 0, hi = nRuns - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				if (runs[mid << 1] <= x) {
+					lo = mid + 1;
+				} else {
+					hi = mid - 1;
+				}
+			}
+			return hi;
+		}
+
+		int cardinality() {
+			return card;
+		}
+
+		boolean contains(int x) {
+			int i = find(x);
+			return (i >= 0) && (x <= (runs[i << 1] + runs[(i << 1) + 1]));
+		}
+
+		Container add(int x) {
+			return contains(x) ? this : ofWords(words(), card).add(x);
+		}
+
+		Container remove(int x) {
+			return contains(x) ? ofWords(words(), card).remove(x) : this;
+		}
+
+		Container addRange(int from, int to) {
+			return super.addRange(from, to).optimize();
+		}
+
+		Container removeRange(int from, int to) {
+			return super.removeRange(from, to).optimize();
+		}
+
+		int rank(int x) {
+			int r = 0;
+			for (int i = 0; i < nRuns; i++) {
+				int start = runs[i << 1], len = runs[(i << 1) + 1];
+				if (x < start) {
+					break;
+				}
+				if (x <= (start + len)) {
+					return r + (x - start) + 1;
+				}
+				r += len + 1;
+			}
+			return r;
+		}
+
+		int select(int j) {
+			for (int i = 0; i < nRuns; i++) {
+				int c = runs[(i << 1) + 1] + 1;
+				if (j < c) {
+					return runs[i << 1] + j;
+				}
+				j -= c;
+			}
+			return -1;
+		}
+
+		int nextValue(int x) {
+			int i = find(x);
+			if ((i >= 0) && (x <= (runs[i << 1] + runs[(i << 1) + 1]))) {
+				return x;
+			}
+			return (++i < nRuns) ? runs[i << 1] : -1;
+		}
+
+		int last() {
+			int i = (nRuns - 1) << 1;
+			return runs[i] + runs[i + 1];
+		}
+
+		int runCount() {
+			return nRuns;
+		}
+
+		void orInto(long[] words) {
+			for (int i = 0; i < nRuns; i++) {
+				int start = runs[i << 1];
+				setRange(words, start, start + runs[(i << 1) + 1] + 1);
+			}
+		}
+
+		Container copy() {
+			return new RunContainer(Arrays.copyOf(runs, nRuns << 1), nRuns);
+		}
+
+		PrimitiveIterator.OfInt iterator(final int high) {
+			return new PrimitiveIterator.OfInt() {
+				private int i, v = (nRuns > 0) ? runs[0] : 0, end = (nRuns > 0) ? (runs[0] + runs[1]) : -1;
+
+				public boolean hasNext() {
+					return v <= end;
+				}
+
+				public int nextInt() {
+					if (v > end) {
+						throw new NoSuchElementException();
+					}
+					int r = v++;
+					if ((v > end) && (++i < nRuns)) {
+						v = runs[i << 1];
+						end = v + runs[(i << 1) + 1];
+					}
+					return high | r;
+				}
+			};
+		}
+
+		void forEach(int high, IntConsumer action) {
+			for (int i = 0; i < nRuns; i++) {
+				int start = runs[i << 1], end = start + runs[(i << 1) + 1];
+				for (int v = start; v <= end; v++) {
+					action.accept(high | v);
+				}
+			}
+		}
+
+		int kind() {
+			return RUN;
+		}
+
+		int serializedSize() {
+			return 2 + (nRuns << 2);
+		}
+
+		void write(ByteBuffer b) {
+			b.putChar((char) nRuns);
+			for (int i = 0; i < (nRuns << 1); i++) {
+				b.putChar(runs[i]);
+			}
+		}
+	}
+}
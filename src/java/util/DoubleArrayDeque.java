@@ -0,0 +1,626 @@
+package java.util;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+import sun.misc.SharedSecrets;
+
+/**
+ * A resizable circular array of {@code double} values supporting insertion and
+ * removal at both ends, with the same power-of-two layout as
+ * {@link ArrayDeque} but holding its elements in a {@code double[]} rather
+ * than as boxed {@code Double} objects. Since a primitive deque cannot signal
+ * emptiness with {@code null}, the retrieval methods throw
+ * {@code NoSuchElementException} when the deque is empty. Elements may also be
+ * read by position with {@link #get}.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> The
+ * iterators and spliterators returned by this class are <i>fail-fast</i> on a
+ * best-effort basis.
+ *
+ * @see ArrayDeque
+ */
+public class DoubleArrayDeque implements Cloneable, Serializable {
+	/**
+	 * The array in which the elements of the deque are stored. Its length is
+	 * always a power of two, and never full except transiently within an add
+	 * method, which resizes it immediately upon becoming full.
+	 */
+	transient double[] elements;
+	/** The index of the element at the head of the deque */
+	transient int head;
+	/** The index at which the next element would be added to the tail */
+	transient int tail;
+	/** The number of structural modifications, for fail-fast iteration */
+	transient int modCount;
+	private static final int MIN_INITIAL_CAPACITY = 8;
+
+	private static int calculateSize(int numElements) {
+		int initialCapacity = MIN_INITIAL_CAPACITY;
+		if (numElements >= initialCapacity) {
+			initialCapacity = numElements;
+			initialCapacity |= (initialCapacity >>> 1);
+			initialCapacity |= (initialCapacity >>> 2);
+			initialCapacity |= (initialCapacity >>> 4);
+			initialCapacity |= (initialCapacity >>> 8);
+			initialCapacity |= (initialCapacity >>> 16);
+			initialCapacity++;
+			if (initialCapacity < 0) {
+				initialCapacity >>>= 1;
+			}
+		}
+		return initialCapacity;
+	}
+
+	private void allocateElements(int numElements) {
+		elements = new double[calculateSize(numElements)];
+	}
+
+	private void doubleCapacity() {
+		assert head == tail;
+		int p = head;
+		int n = elements.length;
+		int r = n - p;
+		int newCapacity = n << 1;
+		if (newCapacity < 0) {
+			throw new IllegalStateException("Sorry, deque too big");
+		}
+		double[] a = new double[newCapacity];
+		System.arraycopy(elements, p, a, 0, r);
+		System.arraycopy(elements, 0, a, r, p);
+		elements = a;
+		head = 0;
+		tail = n;
+	}
+
+	/**
+	 * Constructs an empty deque with an initial capacity sufficient to hold 16
+	 * elements.
+	 */
+	public DoubleArrayDeque() {
+		elements = new double[16];
+	}
+
+	/**
+	 * Constructs an empty deque with an initial capacity sufficient to hold the
+	 * specified number of elements.
+	 *
+	 * @param numElements
+	 *            lower bound on initial capacity of the deque
+	 */
+	public DoubleArrayDeque(int numElements) {
+		allocateElements(numElements);
+	}
+
+	/**
+	 * Inserts the specified value at the front of this deque.
+	 *
+	 * @param e
+	 *            the value to add
+	 */
+	public void addFirst(double e) {
+		elements[head = (head - 1) & (elements.length - 1)] = e;
+		modCount++;
+		if (head == tail) {
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Inserts the specified value at the end of this deque.
+	 *
+	 * @param e
+	 *            the value to add
+	 */
+	public void addLast(double e) {
+		elements[tail] = e;
+		modCount++;
+		if ((tail = (tail + 1) & (elements.length - 1)) == head) {
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Retrieves and removes the first element of this deque.
+	 *
+	 * @return the head of this deque
+	 * @throws NoSuchElementException
+	 *             if this deque is empty
+	 */
+	public double removeFirst() {
+		int h = head;
+		if (h == tail) {
+			throw new NoSuchElementException();
+		}
+		double result = elements[h];
+		head = (h + 1) & (elements.length - 1);
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Retrieves and removes the last element of this deque.
+	 *
+	 * @return the tail of this deque
+	 * @throws NoSuchElementException
+	 *             if this deque is empty
+	 */
+	public double removeLast() {
+		int t = tail;
+		if (t == head) {
+			throw new NoSuchElementException();
+		}
+		t = (t - 1) & (elements.length - 1);
+		double result = elements[t];
+		tail = t;
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Retrieves, but does not remove, the first element of this deque.
+	 *
+	 * @return the head of this deque
+	 * @throws NoSuchElementException
+	 *             if this deque is empty
+	 */
+	public double getFirst() {
+		if (head == tail) {
+			throw new NoSuchElementException();
+		}
+		return elements[head];
+	}
+
+	/**
+	 * Retrieves, but does not remove, the last element of this deque.
+	 *
+	 * @return the tail of this deque
+	 * @throws NoSuchElementException
+	 *             if this deque is empty
+	 */
+	public double getLast() {
+		if (head == tail) {
+			throw new NoSuchElementException();
+		}
+		return elements[(tail - 1) & (elements.length - 1)];
+	}
+
+	/**
+	 * Returns the element at the specified position, counting from the head
+	 * of this deque.
+	 *
+	 * @param index
+	 *            the position of the element, zero for the head
+	 * @return the element at the specified position
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public double get(int index) {
+		if ((index < 0) || (index >= size())) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		return elements[(head + index) & (elements.length - 1)];
+	}
+
+	/**
+	 * Pushes a value onto the stack represented by this deque. This method is
+	 * equivalent to {@link #addFirst}.
+	 *
+	 * @param e
+	 *            the value to push
+	 */
+	public void push(double e) {
+		addFirst(e);
+	}
+
+	/**
+	 * Pops a value from the stack represented by this deque. This method is
+	 * equivalent to {@link #removeFirst()}.
+	 *
+	 * @return the value at the front of this deque
+	 * @throws NoSuchElementException
+	 *             if this deque is empty
+	 */
+	public double pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * Returns the number of elements in this deque.
+	 *
+	 * @return the number of elements in this deque
+	 */
+	public int size() {
+		return (tail - head) & (elements.length - 1);
+	}
+
+	/**
+	 * Returns {@code true} if this deque contains no elements.
+	 *
+	 * @return {@code true} if this deque contains no elements
+	 */
+	public boolean isEmpty() {
+		return head == tail;
+	}
+
+	/**
+	 * Returns {@code true} if this deque contains the specified value, as
+	 * compared by {@code ==}.
+	 *
+	 * @param e
+	 *            the value to look for
+	 * @return {@code true} if this deque contains the value
+	 */
+	public boolean contains(double e) {
+		final double[] a = elements;
+		final int mask = a.length - 1;
+		for (int i = head, t = tail; i != t; i = (i + 1) & mask) {
+			if (a[i] == e) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all of the elements from this deque. The capacity is retained.
+	 */
+	public void clear() {
+		head = tail = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this deque in proper
+	 * sequence (from first to last element).
+	 *
+	 * @return an array containing all of the elements in this deque
+	 */
+	public double[] toArray() {
+		final double[] a = new double[size()];
+		if (head < tail) {
+			System.arraycopy(elements, head, a, 0, a.length);
+		} else if (head > tail) {
+			int headPortionLen = elements.length - head;
+			System.arraycopy(elements, head, a, 0, headPortionLen);
+			System.arraycopy(elements, 0, a, headPortionLen, tail);
+		}
+		return a;
+	}
+
+	/**
+	 * Performs the given action for each element of this deque, from first to
+	 * last.
+	 *
+	 * @param action
+	 *            the action to be performed for each element
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void forEach(DoubleConsumer action) {
+		Objects.requireNonNull(action);
+		final double[] a = elements;
+		final int mask = a.length - 1;
+		final int expectedModCount = modCount;
+		for (int i = head, t = tail; i != t; i = (i + 1) & mask) {
+			action.accept(a[i]);
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Removes the element at the specified position in the elements array,
+	 * adjusting head and tail as necessary, with the least element motion, as
+	 * in ArrayDeque.
+	 *
+	 * @return true if elements moved backwards
+	 */
+	private boolean delete(int i) {
+		final double[] elements = this.elements;
+		final int mask = elements.length - 1;
+		final int h = head;
+		final int t = tail;
+		final int front = (i - h) & mask;
+		final int back = (t - i) & mask;
+		// Invariant: head <= i < tail mod circularity
+		if (front >= ((t - h) & mask)) {
+			throw new ConcurrentModificationException();
+		}
+		modCount++;
+		// Optimize for least element motion
+		if (front < back) {
+			if (h <= i) {
+				System.arraycopy(elements, h, elements, h + 1, front);
+			} else { // Wrap around
+				System.arraycopy(elements, 0, elements, 1, i);
+				elements[0] = elements[mask];
+				System.arraycopy(elements, h, elements, h + 1, mask - h);
+			}
+			head = (h + 1) & mask;
+			return false;
+		} else {
+			if (i < t) {
+				System.arraycopy(elements, i + 1, elements, i, back);
+				tail = t - 1;
+			} else { // Wrap around
+				System.arraycopy(elements, i + 1, elements, i, mask - i);
+				elements[mask] = elements[0];
+				System.arraycopy(elements, 1, elements, 0, t);
+				tail = (t - 1) & mask;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this deque, from first (head)
+	 * to last (tail). The iterator is fail-fast, and supports {@code remove}.
+	 *
+	 * @return an iterator over the elements in this deque
+	 */
+	public PrimitiveIterator.OfDouble iterator() {
+		return new DeqIterator();
+	}
+
+	private class DeqIterator implements PrimitiveIterator.OfDouble {
+		/** Index of element to be returned by subsequent call to next. */
+		private int cursor = head;
+		/** Tail recorded at construction (also in remove), to stop iterator */
+		private int fence = tail;
+		/** Index of element returned by most recent call to next. */
+		private int lastRet = -1;
+		private int expectedModCount = modCount;
+
+		public boolean hasNext() {
+			return cursor != fence;
+		}
+
+		public double nextDouble() {
+			if (cursor == fence) {
+				throw new NoSuchElementException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			double result = elements[cursor];
+			lastRet = cursor;
+			cursor = (cursor + 1) & (elements.length - 1);
+			return result;
+		}
+
+		public void remove() {
+			if (lastRet < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (delete(lastRet)) { // if left-shifted, undo increment in next()
+				cursor = (cursor - 1) & (elements.length - 1);
+				fence = tail;
+			}
+			lastRet = -1;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public void forEachRemaining(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+			double[] a = elements;
+			int m = a.length - 1, f = fence, i = cursor;
+			cursor = f;
+			while (i != f) {
+				double e = a[i];
+				i = (i + 1) & m;
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				action.accept(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of this deque.
+	 *
+	 * @return a copy of this deque
+	 */
+	@Override
+	public DoubleArrayDeque clone() {
+		try {
+			DoubleArrayDeque result = (DoubleArrayDeque) super.clone();
+			result.elements = elements.clone();
+			result.modCount = 0;
+			return result;
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError();
+		}
+	}
+
+	/**
+	 * Returns a string representation of this deque, in the same form as that
+	 * of an {@code ArrayDeque<Double>} holding the same values.
+	 *
+	 * @return a string representation of this deque
+	 */
+	@Override
+	public String toString() {
+		if (head == tail) {
+			return "[]";
+		}
+		final double[] a = elements;
+		final int mask = a.length - 1;
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = head;;) {
+			sb.append(a[i]);
+			if ((i = (i + 1) & mask) == tail) {
+				return sb.append(']').toString();
+			}
+			sb.append(", ");
+		}
+	}
+
+	private static final long serialVersionUID = -6542213458731096384L;
+
+	/**
+	 * Saves this deque to a stream (that is, serializes it).
+	 *
+	 * @serialData The current size ({@code int}) of the deque, followed by all
+	 *             of its elements (each a {@code double}) in first-to-last
+	 *             order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		s.writeInt(size());
+		int mask = elements.length - 1;
+		for (int i = head; i != tail; i = (i + 1) & mask) {
+			s.writeDouble(elements[i]);
+		}
+	}
+
+	/**
+	 * Reconstitutes this deque from a stream (that is, deserializes it).
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		int size = s.readInt();
+		int capacity = calculateSize(size);
+		SharedSecrets.getJavaOISAccess().checkArray(s, double[].class, capacity);
+		allocateElements(size);
+		head = 0;
+		tail = size;
+		for (int i = 0; i < size; i++) {
+			elements[i] = s.readDouble();
+		}
+	}
+
+	/**
+	 * Returns a sequential {@code DoubleStream} with this deque as its source.
+	 *
+	 * @return a sequential stream over the elements in this deque
+	 */
+	public DoubleStream stream() {
+		return StreamSupport.doubleStream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel {@code DoubleStream} with this deque as its
+	 * source.
+	 *
+	 * @return a possibly parallel stream over the elements in this deque
+	 */
+	public DoubleStream parallelStream() {
+		return StreamSupport.doubleStream(spliterator(), true);
+	}
+
+	/**
+	 * Creates a <em>late-binding</em> and <em>fail-fast</em> spliterator over
+	 * the elements in this deque.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED},
+	 * {@link Spliterator#SUBSIZED} and {@link Spliterator#ORDERED}.
+	 *
+	 * @return a {@code Spliterator} over the elements in this deque
+	 */
+	public Spliterator.OfDouble spliterator() {
+		return new DeqSpliterator(this, -1, -1, 0);
+	}
+
+	static final class DeqSpliterator implements Spliterator.OfDouble {
+		private final DoubleArrayDeque deq;
+		private int fence; // -1 until first use
+		private int index; // current index, modified on traverse/split
+		private int expectedModCount; // initialized when fence set
+
+		/** Creates new spliterator covering the given array and range */
+		DeqSpliterator(DoubleArrayDeque deq, int origin, int fence, int expectedModCount) {
+			this.deq = deq;
+			this.index = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence() { // force initialization
+			int t;
+			if ((t = fence) < 0) {
+				t = fence = deq.tail;
+				index = deq.head;
+				expectedModCount = deq.modCount;
+			}
+			return t;
+		}
+
+		@Override
+		public DeqSpliterator trySplit() {
+			int t = getFence(), h = index, n = deq.elements.length;
+			if ((h != t) && (((h + 1) & (n - 1)) != t)) {
+				if (h > t) {
+					t += n;
+				}
+				int m = ((h + t) >>> 1) & (n - 1);
+				return new DeqSpliterator(deq, h, index = m, expectedModCount);
+			}
+			return null;
+		}
+
+		@Override
+		public void forEachRemaining(DoubleConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			double[] a = deq.elements;
+			int m = a.length - 1, f = getFence(), i = index;
+			index = f;
+			while (i != f) {
+				double e = a[i];
+				i = (i + 1) & m;
+				consumer.accept(e);
+			}
+			if (deq.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(DoubleConsumer consumer) {
+			if (consumer == null) {
+				throw new NullPointerException();
+			}
+			double[] a = deq.elements;
+			int m = a.length - 1;
+			getFence();
+			int i = index;
+			if (i != fence) {
+				double e = a[i];
+				index = (i + 1) & m;
+				consumer.accept(e);
+				if (deq.modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public long estimateSize() {
+			int n = getFence() - index;
+			if (n < 0) {
+				n += deq.elements.length;
+			}
+			return n;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+}
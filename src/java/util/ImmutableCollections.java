@@ -0,0 +1,1618 @@
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Container class for the unmodifiable collections returned by the
+ * {@code of} and {@code copyOf} factories of {@link List}, {@link Set} and
+ * {@link Map}.
+ *
+ * <p>
+ * None of these collections allows null elements, keys or values, and they
+ * have no per-element objects: lists, sets and maps of up to two elements
+ * keep them in fields, larger lists keep them in an array of exactly their
+ * size, and larger sets and maps keep them in an open-addressed table with
+ * linear probing, interleaving the keys and values of a map in a single
+ * array. The tables have a power of two length between two and four times
+ * their size, so that probe sequences stay short and always end at a free
+ * slot, and iterating them is a scan of a single array.
+ *
+ * <p>
+ * The probe sequences of the tables, and so the iteration order of the
+ * sets and maps, depend on a salt chosen when this class is initialized.
+ * The order is the same for every iteration within a run, but changes from
+ * run to run, so that callers do not come to depend on it.
+ *
+ * <p>
+ * The collections are serialized through {@link CollSer}, which records
+ * only their kind and elements.
+ */
+final class ImmutableCollections {
+	/** The salt of the probe sequences of the tables, fixed for the run */
+	static final int SALT;
+
+	/** Whether the sets and maps of two elements iterate them in reverse */
+	static final boolean REVERSE;
+
+	static {
+		long nt = System.nanoTime();
+		SALT = (int) ((nt >>> 32) ^ nt);
+		REVERSE = (SALT & 1) == 0;
+	}
+
+	/** Marks the absent second element of a list or set of one element */
+	static final Object EMPTY = new Object();
+
+	private ImmutableCollections() {
+	}
+
+	static UnsupportedOperationException uoe() {
+		return new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the length of a table for the given number of elements: the
+	 * least power of two not less than twice that number.
+	 */
+	static int tableSize(int n) {
+		if (n > (1 << 28)) {
+			throw new OutOfMemoryError("Required table size too large");
+		}
+		return Integer.highestOneBit((n << 1) - 1) << 1;
+	}
+
+	/**
+	 * Returns the first slot of the probe sequence of the given hash code in
+	 * a table of the given mask. The salted hash is multiplied by the golden
+	 * ratio and its halves folded, so that hash codes differing only in their
+	 * high bits, or forming arithmetic sequences, are still spread out.
+	 */
+	static int spread(int h, int mask) {
+		h = (h ^ SALT) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Returns the slot of the given element in a set table, or
+	 * {@code -(slot + 1)} for the free slot ending its probe sequence.
+	 */
+	static int probe(Object[] table, Object pe) {
+		int mask = table.length - 1;
+		for (int i = spread(pe.hashCode(), mask);; i = (i + 1) & mask) {
+			Object ee = table[i];
+			if (ee == null) {
+				return -i - 1;
+			}
+			if ((ee == pe) || pe.equals(ee)) {
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Returns the slot of the given key in a map table, whose key is at
+	 * twice the slot, or {@code -(slot + 1)} for the free slot ending its
+	 * probe sequence.
+	 */
+	static int probeKey(Object[] table, Object pk) {
+		int mask = (table.length >> 1) - 1;
+		for (int i = spread(pk.hashCode(), mask);; i = (i + 1) & mask) {
+			Object ek = table[i << 1];
+			if (ek == null) {
+				return -i - 1;
+			}
+			if ((ek == pk) || pk.equals(ek)) {
+				return i;
+			}
+		}
+	}
+
+	// ---------- factories ----------
+
+	/**
+	 * Returns an unmodifiable list of the elements of the given array, which
+	 * must not be modified or escape afterwards.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> List<E> listFromTrustedArray(Object... input) {
+		for (Object e : input) {
+			Objects.requireNonNull(e);
+		}
+		switch (input.length) {
+		case 0:
+			return (List<E>) ListN.EMPTY_LIST;
+		case 1:
+			return new List12<>((E) input[0]);
+		case 2:
+			return new List12<>((E) input[0], (E) input[1]);
+		default:
+			return new ListN<>(input);
+		}
+	}
+
+	/** Returns an unmodifiable list of a copy of the given array. */
+	static <E> List<E> listFromArray(Object[] input) {
+		return listFromTrustedArray((input.length > 2) ? Arrays.copyOf(input, input.length, Object[].class) : input);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> List<E> listCopy(Collection<? extends E> coll) {
+		if ((coll instanceof List12) || (coll instanceof ListN)) {
+			return (List<E>) coll;
+		}
+		return listFromArray(coll.toArray());
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements of the given array, which
+	 * is not retained. Duplicate elements are dropped if allowed, and
+	 * otherwise rejected.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there are duplicate elements and they are not allowed
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> Set<E> setFromArray(Object[] input, boolean allowDuplicates) {
+		int n = input.length;
+		switch (n) {
+		case 0:
+			return (Set<E>) SetN.EMPTY_SET;
+		case 1:
+			return new Set12<>((E) Objects.requireNonNull(input[0]));
+		case 2:
+			if (allowDuplicates && Objects.requireNonNull(input[0]).equals(input[1])) {
+				return new Set12<>((E) input[0]);
+			}
+			return new Set12<>((E) input[0], (E) input[1]);
+		default:
+			Object[] table = new Object[tableSize(n)];
+			int size = 0;
+			for (Object e : input) {
+				int i = probe(table, Objects.requireNonNull(e));
+				if (i < 0) {
+					table[-i - 1] = e;
+					size++;
+				} else if (!allowDuplicates) {
+					throw new IllegalArgumentException("duplicate element: " + e);
+				}
+			}
+			if (size < n) {
+				// Start over from the distinct elements, for a table that fits them
+				Object[] distinct = new Object[size];
+				int j = 0;
+				for (Object e : table) {
+					if (e != null) {
+						distinct[j++] = e;
+					}
+				}
+				return setFromArray(distinct, false);
+			}
+			return new SetN<>(table, size);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> Set<E> setCopy(Collection<? extends E> coll) {
+		if ((coll instanceof Set12) || (coll instanceof SetN)) {
+			return (Set<E>) coll;
+		}
+		return setFromArray(coll.toArray(), true);
+	}
+
+	/**
+	 * Returns an unmodifiable map of the keys and values alternating in the
+	 * given array, which is not retained.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there are duplicate keys
+	 * @throws NullPointerException
+	 *             if a key or value is null
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> Map<K, V> mapFromArray(Object... input) {
+		if ((input.length & 1) != 0) {
+			throw new InternalError("length is odd");
+		}
+		int n = input.length >> 1;
+		switch (n) {
+		case 0:
+			return (Map<K, V>) MapN.EMPTY_MAP;
+		case 1:
+			return new Map1<>((K) input[0], (V) input[1]);
+		case 2:
+			return new Map2<>((K) input[0], (V) input[1], (K) input[2], (V) input[3]);
+		default:
+			Object[] table = new Object[tableSize(n) << 1];
+			for (int j = 0; j < input.length; j += 2) {
+				Object k = Objects.requireNonNull(input[j]);
+				Object v = Objects.requireNonNull(input[j + 1]);
+				int i = probeKey(table, k);
+				if (i >= 0) {
+					throw new IllegalArgumentException("duplicate key: " + k);
+				}
+				i = (-i - 1) << 1;
+				table[i] = k;
+				table[i + 1] = v;
+			}
+			return new MapN<>(table, n);
+		}
+	}
+
+	@SafeVarargs
+	static <K, V> Map<K, V> mapOfEntries(Map.Entry<? extends K, ? extends V>... entries) {
+		Object[] kvs = new Object[entries.length << 1];
+		int j = 0;
+		for (Map.Entry<? extends K, ? extends V> e : entries) {
+			kvs[j++] = e.getKey();
+			kvs[j++] = e.getValue();
+		}
+		return mapFromArray(kvs);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <K, V> Map<K, V> mapCopy(Map<? extends K, ? extends V> map) {
+		if ((map instanceof Map1) || (map instanceof Map2) || (map instanceof MapN)) {
+			return (Map<K, V>) map;
+		}
+		Object[] kvs = new Object[map.size() << 1];
+		int j = 0;
+		for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+			if (j == kvs.length) {
+				kvs = Arrays.copyOf(kvs, j + 2);
+			}
+			kvs[j++] = e.getKey();
+			kvs[j++] = e.getValue();
+		}
+		return mapFromArray((j == kvs.length) ? kvs : Arrays.copyOf(kvs, j));
+	}
+
+	// ---------- Collections ----------
+
+	static abstract class AbstractImmutableCollection<E> extends AbstractCollection<E> {
+		@Override
+		public boolean add(E e) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			throw uoe();
+		}
+
+		@Override
+		public void clear() {
+			throw uoe();
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super E> filter) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			throw uoe();
+		}
+	}
+
+	// ---------- Lists ----------
+
+	static abstract class AbstractImmutableList<E> extends AbstractImmutableCollection<E> implements List<E>, RandomAccess {
+		@Override
+		public void add(int index, E element) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends E> c) {
+			throw uoe();
+		}
+
+		@Override
+		public E remove(int index) {
+			throw uoe();
+		}
+
+		@Override
+		public void replaceAll(UnaryOperator<E> operator) {
+			throw uoe();
+		}
+
+		@Override
+		public E set(int index, E element) {
+			throw uoe();
+		}
+
+		@Override
+		public void sort(Comparator<? super E> c) {
+			throw uoe();
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			int size = size();
+			subListRangeCheck(fromIndex, toIndex, size);
+			return SubList.fromList(this, fromIndex, toIndex);
+		}
+
+		static void subListRangeCheck(int fromIndex, int toIndex, int size) {
+			if (fromIndex < 0) {
+				throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+			}
+			if (toIndex > size) {
+				throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+			}
+			if (fromIndex > toIndex) {
+				throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+			}
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new ListItr<>(this, size());
+		}
+
+		@Override
+		public ListIterator<E> listIterator() {
+			return listIterator(0);
+		}
+
+		@Override
+		public ListIterator<E> listIterator(int index) {
+			int size = size();
+			if ((index < 0) || (index > size)) {
+				throw outOfBounds(index);
+			}
+			return new ListItr<>(this, size, index);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		@Override
+		public int indexOf(Object o) {
+			Objects.requireNonNull(o);
+			for (int i = 0, s = size(); i < s; i++) {
+				if (o.equals(get(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int lastIndexOf(Object o) {
+			Objects.requireNonNull(o);
+			for (int i = size() - 1; i >= 0; i--) {
+				if (o.equals(get(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (!(o instanceof List)) {
+				return false;
+			}
+			Iterator<?> oit = ((List<?>) o).iterator();
+			for (int i = 0, s = size(); i < s; i++) {
+				if (!oit.hasNext() || !get(i).equals(oit.next())) {
+					return false;
+				}
+			}
+			return !oit.hasNext();
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 1;
+			for (int i = 0, s = size(); i < s; i++) {
+				hash = (31 * hash) + get(i).hashCode();
+			}
+			return hash;
+		}
+
+		@Override
+		public Spliterator<E> spliterator() {
+			return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+		}
+
+		IndexOutOfBoundsException outOfBounds(int index) {
+			return new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+	}
+
+	static final class ListItr<E> implements ListIterator<E> {
+		private final List<E> list;
+		private final int size;
+		private final boolean isListIterator;
+		private int cursor;
+
+		ListItr(List<E> list, int size) {
+			this.list = list;
+			this.size = size;
+			this.cursor = 0;
+			isListIterator = false;
+		}
+
+		ListItr(List<E> list, int size, int index) {
+			this.list = list;
+			this.size = size;
+			this.cursor = index;
+			isListIterator = true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor != size;
+		}
+
+		@Override
+		public E next() {
+			try {
+				int i = cursor;
+				E next = list.get(i);
+				cursor = i + 1;
+				return next;
+			} catch (IndexOutOfBoundsException e) {
+				throw new NoSuchElementException();
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw uoe();
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			if (!isListIterator) {
+				throw uoe();
+			}
+			return cursor != 0;
+		}
+
+		@Override
+		public E previous() {
+			if (!isListIterator) {
+				throw uoe();
+			}
+			try {
+				int i = cursor - 1;
+				E previous = list.get(i);
+				cursor = i;
+				return previous;
+			} catch (IndexOutOfBoundsException e) {
+				throw new NoSuchElementException();
+			}
+		}
+
+		@Override
+		public int nextIndex() {
+			if (!isListIterator) {
+				throw uoe();
+			}
+			return cursor;
+		}
+
+		@Override
+		public int previousIndex() {
+			if (!isListIterator) {
+				throw uoe();
+			}
+			return cursor - 1;
+		}
+
+		@Override
+		public void set(E e) {
+			throw uoe();
+		}
+
+		@Override
+		public void add(E e) {
+			throw uoe();
+		}
+	}
+
+	/**
+	 * A view of a range of a {@link List12} or {@link ListN}. Views of views
+	 * refer to the same root list, and are not serializable.
+	 */
+	static final class SubList<E> extends AbstractImmutableList<E> {
+		private final List<E> root;
+		private final int offset;
+		private final int size;
+
+		private SubList(List<E> root, int offset, int size) {
+			this.root = root;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		static <E> SubList<E> fromSubList(SubList<E> parent, int fromIndex, int toIndex) {
+			return new SubList<>(parent.root, parent.offset + fromIndex, toIndex - fromIndex);
+		}
+
+		static <E> SubList<E> fromList(List<E> list, int fromIndex, int toIndex) {
+			if (list instanceof SubList) {
+				return fromSubList((SubList<E>) list, fromIndex, toIndex);
+			}
+			return new SubList<>(list, fromIndex, toIndex - fromIndex);
+		}
+
+		@Override
+		public E get(int index) {
+			if ((index < 0) || (index >= size)) {
+				throw outOfBounds(index);
+			}
+			return root.get(offset + index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Object[] toArray() {
+			Object[] array = new Object[size];
+			for (int i = 0; i < size; i++) {
+				array[i] = root.get(offset + i);
+			}
+			return array;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T[] toArray(T[] a) {
+			T[] array = (a.length >= size) ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+			for (int i = 0; i < size; i++) {
+				array[i] = (T) root.get(offset + i);
+			}
+			if (array.length > size) {
+				array[size] = null;
+			}
+			return array;
+		}
+	}
+
+	/** A list of one or two elements, held in fields. */
+	static final class List12<E> extends AbstractImmutableList<E> implements Serializable {
+		private static final long serialVersionUID = 7969893593666287117L;
+
+		private final E e0;
+		private final Object e1;
+
+		List12(E e0) {
+			this.e0 = Objects.requireNonNull(e0);
+			this.e1 = EMPTY;
+		}
+
+		List12(E e0, E e1) {
+			this.e0 = Objects.requireNonNull(e0);
+			this.e1 = Objects.requireNonNull(e1);
+		}
+
+		@Override
+		public int size() {
+			return (e1 != EMPTY) ? 2 : 1;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E get(int index) {
+			if (index == 0) {
+				return e0;
+			} else if ((index == 1) && (e1 != EMPTY)) {
+				return (E) e1;
+			}
+			throw outOfBounds(index);
+		}
+
+		@Override
+		public int indexOf(Object o) {
+			Objects.requireNonNull(o);
+			if (o.equals(e0)) {
+				return 0;
+			}
+			return ((e1 != EMPTY) && o.equals(e1)) ? 1 : -1;
+		}
+
+		@Override
+		public int lastIndexOf(Object o) {
+			Objects.requireNonNull(o);
+			if ((e1 != EMPTY) && o.equals(e1)) {
+				return 1;
+			}
+			return o.equals(e0) ? 0 : -1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			action.accept(e0);
+			if (e1 != EMPTY) {
+				action.accept((E) e1);
+			}
+		}
+
+		@Override
+		public Object[] toArray() {
+			return (e1 == EMPTY) ? new Object[] { e0 } : new Object[] { e0, e1 };
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T[] toArray(T[] a) {
+			int size = size();
+			T[] array = (a.length >= size) ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+			array[0] = (T) e0;
+			if (size == 2) {
+				array[1] = (T) e1;
+			}
+			if (array.length > size) {
+				array[size] = null;
+			}
+			return array;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+
+		private Object writeReplace() {
+			return new CollSer(CollSer.IMM_LIST, toArray());
+		}
+	}
+
+	/** A list of any size, held in an array of exactly that size. */
+	static final class ListN<E> extends AbstractImmutableList<E> implements Serializable {
+		private static final long serialVersionUID = 7655848581599327032L;
+
+		static final ListN<?> EMPTY_LIST = new ListN<>(new Object[0]);
+
+		private final E[] elements;
+
+		@SuppressWarnings("unchecked")
+		ListN(Object[] elements) {
+			this.elements = (E[]) elements;
+		}
+
+		@Override
+		public int size() {
+			return elements.length;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return elements.length == 0;
+		}
+
+		@Override
+		public E get(int index) {
+			if ((index < 0) || (index >= elements.length)) {
+				throw outOfBounds(index);
+			}
+			return elements[index];
+		}
+
+		@Override
+		public int indexOf(Object o) {
+			Objects.requireNonNull(o);
+			E[] es = elements;
+			for (int i = 0; i < es.length; i++) {
+				if (o.equals(es[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int lastIndexOf(Object o) {
+			Objects.requireNonNull(o);
+			E[] es = elements;
+			for (int i = es.length - 1; i >= 0; i--) {
+				if (o.equals(es[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			for (E e : elements) {
+				action.accept(e);
+			}
+		}
+
+		@Override
+		public Object[] toArray() {
+			return Arrays.copyOf(elements, elements.length, Object[].class);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T[] toArray(T[] a) {
+			int size = elements.length;
+			if (a.length < size) {
+				return (T[]) Arrays.copyOf(elements, size, a.getClass());
+			}
+			System.arraycopy(elements, 0, a, 0, size);
+			if (a.length > size) {
+				a[size] = null;
+			}
+			return a;
+		}
+
+		@Override
+		public Spliterator<E> spliterator() {
+			return Spliterators.spliterator(elements, Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+
+		private Object writeReplace() {
+			return new CollSer(CollSer.IMM_LIST, elements);
+		}
+	}
+
+	// ---------- Sets ----------
+
+	static abstract class AbstractImmutableSet<E> extends AbstractImmutableCollection<E> implements Set<E> {
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (!(o instanceof Set)) {
+				return false;
+			}
+			Collection<?> c = (Collection<?>) o;
+			if (c.size() != size()) {
+				return false;
+			}
+			for (Object e : c) {
+				if ((e == null) || !contains(e)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public abstract int hashCode();
+
+		@Override
+		public Spliterator<E> spliterator() {
+			return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+		}
+	}
+
+	/**
+	 * A set of one or two elements, held in fields, which iterates two
+	 * elements in the order chosen by {@link #REVERSE}.
+	 */
+	static final class Set12<E> extends AbstractImmutableSet<E> implements Serializable {
+		private static final long serialVersionUID = 6681345156739743392L;
+
+		private final E e0;
+		private final Object e1;
+
+		Set12(E e0) {
+			this.e0 = Objects.requireNonNull(e0);
+			this.e1 = EMPTY;
+		}
+
+		Set12(E e0, E e1) {
+			if (e0.equals(Objects.requireNonNull(e1))) {
+				throw new IllegalArgumentException("duplicate element: " + e0);
+			}
+			this.e0 = e0;
+			this.e1 = e1;
+		}
+
+		@Override
+		public int size() {
+			return (e1 != EMPTY) ? 2 : 1;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o.equals(e0) || ((e1 != EMPTY) && o.equals(e1));
+		}
+
+		@Override
+		public int hashCode() {
+			return e0.hashCode() + ((e1 != EMPTY) ? e1.hashCode() : 0);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+				private int idx = size();
+
+				@Override
+				public boolean hasNext() {
+					return idx > 0;
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public E next() {
+					if (idx == 1) {
+						idx = 0;
+						return (REVERSE || (e1 == EMPTY)) ? e0 : (E) e1;
+					} else if (idx == 2) {
+						idx = 1;
+						return REVERSE ? (E) e1 : e0;
+					}
+					throw new NoSuchElementException();
+				}
+			};
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			if (e1 == EMPTY) {
+				action.accept(e0);
+			} else if (REVERSE) {
+				action.accept((E) e1);
+				action.accept(e0);
+			} else {
+				action.accept(e0);
+				action.accept((E) e1);
+			}
+		}
+
+		@Override
+		public Object[] toArray() {
+			if (e1 == EMPTY) {
+				return new Object[] { e0 };
+			}
+			return REVERSE ? new Object[] { e1, e0 } : new Object[] { e0, e1 };
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T[] toArray(T[] a) {
+			int size = size();
+			T[] array = (a.length >= size) ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+			if (size == 1) {
+				array[0] = (T) e0;
+			} else if (REVERSE) {
+				array[0] = (T) e1;
+				array[1] = (T) e0;
+			} else {
+				array[0] = (T) e0;
+				array[1] = (T) e1;
+			}
+			if (array.length > size) {
+				array[size] = null;
+			}
+			return array;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+
+		private Object writeReplace() {
+			return new CollSer(CollSer.IMM_SET, toArray());
+		}
+	}
+
+	/**
+	 * A set of any size, held in an open-addressed table of a power of two
+	 * length. The empty set has a table of one free slot.
+	 */
+	static final class SetN<E> extends AbstractImmutableSet<E> implements Serializable {
+		private static final long serialVersionUID = 7813842085399744843L;
+
+		static final SetN<?> EMPTY_SET = new SetN<>(new Object[1], 0);
+
+		private final E[] table;
+		private final int size;
+
+		@SuppressWarnings("unchecked")
+		SetN(Object[] table, int size) {
+			this.table = (E[]) table;
+			this.size = size;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Objects.requireNonNull(o);
+			return (size > 0) && (probe(table, o) >= 0);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+				private int remaining = size;
+				private int idx;
+
+				@Override
+				public boolean hasNext() {
+					return remaining > 0;
+				}
+
+				@Override
+				public E next() {
+					if (remaining <= 0) {
+						throw new NoSuchElementException();
+					}
+					E e;
+					while ((e = table[idx++]) == null) {
+					}
+					remaining--;
+					return e;
+				}
+			};
+		}
+
+		@Override
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			for (E e : table) {
+				if (e != null) {
+					action.accept(e);
+				}
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			int h = 0;
+			for (E e : table) {
+				if (e != null) {
+					h += e.hashCode();
+				}
+			}
+			return h;
+		}
+
+		@Override
+		public Object[] toArray() {
+			Object[] array = new Object[size];
+			int j = 0;
+			for (E e : table) {
+				if (e != null) {
+					array[j++] = e;
+				}
+			}
+			return array;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T[] toArray(T[] a) {
+			T[] array = (a.length >= size) ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+			int j = 0;
+			for (E e : table) {
+				if (e != null) {
+					array[j++] = (T) e;
+				}
+			}
+			if (array.length > size) {
+				array[size] = null;
+			}
+			return array;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+
+		private Object writeReplace() {
+			return new CollSer(CollSer.IMM_SET, toArray());
+		}
+	}
+
+	// ---------- Maps ----------
+
+	static abstract class AbstractImmutableMap<K, V> extends AbstractMap<K, V> implements Serializable {
+		private static final long serialVersionUID = 5520283759280465338L;
+
+		@Override
+		public void clear() {
+			throw uoe();
+		}
+
+		@Override
+		public V compute(K key, BiFunction<? super K, ? super V, ? extends V> rf) {
+			throw uoe();
+		}
+
+		@Override
+		public V computeIfAbsent(K key, Function<? super K, ? extends V> mf) {
+			throw uoe();
+		}
+
+		@Override
+		public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> rf) {
+			throw uoe();
+		}
+
+		@Override
+		public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> rf) {
+			throw uoe();
+		}
+
+		@Override
+		public V put(K key, V value) {
+			throw uoe();
+		}
+
+		@Override
+		public void putAll(Map<? extends K, ? extends V> m) {
+			throw uoe();
+		}
+
+		@Override
+		public V putIfAbsent(K key, V value) {
+			throw uoe();
+		}
+
+		@Override
+		public V remove(Object key) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean remove(Object key, Object value) {
+			throw uoe();
+		}
+
+		@Override
+		public V replace(K key, V value) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean replace(K key, V oldValue, V newValue) {
+			throw uoe();
+		}
+
+		@Override
+		public void replaceAll(BiFunction<? super K, ? super V, ? extends V> f) {
+			throw uoe();
+		}
+
+		@Override
+		public V getOrDefault(Object key, V defaultValue) {
+			V v;
+			return ((v = get(key)) != null) ? v : defaultValue;
+		}
+
+		abstract Object[] toKeyValueArray();
+
+		// Not private, so that the concrete maps inherit it
+		Object writeReplace() throws ObjectStreamException {
+			return new CollSer(CollSer.IMM_MAP, toKeyValueArray());
+		}
+	}
+
+	/** A map of one entry, held in fields. */
+	static final class Map1<K, V> extends AbstractImmutableMap<K, V> {
+		private static final long serialVersionUID = 7816973532424773097L;
+
+		private final K k0;
+		private final V v0;
+
+		Map1(K k0, V v0) {
+			this.k0 = Objects.requireNonNull(k0);
+			this.v0 = Objects.requireNonNull(v0);
+		}
+
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new Set12<>(new KeyValueHolder<>(k0, v0));
+		}
+
+		@Override
+		public V get(Object o) {
+			return o.equals(k0) ? v0 : null;
+		}
+
+		@Override
+		public boolean containsKey(Object o) {
+			return o.equals(k0);
+		}
+
+		@Override
+		public boolean containsValue(Object o) {
+			return o.equals(v0);
+		}
+
+		@Override
+		public int size() {
+			return 1;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super K, ? super V> action) {
+			Objects.requireNonNull(action);
+			action.accept(k0, v0);
+		}
+
+		@Override
+		public int hashCode() {
+			return k0.hashCode() ^ v0.hashCode();
+		}
+
+		@Override
+		Object[] toKeyValueArray() {
+			return new Object[] { k0, v0 };
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+	}
+
+	/**
+	 * A map of two entries, held in fields, which iterates them in the order
+	 * chosen by {@link #REVERSE}.
+	 */
+	static final class Map2<K, V> extends AbstractImmutableMap<K, V> {
+		private static final long serialVersionUID = 6662818377230200166L;
+
+		private final K k0;
+		private final V v0;
+		private final K k1;
+		private final V v1;
+
+		Map2(K k0, V v0, K k1, V v1) {
+			if (Objects.requireNonNull(k0).equals(Objects.requireNonNull(k1))) {
+				throw new IllegalArgumentException("duplicate key: " + k0);
+			}
+			this.k0 = k0;
+			this.v0 = Objects.requireNonNull(v0);
+			this.k1 = k1;
+			this.v1 = Objects.requireNonNull(v1);
+		}
+
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new Set12<>(new KeyValueHolder<>(k0, v0), new KeyValueHolder<>(k1, v1));
+		}
+
+		@Override
+		public V get(Object o) {
+			if (o.equals(k0)) {
+				return v0;
+			}
+			return o.equals(k1) ? v1 : null;
+		}
+
+		@Override
+		public boolean containsKey(Object o) {
+			return o.equals(k0) || o.equals(k1);
+		}
+
+		@Override
+		public boolean containsValue(Object o) {
+			return o.equals(v0) || o.equals(v1);
+		}
+
+		@Override
+		public int size() {
+			return 2;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super K, ? super V> action) {
+			Objects.requireNonNull(action);
+			if (REVERSE) {
+				action.accept(k1, v1);
+				action.accept(k0, v0);
+			} else {
+				action.accept(k0, v0);
+				action.accept(k1, v1);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return (k0.hashCode() ^ v0.hashCode()) + (k1.hashCode() ^ v1.hashCode());
+		}
+
+		@Override
+		Object[] toKeyValueArray() {
+			return new Object[] { k0, v0, k1, v1 };
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+	}
+
+	/**
+	 * A map of any size, held in an open-addressed table of a power of two
+	 * number of slots, with the key of each slot at twice its index and the
+	 * value after it. The empty map has a table of one free slot.
+	 */
+	static final class MapN<K, V> extends AbstractImmutableMap<K, V> {
+		private static final long serialVersionUID = 5245687758371964300L;
+
+		static final MapN<?, ?> EMPTY_MAP = new MapN<>(new Object[2], 0);
+
+		private final Object[] table;
+		private final int size;
+
+		MapN(Object[] table, int size) {
+			this.table = table;
+			this.size = size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object o) {
+			if (size == 0) {
+				Objects.requireNonNull(o);
+				return null;
+			}
+			int i = probeKey(table, o);
+			return (i >= 0) ? (V) table[(i << 1) + 1] : null;
+		}
+
+		@Override
+		public boolean containsKey(Object o) {
+			Objects.requireNonNull(o);
+			return (size > 0) && (probeKey(table, o) >= 0);
+		}
+
+		@Override
+		public boolean containsValue(Object o) {
+			Objects.requireNonNull(o);
+			for (int i = 1; i < table.length; i += 2) {
+				Object v = table[i];
+				if ((v != null) && o.equals(v)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEach(BiConsumer<? super K, ? super V> action) {
+			Objects.requireNonNull(action);
+			Object[] tab = table;
+			for (int i = 0; i < tab.length; i += 2) {
+				Object k = tab[i];
+				if (k != null) {
+					action.accept((K) k, (V) tab[i + 1]);
+				}
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			int h = 0;
+			for (int i = 0; i < table.length; i += 2) {
+				Object k = table[i];
+				if (k != null) {
+					h += k.hashCode() ^ table[i + 1].hashCode();
+				}
+			}
+			return h;
+		}
+
+		/**
+		 * Walks the occupied slots of the table, yielding the index of the key
+		 * of each.
+		 */
+		abstract class MapNIterator<T> implements Iterator<T> {
+			final Object[] tab = table;
+			private int remaining = size;
+			private int idx;
+
+			@Override
+			public boolean hasNext() {
+				return remaining > 0;
+			}
+
+			final int nextIndex() {
+				if (remaining <= 0) {
+					throw new NoSuchElementException();
+				}
+				int i = idx;
+				while (tab[i] == null) {
+					i += 2;
+				}
+				idx = i + 2;
+				remaining--;
+				return i;
+			}
+		}
+
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new MapNIterator<Map.Entry<K, V>>() {
+						@Override
+						@SuppressWarnings("unchecked")
+						public Map.Entry<K, V> next() {
+							int i = nextIndex();
+							return new KeyValueHolder<>((K) tab[i], (V) tab[i + 1]);
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		public Set<K> keySet() {
+			return new AbstractSet<K>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return containsKey(o);
+				}
+
+				@Override
+				public Iterator<K> iterator() {
+					return new MapNIterator<K>() {
+						@Override
+						@SuppressWarnings("unchecked")
+						public K next() {
+							return (K) tab[nextIndex()];
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		public Collection<V> values() {
+			return new AbstractCollection<V>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return containsValue(o);
+				}
+
+				@Override
+				public Iterator<V> iterator() {
+					return new MapNIterator<V>() {
+						@Override
+						@SuppressWarnings("unchecked")
+						public V next() {
+							return (V) tab[nextIndex() + 1];
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		Object[] toKeyValueArray() {
+			Object[] array = new Object[size << 1];
+			int j = 0;
+			for (int i = 0; i < table.length; i += 2) {
+				if (table[i] != null) {
+					array[j++] = table[i];
+					array[j++] = table[i + 1];
+				}
+			}
+			return array;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			throw new InvalidObjectException("not serial proxy");
+		}
+	}
+
+	/**
+	 * An unmodifiable entry, as returned by {@link Map#entry} and by the
+	 * iterators of the maps above. Neither its key nor its value may be null.
+	 */
+	static final class KeyValueHolder<K, V> implements Map.Entry<K, V> {
+		final K key;
+		final V value;
+
+		KeyValueHolder(K k, V v) {
+			key = Objects.requireNonNull(k);
+			value = Objects.requireNonNull(v);
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw uoe();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return key.equals(e.getKey()) && value.equals(e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * The serialized form of the collections above: the kind of collection,
+	 * and its elements, or its keys and values alternating. Reading it back
+	 * rebuilds the collection with the factories, so that the layout and
+	 * order suit the salt of the reading virtual machine.
+	 */
+	static final class CollSer implements Serializable {
+		private static final long serialVersionUID = 6309168927139932177L;
+
+		static final int IMM_LIST = 1;
+		static final int IMM_SET = 2;
+		static final int IMM_MAP = 3;
+
+		/** The kind of collection */
+		private final int tag;
+
+		/** The elements, or keys and values, written after the tag */
+		private transient Object[] array;
+
+		CollSer(int tag, Object[] array) {
+			this.tag = tag;
+			this.array = array;
+		}
+
+		private void writeObject(ObjectOutputStream s) throws IOException {
+			s.defaultWriteObject();
+			s.writeInt(array.length);
+			for (Object e : array) {
+				s.writeObject(e);
+			}
+		}
+
+		private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+			s.defaultReadObject();
+			int len = s.readInt();
+			if (len < 0) {
+				throw new InvalidObjectException("negative length " + len);
+			}
+			Object[] a = new Object[len];
+			for (int i = 0; i < len; i++) {
+				a[i] = s.readObject();
+			}
+			array = a;
+		}
+
+		private Object readResolve() throws ObjectStreamException {
+			try {
+				if (array == null) {
+					throw new InvalidObjectException("null array");
+				}
+				switch (tag) {
+				case IMM_LIST:
+					return listFromTrustedArray(array);
+				case IMM_SET:
+					return setFromArray(array, false);
+				case IMM_MAP:
+					if ((array.length & 1) != 0) {
+						throw new InvalidObjectException("odd length " + array.length);
+					}
+					return mapFromArray(array);
+				default:
+					throw new InvalidObjectException(String.format("invalid flags 0x%x", tag));
+				}
+			} catch (NullPointerException | IllegalArgumentException ex) {
+				InvalidObjectException ioe = new InvalidObjectException("invalid object");
+				ioe.initCause(ex);
+				throw ioe;
+			}
+		}
+	}
+}
@@ -0,0 +1,509 @@
+package java.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A priority queue of elements with {@code long} priorities, based on a
+ * <i>d</i>-ary min-heap, in which each inserted element is represented by a
+ * {@link Handle} through which its priority can be changed, or the element
+ * removed, in O(log n) time.
+ *
+ * <p>
+ * The priorities are kept in a {@code long} array parallel to the heap, so
+ * that sifting compares primitive values in contiguous memory rather than
+ * dispatching to a {@link Comparator} and loading each element. The arity of
+ * the heap is a power of two between 2 and 64, by default 4, as for
+ * {@link IndexedPriorityQueue}. Elements with equal priorities are dequeued in
+ * no particular order.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @param <E>
+ *            the type of elements held in this queue
+ * @see IndexedPriorityQueue
+ */
+public class IndexedLongPriorityQueue<E> implements Iterable<E> {
+	private static final int DEFAULT_INITIAL_CAPACITY = 11;
+	private static final int DEFAULT_ARITY = 4;
+
+	/**
+	 * The position of an element in an {@code IndexedLongPriorityQueue}. A
+	 * handle is valid from its insertion until the element is removed from
+	 * the queue, by whatever method.
+	 *
+	 * @param <E>
+	 *            the type of the element
+	 */
+	public static final class Handle<E> {
+		final IndexedLongPriorityQueue<E> queue;
+		final E element;
+		/** Position in the heap, or -1 once removed */
+		int index;
+
+		Handle(IndexedLongPriorityQueue<E> queue, E element) {
+			this.queue = queue;
+			this.element = element;
+		}
+
+		/**
+		 * Returns the element.
+		 *
+		 * @return the element
+		 */
+		public E get() {
+			return element;
+		}
+
+		/**
+		 * Returns {@code true} if the element is still in the queue.
+		 *
+		 * @return {@code true} if the element is still in the queue
+		 */
+		public boolean isQueued() {
+			return index >= 0;
+		}
+	}
+
+	/**
+	 * Heap-ordered handles: the children of handles[n] are handles[(n <<
+	 * shift) + 1] through handles[(n << shift) + arity].
+	 */
+	private Handle<E>[] handles;
+	/** priorities[i] is the priority of handles[i] */
+	private long[] priorities;
+	private int size = 0;
+	/** log2 of the arity */
+	private final int shift;
+	transient int modCount = 0;
+
+	/**
+	 * Creates an {@code IndexedLongPriorityQueue} of arity 4.
+	 */
+	public IndexedLongPriorityQueue() {
+		this(DEFAULT_ARITY, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates an {@code IndexedLongPriorityQueue} with the specified arity and
+	 * initial capacity.
+	 *
+	 * @param arity
+	 *            the number of children of each node, a power of two between
+	 *            2 and 64
+	 * @param initialCapacity
+	 *            the initial capacity
+	 * @throws IllegalArgumentException
+	 *             if {@code arity} is not a power of two between 2 and 64, or
+	 *             {@code initialCapacity} is negative
+	 */
+	public IndexedLongPriorityQueue(int arity, int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+		}
+		this.shift = IndexedPriorityQueue.shiftFor(arity);
+		this.handles = newArray(initialCapacity);
+		this.priorities = new long[initialCapacity];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> Handle<E>[] newArray(int n) {
+		return (Handle<E>[]) new Handle<?>[n];
+	}
+
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private void grow(int minCapacity) {
+		if (minCapacity < 0) {
+			throw new OutOfMemoryError();
+		}
+		int oldCapacity = handles.length;
+		// Double size if small; else grow by 50%
+		int newCapacity = oldCapacity + ((oldCapacity < 64) ? (oldCapacity + 2) : (oldCapacity >> 1));
+		if ((newCapacity - minCapacity) < 0) {
+			newCapacity = minCapacity;
+		}
+		if ((newCapacity - MAX_ARRAY_SIZE) > 0) {
+			newCapacity = (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+		}
+		handles = Arrays.copyOf(handles, newCapacity);
+		priorities = Arrays.copyOf(priorities, newCapacity);
+	}
+
+	/**
+	 * Returns the arity of the heap.
+	 *
+	 * @return the number of children of each node
+	 */
+	public int arity() {
+		return 1 << shift;
+	}
+
+	/**
+	 * Returns the number of elements in this queue.
+	 *
+	 * @return the number of elements in this queue
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if this queue contains no elements.
+	 *
+	 * @return {@code true} if this queue contains no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Inserts the specified element with the specified priority.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @param priority
+	 *            its priority; lower values are dequeued first
+	 * @return the handle of the element
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	public Handle<E> insert(E e, long priority) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		modCount++;
+		int i = size;
+		if (i >= handles.length) {
+			grow(i + 1);
+		}
+		size = i + 1;
+		Handle<E> h = new Handle<E>(this, e);
+		siftUp(i, h, priority);
+		return h;
+	}
+
+	/**
+	 * Inserts the specified elements with the corresponding priorities. If
+	 * there are at least as many of them as elements already in the queue,
+	 * they are appended and the whole heap is rebuilt in linear time;
+	 * otherwise they are inserted one at a time.
+	 *
+	 * @param elements
+	 *            the elements to add
+	 * @param priorities
+	 *            their priorities
+	 * @return the handles of the elements, in the same order
+	 * @throws NullPointerException
+	 *             if either array or any of the elements is null
+	 * @throws IllegalArgumentException
+	 *             if the arrays have different lengths
+	 */
+	public Handle<E>[] insertAll(E[] elements, long[] priorities) {
+		int n = elements.length;
+		if (priorities.length != n) {
+			throw new IllegalArgumentException("length mismatch");
+		}
+		for (E e : elements) {
+			if (e == null) {
+				throw new NullPointerException();
+			}
+		}
+		Handle<E>[] result = newArray(n);
+		if (n < size) {
+			for (int i = 0; i < n; i++) {
+				result[i] = insert(elements[i], priorities[i]);
+			}
+			return result;
+		}
+		if (n == 0) {
+			return result;
+		}
+		modCount++;
+		int s = size;
+		if (s + n > handles.length) {
+			grow(s + n);
+		}
+		for (int i = 0; i < n; i++, s++) {
+			Handle<E> h = result[i] = new Handle<E>(this, elements[i]);
+			h.index = s;
+			handles[s] = h;
+		}
+		System.arraycopy(priorities, 0, this.priorities, size, n);
+		size = s;
+		heapify();
+		return result;
+	}
+
+	/**
+	 * Returns the element with the lowest priority, or {@code null} if this
+	 * queue is empty.
+	 *
+	 * @return the head of this queue, or {@code null}
+	 */
+	public E peek() {
+		return (size == 0) ? null : handles[0].element;
+	}
+
+	/**
+	 * Returns the handle of the element with the lowest priority, or
+	 * {@code null} if this queue is empty.
+	 *
+	 * @return the handle of the head of this queue, or {@code null}
+	 */
+	public Handle<E> peekHandle() {
+		return (size == 0) ? null : handles[0];
+	}
+
+	/**
+	 * Returns the lowest priority in this queue.
+	 *
+	 * @return the priority of the head of this queue
+	 * @throws NoSuchElementException
+	 *             if this queue is empty
+	 */
+	public long peekPriority() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return priorities[0];
+	}
+
+	/**
+	 * Retrieves and removes the element with the lowest priority, or returns
+	 * {@code null} if this queue is empty.
+	 *
+	 * @return the head of this queue, or {@code null}
+	 */
+	public E poll() {
+		if (size == 0) {
+			return null;
+		}
+		Handle<E> h = handles[0];
+		removeAt(0);
+		return h.element;
+	}
+
+	/**
+	 * Returns the priority of the element with the given handle.
+	 *
+	 * @param h
+	 *            the handle of the element
+	 * @return its priority
+	 * @throws IllegalArgumentException
+	 *             if the handle does not belong to this queue or its element
+	 *             has been removed
+	 */
+	public long priorityOf(Handle<E> h) {
+		return priorities[checkHandle(h)];
+	}
+
+	/**
+	 * Changes the priority of the element with the given handle, moving it
+	 * towards the head of the queue if the priority decreased or towards the
+	 * tail if it increased.
+	 *
+	 * @param h
+	 *            the handle of the element
+	 * @param priority
+	 *            the new priority
+	 * @throws IllegalArgumentException
+	 *             if the handle does not belong to this queue or its element
+	 *             has been removed
+	 */
+	public void changePriority(Handle<E> h, long priority) {
+		int i = checkHandle(h);
+		modCount++;
+		if (priority < priorities[i]) {
+			siftUp(i, h, priority);
+		} else {
+			siftDown(i, h, priority);
+		}
+	}
+
+	/**
+	 * Removes the element with the given handle from this queue, if it is
+	 * still present.
+	 *
+	 * @param h
+	 *            the handle of the element
+	 * @return {@code true} if the element was removed
+	 * @throws IllegalArgumentException
+	 *             if the handle does not belong to this queue
+	 */
+	public boolean remove(Handle<E> h) {
+		if (h.queue != this) {
+			throw new IllegalArgumentException("handle of another queue");
+		}
+		int i = h.index;
+		if (i < 0) {
+			return false;
+		}
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this queue, invalidating their handles.
+	 */
+	public void clear() {
+		modCount++;
+		for (int i = 0; i < size; i++) {
+			handles[i].index = -1;
+			handles[i] = null;
+		}
+		size = 0;
+	}
+
+	private int checkHandle(Handle<E> h) {
+		int i;
+		if ((h.queue != this) || ((i = h.index) < 0)) {
+			throw new IllegalArgumentException("handle not queued");
+		}
+		return i;
+	}
+
+	private void removeAt(int i) {
+		modCount++;
+		handles[i].index = -1;
+		int s = --size;
+		if (s == i) {
+			handles[i] = null;
+		} else {
+			Handle<E> moved = handles[s];
+			long p = priorities[s];
+			handles[s] = null;
+			if (p < priorities[i]) {
+				siftUp(i, moved, p);
+			} else {
+				siftDown(i, moved, p);
+			}
+		}
+	}
+
+	/**
+	 * Places x with priority p at position k or above, moving parents with
+	 * greater priority down.
+	 */
+	private void siftUp(int k, Handle<E> x, long p) {
+		final Handle<E>[] handles = this.handles;
+		final long[] priorities = this.priorities;
+		final int shift = this.shift;
+		while (k > 0) {
+			int parent = (k - 1) >>> shift;
+			long q = priorities[parent];
+			if (p >= q) {
+				break;
+			}
+			Handle<E> e = handles[parent];
+			priorities[k] = q;
+			handles[k] = e;
+			e.index = k;
+			k = parent;
+		}
+		priorities[k] = p;
+		handles[k] = x;
+		x.index = k;
+	}
+
+	/**
+	 * Places x with priority p at position k or below, moving the least child
+	 * up while its priority is less than p.
+	 */
+	private void siftDown(int k, Handle<E> x, long p) {
+		final Handle<E>[] handles = this.handles;
+		final long[] priorities = this.priorities;
+		final int shift = this.shift, n = size;
+		if (n > 1) {
+			final int lastParent = (n - 2) >>> shift;
+			while (k <= lastParent) {
+				int first = (k << shift) + 1;
+				int end = Math.min(first + (1 << shift), n);
+				int child = first;
+				long c = priorities[first];
+				for (int j = first + 1; j < end; j++) {
+					long d = priorities[j];
+					if (d < c) {
+						c = d;
+						child = j;
+					}
+				}
+				if (p <= c) {
+					break;
+				}
+				Handle<E> e = handles[child];
+				priorities[k] = c;
+				handles[k] = e;
+				e.index = k;
+				k = child;
+			}
+		}
+		priorities[k] = p;
+		handles[k] = x;
+		x.index = k;
+	}
+
+	/**
+	 * Establishes the heap invariant in the entire array, bottom up, in linear
+	 * time.
+	 */
+	private void heapify() {
+		if (size > 1) {
+			for (int i = (size - 2) >>> shift; i >= 0; i--) {
+				siftDown(i, handles[i], priorities[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this queue, in no particular
+	 * order. The iterator does not support removal.
+	 *
+	 * @return an iterator over the elements in this queue
+	 */
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	private final class Itr implements Iterator<E> {
+		private int cursor = 0;
+		private final int expectedModCount = modCount;
+
+		public boolean hasNext() {
+			return cursor < size;
+		}
+
+		public E next() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (cursor >= size) {
+				throw new NoSuchElementException();
+			}
+			return handles[cursor++].element;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while (hasNext()) {
+				action.accept(next());
+			}
+		}
+	}
+
+	public String toString() {
+		if (size == 0) {
+			return "[]";
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0;;) {
+			sb.append(handles[i].element).append('=').append(priorities[i]);
+			if (++i == size) {
+				return sb.append(']').toString();
+			}
+			sb.append(',').append(' ');
+		}
+	}
+}
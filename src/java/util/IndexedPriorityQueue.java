@@ -0,0 +1,614 @@
+package java.util;
+
+import java.util.function.Consumer;
+
+/**
+ * An unbounded priority queue based on a <i>d</i>-ary heap, in which each
+ * inserted element is represented by a {@link Handle} that tracks its position
+ * in the heap. Given its handle, an element can be removed, or repositioned
+ * after its priority has changed (as in the <i>decrease-key</i> operation of
+ * Dijkstra's algorithm), in O(log n) time, whereas
+ * {@link PriorityQueue#remove(Object)} must first search for the element.
+ *
+ * <p>
+ * Elements are ordered by their natural ordering or by a {@link Comparator}, as
+ * in {@link PriorityQueue}. The arity of the heap is a power of two between 2
+ * and 64, by default 4; higher arities make the heap shallower, so that
+ * insertions and updates that move elements up take fewer steps, while each
+ * step of a removal compares more children, which lie next to each other in
+ * the array.
+ *
+ * <p>
+ * A queue built from a collection is heapified in O(n) time. The iterator
+ * does not return the elements in any particular order.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @param <E>
+ *            the type of elements held in this collection
+ * @see IndexedLongPriorityQueue
+ */
+public class IndexedPriorityQueue<E> extends AbstractQueue<E> {
+	private static final int DEFAULT_INITIAL_CAPACITY = 11;
+	private static final int DEFAULT_ARITY = 4;
+
+	/**
+	 * The position of an element in an {@code IndexedPriorityQueue}. A handle
+	 * is valid from its insertion until the element is removed from the
+	 * queue, by whatever method.
+	 *
+	 * @param <E>
+	 *            the type of the element
+	 */
+	public static final class Handle<E> {
+		final IndexedPriorityQueue<E> queue;
+		final E element;
+		/** Position in the heap, or -1 once removed */
+		int index;
+
+		Handle(IndexedPriorityQueue<E> queue, E element) {
+			this.queue = queue;
+			this.element = element;
+		}
+
+		/**
+		 * Returns the element.
+		 *
+		 * @return the element
+		 */
+		public E get() {
+			return element;
+		}
+
+		/**
+		 * Returns {@code true} if the element is still in the queue.
+		 *
+		 * @return {@code true} if the element is still in the queue
+		 */
+		public boolean isQueued() {
+			return index >= 0;
+		}
+	}
+
+	/**
+	 * Heap-ordered handles: the children of queue[n] are queue[(n << shift) +
+	 * 1] through queue[(n << shift) + arity].
+	 */
+	private Handle<E>[] queue;
+	private int size = 0;
+	private final Comparator<? super E> comparator;
+	/** log2 of the arity */
+	private final int shift;
+	transient int modCount = 0;
+
+	/**
+	 * Creates an {@code IndexedPriorityQueue} of arity 4 that orders its
+	 * elements according to their natural ordering.
+	 */
+	public IndexedPriorityQueue() {
+		this(DEFAULT_ARITY, null);
+	}
+
+	/**
+	 * Creates an {@code IndexedPriorityQueue} with the specified arity that
+	 * orders its elements according to the specified comparator.
+	 *
+	 * @param arity
+	 *            the number of children of each node, a power of two between
+	 *            2 and 64
+	 * @param comparator
+	 *            the comparator that will be used to order this priority
+	 *            queue. If {@code null}, the {@linkplain Comparable natural
+	 *            ordering} of the elements will be used.
+	 * @throws IllegalArgumentException
+	 *             if {@code arity} is not a power of two between 2 and 64
+	 */
+	public IndexedPriorityQueue(int arity, Comparator<? super E> comparator) {
+		this.shift = shiftFor(arity);
+		this.comparator = comparator;
+		this.queue = newArray(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates an {@code IndexedPriorityQueue} containing the elements of the
+	 * specified collection, heapified in linear time.
+	 *
+	 * @param c
+	 *            the collection whose elements are to be placed into this
+	 *            priority queue
+	 * @param arity
+	 *            the number of children of each node, a power of two between
+	 *            2 and 64
+	 * @param comparator
+	 *            the comparator that will be used to order this priority
+	 *            queue, or {@code null} for natural ordering
+	 * @throws ClassCastException
+	 *             if elements of the specified collection cannot be compared
+	 *             to one another according to the priority queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified collection or any of its elements are null
+	 * @throws IllegalArgumentException
+	 *             if {@code arity} is not a power of two between 2 and 64
+	 */
+	public IndexedPriorityQueue(Collection<? extends E> c, int arity, Comparator<? super E> comparator) {
+		this(arity, comparator);
+		addAll(c);
+	}
+
+	static int shiftFor(int arity) {
+		if ((arity < 2) || (arity > 64) || ((arity & (arity - 1)) != 0)) {
+			throw new IllegalArgumentException("arity must be a power of two between 2 and 64: " + arity);
+		}
+		return Integer.numberOfTrailingZeros(arity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> Handle<E>[] newArray(int n) {
+		return (Handle<E>[]) new Handle<?>[n];
+	}
+
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private void grow(int minCapacity) {
+		int oldCapacity = queue.length;
+		// Double size if small; else grow by 50%
+		int newCapacity = oldCapacity + ((oldCapacity < 64) ? (oldCapacity + 2) : (oldCapacity >> 1));
+		if ((newCapacity - MAX_ARRAY_SIZE) > 0) {
+			newCapacity = hugeCapacity(minCapacity);
+		}
+		queue = Arrays.copyOf(queue, newCapacity);
+	}
+
+	private static int hugeCapacity(int minCapacity) {
+		if (minCapacity < 0) {
+			throw new OutOfMemoryError();
+		}
+		return (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+	}
+
+	/**
+	 * Returns the arity of the heap.
+	 *
+	 * @return the number of children of each node
+	 */
+	public int arity() {
+		return 1 << shift;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this queue, or
+	 * {@code null} if this queue is sorted according to the
+	 * {@linkplain Comparable natural ordering} of its elements.
+	 *
+	 * @return the comparator used to order this queue, or {@code null}
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Inserts the specified element into this priority queue.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @return the handle of the element
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in this priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	public Handle<E> insert(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		modCount++;
+		int i = size;
+		if (i >= queue.length) {
+			grow(i + 1);
+		}
+		size = i + 1;
+		Handle<E> h = new Handle<E>(this, e);
+		if (i == 0) {
+			queue[0] = h;
+		} else {
+			siftUp(i, h);
+		}
+		return h;
+	}
+
+	/**
+	 * Inserts the specified element into this priority queue.
+	 *
+	 * @return {@code true} (as specified by {@link Queue#offer})
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in this priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	public boolean offer(E e) {
+		insert(e);
+		return true;
+	}
+
+	/**
+	 * Inserts all of the elements in the specified collection into this queue.
+	 * If there are at least as many of them as elements already in the queue,
+	 * they are appended and the whole heap is rebuilt in linear time;
+	 * otherwise they are inserted one at a time.
+	 *
+	 * @param c
+	 *            collection containing elements to be added to this queue
+	 * @return the handles of the elements, in the order of the collection's
+	 *         iterator
+	 * @throws ClassCastException
+	 *             if the elements cannot be compared with one another
+	 * @throws NullPointerException
+	 *             if the specified collection or any of its elements are null
+	 * @throws IllegalArgumentException
+	 *             if the collection is this queue
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Handle<E>> insertAll(Collection<? extends E> c) {
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		Object[] a = c.toArray();
+		int n = a.length;
+		for (Object o : a) {
+			if (o == null) {
+				throw new NullPointerException();
+			}
+		}
+		Handle<E>[] result = newArray(n);
+		if (n < size) {
+			for (int i = 0; i < n; i++) {
+				result[i] = insert((E) a[i]);
+			}
+			return Arrays.asList(result);
+		}
+		if (n > 0) {
+			modCount++;
+			int s = size;
+			if (s + n > queue.length) {
+				grow(s + n);
+				if (s + n > queue.length) {
+					queue = Arrays.copyOf(queue, s + n);
+				}
+			}
+			for (int i = 0; i < n; i++, s++) {
+				Handle<E> h = result[i] = new Handle<E>(this, (E) a[i]);
+				h.index = s;
+				queue[s] = h;
+			}
+			size = s;
+			heapify();
+		}
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this queue, as
+	 * by {@link #insertAll}.
+	 *
+	 * @param c
+	 *            collection containing elements to be added to this queue
+	 * @return {@code true} if this queue changed as a result of the call
+	 * @throws ClassCastException
+	 *             if the elements cannot be compared with one another
+	 * @throws NullPointerException
+	 *             if the specified collection or any of its elements are null
+	 * @throws IllegalArgumentException
+	 *             if the collection is this queue
+	 */
+	public boolean addAll(Collection<? extends E> c) {
+		return !insertAll(c).isEmpty();
+	}
+
+	/**
+	 * Returns the handle of the head of this queue, or {@code null} if this
+	 * queue is empty.
+	 *
+	 * @return the handle of the head of this queue, or {@code null}
+	 */
+	public Handle<E> peekHandle() {
+		return (size == 0) ? null : queue[0];
+	}
+
+	public E peek() {
+		return (size == 0) ? null : queue[0].element;
+	}
+
+	public E poll() {
+		if (size == 0) {
+			return null;
+		}
+		Handle<E> h = queue[0];
+		removeAt(0);
+		return h.element;
+	}
+
+	/**
+	 * Restores the ordering of the queue after the priority of the element
+	 * with the given handle has changed, whether it increased or decreased.
+	 * The priority of an element must not change while it is queued other
+	 * than immediately before a call of this method.
+	 *
+	 * @param h
+	 *            the handle of the element
+	 * @throws IllegalArgumentException
+	 *             if the handle does not belong to this queue or its element
+	 *             has been removed
+	 */
+	public void update(Handle<E> h) {
+		int i = checkHandle(h);
+		modCount++;
+		siftUp(i, h);
+		if (h.index == i) {
+			siftDown(i, h);
+		}
+	}
+
+	/**
+	 * Removes the element with the given handle from this queue, if it is
+	 * still present.
+	 *
+	 * @param h
+	 *            the handle of the element
+	 * @return {@code true} if the element was removed
+	 * @throws IllegalArgumentException
+	 *             if the handle does not belong to this queue
+	 */
+	public boolean remove(Handle<E> h) {
+		if (h.queue != this) {
+			throw new IllegalArgumentException("handle of another queue");
+		}
+		int i = h.index;
+		if (i < 0) {
+			return false;
+		}
+		removeAt(i);
+		return true;
+	}
+
+	private int checkHandle(Handle<E> h) {
+		int i;
+		if ((h.queue != this) || ((i = h.index) < 0)) {
+			throw new IllegalArgumentException("handle not queued");
+		}
+		return i;
+	}
+
+	private int indexOf(Object o) {
+		if (o != null) {
+			for (int i = 0; i < size; i++) {
+				if (o.equals(queue[i].element)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes a single instance of the specified element from this queue, if
+	 * it is present. This requires a linear search; use
+	 * {@link #remove(Handle)} where the handle is known.
+	 *
+	 * @param o
+	 *            element to be removed from this queue, if present
+	 * @return {@code true} if this queue changed as a result of the call
+	 */
+	public boolean remove(Object o) {
+		int i = indexOf(o);
+		if (i == -1) {
+			return false;
+		} else {
+			removeAt(i);
+			return true;
+		}
+	}
+
+	public boolean contains(Object o) {
+		return indexOf(o) != -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		modCount++;
+		for (int i = 0; i < size; i++) {
+			queue[i].index = -1;
+			queue[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Removes the ith element from queue. Normally this method leaves the
+	 * elements at up to i-1, inclusive, untouched. Under these circumstances,
+	 * it returns null. Occasionally, in order to maintain the heap invariant,
+	 * it must swap a later element of the list with one earlier than i. Under
+	 * these circumstances, this method returns the element that was previously
+	 * at the end of the list and is now at some position before i. This fact
+	 * is used by iterator.remove so as to avoid missing traversing elements.
+	 */
+	private Handle<E> removeAt(int i) {
+		modCount++;
+		Handle<E> removed = queue[i];
+		removed.index = -1;
+		int s = --size;
+		if (s == i) {
+			queue[i] = null;
+		} else {
+			Handle<E> moved = queue[s];
+			queue[s] = null;
+			siftDown(i, moved);
+			if (queue[i] == moved) {
+				siftUp(i, moved);
+				if (queue[i] != moved) {
+					return moved;
+				}
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		return (comparator == null) ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare(a, b);
+	}
+
+	/**
+	 * Inserts item x at position k, maintaining heap invariant by promoting x
+	 * up the tree until it is greater than or equal to its parent, or is the
+	 * root.
+	 */
+	private void siftUp(int k, Handle<E> x) {
+		final Handle<E>[] queue = this.queue;
+		final E key = x.element;
+		final int shift = this.shift;
+		while (k > 0) {
+			int parent = (k - 1) >>> shift;
+			Handle<E> e = queue[parent];
+			if (compare(key, e.element) >= 0) {
+				break;
+			}
+			queue[k] = e;
+			e.index = k;
+			k = parent;
+		}
+		queue[k] = x;
+		x.index = k;
+	}
+
+	/**
+	 * Inserts item x at position k, maintaining heap invariant by demoting x
+	 * down the tree repeatedly until it is less than or equal to its least
+	 * child or is a leaf.
+	 */
+	private void siftDown(int k, Handle<E> x) {
+		final Handle<E>[] queue = this.queue;
+		final E key = x.element;
+		final int shift = this.shift, n = size;
+		if (n > 1) {
+			final int lastParent = (n - 2) >>> shift;
+			while (k <= lastParent) {
+				int child = (k << shift) + 1;
+				int end = Math.min(child + (1 << shift), n);
+				Handle<E> c = queue[child];
+				for (int j = child + 1; j < end; j++) {
+					Handle<E> d = queue[j];
+					if (compare(d.element, c.element) < 0) {
+						c = d;
+						child = j;
+					}
+				}
+				if (compare(key, c.element) <= 0) {
+					break;
+				}
+				queue[k] = c;
+				c.index = k;
+				k = child;
+			}
+		}
+		queue[k] = x;
+		x.index = k;
+	}
+
+	/**
+	 * Establishes the heap invariant in the entire array, bottom up, in linear
+	 * time.
+	 */
+	private void heapify() {
+		if (size > 1) {
+			for (int i = (size - 2) >>> shift; i >= 0; i--) {
+				siftDown(i, queue[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this queue. The iterator does
+	 * not return the elements in any particular order.
+	 *
+	 * @return an iterator over the elements in this queue
+	 */
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	private final class Itr implements Iterator<E> {
+		/** Index (into queue array) of element to be returned by subsequent call to next. */
+		private int cursor = 0;
+		/** Index of element returned by most recent call to next, or -1. */
+		private int lastRet = -1;
+		/**
+		 * Elements moved from the unvisited portion of the heap into the
+		 * visited portion by removals during iteration, as in PriorityQueue.
+		 */
+		private ArrayDeque<Handle<E>> forgetMeNot = null;
+		/** Handle returned by the most recent call to next iff it came from forgetMeNot. */
+		private Handle<E> lastRetElt = null;
+		private int expectedModCount = modCount;
+
+		public boolean hasNext() {
+			return (cursor < size) || ((forgetMeNot != null) && !forgetMeNot.isEmpty());
+		}
+
+		public E next() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (cursor < size) {
+				return queue[lastRet = cursor++].element;
+			}
+			if (forgetMeNot != null) {
+				lastRet = -1;
+				lastRetElt = forgetMeNot.poll();
+				if (lastRetElt != null) {
+					return lastRetElt.element;
+				}
+			}
+			throw new NoSuchElementException();
+		}
+
+		public void remove() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (lastRet != -1) {
+				Handle<E> moved = IndexedPriorityQueue.this.removeAt(lastRet);
+				lastRet = -1;
+				if (moved == null) {
+					cursor--;
+				} else {
+					if (forgetMeNot == null) {
+						forgetMeNot = new ArrayDeque<>();
+					}
+					forgetMeNot.add(moved);
+				}
+			} else if (lastRetElt != null) {
+				IndexedPriorityQueue.this.remove(lastRetElt);
+				lastRetElt = null;
+			} else {
+				throw new IllegalStateException();
+			}
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while (hasNext()) {
+				action.accept(next());
+			}
+		}
+	}
+}
@@ -0,0 +1,850 @@
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import sun.misc.SharedSecrets;
+
+/**
+ * A resizable array of {@code int} values, with the same growth policy and
+ * fail-fast iteration as {@link ArrayList} but holding its elements in a
+ * {@code int[]} rather than as boxed {@code Integer} objects. It does not implement
+ * {@code List<Integer>}, so that no operation boxes elements implicitly; values are
+ * accessed by index, by {@link PrimitiveIterator.OfInt primitive iterators},
+ * or as a {@link IntStream}, which may be parallel.
+ *
+ * <p>
+ * Methods that take an element value are named to distinguish them from those
+ * taking an index: {@link #removeAt} removes by position and
+ * {@link #removeValue} by value.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> The
+ * iterators and spliterators returned by this class are <i>fail-fast</i> on a
+ * best-effort basis, as are those of {@code ArrayList}.
+ *
+ * @see ArrayList
+ */
+public class IntArrayList implements RandomAccess, Cloneable, Serializable {
+	private static final long serialVersionUID = -2767605614048989439L;
+	private static final int DEFAULT_CAPACITY = 10;
+	private static final int[] EMPTY_ELEMENTDATA = {};
+	private static final int[] DEFAULTCAPACITY_EMPTY_ELEMENTDATA = {};
+	transient int[] elementData;
+	private int size;
+	transient int modCount;
+
+	/**
+	 * Constructs an empty list with the specified initial capacity.
+	 *
+	 * @param initialCapacity
+	 *            the initial capacity of the list
+	 * @throws IllegalArgumentException
+	 *             if the specified initial capacity is negative
+	 */
+	public IntArrayList(int initialCapacity) {
+		if (initialCapacity > 0) {
+			this.elementData = new int[initialCapacity];
+		} else if (initialCapacity == 0) {
+			this.elementData = EMPTY_ELEMENTDATA;
+		} else {
+			throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+		}
+	}
+
+	/**
+	 * Constructs an empty list with an initial capacity of ten.
+	 */
+	public IntArrayList() {
+		this.elementData = DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+	}
+
+	/**
+	 * Constructs a list containing a copy of the given array.
+	 *
+	 * @param a
+	 *            the values to place into this list
+	 * @throws NullPointerException
+	 *             if the specified array is null
+	 */
+	public IntArrayList(int[] a) {
+		if ((size = a.length) != 0) {
+			elementData = a.clone();
+		} else {
+			elementData = EMPTY_ELEMENTDATA;
+		}
+	}
+
+	/**
+	 * Trims the capacity of this instance to be the list's current size.
+	 */
+	public void trimToSize() {
+		modCount++;
+		if (size < elementData.length) {
+			elementData = (size == 0) ? EMPTY_ELEMENTDATA : Arrays.copyOf(elementData, size);
+		}
+	}
+
+	/**
+	 * Increases the capacity of this instance, if necessary, to ensure that it
+	 * can hold at least the number of elements specified by the minimum
+	 * capacity argument.
+	 *
+	 * @param minCapacity
+	 *            the desired minimum capacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		int minExpand = (elementData != DEFAULTCAPACITY_EMPTY_ELEMENTDATA) ? 0 : DEFAULT_CAPACITY;
+		if (minCapacity > minExpand) {
+			ensureExplicitCapacity(minCapacity);
+		}
+	}
+
+	private static int calculateCapacity(int[] elementData, int minCapacity) {
+		if (elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA) {
+			return Math.max(DEFAULT_CAPACITY, minCapacity);
+		}
+		return minCapacity;
+	}
+
+	private void ensureCapacityInternal(int minCapacity) {
+		ensureExplicitCapacity(calculateCapacity(elementData, minCapacity));
+	}
+
+	private void ensureExplicitCapacity(int minCapacity) {
+		modCount++;
+		if ((minCapacity - elementData.length) > 0) {
+			grow(minCapacity);
+		}
+	}
+
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private void grow(int minCapacity) {
+		int oldCapacity = elementData.length;
+		int newCapacity = oldCapacity + (oldCapacity >> 1);
+		if ((newCapacity - minCapacity) < 0) {
+			newCapacity = minCapacity;
+		}
+		if ((newCapacity - MAX_ARRAY_SIZE) > 0) {
+			newCapacity = hugeCapacity(minCapacity);
+		}
+		elementData = Arrays.copyOf(elementData, newCapacity);
+	}
+
+	private static int hugeCapacity(int minCapacity) {
+		if (minCapacity < 0) {
+			throw new OutOfMemoryError();
+		}
+		return (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if this list contains no elements.
+	 *
+	 * @return {@code true} if this list contains no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns {@code true} if this list contains the specified value.
+	 *
+	 * @param e
+	 *            the value to look for
+	 * @return {@code true} if this list contains the value
+	 */
+	public boolean contains(int e) {
+		return indexOf(e) >= 0;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified value in this
+	 * list, or -1 if this list does not contain it.
+	 *
+	 * @param e
+	 *            the value to look for
+	 * @return the index of the first occurrence, or -1
+	 */
+	public int indexOf(int e) {
+		final int[] a = elementData;
+		for (int i = 0; i < size; i++) {
+			if (a[i] == e) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the specified value in this
+	 * list, or -1 if this list does not contain it.
+	 *
+	 * @param e
+	 *            the value to look for
+	 * @return the index of the last occurrence, or -1
+	 */
+	public int lastIndexOf(int e) {
+		final int[] a = elementData;
+		for (int i = size - 1; i >= 0; i--) {
+			if (a[i] == e) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a copy of this list. The backing array is copied, trimmed to
+	 * the size of the list.
+	 *
+	 * @return a clone of this list
+	 */
+	@Override
+	public Object clone() {
+		try {
+			IntArrayList v = (IntArrayList) super.clone();
+			v.elementData = Arrays.copyOf(elementData, size);
+			v.modCount = 0;
+			return v;
+		} catch (CloneNotSupportedException e) {
+			// this shouldn't happen, since we are Cloneable
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Returns a new array containing all of the elements in this list in
+	 * proper sequence.
+	 *
+	 * @return an array containing all of the elements in this list
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(elementData, size);
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index
+	 *            index of the element to return
+	 * @return the element at the specified position in this list
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public int get(int index) {
+		rangeCheck(index);
+		return elementData[index];
+	}
+
+	/**
+	 * Replaces the element at the specified position in this list with the
+	 * specified value.
+	 *
+	 * @param index
+	 *            index of the element to replace
+	 * @param element
+	 *            value to be stored at the specified position
+	 * @return the value previously at the specified position
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public int set(int index, int element) {
+		rangeCheck(index);
+		int oldValue = elementData[index];
+		elementData[index] = element;
+		return oldValue;
+	}
+
+	/**
+	 * Appends the specified value to the end of this list.
+	 *
+	 * @param e
+	 *            value to be appended to this list
+	 */
+	public void add(int e) {
+		ensureCapacityInternal(size + 1);
+		elementData[size++] = e;
+	}
+
+	/**
+	 * Inserts the specified value at the specified position in this list,
+	 * shifting the element currently at that position (if any) and any
+	 * subsequent elements to the right.
+	 *
+	 * @param index
+	 *            index at which the specified value is to be inserted
+	 * @param element
+	 *            value to be inserted
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public void add(int index, int element) {
+		rangeCheckForAdd(index);
+		ensureCapacityInternal(size + 1);
+		System.arraycopy(elementData, index, elementData, index + 1, size - index);
+		elementData[index] = element;
+		size++;
+	}
+
+	/**
+	 * Appends all of the values in the specified array to the end of this
+	 * list.
+	 *
+	 * @param a
+	 *            the values to append
+	 * @throws NullPointerException
+	 *             if the specified array is null
+	 */
+	public void addAll(int[] a) {
+		addAll(size, a, 0, a.length);
+	}
+
+	/**
+	 * Appends all of the elements of the specified list to the end of this
+	 * list.
+	 *
+	 * @param c
+	 *            the list of values to append
+	 * @throws NullPointerException
+	 *             if the specified list is null
+	 */
+	public void addAll(IntArrayList c) {
+		addAll(size, c.elementData, 0, c.size);
+	}
+
+	/**
+	 * Inserts the values a[from] to a[to - 1] into this list, starting at the
+	 * specified position, shifting the element currently at that position (if
+	 * any) and any subsequent elements to the right.
+	 *
+	 * @param index
+	 *            index at which to insert the first value
+	 * @param a
+	 *            the array holding the values
+	 * @param from
+	 *            index of the first value to insert
+	 * @param to
+	 *            index after the last value to insert
+	 * @throws IndexOutOfBoundsException
+	 *             if an index is out of range
+	 * @throws NullPointerException
+	 *             if the specified array is null
+	 */
+	public void addAll(int index, int[] a, int from, int to) {
+		rangeCheckForAdd(index);
+		if ((from < 0) || (to > a.length) || (from > to)) {
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + a.length);
+		}
+		int numNew = to - from;
+		ensureCapacityInternal(size + numNew); // Increments modCount
+		int numMoved = size - index;
+		if (numMoved > 0) {
+			System.arraycopy(elementData, index, elementData, index + numNew, numMoved);
+		}
+		System.arraycopy(a, from, elementData, index, numNew);
+		size += numNew;
+	}
+
+	/**
+	 * Removes the element at the specified position in this list, shifting
+	 * any subsequent elements to the left.
+	 *
+	 * @param index
+	 *            the index of the element to be removed
+	 * @return the value that was removed from the list
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public int removeAt(int index) {
+		rangeCheck(index);
+		modCount++;
+		int oldValue = elementData[index];
+		int numMoved = size - index - 1;
+		if (numMoved > 0) {
+			System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+		}
+		--size;
+		return oldValue;
+	}
+
+	/**
+	 * Removes the first occurrence of the specified value from this list, if
+	 * it is present.
+	 *
+	 * @param e
+	 *            value to be removed from this list, if present
+	 * @return {@code true} if this list contained the specified value
+	 */
+	public boolean removeValue(int e) {
+		int index = indexOf(e);
+		if (index < 0) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements whose index is between {@code fromIndex},
+	 * inclusive, and {@code toIndex}, exclusive.
+	 *
+	 * @param fromIndex
+	 *            index of first element to be removed
+	 * @param toIndex
+	 *            index after last element to be removed
+	 * @throws IndexOutOfBoundsException
+	 *             if {@code fromIndex} or {@code toIndex} is out of range
+	 *             ({@code fromIndex < 0 ||
+	 *          toIndex > size() ||
+	 *          toIndex < fromIndex})
+	 */
+	public void removeRange(int fromIndex, int toIndex) {
+		if ((fromIndex < 0) || (toIndex > size) || (toIndex < fromIndex)) {
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+		}
+		modCount++;
+		System.arraycopy(elementData, toIndex, elementData, fromIndex, size - toIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * Removes all of the elements from this list. The capacity is retained.
+	 */
+	public void clear() {
+		modCount++;
+		size = 0;
+	}
+
+	/**
+	 * Removes all of the elements of this list that satisfy the given
+	 * predicate.
+	 *
+	 * @param filter
+	 *            a predicate which returns {@code true} for elements to be
+	 *            removed
+	 * @return {@code true} if any elements were removed
+	 * @throws NullPointerException
+	 *             if the specified filter is null
+	 */
+	public boolean removeIf(IntPredicate filter) {
+		Objects.requireNonNull(filter);
+		final int[] a = elementData;
+		final int size = this.size;
+		final int expectedModCount = modCount;
+		int w = 0;
+		for (int r = 0; r < size; r++) {
+			int e = a[r];
+			if (!filter.test(e)) {
+				a[w++] = e;
+			}
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+		if (w == size) {
+			return false;
+		}
+		this.size = w;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Replaces each element of this list with the result of applying the
+	 * operator to that element.
+	 *
+	 * @param operator
+	 *            the operator to apply to each element
+	 * @throws NullPointerException
+	 *             if the specified operator is null
+	 */
+	public void replaceAll(IntUnaryOperator operator) {
+		Objects.requireNonNull(operator);
+		final int[] a = elementData;
+		final int expectedModCount = modCount;
+		final int size = this.size;
+		for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
+			a[i] = operator.applyAsInt(a[i]);
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+		modCount++;
+	}
+
+	/**
+	 * Performs the given action for each element of this list, in order.
+	 *
+	 * @param action
+	 *            the action to be performed for each element
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void forEach(IntConsumer action) {
+		Objects.requireNonNull(action);
+		final int expectedModCount = modCount;
+		final int[] a = elementData;
+		final int size = this.size;
+		for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
+			action.accept(a[i]);
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order, as by
+	 * {@link Arrays#sort(int[], int, int)}.
+	 */
+	public void sort() {
+		Arrays.sort(elementData, 0, size);
+		modCount++;
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order, as by
+	 * {@link Arrays#parallelSort(int[], int, int)}.
+	 */
+	public void parallelSort() {
+		Arrays.parallelSort(elementData, 0, size);
+		modCount++;
+	}
+
+	/**
+	 * Searches this list, which must be sorted, for the specified value using
+	 * the binary search algorithm, as by
+	 * {@link Arrays#binarySearch(int[], int, int, int)}.
+	 *
+	 * @param key
+	 *            the value to be searched for
+	 * @return index of the search key, if it is contained in the list;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>
+	 */
+	public int binarySearch(int key) {
+		return Arrays.binarySearch(elementData, 0, size, key);
+	}
+
+	private void rangeCheck(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+		}
+	}
+
+	private void rangeCheckForAdd(int index) {
+		if ((index > size) || (index < 0)) {
+			throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+		}
+	}
+
+	private String outOfBoundsMsg(int index) {
+		return "Index: " + index + ", Size: " + size;
+	}
+
+	/**
+	 * Compares the specified object with this list for equality. Returns
+	 * {@code true} if it is also a {@code IntArrayList} holding the same values in the
+	 * same order.
+	 *
+	 * @param o
+	 *            the object to be compared for equality with this list
+	 * @return {@code true} if the specified object is equal to this list
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof IntArrayList)) {
+			return false;
+		}
+		IntArrayList other = (IntArrayList) o;
+		int n = size;
+		if (other.size != n) {
+			return false;
+		}
+		final int[] a = elementData, b = other.elementData;
+		for (int i = 0; i < n; i++) {
+			if (a[i] != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the hash code of this list, which is the same as that of a
+	 * {@code List<Integer>} holding the same values.
+	 *
+	 * @return the hash code value for this list
+	 */
+	@Override
+	public int hashCode() {
+		final int[] a = elementData;
+		int hashCode = 1;
+		for (int i = 0; i < size; i++) {
+			hashCode = (31 * hashCode) + Integer.hashCode(a[i]);
+		}
+		return hashCode;
+	}
+
+	/**
+	 * Returns a string representation of this list, in the same form as that
+	 * of a {@code List<Integer>} holding the same values.
+	 *
+	 * @return a string representation of this list
+	 */
+	@Override
+	public String toString() {
+		if (size == 0) {
+			return "[]";
+		}
+		final int[] a = elementData;
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0;; i++) {
+			sb.append(a[i]);
+			if (i == (size - 1)) {
+				return sb.append(']').toString();
+			}
+			sb.append(", ");
+		}
+	}
+
+	private void writeObject(java.io.ObjectOutputStream s) throws IOException {
+		int expectedModCount = modCount;
+		s.defaultWriteObject();
+		s.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			s.writeInt(elementData[i]);
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		elementData = EMPTY_ELEMENTDATA;
+		s.defaultReadObject();
+		s.readInt(); // ignored
+		if (size > 0) {
+			SharedSecrets.getJavaOISAccess().checkArray(s, int[].class, size);
+			int[] a = elementData = new int[size];
+			for (int i = 0; i < size; i++) {
+				a[i] = s.readInt();
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in proper sequence.
+	 * The iterator is fail-fast, and supports {@code remove}.
+	 *
+	 * @return an iterator over the elements in this list in proper sequence
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new Itr();
+	}
+
+	private class Itr implements PrimitiveIterator.OfInt {
+		int cursor; // index of next element to return
+		int lastRet = -1; // index of last element returned; -1 if no such
+		int expectedModCount = modCount;
+
+		Itr() {
+		}
+
+		public boolean hasNext() {
+			return cursor != size;
+		}
+
+		public int nextInt() {
+			checkForComodification();
+			int i = cursor;
+			if (i >= size) {
+				throw new NoSuchElementException();
+			}
+			int[] a = IntArrayList.this.elementData;
+			if (i >= a.length) {
+				throw new ConcurrentModificationException();
+			}
+			cursor = i + 1;
+			return a[lastRet = i];
+		}
+
+		public void remove() {
+			if (lastRet < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			try {
+				IntArrayList.this.removeAt(lastRet);
+				cursor = lastRet;
+				lastRet = -1;
+				expectedModCount = modCount;
+			} catch (IndexOutOfBoundsException ex) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer consumer) {
+			Objects.requireNonNull(consumer);
+			final int size = IntArrayList.this.size;
+			int i = cursor;
+			if (i >= size) {
+				return;
+			}
+			final int[] a = IntArrayList.this.elementData;
+			if (i >= a.length) {
+				throw new ConcurrentModificationException();
+			}
+			while ((i != size) && (modCount == expectedModCount)) {
+				consumer.accept(a[i++]);
+			}
+			// update once at end of iteration to reduce heap write traffic
+			cursor = i;
+			lastRet = i - 1;
+			checkForComodification();
+		}
+
+		final void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Returns a sequential {@code IntStream} with this list as its source.
+	 *
+	 * @return a sequential stream over the elements in this list
+	 */
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel {@code IntStream} with this list as its
+	 * source.
+	 *
+	 * @return a possibly parallel stream over the elements in this list
+	 */
+	public IntStream parallelStream() {
+		return StreamSupport.intStream(spliterator(), true);
+	}
+
+	/**
+	 * Creates a <em>late-binding</em> and <em>fail-fast</em> spliterator over
+	 * the elements in this list, as for {@link ArrayList#spliterator}.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED},
+	 * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+	 *
+	 * @return a {@code Spliterator} over the elements in this list
+	 */
+	public Spliterator.OfInt spliterator() {
+		return new IntListSpliterator(this, 0, -1, 0);
+	}
+
+	/** Index-based split-by-two, lazily initialized Spliterator */
+	static final class IntListSpliterator implements Spliterator.OfInt {
+		private final IntArrayList list;
+		private int index; // current index, modified on advance/split
+		private int fence; // -1 until used; then one past last index
+		private int expectedModCount; // initialized when fence set
+
+		IntListSpliterator(IntArrayList list, int origin, int fence, int expectedModCount) {
+			this.list = list;
+			this.index = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence() { // initialize fence to size on first use
+			int hi;
+			if ((hi = fence) < 0) {
+				expectedModCount = list.modCount;
+				hi = fence = list.size;
+			}
+			return hi;
+		}
+
+		@Override
+		public IntListSpliterator trySplit() {
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			return (lo >= mid) ? null : new IntListSpliterator(list, lo, index = mid, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int hi = getFence(), i = index;
+			if (i < hi) {
+				index = i + 1;
+				action.accept(list.elementData[i]);
+				if (list.modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer action) {
+			int i, hi, mc;
+			IntArrayList lst = list;
+			int[] a;
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if ((a = lst.elementData) != null) {
+				if ((hi = fence) < 0) {
+					mc = lst.modCount;
+					hi = lst.size;
+				} else {
+					mc = expectedModCount;
+				}
+				if (((i = index) >= 0) && ((index = hi) <= a.length)) {
+					for (; i < hi; ++i) {
+						action.accept(a[i]);
+					}
+					if (lst.modCount == mc) {
+						return;
+					}
+				}
+			}
+			throw new ConcurrentModificationException();
+		}
+
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package java.util;
+
+/**
+ * A generator of uniform pseudorandom values of the LXM family of Guy Steele
+ * and Sebastiano Vigna, combining a 64-bit linear congruential generator with
+ * a 128-bit xoroshiro generator and mixing their sum. The period is
+ * 2<sup>64</sup>&middot;(2<sup>128</sup>&minus;1), and each instance also has
+ * an odd additive parameter of the LCG chosen when it is seeded or split, so
+ * that instances with different parameters generate different sequences
+ * altogether rather than different parts of one sequence. It supports the
+ * same methods as {@link SplittableRandom}.
+ *
+ * <p>
+ * Method {@link #split} constructs and returns a new instance with fresh
+ * parameter and state drawn from this one. With very high probability, the
+ * values collectively generated by the two objects have the same statistical
+ * properties as if the same quantity of values were generated by a single
+ * thread using a single generator, and this also holds for the entire set of
+ * generators constructed by recursive splitting. The streams returned by
+ * {@link #ints()}, {@link #longs()}, {@link #doubles()} and their variants use
+ * {@code split} when used in parallel.
+ *
+ * <p>
+ * Instances of {@code L64X128MixRandom} are <em>not</em> thread-safe, and are
+ * not cryptographically secure. Additionally, default-constructed instances
+ * do not use a cryptographically random seed unless the
+ * {@linkplain System#getProperty system property}
+ * {@code java.util.secureRandomSeed} is set to {@code true}.
+ *
+ * @see Xoshiro256PlusPlus
+ */
+public final class L64X128MixRandom extends AbstractSplittableGenerator {
+
+	/** The multiplier of the LCG */
+	private static final long M = 0xd1342543de82ef95L;
+
+	/** The additive parameter of the LCG, always odd */
+	private final long a;
+
+	/** The state of the LCG */
+	private long s;
+
+	/** The state of the xoroshiro generator, never all zero */
+	private long x0, x1;
+
+	private L64X128MixRandom(long a, long s, long x0, long x1) {
+		if ((x0 | x1) == 0L) {
+			x0 = GOLDEN_GAMMA; // the all-zero state is a fixed point
+			x1 = M;
+		}
+		this.a = a | 1L;
+		this.s = s;
+		this.x0 = x0;
+		this.x1 = x1;
+	}
+
+	/**
+	 * Creates a new instance using the specified initial seed, which is
+	 * expanded to the full parameter and state as by SplittableRandom.
+	 * Instances created with the same seed in the same program generate
+	 * identical sequences of values.
+	 *
+	 * @param seed
+	 *            the initial seed
+	 */
+	public L64X128MixRandom(long seed) {
+		this(mix64(seed += GOLDEN_GAMMA), mix64(seed += GOLDEN_GAMMA), mix64(seed += GOLDEN_GAMMA), mix64(seed + GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates a new instance that is likely to generate sequences of values
+	 * that are statistically independent of those of any other instances in
+	 * the current program; and may, and typically does, vary across program
+	 * invocations.
+	 */
+	public L64X128MixRandom() {
+		this(defaultSeed());
+	}
+
+	/**
+	 * Returns a pseudorandom {@code long} value.
+	 *
+	 * @return a pseudorandom {@code long} value
+	 */
+	public long nextLong() {
+		// Combine, then update the LCG and xoroshiro parts independently
+		long z = s + x0;
+		s = (M * s) + a;
+		long q0 = x0, q1 = x1;
+		q1 ^= q0;
+		x0 = Long.rotateLeft(q0, 24) ^ q1 ^ (q1 << 16);
+		x1 = Long.rotateLeft(q1, 37);
+		// Lea's 64-bit mix
+		z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+		z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+		return z ^ (z >>> 32);
+	}
+
+	/**
+	 * Returns a new generator with the same parameter and state as this one,
+	 * which will generate the same values as this one from now on.
+	 *
+	 * @return the copy
+	 */
+	public L64X128MixRandom copy() {
+		return new L64X128MixRandom(a, s, x0, x1);
+	}
+
+	/**
+	 * Constructs and returns a new generator that shares no mutable state with
+	 * this one, with its LCG parameter and all of its state drawn from values
+	 * of this one.
+	 *
+	 * @return the new generator
+	 */
+	public L64X128MixRandom split() {
+		return new L64X128MixRandom(nextLong(), nextLong(), nextLong(), nextLong());
+	}
+}
@@ -244,4 +244,316 @@ public interface List<E> extends Collection<E> {
 	default Spliterator<E> spliterator() {
 		return Spliterators.spliterator(this, Spliterator.ORDERED);
 	}
+
+	/**
+	 * Returns an unmodifiable list containing zero elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @return an empty {@code List}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<E> of() {
+		return (List<E>) ImmutableCollections.ListN.EMPTY_LIST;
+	}
+
+	/**
+	 * Returns an unmodifiable list containing one element. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @return a {@code List} containing the specified element
+	 * @throws NullPointerException
+	 *             if the element is null
+	 */
+	public static <E> List<E> of(E e1) {
+		return new ImmutableCollections.List12<>(e1);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing two elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2) {
+		return new ImmutableCollections.List12<>(e1, e2);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing three elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing four elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing five elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing six elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5, E e6) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5, e6);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing seven elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5, e6, e7);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing eight elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5, e6, e7, e8);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing nine elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @param e9
+	 *            the ninth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8, E e9) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5, e6, e7, e8, e9);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing ten elements. See
+	 * {@link #of(Object...)} for the properties of the list.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @param e9
+	 *            the ninth element
+	 * @param e10
+	 *            the tenth element
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> List<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8, E e9, E e10) {
+		return ImmutableCollections.listFromTrustedArray(e1, e2, e3, e4, e5, e6, e7, e8, e9, e10);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing an arbitrary number of elements.
+	 *
+	 * <p>
+	 * The lists returned by the {@code of} methods and by {@link #copyOf}
+	 * throw {@link UnsupportedOperationException} from every mutator method,
+	 * including those of their iterators and sublists. They do not allow null
+	 * elements, and querying them for null throws {@link NullPointerException}.
+	 * They implement {@link RandomAccess}, are serializable if all their
+	 * elements are, and are value-based: callers should not depend on their
+	 * identity. Lists of up to two elements hold them in fields, and larger
+	 * ones in an array of exactly their size, so that they take much less
+	 * memory than an {@code ArrayList} wrapped by
+	 * {@link Collections#unmodifiableList}.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param elements
+	 *            the elements to be contained in the list
+	 * @return a {@code List} containing the specified elements
+	 * @throws NullPointerException
+	 *             if an element is null or if the array is null
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
+	public static <E> List<E> of(E... elements) {
+		return ImmutableCollections.listFromArray(elements);
+	}
+
+	/**
+	 * Returns an unmodifiable list containing the elements of the given
+	 * collection, in its iteration order. The collection must not be null and
+	 * must not contain nulls, and the list has the properties described at
+	 * {@link #of(Object...)}. If the collection is already such a list, it is
+	 * returned as is.
+	 *
+	 * @param <E>
+	 *            the {@code List}'s element type
+	 * @param coll
+	 *            a {@code Collection} from which elements are drawn
+	 * @return a {@code List} containing the elements of the given
+	 *         {@code Collection}
+	 * @throws NullPointerException
+	 *             if coll is null, or if it contains any nulls
+	 */
+	public static <E> List<E> copyOf(Collection<? extends E> coll) {
+		return ImmutableCollections.listCopy(coll);
+	}
 }
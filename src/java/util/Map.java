@@ -867,4 +867,497 @@ public interface Map<K, V> {
 		}
 		return newValue;
 	}
+
+	/**
+	 * Returns an unmodifiable map containing zero mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @return an empty {@code Map}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> Map<K, V> of() {
+		return (Map<K, V>) ImmutableCollections.MapN.EMPTY_MAP;
+	}
+
+	/**
+	 * Returns an unmodifiable map containing one mapping. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @return a {@code Map} containing the specified mapping
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1) {
+		return new ImmutableCollections.Map1<>(k1, v1);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing two mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2) {
+		return new ImmutableCollections.Map2<>(k1, v1, k2, v2);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing three mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing four mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing five mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing six mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @param k6
+	 *            the sixth mapping's key
+	 * @param v6
+	 *            the sixth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5, k6, v6);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing seven mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @param k6
+	 *            the sixth mapping's key
+	 * @param v6
+	 *            the sixth mapping's value
+	 * @param k7
+	 *            the seventh mapping's key
+	 * @param v7
+	 *            the seventh mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, K k7, V v7) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5, k6, v6, k7, v7);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing eight mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @param k6
+	 *            the sixth mapping's key
+	 * @param v6
+	 *            the sixth mapping's value
+	 * @param k7
+	 *            the seventh mapping's key
+	 * @param v7
+	 *            the seventh mapping's value
+	 * @param k8
+	 *            the eighth mapping's key
+	 * @param v8
+	 *            the eighth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, K k7, V v7, K k8, V v8) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5, k6, v6, k7, v7, k8, v8);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing nine mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @param k6
+	 *            the sixth mapping's key
+	 * @param v6
+	 *            the sixth mapping's value
+	 * @param k7
+	 *            the seventh mapping's key
+	 * @param v7
+	 *            the seventh mapping's value
+	 * @param k8
+	 *            the eighth mapping's key
+	 * @param v8
+	 *            the eighth mapping's value
+	 * @param k9
+	 *            the ninth mapping's key
+	 * @param v9
+	 *            the ninth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, K k7, V v7, K k8, V v8, K k9, V v9) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5, k6, v6, k7, v7, k8, v8, k9, v9);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing ten mappings. See
+	 * {@link #ofEntries} for the properties of the map.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param k1
+	 *            the first mapping's key
+	 * @param v1
+	 *            the first mapping's value
+	 * @param k2
+	 *            the second mapping's key
+	 * @param v2
+	 *            the second mapping's value
+	 * @param k3
+	 *            the third mapping's key
+	 * @param v3
+	 *            the third mapping's value
+	 * @param k4
+	 *            the fourth mapping's key
+	 * @param v4
+	 *            the fourth mapping's value
+	 * @param k5
+	 *            the fifth mapping's key
+	 * @param v5
+	 *            the fifth mapping's value
+	 * @param k6
+	 *            the sixth mapping's key
+	 * @param v6
+	 *            the sixth mapping's value
+	 * @param k7
+	 *            the seventh mapping's key
+	 * @param v7
+	 *            the seventh mapping's value
+	 * @param k8
+	 *            the eighth mapping's key
+	 * @param v8
+	 *            the eighth mapping's value
+	 * @param k9
+	 *            the ninth mapping's key
+	 * @param v9
+	 *            the ninth mapping's value
+	 * @param k10
+	 *            the tenth mapping's key
+	 * @param v10
+	 *            the tenth mapping's value
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any key or value is null
+	 */
+	public static <K, V> Map<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, K k7, V v7, K k8, V v8, K k9, V v9, K k10, V v10) {
+		return ImmutableCollections.mapFromArray(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5, k6, v6, k7, v7, k8, v8, k9, v9, k10, v10);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing keys and values extracted from
+	 * the given entries. The entries themselves are not stored in the map.
+	 *
+	 * <p>
+	 * The maps returned by the {@code of} methods, by this method and by
+	 * {@link #copyOf} throw {@link UnsupportedOperationException} from every
+	 * mutator method, including those of their views and entries. They do not
+	 * allow null keys or values, and querying them for null throws
+	 * {@link NullPointerException}. They are serializable if all their keys
+	 * and values are, and are value-based: callers should not depend on their
+	 * identity. Their iteration order is unspecified, and changes from one run
+	 * of the virtual machine to the next. Maps of up to two mappings hold them
+	 * in fields, and larger ones in an open-addressed table interleaving the
+	 * keys and values, without a node per mapping, so that they take much less
+	 * memory and iterate faster than a {@code HashMap} wrapped by
+	 * {@link Collections#unmodifiableMap}.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param entries
+	 *            {@code Map.Entry}s containing the keys and values from which
+	 *            the map is populated
+	 * @return a {@code Map} containing the specified mappings
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate keys
+	 * @throws NullPointerException
+	 *             if any entry, key, or value is null, or if the
+	 *             {@code entries} array is null
+	 * @see Map#entry Map.entry()
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
+	public static <K, V> Map<K, V> ofEntries(Entry<? extends K, ? extends V>... entries) {
+		return ImmutableCollections.mapOfEntries(entries);
+	}
+
+	/**
+	 * Returns an unmodifiable {@link Entry} containing the given key and
+	 * value, suitable for {@link #ofEntries}. Neither may be null, and
+	 * {@link Entry#setValue} throws {@link UnsupportedOperationException}.
+	 *
+	 * @param <K>
+	 *            the key's type
+	 * @param <V>
+	 *            the value's type
+	 * @param k
+	 *            the key
+	 * @param v
+	 *            the value
+	 * @return an {@code Entry} containing the specified key and value
+	 * @throws NullPointerException
+	 *             if the key or value is null
+	 */
+	public static <K, V> Entry<K, V> entry(K k, V v) {
+		return new ImmutableCollections.KeyValueHolder<>(k, v);
+	}
+
+	/**
+	 * Returns an unmodifiable map containing the mappings of the given map.
+	 * The map must not be null and must not contain null keys or values, and
+	 * the result has the properties described at {@link #ofEntries}. If the
+	 * map is already such a map, it is returned as is.
+	 *
+	 * @param <K>
+	 *            the {@code Map}'s key type
+	 * @param <V>
+	 *            the {@code Map}'s value type
+	 * @param map
+	 *            a {@code Map} from which entries are drawn
+	 * @return a {@code Map} containing the entries of the given {@code Map}
+	 * @throws NullPointerException
+	 *             if map is null, or if it contains any null keys or values
+	 */
+	public static <K, V> Map<K, V> copyOf(Map<? extends K, ? extends V> map) {
+		return ImmutableCollections.mapCopy(map);
+	}
 }
@@ -0,0 +1,83 @@
+package java.util;
+
+/**
+ * A per-thread cache of the temporary arrays used by the merges of
+ * {@link TimSort} and {@link ComparableTimSort}, so that repeated sorts of
+ * small and medium arrays by the same thread do not each allocate a new
+ * array.
+ *
+ * <p>
+ * A buffer is removed from the cache while a sort uses it, so that a sort
+ * started from within a comparator gets a buffer of its own, and is cleared
+ * before it is returned, so that the cache does not retain the sorted
+ * elements. Only buffers of at most {@link #MAX_CACHED_LENGTH} elements are
+ * kept, which bounds the memory held by each thread; larger sorts allocate as
+ * before. Buffers of fewer than {@link #MIN_CACHED_LENGTH} elements are not
+ * cached either: allocating such a short-lived array costs less than clearing
+ * and reusing a cached one.
+ */
+final class MergeBuffers {
+	/** The length of the shortest buffer kept in the cache */
+	static final int MIN_CACHED_LENGTH = 1 << 8;
+
+	/** The length of the longest buffer kept in the cache */
+	static final int MAX_CACHED_LENGTH = 1 << 14;
+
+	/**
+	 * The caches of all threads. A subclass rather than a lambda, because
+	 * sorting may run before java.lang.invoke can be initialized.
+	 */
+	private static final ThreadLocal<MergeBuffers> CACHE = new ThreadLocal<MergeBuffers>() {
+		@Override
+		protected MergeBuffers initialValue() {
+			return new MergeBuffers();
+		}
+	};
+
+	/** The cached buffer, or null if there is none or it is in use */
+	private Object[] buffer;
+
+	private MergeBuffers() {
+	}
+
+	/**
+	 * Returns the cached buffer of the current thread if it has at least the
+	 * given length, or else a new buffer of that length.
+	 *
+	 * @param minLength
+	 *            the minimum length of the buffer
+	 * @return a buffer of at least minLength elements, all null
+	 */
+	static Object[] acquire(int minLength) {
+		if ((minLength >= MIN_CACHED_LENGTH) && (minLength <= MAX_CACHED_LENGTH)) {
+			MergeBuffers cache = CACHE.get();
+			Object[] b = cache.buffer;
+			if ((b != null) && (b.length >= minLength)) {
+				cache.buffer = null;
+				return b;
+			}
+		}
+		return new Object[minLength];
+	}
+
+	/**
+	 * Clears the used part of a buffer obtained from {@link #acquire}, and
+	 * keeps it in the cache of the current thread if it is not too long and
+	 * longer than the buffer already cached.
+	 *
+	 * @param b
+	 *            the buffer
+	 * @param used
+	 *            the number of leading elements that may have been set
+	 */
+	static void release(Object[] b, int used) {
+		if ((b.length >= MIN_CACHED_LENGTH) && (b.length <= MAX_CACHED_LENGTH)) {
+			Arrays.fill(b, 0, used, null);
+			MergeBuffers cache = CACHE.get();
+			Object[] cached = cache.buffer;
+			if ((cached == null) || (cached.length < b.length)) {
+				cache.buffer = b;
+			}
+		}
+	}
+}
@@ -0,0 +1,556 @@
+package java.util;
+
+import java.util.concurrent.CountedCompleter;
+
+/**
+ * Least-significant-digit radix sorts for large arrays of {@code int},
+ * {@code long}, {@code float} and {@code double}, used by {@link Arrays#sort}
+ * and {@link Arrays#parallelSort}. Each pass counts the occurrences of one
+ * byte of the keys and then scatters the elements stably into a work array
+ * of the same size, alternating between the two; passes in which every key
+ * has the same byte are skipped, so keys of a narrow range take fewer passes.
+ * Smaller arrays are left to {@link DualPivotQuicksort}.
+ *
+ * <p>
+ * Floating-point values are sorted by the bits of their representation,
+ * transformed so that their signed integer order is the order of
+ * {@link Float#compareTo}, after moving any NaNs to the end.
+ *
+ * <p>
+ * The parallel sorts divide the array into chunks. In each pass every chunk
+ * counts its own keys in a {@link CountedCompleter} task, the counts are
+ * combined into the destination offset of each digit in each chunk, and the
+ * chunks are scattered by a second set of tasks, so that the result is the
+ * same as that of the sequential sort.
+ *
+ * <p>
+ * The passes can also carry an array of indices along with the keys, giving
+ * the stable permutation that sorts them, by which Arrays sorts objects by
+ * {@code int}, {@code long} or {@code double} keys extracted once each.
+ */
+final class RadixSort {
+
+	private RadixSort() {
+	}
+
+	/** The length below which 32-bit keys are sorted by DualPivotQuicksort */
+	static final int MIN_RADIX_SORT_32 = 1 << 14;
+
+	/** The length below which 64-bit keys are sorted by DualPivotQuicksort */
+	static final int MIN_RADIX_SORT_64 = 1 << 16;
+
+	/** The least number of elements of a chunk of a parallel sort */
+	private static final int MIN_CHUNK = 1 << 13;
+
+	/** Kinds of key */
+	private static final int INT = 0, FLOAT = 1, LONG = 2, DOUBLE = 3;
+
+	private static int key(float f) {
+		int b = Float.floatToRawIntBits(f);
+		return b ^ ((b >> 31) & 0x7fffffff);
+	}
+
+	private static long key(double d) {
+		long b = Double.doubleToRawLongBits(d);
+		return b ^ ((b >> 63) & 0x7fffffffffffffffL);
+	}
+
+	static void sort(int[] a, int from, int to, int[] work) {
+		int n = to - from;
+		if (n < MIN_RADIX_SORT_32) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else if (!isSorted(a, from, to)) {
+			lsd(a, INT, from, n, (work == null) ? new int[n] : work, null, null);
+		}
+	}
+
+	static void sort(long[] a, int from, int to, long[] work) {
+		int n = to - from;
+		if (n < MIN_RADIX_SORT_64) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else if (!isSorted(a, from, to)) {
+			lsd(a, LONG, from, n, (work == null) ? new long[n] : work, null, null);
+		}
+	}
+
+	static void sort(float[] a, int from, int to, float[] work) {
+		if ((to - from) < MIN_RADIX_SORT_32) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else {
+			int n = moveNaNs(a, from, to) - from;
+			if (!isSorted(a, from, from + n)) {
+				lsd(a, FLOAT, from, n, (work == null) ? new float[n] : work, null, null);
+			}
+		}
+	}
+
+	static void sort(double[] a, int from, int to, double[] work) {
+		if ((to - from) < MIN_RADIX_SORT_64) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else {
+			int n = moveNaNs(a, from, to) - from;
+			if (!isSorted(a, from, from + n)) {
+				lsd(a, DOUBLE, from, n, (work == null) ? new double[n] : work, null, null);
+			}
+		}
+	}
+
+	static void parallelSort(int[] a, int from, int to, int[] work, int parallelism) {
+		int n = to - from;
+		if (n < MIN_RADIX_SORT_32) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else if (!isSorted(a, from, to)) {
+			parallelLsd(a, INT, from, n, (work == null) ? new int[n] : work, null, null, parallelism);
+		}
+	}
+
+	static void parallelSort(long[] a, int from, int to, long[] work, int parallelism) {
+		int n = to - from;
+		if (n < MIN_RADIX_SORT_64) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else if (!isSorted(a, from, to)) {
+			parallelLsd(a, LONG, from, n, (work == null) ? new long[n] : work, null, null, parallelism);
+		}
+	}
+
+	static void parallelSort(float[] a, int from, int to, float[] work, int parallelism) {
+		if ((to - from) < MIN_RADIX_SORT_32) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else {
+			int n = moveNaNs(a, from, to) - from;
+			if (!isSorted(a, from, from + n)) {
+				parallelLsd(a, FLOAT, from, n, (work == null) ? new float[n] : work, null, null, parallelism);
+			}
+		}
+	}
+
+	static void parallelSort(double[] a, int from, int to, double[] work, int parallelism) {
+		if ((to - from) < MIN_RADIX_SORT_64) {
+			DualPivotQuicksort.sort(a, from, to - 1, work, 0, (work == null) ? 0 : work.length);
+		} else {
+			int n = moveNaNs(a, from, to) - from;
+			if (!isSorted(a, from, from + n)) {
+				parallelLsd(a, DOUBLE, from, n, (work == null) ? new double[n] : work, null, null, parallelism);
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@code long} whose signed order is the order of
+	 * {@link Double#compare}, in which all NaNs are equal.
+	 */
+	static long orderedBits(double d) {
+		long b = Double.doubleToLongBits(d);
+		return b ^ ((b >> 63) & 0x7fffffffffffffffL);
+	}
+
+	/**
+	 * Sorts the keys into ascending order, returning the stable permutation
+	 * that sorts them, whose element i is the original index of the i'th
+	 * least key, or null if the keys are already sorted.
+	 */
+	static int[] sortIndices(int[] keys, int parallelism) {
+		int n = keys.length;
+		if (isSorted(keys, 0, n)) {
+			return null;
+		}
+		int[] idx = new int[n];
+		for (int i = 0; i < n; i++) {
+			idx[i] = i;
+		}
+		parallelLsd(keys, INT, 0, n, new int[n], idx, new int[n], parallelism);
+		return idx;
+	}
+
+	static int[] sortIndices(long[] keys, int parallelism) {
+		int n = keys.length;
+		if (isSorted(keys, 0, n)) {
+			return null;
+		}
+		int[] idx = new int[n];
+		for (int i = 0; i < n; i++) {
+			idx[i] = i;
+		}
+		parallelLsd(keys, LONG, 0, n, new long[n], idx, new int[n], parallelism);
+		return idx;
+	}
+
+	/**
+	 * Moves the NaNs of the range to its end, returning the index of the first
+	 * of them, or to if there are none.
+	 */
+	private static int moveNaNs(float[] a, int from, int to) {
+		for (int k = to - 1; k >= from; k--) {
+			float ak = a[k];
+			if (ak != ak) {
+				a[k] = a[--to];
+				a[to] = ak;
+			}
+		}
+		return to;
+	}
+
+	private static int moveNaNs(double[] a, int from, int to) {
+		for (int k = to - 1; k >= from; k--) {
+			double ak = a[k];
+			if (ak != ak) {
+				a[k] = a[--to];
+				a[to] = ak;
+			}
+		}
+		return to;
+	}
+
+	private static boolean isSorted(int[] a, int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			if (a[i - 1] > a[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSorted(long[] a, int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			if (a[i - 1] > a[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSorted(float[] a, int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			if (key(a[i - 1]) > key(a[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSorted(double[] a, int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			if (key(a[i - 1]) > key(a[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int passes(int kind) {
+		return (kind < LONG) ? 4 : 8;
+	}
+
+	/**
+	 * Sorts a[from, from + n) by keys of the given kind, using work[0, n),
+	 * and if idx is not null applies the same permutation to idx[from, from +
+	 * n), using iwork[0, n).
+	 */
+	private static void lsd(Object a, int kind, int from, int n, Object work, int[] idx, int[] iwork) {
+		int passes = passes(kind);
+		int[] count = new int[passes << 8];
+		histograms(a, kind, from, from + n, count);
+		Object src = a, dst = work;
+		int[] isrc = idx, idst = iwork;
+		int s = from, d = 0;
+		for (int p = 0; p < passes; p++) {
+			int off = p << 8;
+			if (isTrivial(count, off, n)) {
+				continue;
+			}
+			for (int b = 0, sum = d; b < 256; b++) {
+				int c = count[off + b];
+				count[off + b] = sum;
+				sum += c;
+			}
+			if (idx == null) {
+				scatter(src, dst, kind, s, s + n, p << 3, count, off);
+			} else {
+				scatterIndexed(src, dst, isrc, idst, kind, s, s + n, p << 3, count, off);
+				int[] it = isrc;
+				isrc = idst;
+				idst = it;
+			}
+			Object t = src;
+			src = dst;
+			dst = t;
+			int i = s;
+			s = d;
+			d = i;
+		}
+		if (src != a) {
+			System.arraycopy(src, s, a, from, n);
+			if (idx != null) {
+				System.arraycopy(isrc, s, idx, from, n);
+			}
+		}
+	}
+
+	/** Returns true if all n keys have the same digit */
+	private static boolean isTrivial(int[] count, int off, int n) {
+		for (int b = 0; b < 256; b++) {
+			int c = count[off + b];
+			if (c != 0) {
+				return c == n;
+			}
+		}
+		return true;
+	}
+
+	/** Counts every digit of the keys of a[from, to) at once */
+	private static void histograms(Object a, int kind, int from, int to, int[] count) {
+		switch (kind) {
+		case INT: {
+			int[] x = (int[]) a;
+			for (int i = from; i < to; i++) {
+				count32(x[i] ^ Integer.MIN_VALUE, count);
+			}
+			break;
+		}
+		case FLOAT: {
+			float[] x = (float[]) a;
+			for (int i = from; i < to; i++) {
+				count32(key(x[i]) ^ Integer.MIN_VALUE, count);
+			}
+			break;
+		}
+		case LONG: {
+			long[] x = (long[]) a;
+			for (int i = from; i < to; i++) {
+				count64(x[i], count);
+			}
+			break;
+		}
+		default: {
+			double[] x = (double[]) a;
+			for (int i = from; i < to; i++) {
+				count64(key(x[i]), count);
+			}
+			break;
+		}
+		}
+	}
+
+	/** Counts the four digits of an unsigned key */
+	private static void count32(int k, int[] count) {
+		count[k & 0xff]++;
+		count[256 + ((k >>> 8) & 0xff)]++;
+		count[512 + ((k >>> 16) & 0xff)]++;
+		count[768 + (k >>> 24)]++;
+	}
+
+	/** Counts the eight digits of a signed key */
+	private static void count64(long k, int[] count) {
+		count32((int) k, count);
+		int h = (int) (k >>> 32) ^ Integer.MIN_VALUE;
+		count[1024 + (h & 0xff)]++;
+		count[1280 + ((h >>> 8) & 0xff)]++;
+		count[1536 + ((h >>> 16) & 0xff)]++;
+		count[1792 + (h >>> 24)]++;
+	}
+
+	/** Counts the digit at the given shift of the keys of a[from, to) */
+	private static void histogram(Object a, int kind, int from, int to, int shift, int[] count) {
+		switch (kind) {
+		case INT: {
+			int[] x = (int[]) a;
+			for (int i = from; i < to; i++) {
+				count[((x[i] ^ Integer.MIN_VALUE) >>> shift) & 0xff]++;
+			}
+			break;
+		}
+		case FLOAT: {
+			float[] x = (float[]) a;
+			for (int i = from; i < to; i++) {
+				count[((key(x[i]) ^ Integer.MIN_VALUE) >>> shift) & 0xff]++;
+			}
+			break;
+		}
+		case LONG: {
+			long[] x = (long[]) a;
+			for (int i = from; i < to; i++) {
+				count[(int) ((x[i] ^ Long.MIN_VALUE) >>> shift) & 0xff]++;
+			}
+			break;
+		}
+		default: {
+			double[] x = (double[]) a;
+			for (int i = from; i < to; i++) {
+				count[(int) ((key(x[i]) ^ Long.MIN_VALUE) >>> shift) & 0xff]++;
+			}
+			break;
+		}
+		}
+	}
+
+	/**
+	 * Moves each element of src[from, to) to the index of dst given by the
+	 * offset of its digit at the given shift, incrementing the offset.
+	 */
+	private static void scatter(Object src, Object dst, int kind, int from, int to, int shift, int[] offsets, int off) {
+		switch (kind) {
+		case INT: {
+			int[] x = (int[]) src, y = (int[]) dst;
+			for (int i = from; i < to; i++) {
+				int v = x[i];
+				y[offsets[off + (((v ^ Integer.MIN_VALUE) >>> shift) & 0xff)]++] = v;
+			}
+			break;
+		}
+		case FLOAT: {
+			float[] x = (float[]) src, y = (float[]) dst;
+			for (int i = from; i < to; i++) {
+				float v = x[i];
+				y[offsets[off + (((key(v) ^ Integer.MIN_VALUE) >>> shift) & 0xff)]++] = v;
+			}
+			break;
+		}
+		case LONG: {
+			long[] x = (long[]) src, y = (long[]) dst;
+			for (int i = from; i < to; i++) {
+				long v = x[i];
+				y[offsets[off + ((int) ((v ^ Long.MIN_VALUE) >>> shift) & 0xff)]++] = v;
+			}
+			break;
+		}
+		default: {
+			double[] x = (double[]) src, y = (double[]) dst;
+			for (int i = from; i < to; i++) {
+				double v = x[i];
+				y[offsets[off + ((int) ((key(v) ^ Long.MIN_VALUE) >>> shift) & 0xff)]++] = v;
+			}
+			break;
+		}
+		}
+	}
+
+	/**
+	 * Scatters as by scatter the int or long keys of src[from, to), moving the
+	 * corresponding elements of isrc to the same indices of idst.
+	 */
+	private static void scatterIndexed(Object src, Object dst, int[] isrc, int[] idst, int kind, int from, int to, int shift, int[] offsets, int off) {
+		if (kind == INT) {
+			int[] x = (int[]) src, y = (int[]) dst;
+			for (int i = from; i < to; i++) {
+				int v = x[i], j = offsets[off + (((v ^ Integer.MIN_VALUE) >>> shift) & 0xff)]++;
+				y[j] = v;
+				idst[j] = isrc[i];
+			}
+		} else {
+			long[] x = (long[]) src, y = (long[]) dst;
+			for (int i = from; i < to; i++) {
+				long v = x[i];
+				int j = offsets[off + ((int) ((v ^ Long.MIN_VALUE) >>> shift) & 0xff)]++;
+				y[j] = v;
+				idst[j] = isrc[i];
+			}
+		}
+	}
+
+	/**
+	 * Sorts as by lsd, with the counting and scattering of each pass divided
+	 * among tasks.
+	 */
+	private static void parallelLsd(Object a, int kind, int from, int n, Object work, int[] idx, int[] iwork, int parallelism) {
+		int chunks = (parallelism <= 1) ? 1 : Math.min(parallelism << 2, n / MIN_CHUNK);
+		if (chunks <= 1) {
+			lsd(a, kind, from, n, work, idx, iwork);
+			return;
+		}
+		int chunkSize = ((n - 1) / chunks) + 1;
+		chunks = ((n - 1) / chunkSize) + 1;
+		int[][] counts = new int[chunks][256];
+		Object src = a, dst = work;
+		int[] isrc = idx, idst = iwork;
+		int s = from, d = 0;
+		for (int p = 0, passes = passes(kind); p < passes; p++) {
+			int shift = p << 3;
+			new Pass(null, src, null, null, null, kind, s, s + n, chunkSize, shift, counts, 0, chunks).invoke();
+			boolean trivial = false;
+			for (int b = 0; (b < 256) && !trivial; b++) {
+				int total = 0;
+				for (int[] c : counts) {
+					total += c[b];
+				}
+				trivial = total == n;
+			}
+			if (trivial) {
+				continue;
+			}
+			for (int b = 0, sum = d; b < 256; b++) {
+				for (int[] c : counts) {
+					int t = c[b];
+					c[b] = sum;
+					sum += t;
+				}
+			}
+			new Pass(null, src, dst, isrc, idst, kind, s, s + n, chunkSize, shift, counts, 0, chunks).invoke();
+			Object t = src;
+			src = dst;
+			dst = t;
+			int[] it = isrc;
+			isrc = idst;
+			idst = it;
+			int i = s;
+			s = d;
+			d = i;
+		}
+		if (src != a) {
+			System.arraycopy(src, s, a, from, n);
+			if (idx != null) {
+				System.arraycopy(isrc, s, idx, from, n);
+			}
+		}
+	}
+
+	/**
+	 * Counts, if dst is null, or else scatters, chunks lo to hi of a pass,
+	 * together with their indices if isrc is not null, forking tasks for all
+	 * but one chunk.
+	 */
+	static final class Pass extends CountedCompleter<Void> {
+		static final long serialVersionUID = 2446542900576103244L;
+		final Object src, dst;
+		final int[] isrc, idst;
+		final int kind, from, to, chunkSize, shift;
+		final int[][] counts;
+		final int lo, hi;
+
+		Pass(CountedCompleter<?> par, Object src, Object dst, int[] isrc, int[] idst, int kind, int from, int to, int chunkSize, int shift, int[][] counts, int lo, int hi) {
+			super(par);
+			this.src = src;
+			this.dst = dst;
+			this.isrc = isrc;
+			this.idst = idst;
+			this.kind = kind;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+			this.shift = shift;
+			this.counts = counts;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		public final void compute() {
+			int l = lo, h = hi;
+			while ((h - l) > 1) {
+				int mid = (l + h) >>> 1;
+				addToPendingCount(1);
+				new Pass(this, src, dst, isrc, idst, kind, from, to, chunkSize, shift, counts, mid, h).fork();
+				h = mid;
+			}
+			int f = from + (l * chunkSize), t = Math.min(to, f + chunkSize);
+			int[] c = counts[l];
+			if (dst == null) {
+				Arrays.fill(c, 0);
+				histogram(src, kind, f, t, shift, c);
+			} else if (isrc == null) {
+				scatter(src, dst, kind, f, t, shift, c, 0);
+			} else {
+				scatterIndexed(src, dst, isrc, idst, kind, f, t, shift, c, 0);
+			}
+			propagateCompletion();
+		}
+	}
+}
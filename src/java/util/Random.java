@@ -550,6 +550,214 @@ public class Random implements java.io.Serializable {
 		}
 	}
 
+	/*
+	 * Bulk methods. They return the same values as successive calls of the
+	 * corresponding single-value methods. For class Random itself (not for
+	 * subclasses, which may override next), the unbounded forms advance a
+	 * local copy of the seed over a block of at most BULK_BLOCK values and
+	 * then publish it with a single CAS, instead of performing one CAS per
+	 * value. If another thread changed the seed meanwhile, only that block is
+	 * generated again, so a large array cannot be starved by a busy shared
+	 * generator. Each block thus receives a contiguous part of the
+	 * generator's sequence.
+	 */
+
+	/** The number of values generated per seed update by the bulk methods. */
+	private static final int BULK_BLOCK = 128;
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values, the same
+	 * values as would be returned by successive calls to {@link #nextInt()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextInts(int[] a) {
+		int len = a.length;
+		if (getClass() != Random.class) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = nextInt();
+			}
+			return;
+		}
+		long oldseed, s;
+		AtomicLong seed = this.seed;
+		for (int from = 0, to; from < len; from = to) {
+			to = Math.min(len, from + BULK_BLOCK);
+			do {
+				s = oldseed = seed.get();
+				for (int i = from; i < to; ++i) {
+					s = ((s * multiplier) + addend) & mask;
+					a[i] = (int) (s >>> 16);
+				}
+			} while (!seed.compareAndSet(oldseed, s));
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values between the
+	 * specified origin (inclusive) and the specified bound (exclusive), the
+	 * same values as would be produced by {@link #ints(int, int)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextInts(int[] a, int origin, int bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = internalNextInt(origin, bound);
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values, the same
+	 * values as would be returned by successive calls to {@link #nextLong()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextLongs(long[] a) {
+		int len = a.length;
+		if (getClass() != Random.class) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = nextLong();
+			}
+			return;
+		}
+		long oldseed, s;
+		AtomicLong seed = this.seed;
+		for (int from = 0, to; from < len; from = to) {
+			to = Math.min(len, from + BULK_BLOCK);
+			do {
+				s = oldseed = seed.get();
+				for (int i = from; i < to; ++i) {
+					long hi = ((s * multiplier) + addend) & mask;
+					s = ((hi * multiplier) + addend) & mask;
+					a[i] = ((long) (int) (hi >>> 16) << 32) + (int) (s >>> 16);
+				}
+			} while (!seed.compareAndSet(oldseed, s));
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values between the
+	 * specified origin (inclusive) and the specified bound (exclusive), the
+	 * same values as would be produced by {@link #longs(long, long)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextLongs(long[] a, long origin, long bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = internalNextLong(origin, bound);
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * {@code 0.0} (inclusive) and {@code 1.0} (exclusive), the same values as
+	 * would be returned by successive calls to {@link #nextDouble()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextDoubles(double[] a) {
+		int len = a.length;
+		if (getClass() != Random.class) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = nextDouble();
+			}
+			return;
+		}
+		long oldseed, s;
+		AtomicLong seed = this.seed;
+		for (int from = 0, to; from < len; from = to) {
+			to = Math.min(len, from + BULK_BLOCK);
+			do {
+				s = oldseed = seed.get();
+				for (int i = from; i < to; ++i) {
+					long hi = ((s * multiplier) + addend) & mask;
+					s = ((hi * multiplier) + addend) & mask;
+					a[i] = (((long) (int) (hi >>> 22) << 27) + (int) (s >>> 21)) * DOUBLE_UNIT;
+				}
+			} while (!seed.compareAndSet(oldseed, s));
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * the specified origin (inclusive) and the specified bound (exclusive),
+	 * the same values as would be produced by
+	 * {@link #doubles(double, double)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextDoubles(double[] a, double origin, double bound) {
+		if (!(origin < bound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		nextDoubles(a);
+		double w = bound - origin;
+		double max = Double.longBitsToDouble(Double.doubleToLongBits(bound) - 1);
+		for (int i = 0; i < a.length; ++i) {
+			double r = (a[i] * w) + origin;
+			a[i] = (r < bound) ? r : max; // correct for rounding
+		}
+	}
+
+	/**
+	 * Fills the given array with pseudorandom Gaussian ("normally")
+	 * distributed {@code double} values with mean {@code 0.0} and standard
+	 * deviation {@code 1.0}, the same values as would be returned by
+	 * successive calls to {@link #nextGaussian()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	synchronized public void nextGaussians(double[] a) {
+		for (int i = 0; i < a.length; ++i) {
+			a[i] = nextGaussian();
+		}
+	}
+
 	// stream methods, coded in a way intended to better isolate for
 	// maintenance purposes the small differences across forms.
 	/**
@@ -0,0 +1,83 @@
+package java.util;
+
+/**
+ * A sequence lock that validates the optimistic reads of the read-mostly mode
+ * of {@link Vector} and of the synchronized collections of
+ * {@link Collections}, whose writers remain mutually excluded by the monitor
+ * they already hold.
+ *
+ * <p>
+ * The sequence is odd while a write is in progress or the mode is disabled.
+ * A reader takes a stamp with {@link #tryOptimisticRead}, reads without
+ * locking, and accepts what it read only if {@link #validate} then finds the
+ * sequence unchanged; otherwise it reads again holding the monitor. As with
+ * the optimistic reads of {@link java.util.concurrent.locks.StampedLock},
+ * what is read before validation may be inconsistent, so a reader must
+ * tolerate that, and must treat an exception thrown before validation as a
+ * failed validation.
+ *
+ * <p>
+ * {@link #beginWrite}, {@link #endWrite} and {@link #setEnabled} must only be
+ * called while holding the monitor that excludes the writers. Writes may
+ * nest, and the sequence stays odd until the outermost write ends.
+ */
+final class SequenceLock {
+	private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
+
+	/** Odd while a write is in progress or the mode is disabled */
+	private volatile long seq = 1L;
+
+	/** The nesting depth of writes, guarded by the writers' monitor */
+	private int writers;
+
+	/** Whether optimistic reads are enabled, guarded by the writers' monitor */
+	private boolean enabled;
+
+	/**
+	 * Returns a stamp for an optimistic read, or zero if a write is in
+	 * progress or the mode is disabled.
+	 */
+	long tryOptimisticRead() {
+		long s = seq;
+		return ((s & 1L) == 0L) ? s : 0L;
+	}
+
+	/**
+	 * Returns whether nothing has been written since the given non-zero stamp
+	 * was obtained, so that the reads made since then were consistent.
+	 */
+	boolean validate(long stamp) {
+		U.loadFence();
+		return seq == stamp;
+	}
+
+	void beginWrite() {
+		if ((writers++ == 0) && enabled) {
+			seq = seq + 1L;
+			U.storeFence();
+		}
+	}
+
+	void endWrite() {
+		if ((--writers == 0) && enabled) {
+			seq = seq + 1L;
+		}
+	}
+
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables optimistic reads. Disabling makes the sequence odd,
+	 * which also fails the validation of the reads in progress.
+	 */
+	void setEnabled(boolean enabled) {
+		if (enabled != this.enabled) {
+			this.enabled = enabled;
+			if (writers == 0) {
+				seq = seq + 1L;
+			}
+		}
+	}
+}
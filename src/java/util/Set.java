@@ -58,4 +58,337 @@ public interface Set<E> extends Collection<E> {
 	default Spliterator<E> spliterator() {
 		return Spliterators.spliterator(this, Spliterator.DISTINCT);
 	}
+
+	/**
+	 * Returns an unmodifiable set containing zero elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @return an empty {@code Set}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> Set<E> of() {
+		return (Set<E>) ImmutableCollections.SetN.EMPTY_SET;
+	}
+
+	/**
+	 * Returns an unmodifiable set containing one element. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @return a {@code Set} containing the specified element
+	 * @throws NullPointerException
+	 *             if the element is null
+	 */
+	public static <E> Set<E> of(E e1) {
+		return new ImmutableCollections.Set12<>(e1);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing two elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2) {
+		return new ImmutableCollections.Set12<>(e1, e2);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing three elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing four elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing five elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing six elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5, E e6) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5, e6 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing seven elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5, e6, e7 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing eight elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5, e6, e7, e8 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing nine elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @param e9
+	 *            the ninth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8, E e9) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5, e6, e7, e8, e9 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing ten elements. See
+	 * {@link #of(Object...)} for the properties of the set.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param e1
+	 *            the first element
+	 * @param e2
+	 *            the second element
+	 * @param e3
+	 *            the third element
+	 * @param e4
+	 *            the fourth element
+	 * @param e5
+	 *            the fifth element
+	 * @param e6
+	 *            the sixth element
+	 * @param e7
+	 *            the seventh element
+	 * @param e8
+	 *            the eighth element
+	 * @param e9
+	 *            the ninth element
+	 * @param e10
+	 *            the tenth element
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null
+	 */
+	public static <E> Set<E> of(E e1, E e2, E e3, E e4, E e5, E e6, E e7, E e8, E e9, E e10) {
+		return ImmutableCollections.setFromArray(new Object[] { e1, e2, e3, e4, e5, e6, e7, e8, e9, e10 }, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing an arbitrary number of elements.
+	 *
+	 * <p>
+	 * The sets returned by the {@code of} methods and by {@link #copyOf}
+	 * throw {@link UnsupportedOperationException} from every mutator method,
+	 * including {@code remove} of their iterators. They do not allow null
+	 * elements, and querying them for null throws {@link NullPointerException}.
+	 * They are serializable if all their elements are, and are value-based:
+	 * callers should not depend on their identity. Their iteration order is
+	 * unspecified, and changes from one run of the virtual machine to the
+	 * next. Sets of up to two elements hold them in fields, and larger ones
+	 * in an open-addressed table, without a node per element, so that they
+	 * take much less memory and iterate faster than a {@code HashSet} wrapped
+	 * by {@link Collections#unmodifiableSet}.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param elements
+	 *            the elements to be contained in the set
+	 * @return a {@code Set} containing the specified elements
+	 * @throws IllegalArgumentException
+	 *             if there are any duplicate elements
+	 * @throws NullPointerException
+	 *             if an element is null or if the array is null
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
+	public static <E> Set<E> of(E... elements) {
+		return ImmutableCollections.setFromArray(elements, false);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing the elements of the given
+	 * collection. The collection must not be null and must not contain nulls;
+	 * if it contains duplicates, an arbitrary one of them is kept. The set has
+	 * the properties described at {@link #of(Object...)}, and if the
+	 * collection is already such a set, it is returned as is.
+	 *
+	 * @param <E>
+	 *            the {@code Set}'s element type
+	 * @param coll
+	 *            a {@code Collection} from which elements are drawn
+	 * @return a {@code Set} containing the elements of the given
+	 *         {@code Collection}
+	 * @throws NullPointerException
+	 *             if coll is null, or if it contains any nulls
+	 */
+	public static <E> Set<E> copyOf(Collection<? extends E> coll) {
+		return ImmutableCollections.setCopy(coll);
+	}
 }
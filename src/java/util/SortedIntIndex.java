@@ -0,0 +1,288 @@
+package java.util;
+
+/**
+ * An immutable sorted table of {@code int} values, laid out for fast repeated
+ * searches. It answers the same queries as {@link Arrays#binarySearch(int[], int)}
+ * on the sorted array it was built from, returning indices into that array.
+ *
+ * <p>
+ * The values are stored in Eytzinger (breadth-first) order: the root of the
+ * implicit binary search tree at index 1 and the children of the node at
+ * index {@code k} at {@code 2k} and {@code 2k + 1}. A search descends from
+ * the root computing the next index from each comparison rather than
+ * branching on it, so that the descent has no unpredictable branches, and
+ * the nodes visited in the first levels, which every search visits, share a
+ * few cache lines. The children of nearby nodes are adjacent, so that the
+ * hardware prefetcher can follow the descent, which reads whole cache lines
+ * of the next levels rather than scattered elements as a binary search of a
+ * large sorted array does. Each node holds its value in the high half of a
+ * {@code long} and the index of the value in sorted order in the low half,
+ * so that a search reads a single array.
+ *
+ * <p>
+ * Instances are immutable and safe for use by multiple concurrent threads.
+ *
+ * @see SortedLongIndex
+ */
+public final class SortedIntIndex {
+	/** The values in Eytzinger order, from index 1, each with its rank */
+	private final long[] tree;
+	private final int n;
+
+	private static final long RANK_MASK = 0xffffffffL;
+
+	/**
+	 * Creates an index of the values of the given sorted array, which is not
+	 * retained.
+	 *
+	 * @param sorted
+	 *            the values, in ascending order, possibly with duplicates
+	 * @throws IllegalArgumentException
+	 *             if the values are not sorted
+	 */
+	public SortedIntIndex(int[] sorted) {
+		this(sorted, 0, sorted.length);
+	}
+
+	/**
+	 * Creates an index of the values of the given range of a sorted array,
+	 * which is not retained. Indices returned by the index are relative to
+	 * {@code fromIndex}.
+	 *
+	 * @param sorted
+	 *            the array
+	 * @param fromIndex
+	 *            the index of the first value, inclusive
+	 * @param toIndex
+	 *            the index of the last value, exclusive
+	 * @throws IllegalArgumentException
+	 *             if {@code fromIndex > toIndex} or the values are not sorted
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if {@code fromIndex < 0} or {@code toIndex > sorted.length}
+	 */
+	public SortedIntIndex(int[] sorted, int fromIndex, int toIndex) {
+		if (fromIndex > toIndex) {
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
+		if (fromIndex < 0) {
+			throw new ArrayIndexOutOfBoundsException(fromIndex);
+		}
+		if (toIndex > sorted.length) {
+			throw new ArrayIndexOutOfBoundsException(toIndex);
+		}
+		for (int i = fromIndex + 1; i < toIndex; i++) {
+			if (sorted[i - 1] > sorted[i]) {
+				throw new IllegalArgumentException("values not sorted at index " + i);
+			}
+		}
+		n = toIndex - fromIndex;
+		tree = new long[n + 1];
+		// In-order traversal of the implicit tree, using an explicit stack
+		int[] stack = new int[32];
+		int sp = 0, i = 0;
+		long k = 1; // children of nodes past 2^30 exceed int range
+		while ((k <= n) || (sp > 0)) {
+			if (k <= n) {
+				stack[sp++] = (int) k;
+				k <<= 1;
+			} else {
+				k = stack[--sp];
+				tree[(int) k] = ((long) sorted[fromIndex + i] << 32) | i;
+				i++;
+				k = (k << 1) + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of values.
+	 *
+	 * @return the number of values
+	 */
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Returns the tree index of the least value not less than key, or 0 if
+	 * there is none.
+	 */
+	private int lowerBound(int key) {
+		final long[] tree = this.tree;
+		final int n = this.n;
+		final long bound = (long) key << 32;
+		int k = 1; // read as unsigned: 2k + 1 exceeds int range past 2^30
+		while ((k > 0) && (k <= n)) {
+			k = (k << 1) | ((tree[k] < bound) ? 1 : 0);
+		}
+		// Undo the right turns after the last left turn, and that left turn
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+	/**
+	 * Returns the tree index of the least value greater than key, or 0 if
+	 * there is none.
+	 */
+	private int upperBound(int key) {
+		final long[] tree = this.tree;
+		final int n = this.n;
+		final long bound = ((long) key << 32) | RANK_MASK;
+		int k = 1;
+		while ((k > 0) && (k <= n)) {
+			k = (k << 1) | ((tree[k] <= bound) ? 1 : 0);
+		}
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+	/**
+	 * Searches for the specified value, as would
+	 * {@link Arrays#binarySearch(int[], int)} on the sorted values. If there are
+	 * several equal values, the index of the first is returned.
+	 *
+	 * @param key
+	 *            the value to be searched for
+	 * @return index of the search key, if it is contained in the index;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>. The
+	 *         <i>insertion point</i> is the index of the first value greater
+	 *         than the key, or {@link #size()} if all values are less than
+	 *         the key.
+	 */
+	public int binarySearch(int key) {
+		int k = lowerBound(key);
+		if (k == 0) {
+			return -(n + 1);
+		}
+		int rank = (int) tree[k];
+		return ((int) (tree[k] >> 32) == key) ? rank : -(rank + 1);
+	}
+
+	/**
+	 * Returns {@code true} if the index contains the specified value.
+	 *
+	 * @param key
+	 *            the value to be searched for
+	 * @return {@code true} if the value is present
+	 */
+	public boolean contains(int key) {
+		int k = lowerBound(key);
+		return (k != 0) && ((int) (tree[k] >> 32) == key);
+	}
+
+	/**
+	 * Returns the index of the first value greater than or equal to the given
+	 * value, or -1 if there is none.
+	 *
+	 * @param key
+	 *            the value
+	 * @return the index of the least value not less than {@code key}, or -1
+	 */
+	public int ceilingIndex(int key) {
+		int k = lowerBound(key);
+		return (k == 0) ? -1 : (int) tree[k];
+	}
+
+	/**
+	 * Returns the index of the first value strictly greater than the given
+	 * value, or -1 if there is none.
+	 *
+	 * @param key
+	 *            the value
+	 * @return the index of the least value greater than {@code key}, or -1
+	 */
+	public int higherIndex(int key) {
+		int k = upperBound(key);
+		return (k == 0) ? -1 : (int) tree[k];
+	}
+
+	/**
+	 * Returns the index of the last value less than or equal to the given
+	 * value, or -1 if there is none.
+	 *
+	 * @param key
+	 *            the value
+	 * @return the index of the greatest value not greater than {@code key},
+	 *         or -1
+	 */
+	public int floorIndex(int key) {
+		int k = upperBound(key);
+		return ((k == 0) ? n : (int) tree[k]) - 1;
+	}
+
+	/**
+	 * Returns the index of the last value strictly less than the given value,
+	 * or -1 if there is none.
+	 *
+	 * @param key
+	 *            the value
+	 * @return the index of the greatest value less than {@code key}, or -1
+	 */
+	public int lowerIndex(int key) {
+		int k = lowerBound(key);
+		return ((k == 0) ? n : (int) tree[k]) - 1;
+	}
+
+	/**
+	 * Returns the number of values less than the given value, which is also
+	 * the insertion point of the value.
+	 *
+	 * @param key
+	 *            the value
+	 * @return the number of values less than {@code key}
+	 */
+	public int countLess(int key) {
+		int k = lowerBound(key);
+		return (k == 0) ? n : (int) tree[k];
+	}
+
+	/**
+	 * Returns the number of nodes of the subtree rooted at tree index k.
+	 */
+	private int subtreeSize(long k) {
+		int count = 0;
+		for (long lo = k, hi = k; lo <= n; lo <<= 1, hi = (hi << 1) + 1) {
+			count += (int) (Math.min(hi, n) - lo + 1);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the value at the given index in sorted order. This takes
+	 * O(log<sup>2</sup> n) time.
+	 *
+	 * @param index
+	 *            the index
+	 * @return the value
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is negative or not less than {@link #size()}
+	 */
+	public int get(int index) {
+		if ((index < 0) || (index >= n)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + n);
+		}
+		long k = 1;
+		while (true) {
+			int left = subtreeSize(k << 1);
+			if (index < left) {
+				k <<= 1;
+			} else if (index == left) {
+				return (int) (tree[(int) k] >> 32);
+			} else {
+				index -= left + 1;
+				k = (k << 1) + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the values in ascending order.
+	 *
+	 * @return a new array of the values
+	 */
+	public int[] toArray() {
+		int[] a = new int[n];
+		for (int k = 1; k <= n; k++) {
+			a[(int) tree[k]] = (int) (tree[k] >> 32);
+		}
+		return a;
+	}
+}
@@ -539,6 +539,241 @@ public final class SplittableRandom {
 		return mix32(nextSeed()) < 0;
 	}
 
+	/*
+	 * Bulk methods. Each generates from local copies of seed and gamma and
+	 * writes the seed back once. When no candidate can be rejected, the seed
+	 * for element i is computed directly as seed + gamma * (i + 1), so that
+	 * iterations do not depend on each other and the loop may be unrolled
+	 * and vectorized by the compiler.
+	 */
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values, the same
+	 * values as would be returned by successive calls to {@link #nextInt()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextInts(int[] a) {
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = mix32(s + (g * (i + 1)));
+		}
+		s += g * len;
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values between the
+	 * specified origin (inclusive) and the specified bound (exclusive), the
+	 * same values as would be returned by successive calls to
+	 * {@link #nextInt(int, int)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextInts(int[] a, int origin, int bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		int n = bound - origin, m = n - 1;
+		if ((n & m) == 0) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = (mix32(s + (g * (i + 1))) & m) + origin;
+			}
+			s += g * len;
+		} else if (n > 0) { // reject over-represented candidates
+			for (int i = 0; i < len; ++i) {
+				int r;
+				for (int u = mix32(s += g) >>> 1; ((u + m) - (r = u % n)) < 0; u = mix32(s += g) >>> 1) {
+					;
+				}
+				a[i] = r + origin;
+			}
+		} else { // range not representable as int
+			for (int i = 0; i < len; ++i) {
+				int r;
+				while (((r = mix32(s += g)) < origin) || (r >= bound)) {
+					;
+				}
+				a[i] = r;
+			}
+		}
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values, the same
+	 * values as would be returned by successive calls to {@link #nextLong()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextLongs(long[] a) {
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = mix64(s + (g * (i + 1)));
+		}
+		s += g * len;
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values between
+	 * the specified origin (inclusive) and the specified bound (exclusive),
+	 * the same values as would be returned by successive calls to
+	 * {@link #nextLong(long, long)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextLongs(long[] a, long origin, long bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		long n = bound - origin, m = n - 1;
+		if ((n & m) == 0L) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = (mix64(s + (g * (i + 1))) & m) + origin;
+			}
+			s += g * len;
+		} else if (n > 0L) { // reject over-represented candidates
+			for (int i = 0; i < len; ++i) {
+				long r;
+				for (long u = mix64(s += g) >>> 1; ((u + m) - (r = u % n)) < 0L; u = mix64(s += g) >>> 1) {
+					;
+				}
+				a[i] = r + origin;
+			}
+		} else { // range not representable as long
+			for (int i = 0; i < len; ++i) {
+				long r;
+				while (((r = mix64(s += g)) < origin) || (r >= bound)) {
+					;
+				}
+				a[i] = r;
+			}
+		}
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * zero (inclusive) and one (exclusive), the same values as would be
+	 * returned by successive calls to {@link #nextDouble()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextDoubles(double[] a) {
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = (mix64(s + (g * (i + 1))) >>> 11) * DOUBLE_UNIT;
+		}
+		s += g * len;
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * the specified origin (inclusive) and the specified bound (exclusive),
+	 * the same values as would be returned by successive calls to
+	 * {@link #nextDouble(double, double)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextDoubles(double[] a, double origin, double bound) {
+		if (!(origin < bound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		double w = bound - origin;
+		double max = Double.longBitsToDouble(Double.doubleToLongBits(bound) - 1);
+		for (int i = 0; i < len; ++i) {
+			double r = ((mix64(s + (g * (i + 1))) >>> 11) * DOUBLE_UNIT * w) + origin;
+			a[i] = (r < bound) ? r : max; // correct for rounding
+		}
+		s += g * len;
+		seed = s;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom Gaussian ("normally")
+	 * distributed {@code double} values with mean {@code 0.0} and standard
+	 * deviation {@code 1.0}. Values are generated in pairs by the polar
+	 * method of G. E. P. Box, M. E. Muller, and G. Marsaglia; if the length of
+	 * the array is odd, the second value of the last pair is discarded.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextGaussians(double[] a) {
+		long s = seed;
+		final long g = gamma;
+		int len = a.length;
+		for (int i = 0; i < len; i += 2) {
+			double v1, v2, q;
+			do {
+				v1 = (2 * ((mix64(s += g) >>> 11) * DOUBLE_UNIT)) - 1; // between -1 and 1
+				v2 = (2 * ((mix64(s += g) >>> 11) * DOUBLE_UNIT)) - 1; // between -1 and 1
+				q = (v1 * v1) + (v2 * v2);
+			} while ((q >= 1) || (q == 0));
+			double multiplier = StrictMath.sqrt((-2 * StrictMath.log(q)) / q);
+			a[i] = v1 * multiplier;
+			if ((i + 1) < len) {
+				a[i + 1] = v2 * multiplier;
+			}
+		}
+		seed = s;
+	}
+
 	// stream methods, coded in a way intended to better isolate for
 	// maintenance purposes the small differences across forms.
 
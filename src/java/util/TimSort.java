@@ -10,29 +10,49 @@ class TimSort<T> {
 	private T[] tmp;
 	private int tmpBase;
 	private int tmpLen;
+	/** Whether tmp comes from MergeBuffers, and is to be returned to it */
+	private boolean tmpCached;
+	/** The number of leading elements of tmp that may have been set */
+	private int tmpUsed;
 	private int stackSize = 0;
 	private final int[] runBase;
 	private final int[] runLen;
+	/** The power of the boundary between each run and the next */
+	private final int[] runPower;
+	/** The range being sorted, relative to which run powers are computed */
+	private final int sortBase, sortLen;
 
-	private TimSort(T[] a, Comparator<? super T> c, T[] work, int workBase, int workLen) {
+	private TimSort(T[] a, Comparator<? super T> c, T[] work, int workBase, int workLen, int lo, int n) {
 		this.a = a;
 		this.c = c;
+		this.sortBase = lo;
+		this.sortLen = n;
 		int len = a.length;
 		int tlen = (len < (2 * INITIAL_TMP_STORAGE_LENGTH)) ? len >>> 1 : INITIAL_TMP_STORAGE_LENGTH;
 		if ((work == null) || (workLen < tlen) || ((workBase + tlen) > work.length)) {
-			@SuppressWarnings({ "unchecked", "UnnecessaryLocalVariable" })
-			T[] newArray = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), tlen);
-			tmp = newArray;
+			if (a.getClass() == Object[].class) {
+				@SuppressWarnings("unchecked")
+				T[] cached = (T[]) MergeBuffers.acquire(tlen);
+				tmp = cached;
+				tmpLen = cached.length;
+				tmpCached = true;
+			} else {
+				@SuppressWarnings({ "unchecked", "UnnecessaryLocalVariable" })
+				T[] newArray = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), tlen);
+				tmp = newArray;
+				tmpLen = tlen;
+			}
 			tmpBase = 0;
-			tmpLen = tlen;
 		} else {
 			tmp = work;
 			tmpBase = workBase;
 			tmpLen = workLen;
 		}
-		int stackLen = (len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24 : 49);
+		// Run powers strictly increase up the stack, and are at most ceil(lg n)
+		int stackLen = 34 - Integer.numberOfLeadingZeros(n);
 		runBase = new int[stackLen];
 		runLen = new int[stackLen];
+		runPower = new int[stackLen];
 	}
 
 	/**
@@ -71,31 +91,35 @@ class TimSort<T> {
 		}
 		/**
 		 * March over the array once, left to right, finding natural runs,
-		 * extending short natural runs to minRun elements, and merging runs to
-		 * maintain stack invariant.
+		 * extending short natural runs to minRun elements, and merging runs
+		 * as the merge policy directs.
 		 */
-		TimSort<T> ts = new TimSort<>(a, c, work, workBase, workLen);
-		int minRun = minRunLength(nRemaining);
-		do {
-			// Identify next run
-			int runLen = countRunAndMakeAscending(a, lo, hi, c);
-			// If run is short, extend to min(minRun, nRemaining)
-			if (runLen < minRun) {
-				int force = nRemaining <= minRun ? nRemaining : minRun;
-				binarySort(a, lo, lo + force, lo + runLen, c);
-				runLen = force;
-			}
-			// Push run onto pending-run stack, and maybe merge
-			ts.pushRun(lo, runLen);
-			ts.mergeCollapse();
-			// Advance to find next run
-			lo += runLen;
-			nRemaining -= runLen;
-		} while (nRemaining != 0);
-		// Merge all remaining runs to complete sort
-		assert lo == hi;
-		ts.mergeForceCollapse();
-		assert ts.stackSize == 1;
+		TimSort<T> ts = new TimSort<>(a, c, work, workBase, workLen, lo, nRemaining);
+		try {
+			int minRun = minRunLength(nRemaining);
+			do {
+				// Identify next run
+				int runLen = countRunAndMakeAscending(a, lo, hi, c);
+				// If run is short, extend to min(minRun, nRemaining)
+				if (runLen < minRun) {
+					int force = nRemaining <= minRun ? nRemaining : minRun;
+					binarySort(a, lo, lo + force, lo + runLen, c);
+					runLen = force;
+				}
+				// Maybe merge, and push run onto pending-run stack
+				ts.mergeCollapse(runLen);
+				ts.pushRun(lo, runLen);
+				// Advance to find next run
+				lo += runLen;
+				nRemaining -= runLen;
+			} while (nRemaining != 0);
+			// Merge all remaining runs to complete sort
+			assert lo == hi;
+			ts.mergeForceCollapse();
+			assert ts.stackSize == 1;
+		} finally {
+			ts.releaseTmp();
+		}
 	}
 
 	/**
@@ -279,32 +303,65 @@ class TimSort<T> {
 	}
 
 	/**
-	 * Examines the stack of runs waiting to be merged and merges adjacent runs
-	 * until the stack invariants are reestablished:
+	 * Merges runs on the stack as directed by the powersort policy of Munro
+	 * and Wild, given the length of the run that follows the last run on the
+	 * stack, which is about to be pushed.
 	 *
-	 * 1. runLen[i - 3] > runLen[i - 2] + runLen[i - 1] 2. runLen[i - 2] >
-	 * runLen[i - 1]
+	 * The power of the boundary between two adjacent runs is the depth of the
+	 * node of a perfectly balanced binary merge tree over the whole range
+	 * whose split point lies between the midpoints of the two runs. Runs with
+	 * boundaries of greater power than the new boundary are merged first,
+	 * which keeps the powers strictly increasing up the stack, and merges runs
+	 * in a nearly optimal order, whose cost is close to n times the entropy
+	 * of the run lengths, where the classic TimSort invariants can cost up to
+	 * 1.5 times as much.
 	 *
-	 * This method is called each time a new run is pushed onto the stack, so
-	 * the invariants are guaranteed to hold for i < stackSize upon entry to the
-	 * method.
+	 * @param len2
+	 *            the length of the next run
 	 */
-	private void mergeCollapse() {
-		while (stackSize > 1) {
-			int n = stackSize - 2;
-			if ((n > 0) && (runLen[n - 1] <= (runLen[n] + runLen[n + 1]))) {
-				if (runLen[n - 1] < runLen[n + 1]) {
-					n--;
-				}
-				mergeAt(n);
-			} else if (runLen[n] <= runLen[n + 1]) {
-				mergeAt(n);
-			} else {
-				break; // Invariant is established
+	private void mergeCollapse(int len2) {
+		if (stackSize > 0) {
+			int n = stackSize - 1;
+			int power = nodePower(runBase[n] - sortBase, runLen[n], len2, sortLen);
+			while ((stackSize > 1) && (runPower[stackSize - 2] > power)) {
+				mergeAt(stackSize - 2);
 			}
+			runPower[stackSize - 1] = power;
 		}
 	}
 
+	/**
+	 * Returns the power of the boundary between two adjacent runs.
+	 *
+	 * @param s1
+	 *            the start of the first run, relative to the range
+	 * @param n1
+	 *            the length of the first run
+	 * @param n2
+	 *            the length of the second run
+	 * @param n
+	 *            the length of the range
+	 * @return the depth of the balanced merge tree node separating the
+	 *         midpoints of the runs, which is at least 1
+	 */
+	static int nodePower(int s1, int n1, int n2, int n) {
+		// Twice the midpoints, whose quotients by 2n are compared bit by bit
+		long a = (2L * s1) + n1, b = a + n1 + n2;
+		int power = 0;
+		while (true) {
+			power++;
+			if (a >= n) {
+				a -= n;
+				b -= n;
+			} else if (b >= n) {
+				break;
+			}
+			a <<= 1;
+			b <<= 1;
+		}
+		return power;
+	}
+
 	/**
 	 * Merges all runs on the stack until only one remains. This method is
 	 * called once, to complete the sort.
@@ -780,6 +837,9 @@ class TimSort<T> {
 	}
 
 	private T[] ensureCapacity(int minCapacity) {
+		if (tmpUsed < minCapacity) {
+			tmpUsed = minCapacity;
+		}
 		if (tmpLen < minCapacity) {
 			int newSize = minCapacity;
 			newSize |= newSize >> 1;
@@ -793,6 +853,10 @@ class TimSort<T> {
 			} else {
 				newSize = Math.min(newSize, a.length >>> 1);
 			}
+			if (tmpCached) {
+				MergeBuffers.release(tmp, tmpLen);
+				tmpUsed = minCapacity;
+			}
 			@SuppressWarnings({ "unchecked", "UnnecessaryLocalVariable" })
 			T[] newArray = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), newSize);
 			tmp = newArray;
@@ -801,4 +865,13 @@ class TimSort<T> {
 		}
 		return tmp;
 	}
+
+	/**
+	 * Returns tmp to the cache it came from, if any.
+	 */
+	private void releaseTmp() {
+		if (tmpCached) {
+			MergeBuffers.release(tmp, Math.min(tmpUsed, tmpLen));
+		}
+	}
 }
@@ -0,0 +1,908 @@
+package java.util;
+
+import java.util.function.Consumer;
+
+/**
+ * An unrolled doubly-linked implementation of the {@code List} and
+ * {@code Deque} interfaces, which may be used in place of {@link LinkedList}.
+ * Each node holds up to {@value #NODE_CAPACITY} elements in a contiguous run
+ * of an array, so that traversal follows one link per node rather than one
+ * per element and touches far fewer cache lines, and the list allocates one
+ * node per many elements. Permits all elements (including {@code null}).
+ *
+ * <p>
+ * Adding and removing at either end take amortized constant time. Adding or
+ * removing through a list iterator moves at most half the elements of one
+ * node: a full node is split in two, and a node is merged with a neighbour
+ * when together they hold at most {@value #MERGE_THRESHOLD} elements.
+ * Operations that index into the list traverse it from the beginning or the
+ * end, whichever is closer, a node at a time.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> The
+ * iterators and spliterators returned by this class are <i>fail-fast</i> on a
+ * best-effort basis. The spliterator splits by walking over nodes, for
+ * parallel streams.
+ *
+ * @param <E>
+ *            the type of elements held in this collection
+ * @see LinkedList
+ */
+public class UnrolledLinkedList<E> extends AbstractSequentialList<E> implements List<E>, Deque<E>, Cloneable, java.io.Serializable {
+	private static final long serialVersionUID = -6402337845133862458L;
+
+	/** The number of element slots in each node */
+	static final int NODE_CAPACITY = 64;
+
+	/** Adjacent nodes holding together at most this many elements are merged */
+	static final int MERGE_THRESHOLD = NODE_CAPACITY / 2;
+
+	transient int size = 0;
+	transient Node first;
+	transient Node last;
+
+	/**
+	 * A node holds its elements in {@code items[start, end)}; the other slots
+	 * are null. Nodes in the list are never empty.
+	 */
+	static final class Node {
+		final Object[] items = new Object[NODE_CAPACITY];
+		int start, end;
+		Node prev, next;
+
+		Node(int start) {
+			this.start = this.end = start;
+		}
+	}
+
+	/**
+	 * Constructs an empty list.
+	 */
+	public UnrolledLinkedList() {
+	}
+
+	/**
+	 * Constructs a list containing the elements of the specified collection,
+	 * in the order they are returned by the collection's iterator.
+	 *
+	 * @param c
+	 *            the collection whose elements are to be placed into this list
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public UnrolledLinkedList(Collection<? extends E> c) {
+		this();
+		addAll(c);
+	}
+
+	/**
+	 * Links a new empty node between pred and succ, either of which may be
+	 * null, with its run of elements starting at the given slot.
+	 */
+	private Node linkNode(Node pred, Node succ, int start) {
+		final Node x = new Node(start);
+		x.prev = pred;
+		x.next = succ;
+		if (pred == null) {
+			first = x;
+		} else {
+			pred.next = x;
+		}
+		if (succ == null) {
+			last = x;
+		} else {
+			succ.prev = x;
+		}
+		return x;
+	}
+
+	private void unlinkNode(Node x) {
+		final Node pred = x.prev, succ = x.next;
+		if (pred == null) {
+			first = succ;
+		} else {
+			pred.next = succ;
+		}
+		if (succ == null) {
+			last = pred;
+		} else {
+			succ.prev = pred;
+		}
+		x.prev = x.next = null;
+	}
+
+	/**
+	 * Moves the elements of a.next to the end of a, after moving those of a
+	 * to the start of its array, and unlinks a.next. The elements must fit.
+	 */
+	private void merge(Node a) {
+		final Node b = a.next;
+		final Object[] ai = a.items;
+		final int ca = a.end - a.start, cb = b.end - b.start, oldEnd = a.end;
+		if (a.start > 0) {
+			System.arraycopy(ai, a.start, ai, 0, ca);
+		}
+		System.arraycopy(b.items, b.start, ai, ca, cb);
+		if (oldEnd > ca + cb) {
+			Arrays.fill(ai, ca + cb, oldEnd, null);
+		}
+		a.start = 0;
+		a.end = ca + cb;
+		unlinkNode(b);
+	}
+
+	private void checkPositionIndex(int index) {
+		if ((index < 0) || (index > size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for (Node x = first; x != null;) {
+			Node next = x.next;
+			Arrays.fill(x.items, x.start, x.end, null);
+			x.prev = x.next = null;
+			x = next;
+		}
+		first = last = null;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[size];
+		int i = 0;
+		for (Node x = first; x != null; x = x.next) {
+			System.arraycopy(x.items, x.start, result, i, x.end - x.start);
+			i += x.end - x.start;
+		}
+		return result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (a.length < size) {
+			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+		}
+		int i = 0;
+		for (Node x = first; x != null; x = x.next) {
+			System.arraycopy(x.items, x.start, a, i, x.end - x.start);
+			i += x.end - x.start;
+		}
+		if (a.length > size) {
+			a[size] = null;
+		}
+		return a;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		final int expectedModCount = modCount;
+		for (Node x = first; (x != null) && (modCount == expectedModCount); x = x.next) {
+			final Object[] items = x.items;
+			for (int i = x.start, end = x.end; i < end; i++) {
+				action.accept((E) items[i]);
+			}
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	// Deque operations
+
+	@Override
+	public void addFirst(E e) {
+		Node f = first;
+		if ((f == null) || (f.start == 0)) {
+			f = linkNode(null, f, NODE_CAPACITY);
+		}
+		f.items[--f.start] = e;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public void addLast(E e) {
+		Node l = last;
+		if ((l == null) || (l.end == NODE_CAPACITY)) {
+			l = linkNode(l, null, 0);
+		}
+		l.items[l.end++] = e;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public boolean offerFirst(E e) {
+		addFirst(e);
+		return true;
+	}
+
+	@Override
+	public boolean offerLast(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public E removeFirst() {
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		return pollFirst();
+	}
+
+	@Override
+	public E removeLast() {
+		if (last == null) {
+			throw new NoSuchElementException();
+		}
+		return pollLast();
+	}
+
+	@Override
+	public E pollFirst() {
+		final Node f = first;
+		if (f == null) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		E element = (E) f.items[f.start];
+		f.items[f.start++] = null;
+		if (f.start == f.end) {
+			unlinkNode(f);
+		}
+		size--;
+		modCount++;
+		return element;
+	}
+
+	@Override
+	public E pollLast() {
+		final Node l = last;
+		if (l == null) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		E element = (E) l.items[--l.end];
+		l.items[l.end] = null;
+		if (l.start == l.end) {
+			unlinkNode(l);
+		}
+		size--;
+		modCount++;
+		return element;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E getFirst() {
+		final Node f = first;
+		if (f == null) {
+			throw new NoSuchElementException();
+		}
+		return (E) f.items[f.start];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E getLast() {
+		final Node l = last;
+		if (l == null) {
+			throw new NoSuchElementException();
+		}
+		return (E) l.items[l.end - 1];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peekFirst() {
+		final Node f = first;
+		return (f == null) ? null : (E) f.items[f.start];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peekLast() {
+		final Node l = last;
+		return (l == null) ? null : (E) l.items[l.end - 1];
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		for (ListIterator<E> it = listIterator(); it.hasNext();) {
+			if (Objects.equals(o, it.next())) {
+				it.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		for (ListIterator<E> it = listIterator(size); it.hasPrevious();) {
+			if (Objects.equals(o, it.previous())) {
+				it.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean offer(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	@Override
+	public E poll() {
+		return pollFirst();
+	}
+
+	@Override
+	public E element() {
+		return getFirst();
+	}
+
+	@Override
+	public E peek() {
+		return peekFirst();
+	}
+
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new DescendingIterator();
+	}
+
+	/**
+	 * Returns a list-iterator of the elements in this list (in proper
+	 * sequence), starting at the specified position in the list. Obeys the
+	 * general contract of {@code List.listIterator(int)}.
+	 *
+	 * <p>
+	 * The list-iterator is <i>fail-fast</i>: if the list is structurally
+	 * modified at any time after the Iterator is created, in any way except
+	 * through the list-iterator's own {@code remove} or {@code add} methods,
+	 * the list-iterator will throw a {@code ConcurrentModificationException}.
+	 *
+	 * @param index
+	 *            index of the first element to be returned from the
+	 *            list-iterator (by a call to {@code next})
+	 * @return a ListIterator of the elements in this list (in proper
+	 *         sequence), starting at the specified position in the list
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 * @see List#listIterator(int)
+	 */
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		checkPositionIndex(index);
+		return new ListItr(index);
+	}
+
+	/**
+	 * The cursor lies before {@code node.items[pos]}, where
+	 * {@code node.start <= pos <= node.end}, so the same position may be
+	 * represented by the end of a node or the start of the next.
+	 */
+	private class ListItr implements ListIterator<E> {
+		private Node node;
+		private int pos;
+		private int nextIndex;
+		private Node lastNode; // null if there is no last returned element
+		private int lastPos;
+		private int expectedModCount = modCount;
+
+		ListItr(int index) {
+			nextIndex = index;
+			if (index == size) {
+				node = last;
+				pos = (last == null) ? 0 : last.end;
+			} else if (index < (size >>> 1)) {
+				Node x = first;
+				while (index >= (x.end - x.start)) {
+					index -= x.end - x.start;
+					x = x.next;
+				}
+				node = x;
+				pos = x.start + index;
+			} else {
+				Node x = last;
+				int r = size - index;
+				while (r > (x.end - x.start)) {
+					r -= x.end - x.start;
+					x = x.prev;
+				}
+				node = x;
+				pos = x.end - r;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			checkForComodification();
+			if (nextIndex >= size) {
+				throw new NoSuchElementException();
+			}
+			Node x = node;
+			int p = pos;
+			if (p == x.end) {
+				node = x = x.next;
+				p = x.start;
+			}
+			lastNode = x;
+			lastPos = p;
+			pos = p + 1;
+			nextIndex++;
+			return (E) x.items[p];
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E previous() {
+			checkForComodification();
+			if (nextIndex <= 0) {
+				throw new NoSuchElementException();
+			}
+			Node x = node;
+			int p = pos;
+			if (p == x.start) {
+				node = x = x.prev;
+				p = x.end;
+			}
+			lastNode = x;
+			lastPos = pos = --p;
+			nextIndex--;
+			return (E) x.items[p];
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForComodification();
+			final Node x = lastNode;
+			if (x == null) {
+				throw new IllegalStateException();
+			}
+			if (pos != lastPos) { // returned by next, so node == x and pos == lastPos + 1
+				nextIndex--;
+			}
+			final Object[] items = x.items;
+			final int p = lastPos;
+			if ((p - x.start) < (x.end - 1 - p)) {
+				System.arraycopy(items, x.start, items, x.start + 1, p - x.start);
+				items[x.start++] = null;
+				pos = p + 1;
+			} else {
+				System.arraycopy(items, p + 1, items, p, x.end - 1 - p);
+				items[--x.end] = null;
+				pos = p;
+			}
+			node = x;
+			final Node pred = x.prev, succ = x.next;
+			final int count = x.end - x.start;
+			if (count == 0) {
+				unlinkNode(x);
+				if (succ != null) {
+					node = succ;
+					pos = succ.start;
+				} else if (pred != null) {
+					node = pred;
+					pos = pred.end;
+				} else {
+					node = null;
+					pos = 0;
+				}
+			} else if ((succ != null) && ((count + (succ.end - succ.start)) <= MERGE_THRESHOLD)) {
+				pos -= x.start;
+				merge(x);
+			} else if ((pred != null) && (((pred.end - pred.start) + count) <= MERGE_THRESHOLD)) {
+				node = pred;
+				pos = (pred.end - pred.start) + (pos - x.start);
+				merge(pred);
+			}
+			lastNode = null;
+			size--;
+			expectedModCount = ++modCount;
+		}
+
+		@Override
+		public void set(E e) {
+			if (lastNode == null) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			lastNode.items[lastPos] = e;
+		}
+
+		@Override
+		public void add(E e) {
+			checkForComodification();
+			lastNode = null;
+			Node x = node;
+			int p = pos;
+			if (x == null) {
+				x = linkNode(null, null, 0);
+				p = 0;
+			} else if ((x.end - x.start) == NODE_CAPACITY) {
+				if (p == x.end) { // add to the start of the next node, or a new one
+					Node succ = x.next;
+					if ((succ == null) || (succ.start == 0)) {
+						succ = linkNode(x, succ, NODE_CAPACITY);
+					}
+					succ.items[--succ.start] = e;
+					node = succ;
+					pos = succ.start + 1;
+					added();
+					return;
+				}
+				if (p == x.start) { // add to the end of the previous node, or a new one
+					Node pred = x.prev;
+					if ((pred == null) || (pred.end == NODE_CAPACITY)) {
+						pred = linkNode(pred, x, 0);
+					}
+					pred.items[pred.end++] = e;
+					added();
+					return;
+				}
+				// split the full node, moving its upper half to a new node
+				final int mid = NODE_CAPACITY >>> 1;
+				final Node y = linkNode(x, x.next, 0);
+				System.arraycopy(x.items, mid, y.items, 0, NODE_CAPACITY - mid);
+				Arrays.fill(x.items, mid, NODE_CAPACITY, null);
+				y.end = NODE_CAPACITY - mid;
+				x.end = mid;
+				if (p > mid) {
+					x = y;
+					p -= mid;
+				}
+			}
+			final Object[] items = x.items;
+			if ((x.start > 0) && ((x.end == NODE_CAPACITY) || ((p - x.start) < (x.end - p)))) {
+				System.arraycopy(items, x.start, items, x.start - 1, p - x.start);
+				x.start--;
+				items[p - 1] = e;
+				pos = p;
+			} else {
+				System.arraycopy(items, p, items, p + 1, x.end - p);
+				x.end++;
+				items[p] = e;
+				pos = p + 1;
+			}
+			node = x;
+			added();
+		}
+
+		private void added() {
+			nextIndex++;
+			size++;
+			expectedModCount = ++modCount;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while ((modCount == expectedModCount) && (nextIndex < size)) {
+				Node x = node;
+				int p = pos;
+				if (p == x.end) {
+					node = x = x.next;
+					p = x.start;
+				}
+				final int n = Math.min(x.end - p, size - nextIndex);
+				for (int i = 0; i < n; i++) {
+					action.accept((E) x.items[p + i]);
+				}
+				lastNode = x;
+				lastPos = p + n - 1;
+				pos = p + n;
+				nextIndex += n;
+			}
+			checkForComodification();
+		}
+
+		final void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Adapter to provide descending iterators via ListItr.previous
+	 */
+	private class DescendingIterator implements Iterator<E> {
+		private final ListItr itr = new ListItr(size());
+
+		@Override
+		public boolean hasNext() {
+			return itr.hasPrevious();
+		}
+
+		@Override
+		public E next() {
+			return itr.previous();
+		}
+
+		@Override
+		public void remove() {
+			itr.remove();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private UnrolledLinkedList<E> superClone() {
+		try {
+			return (UnrolledLinkedList<E>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Returns a shallow copy of this {@code UnrolledLinkedList}. (The elements
+	 * themselves are not cloned.)
+	 *
+	 * @return a shallow copy of this {@code UnrolledLinkedList} instance
+	 */
+	@Override
+	public Object clone() {
+		UnrolledLinkedList<E> clone = superClone();
+
+		// Put clone into "virgin" state
+		clone.first = clone.last = null;
+		clone.size = 0;
+		clone.modCount = 0;
+
+		// Initialize clone with our nodes
+		for (Node x = first; x != null; x = x.next) {
+			Node y = clone.linkNode(clone.last, null, x.start);
+			System.arraycopy(x.items, x.start, y.items, x.start, x.end - x.start);
+			y.end = x.end;
+		}
+		clone.size = size;
+		return clone;
+	}
+
+	/**
+	 * Saves the state of this {@code UnrolledLinkedList} instance to a stream
+	 * (that is, serializes it).
+	 *
+	 * @serialData The size of the list (the number of elements it contains)
+	 *             is emitted (int), followed by all of its elements (each an
+	 *             Object) in the proper order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		// Write out any hidden serialization magic
+		s.defaultWriteObject();
+
+		// Write out size
+		s.writeInt(size);
+
+		// Write out all elements in the proper order.
+		for (Node x = first; x != null; x = x.next) {
+			for (int i = x.start; i < x.end; i++) {
+				s.writeObject(x.items[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reconstitutes this {@code UnrolledLinkedList} instance from a stream
+	 * (that is, deserializes it).
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		// Read in any hidden serialization magic
+		s.defaultReadObject();
+
+		// Read in size
+		int size = s.readInt();
+
+		// Read in all elements in the proper order.
+		for (int i = 0; i < size; i++) {
+			addLast((E) s.readObject());
+		}
+	}
+
+	/**
+	 * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+	 * and <em>fail-fast</em> {@link Spliterator} over the elements in this
+	 * list.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#SIZED},
+	 * {@link Spliterator#SUBSIZED} and {@link Spliterator#ORDERED}.
+	 *
+	 * @implNote The {@code Spliterator} splits in half by walking over the
+	 *           nodes of the first half, which takes one step per node rather
+	 *           than per element.
+	 *
+	 * @return a {@code Spliterator} over the elements in this list
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new ULLSpliterator<E>(this, null, 0, -1, 0);
+	}
+
+	/** A customized variant of Spliterators.IteratorSpliterator */
+	static final class ULLSpliterator<E> implements Spliterator<E> {
+		final UnrolledLinkedList<E> list; // null OK unless traversed
+		Node current; // current node; null until initialized
+		int pos; // slot in current of the next element
+		int est; // size estimate; -1 until first needed
+		int expectedModCount; // initialized when est set
+
+		ULLSpliterator(UnrolledLinkedList<E> list, Node origin, int pos, int est, int expectedModCount) {
+			this.list = list;
+			this.current = origin;
+			this.pos = pos;
+			this.est = est;
+			this.expectedModCount = expectedModCount;
+		}
+
+		final int getEst() {
+			int s; // force initialization
+			final UnrolledLinkedList<E> lst;
+			if ((s = est) < 0) {
+				if ((lst = list) == null) {
+					s = est = 0;
+				} else {
+					expectedModCount = lst.modCount;
+					current = lst.first;
+					pos = (current == null) ? 0 : current.start;
+					s = est = lst.size;
+				}
+			}
+			return s;
+		}
+
+		@Override
+		public long estimateSize() {
+			return getEst();
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			final int s = getEst();
+			if ((s < 2) || (list.modCount != expectedModCount)) {
+				return null;
+			}
+			final int half = s >>> 1;
+			Node x = current;
+			int p = pos;
+			final ULLSpliterator<E> prefix = new ULLSpliterator<E>(list, x, p, half, expectedModCount);
+			for (int k = half;;) {
+				int avail = x.end - p;
+				if (k < avail) {
+					p += k;
+					break;
+				}
+				k -= avail;
+				x = x.next;
+				p = x.start;
+			}
+			current = x;
+			pos = p;
+			est = s - half;
+			return prefix;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int n = getEst();
+			if (n > 0) {
+				est = 0;
+				Node x = current;
+				int p = pos;
+				while ((n > 0) && (x != null) && (list.modCount == expectedModCount)) {
+					if (p == x.end) {
+						x = x.next;
+						if (x == null) {
+							break;
+						}
+						p = x.start;
+					}
+					final int c = Math.min(n, x.end - p);
+					for (int i = 0; i < c; i++) {
+						action.accept((E) x.items[p + i]);
+					}
+					p += c;
+					n -= c;
+				}
+				current = x;
+				pos = p;
+			}
+			if (list.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (getEst() > 0) {
+				Node x = current;
+				if (pos == x.end) {
+					current = x = x.next;
+					pos = x.start;
+				}
+				--est;
+				E e = (E) x.items[pos++];
+				action.accept(e);
+				if (list.modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+}
@@ -13,6 +13,12 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	protected int capacityIncrement;
 	private static final long serialVersionUID = -2767605614048989439L;
 
+	/**
+	 * Validates the optimistic reads of read-mostly mode, or null if the mode
+	 * has never been enabled; see {@link #setReadMostly}.
+	 */
+	transient volatile SequenceLock seqLock;
+
 	public Vector(int initialCapacity, int capacityIncrement) {
 		super();
 		if (initialCapacity < 0) {
@@ -38,15 +44,122 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 		}
 	}
 
+	/**
+	 * Sets whether this vector is in read-mostly mode. In this mode,
+	 * {@link #get}, {@link #elementAt}, {@link #firstElement},
+	 * {@link #lastElement}, {@link #size}, {@link #isEmpty}, {@link #contains}
+	 * and {@link #indexOf(Object, int)} first read the vector without taking
+	 * its monitor, and validate that no write intervened, in the manner of a
+	 * sequence lock; only if one did do they read again holding the monitor.
+	 * Concurrent readers then no longer contend for the monitor, at the cost of
+	 * a little more work for each write. Writes still hold the monitor, so
+	 * synchronizing on the vector still excludes them, and the results of all
+	 * methods are the same as in the default mode.
+	 *
+	 * <p>
+	 * A subclass that writes {@code elementData} or {@code elementCount}
+	 * other than through the methods of this class must not enable this mode.
+	 *
+	 * @param readMostly
+	 *            whether to read optimistically
+	 */
+	public synchronized void setReadMostly(boolean readMostly) {
+		SequenceLock sl = seqLock;
+		if (sl == null) {
+			if (!readMostly) {
+				return;
+			}
+			seqLock = sl = new SequenceLock();
+		}
+		sl.setEnabled(readMostly);
+	}
+
+	/**
+	 * Returns whether this vector is in read-mostly mode.
+	 *
+	 * @return whether this vector reads optimistically
+	 * @see #setReadMostly
+	 */
+	public synchronized boolean isReadMostly() {
+		SequenceLock sl = seqLock;
+		return (sl != null) && sl.isEnabled();
+	}
+
+	/**
+	 * Begins a write for read-mostly mode. Must be called holding the monitor,
+	 * and followed by {@link #endWrite} in a {@code finally} block.
+	 */
+	private SequenceLock beginWrite() {
+		SequenceLock sl = seqLock;
+		if (sl != null) {
+			sl.beginWrite();
+		}
+		return sl;
+	}
+
+	private static void endWrite(SequenceLock sl) {
+		if (sl != null) {
+			sl.endWrite();
+		}
+	}
+
+	/** Returned by optimisticElementAt if it cannot read without locking */
+	private static final Object NO_ELEMENT = new Object();
+
+	/**
+	 * Returns the element at the given index read without locking in
+	 * read-mostly mode, or {@code NO_ELEMENT} if the mode is disabled, a write
+	 * intervened, or the index is out of range.
+	 */
+	private Object optimisticElementAt(int index) {
+		final SequenceLock sl = seqLock;
+		if (sl != null) {
+			long stamp = sl.tryOptimisticRead();
+			if (stamp != 0L) {
+				Object[] data = elementData;
+				if ((index >= 0) && (index < elementCount) && (index < data.length)) {
+					Object e = data[index];
+					if (sl.validate(stamp)) {
+						return e;
+					}
+				}
+			}
+		}
+		return NO_ELEMENT;
+	}
+
+	/**
+	 * Returns the size read without locking in read-mostly mode, or -1 if the
+	 * mode is disabled or a write intervened.
+	 */
+	private int optimisticSize() {
+		final SequenceLock sl = seqLock;
+		if (sl != null) {
+			long stamp = sl.tryOptimisticRead();
+			if (stamp != 0L) {
+				int count = elementCount;
+				if (sl.validate(stamp)) {
+					return count;
+				}
+			}
+		}
+		return -1;
+	}
+
 	public synchronized void copyInto(Object[] anArray) {
 		System.arraycopy(elementData, 0, anArray, 0, elementCount);
 	}
 
 	public synchronized void trimToSize() {
-		modCount++;
-		int oldCapacity = elementData.length;
-		if (elementCount < oldCapacity) {
-			elementData = Arrays.copyOf(elementData, elementCount);
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			int oldCapacity = elementData.length;
+			if (elementCount < oldCapacity) {
+				elementData = Arrays.copyOf(elementData, elementCount);
+			}
+		} finally {
+			endWrite(sl);
 		}
 	}
 
@@ -69,9 +182,14 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *            the desired minimum capacity
 	 */
 	public synchronized void ensureCapacity(int minCapacity) {
-		if (minCapacity > 0) {
-			modCount++;
-			ensureCapacityHelper(minCapacity);
+		final SequenceLock sl = beginWrite();
+		try {
+			if (minCapacity > 0) {
+				modCount++;
+				ensureCapacityHelper(minCapacity);
+			}
+		} finally {
+			endWrite(sl);
 		}
 	}
 
@@ -128,15 +246,20 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             if the new size is negative
 	 */
 	public synchronized void setSize(int newSize) {
-		modCount++;
-		if (newSize > elementCount) {
-			ensureCapacityHelper(newSize);
-		} else {
-			for (int i = newSize; i < elementCount; i++) {
-				elementData[i] = null;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			if (newSize > elementCount) {
+				ensureCapacityHelper(newSize);
+			} else {
+				for (int i = newSize; i < elementCount; i++) {
+					elementData[i] = null;
+				}
 			}
+			elementCount = newSize;
+		} finally {
+			endWrite(sl);
 		}
-		elementCount = newSize;
 	}
 
 	/**
@@ -154,8 +277,14 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *
 	 * @return the number of components in this vector
 	 */
-	public synchronized int size() {
-		return elementCount;
+	public int size() {
+		int count = optimisticSize();
+		if (count >= 0) {
+			return count;
+		}
+		synchronized (this) {
+			return elementCount;
+		}
 	}
 
 	/**
@@ -164,8 +293,14 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @return {@code true} if and only if this vector has no components, that
 	 *         is, its size is zero; {@code false} otherwise.
 	 */
-	public synchronized boolean isEmpty() {
-		return elementCount == 0;
+	public boolean isEmpty() {
+		int count = optimisticSize();
+		if (count >= 0) {
+			return count == 0;
+		}
+		synchronized (this) {
+			return elementCount == 0;
+		}
 	}
 
 	/**
@@ -245,16 +380,37 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             if the specified index is negative
 	 * @see Object#equals(Object)
 	 */
-	public synchronized int indexOf(Object o, int index) {
+	public int indexOf(Object o, int index) {
+		final SequenceLock sl = seqLock;
+		if (sl != null) {
+			long stamp = sl.tryOptimisticRead();
+			if (stamp != 0L) {
+				try {
+					Object[] data = elementData;
+					int i = indexOfRange(o, data, index, Math.min(elementCount, data.length));
+					if (sl.validate(stamp)) {
+						return i;
+					}
+				} catch (RuntimeException ex) {
+					// raced with a write, or invalid; search again holding the monitor
+				}
+			}
+		}
+		synchronized (this) {
+			return indexOfRange(o, elementData, index, elementCount);
+		}
+	}
+
+	private static int indexOfRange(Object o, Object[] es, int from, int to) {
 		if (o == null) {
-			for (int i = index; i < elementCount; i++) {
-				if (elementData[i] == null) {
+			for (int i = from; i < to; i++) {
+				if (es[i] == null) {
 					return i;
 				}
 			}
 		} else {
-			for (int i = index; i < elementCount; i++) {
-				if (o.equals(elementData[i])) {
+			for (int i = from; i < to; i++) {
+				if (o.equals(es[i])) {
 					return i;
 				}
 			}
@@ -331,11 +487,18 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             if the index is out of range
 	 *             ({@code index < 0 || index >= size()})
 	 */
-	public synchronized E elementAt(int index) {
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+	@SuppressWarnings("unchecked")
+	public E elementAt(int index) {
+		Object e = optimisticElementAt(index);
+		if (e != NO_ELEMENT) {
+			return (E) e;
+		}
+		synchronized (this) {
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+			}
+			return elementData(index);
 		}
-		return elementData(index);
 	}
 
 	/**
@@ -345,11 +508,18 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @throws NoSuchElementException
 	 *             if this vector has no components
 	 */
-	public synchronized E firstElement() {
-		if (elementCount == 0) {
-			throw new NoSuchElementException();
+	@SuppressWarnings("unchecked")
+	public E firstElement() {
+		Object e = optimisticElementAt(0);
+		if (e != NO_ELEMENT) {
+			return (E) e;
+		}
+		synchronized (this) {
+			if (elementCount == 0) {
+				throw new NoSuchElementException();
+			}
+			return elementData(0);
 		}
-		return elementData(0);
 	}
 
 	/**
@@ -360,11 +530,28 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @throws NoSuchElementException
 	 *             if this vector is empty
 	 */
-	public synchronized E lastElement() {
-		if (elementCount == 0) {
-			throw new NoSuchElementException();
+	@SuppressWarnings("unchecked")
+	public E lastElement() {
+		final SequenceLock sl = seqLock;
+		if (sl != null) {
+			long stamp = sl.tryOptimisticRead();
+			if (stamp != 0L) {
+				Object[] data = elementData;
+				int index = elementCount - 1;
+				if ((index >= 0) && (index < data.length)) {
+					Object e = data[index];
+					if (sl.validate(stamp)) {
+						return (E) e;
+					}
+				}
+			}
+		}
+		synchronized (this) {
+			if (elementCount == 0) {
+				throw new NoSuchElementException();
+			}
+			return elementData(elementCount - 1);
 		}
-		return elementData(elementCount - 1);
 	}
 
 	/**
@@ -392,10 +579,15 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             ({@code index < 0 || index >= size()})
 	 */
 	public synchronized void setElementAt(E obj, int index) {
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+		final SequenceLock sl = beginWrite();
+		try {
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+			}
+			elementData[index] = obj;
+		} finally {
+			endWrite(sl);
 		}
-		elementData[index] = obj;
 	}
 
 	/**
@@ -421,18 +613,23 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             ({@code index < 0 || index >= size()})
 	 */
 	public synchronized void removeElementAt(int index) {
-		modCount++;
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
-		} else if (index < 0) {
-			throw new ArrayIndexOutOfBoundsException(index);
-		}
-		int j = elementCount - index - 1;
-		if (j > 0) {
-			System.arraycopy(elementData, index + 1, elementData, index, j);
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+			} else if (index < 0) {
+				throw new ArrayIndexOutOfBoundsException(index);
+			}
+			int j = elementCount - index - 1;
+			if (j > 0) {
+				System.arraycopy(elementData, index + 1, elementData, index, j);
+			}
+			elementCount--;
+			elementData[elementCount] = null; /* to let gc do its work */
+		} finally {
+			endWrite(sl);
 		}
-		elementCount--;
-		elementData[elementCount] = null; /* to let gc do its work */
 	}
 
 	/**
@@ -462,14 +659,19 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             ({@code index < 0 || index > size()})
 	 */
 	public synchronized void insertElementAt(E obj, int index) {
-		modCount++;
-		if (index > elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index + " > " + elementCount);
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			if (index > elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index + " > " + elementCount);
+			}
+			ensureCapacityHelper(elementCount + 1);
+			System.arraycopy(elementData, index, elementData, index + 1, elementCount - index);
+			elementData[index] = obj;
+			elementCount++;
+		} finally {
+			endWrite(sl);
 		}
-		ensureCapacityHelper(elementCount + 1);
-		System.arraycopy(elementData, index, elementData, index + 1, elementCount - index);
-		elementData[index] = obj;
-		elementCount++;
 	}
 
 	/**
@@ -485,9 +687,14 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *            the component to be added
 	 */
 	public synchronized void addElement(E obj) {
-		modCount++;
-		ensureCapacityHelper(elementCount + 1);
-		elementData[elementCount++] = obj;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			ensureCapacityHelper(elementCount + 1);
+			elementData[elementCount++] = obj;
+		} finally {
+			endWrite(sl);
+		}
 	}
 
 	/**
@@ -523,12 +730,17 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * (which is part of the {@link List} interface).
 	 */
 	public synchronized void removeAllElements() {
-		modCount++;
-		// Let gc do its work
-		for (int i = 0; i < elementCount; i++) {
-			elementData[i] = null;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			// Let gc do its work
+			for (int i = 0; i < elementCount; i++) {
+				elementData[i] = null;
+			}
+			elementCount = 0;
+		} finally {
+			endWrite(sl);
 		}
-		elementCount = 0;
 	}
 
 	/**
@@ -544,6 +756,7 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 			Vector<E> v = (Vector<E>) super.clone();
 			v.elementData = Arrays.copyOf(elementData, elementCount);
 			v.modCount = 0;
+			v.seqLock = null;
 			return v;
 		} catch (CloneNotSupportedException e) {
 			// this shouldn't happen, since we are Cloneable
@@ -616,11 +829,18 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 *             ({@code index < 0 || index >= size()})
 	 * @since 1.2
 	 */
-	public synchronized E get(int index) {
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index);
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Object e = optimisticElementAt(index);
+		if (e != NO_ELEMENT) {
+			return (E) e;
+		}
+		synchronized (this) {
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index);
+			}
+			return elementData(index);
 		}
-		return elementData(index);
 	}
 
 	/**
@@ -638,12 +858,17 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized E set(int index, E element) {
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index);
+		final SequenceLock sl = beginWrite();
+		try {
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index);
+			}
+			E oldValue = elementData(index);
+			elementData[index] = element;
+			return oldValue;
+		} finally {
+			endWrite(sl);
 		}
-		E oldValue = elementData(index);
-		elementData[index] = element;
-		return oldValue;
 	}
 
 	/**
@@ -655,10 +880,15 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized boolean add(E e) {
-		modCount++;
-		ensureCapacityHelper(elementCount + 1);
-		elementData[elementCount++] = e;
-		return true;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			ensureCapacityHelper(elementCount + 1);
+			elementData[elementCount++] = e;
+			return true;
+		} finally {
+			endWrite(sl);
+		}
 	}
 
 	/**
@@ -709,17 +939,22 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized E remove(int index) {
-		modCount++;
-		if (index >= elementCount) {
-			throw new ArrayIndexOutOfBoundsException(index);
-		}
-		E oldValue = elementData(index);
-		int numMoved = elementCount - index - 1;
-		if (numMoved > 0) {
-			System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			if (index >= elementCount) {
+				throw new ArrayIndexOutOfBoundsException(index);
+			}
+			E oldValue = elementData(index);
+			int numMoved = elementCount - index - 1;
+			if (numMoved > 0) {
+				System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+			}
+			elementData[--elementCount] = null; // Let gc do its work
+			return oldValue;
+		} finally {
+			endWrite(sl);
 		}
-		elementData[--elementCount] = null; // Let gc do its work
-		return oldValue;
 	}
 
 	/**
@@ -765,13 +1000,18 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized boolean addAll(Collection<? extends E> c) {
-		modCount++;
-		Object[] a = c.toArray();
-		int numNew = a.length;
-		ensureCapacityHelper(elementCount + numNew);
-		System.arraycopy(a, 0, elementData, elementCount, numNew);
-		elementCount += numNew;
-		return numNew != 0;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			Object[] a = c.toArray();
+			int numNew = a.length;
+			ensureCapacityHelper(elementCount + numNew);
+			System.arraycopy(a, 0, elementData, elementCount, numNew);
+			elementCount += numNew;
+			return numNew != 0;
+		} finally {
+			endWrite(sl);
+		}
 	}
 
 	/**
@@ -793,7 +1033,12 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized boolean removeAll(Collection<?> c) {
-		return super.removeAll(c);
+		final SequenceLock sl = beginWrite();
+		try {
+			return super.removeAll(c);
+		} finally {
+			endWrite(sl);
+		}
 	}
 
 	/**
@@ -817,7 +1062,12 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized boolean retainAll(Collection<?> c) {
-		return super.retainAll(c);
+		final SequenceLock sl = beginWrite();
+		try {
+			return super.retainAll(c);
+		} finally {
+			endWrite(sl);
+		}
 	}
 
 	/**
@@ -841,20 +1091,25 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * @since 1.2
 	 */
 	public synchronized boolean addAll(int index, Collection<? extends E> c) {
-		modCount++;
-		if ((index < 0) || (index > elementCount)) {
-			throw new ArrayIndexOutOfBoundsException(index);
-		}
-		Object[] a = c.toArray();
-		int numNew = a.length;
-		ensureCapacityHelper(elementCount + numNew);
-		int numMoved = elementCount - index;
-		if (numMoved > 0) {
-			System.arraycopy(elementData, index, elementData, index + numNew, numMoved);
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			if ((index < 0) || (index > elementCount)) {
+				throw new ArrayIndexOutOfBoundsException(index);
+			}
+			Object[] a = c.toArray();
+			int numNew = a.length;
+			ensureCapacityHelper(elementCount + numNew);
+			int numMoved = elementCount - index;
+			if (numMoved > 0) {
+				System.arraycopy(elementData, index, elementData, index + numNew, numMoved);
+			}
+			System.arraycopy(a, 0, elementData, index, numNew);
+			elementCount += numNew;
+			return numNew != 0;
+		} finally {
+			endWrite(sl);
 		}
-		System.arraycopy(a, 0, elementData, index, numNew);
-		elementCount += numNew;
-		return numNew != 0;
 	}
 
 	/**
@@ -942,13 +1197,18 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	 * {@code toIndex==fromIndex}, this operation has no effect.)
 	 */
 	protected synchronized void removeRange(int fromIndex, int toIndex) {
-		modCount++;
-		int numMoved = elementCount - toIndex;
-		System.arraycopy(elementData, toIndex, elementData, fromIndex, numMoved);
-		// Let gc do its work
-		int newElementCount = elementCount - (toIndex - fromIndex);
-		while (elementCount != newElementCount) {
-			elementData[--elementCount] = null;
+		final SequenceLock sl = beginWrite();
+		try {
+			modCount++;
+			int numMoved = elementCount - toIndex;
+			System.arraycopy(elementData, toIndex, elementData, fromIndex, numMoved);
+			// Let gc do its work
+			int newElementCount = elementCount - (toIndex - fromIndex);
+			while (elementCount != newElementCount) {
+				elementData[--elementCount] = null;
+			}
+		} finally {
+			endWrite(sl);
 		}
 	}
 
@@ -1180,70 +1440,85 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
 	@Override
 	@SuppressWarnings("unchecked")
 	public synchronized boolean removeIf(Predicate<? super E> filter) {
-		Objects.requireNonNull(filter);
-		// figure out which elements are to be removed
-		// any exception thrown from the filter predicate at this stage
-		// will leave the collection unmodified
-		int removeCount = 0;
-		final int size = elementCount;
-		final BitSet removeSet = new BitSet(size);
-		final int expectedModCount = modCount;
-		for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
-			@SuppressWarnings("unchecked")
-			final E element = (E) elementData[i];
-			if (filter.test(element)) {
-				removeSet.set(i);
-				removeCount++;
-			}
-		}
-		if (modCount != expectedModCount) {
-			throw new ConcurrentModificationException();
-		}
-		// shift surviving elements left over the spaces left by removed
-		// elements
-		final boolean anyToRemove = removeCount > 0;
-		if (anyToRemove) {
-			final int newSize = size - removeCount;
-			for (int i = 0, j = 0; (i < size) && (j < newSize); i++, j++) {
-				i = removeSet.nextClearBit(i);
-				elementData[j] = elementData[i];
-			}
-			for (int k = newSize; k < size; k++) {
-				elementData[k] = null; // Let gc do its work
+		final SequenceLock sl = beginWrite();
+		try {
+			Objects.requireNonNull(filter);
+			// figure out which elements are to be removed
+			// any exception thrown from the filter predicate at this stage
+			// will leave the collection unmodified
+			int removeCount = 0;
+			final int size = elementCount;
+			final BitSet removeSet = new BitSet(size);
+			final int expectedModCount = modCount;
+			for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
+				@SuppressWarnings("unchecked")
+				final E element = (E) elementData[i];
+				if (filter.test(element)) {
+					removeSet.set(i);
+					removeCount++;
+				}
 			}
-			elementCount = newSize;
 			if (modCount != expectedModCount) {
 				throw new ConcurrentModificationException();
 			}
-			modCount++;
+			// shift surviving elements left over the spaces left by removed
+			// elements
+			final boolean anyToRemove = removeCount > 0;
+			if (anyToRemove) {
+				final int newSize = size - removeCount;
+				for (int i = 0, j = 0; (i < size) && (j < newSize); i++, j++) {
+					i = removeSet.nextClearBit(i);
+					elementData[j] = elementData[i];
+				}
+				for (int k = newSize; k < size; k++) {
+					elementData[k] = null; // Let gc do its work
+				}
+				elementCount = newSize;
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				modCount++;
+			}
+			return anyToRemove;
+		} finally {
+			endWrite(sl);
 		}
-		return anyToRemove;
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public synchronized void replaceAll(UnaryOperator<E> operator) {
-		Objects.requireNonNull(operator);
-		final int expectedModCount = modCount;
-		final int size = elementCount;
-		for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
-			elementData[i] = operator.apply((E) elementData[i]);
-		}
-		if (modCount != expectedModCount) {
-			throw new ConcurrentModificationException();
+		final SequenceLock sl = beginWrite();
+		try {
+			Objects.requireNonNull(operator);
+			final int expectedModCount = modCount;
+			final int size = elementCount;
+			for (int i = 0; (modCount == expectedModCount) && (i < size); i++) {
+				elementData[i] = operator.apply((E) elementData[i]);
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			modCount++;
+		} finally {
+			endWrite(sl);
 		}
-		modCount++;
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public synchronized void sort(Comparator<? super E> c) {
-		final int expectedModCount = modCount;
-		Arrays.sort((E[]) elementData, 0, elementCount, c);
-		if (modCount != expectedModCount) {
-			throw new ConcurrentModificationException();
+		final SequenceLock sl = beginWrite();
+		try {
+			final int expectedModCount = modCount;
+			Arrays.sort((E[]) elementData, 0, elementCount, c);
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			modCount++;
+		} finally {
+			endWrite(sl);
 		}
-		modCount++;
 	}
 
 	/**
@@ -0,0 +1,265 @@
+package java.util;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A generator of uniform pseudorandom values implementing the xoshiro256++
+ * algorithm of David Blackman and Sebastiano Vigna, with 256 bits of state and
+ * a period of 2<sup>256</sup>&minus;1. It supports the same methods as
+ * {@link SplittableRandom}, and in addition can be advanced by exactly
+ * 2<sup>128</sup> ({@link #jump}) or 2<sup>192</sup> ({@link #leap}) values in
+ * constant time.
+ *
+ * <p>
+ * Jumping provides substreams that are guaranteed not to overlap, rather than
+ * being independent only with very high probability as are generators
+ * obtained by {@link #split}. The stream returned by {@link #jumps(long)}
+ * yields copies of this generator each 2<sup>128</sup> values apart, so that,
+ * for example, each leaf task of a {@link java.util.concurrent.ForkJoinTask
+ * fork/join} computation may be handed its own element and use up to
+ * 2<sup>128</sup> values without touching those of any other task. Where more
+ * than 2<sup>64</sup> such partitions may be needed at several levels,
+ * {@link #leaps(long)} yields copies 2<sup>192</sup> values apart, each of
+ * which may in turn be partitioned by {@code jumps}.
+ *
+ * <p>
+ * The streams returned by {@link #ints()}, {@link #longs()},
+ * {@link #doubles()} and their variants split, when used in parallel, by
+ * {@link #split}.
+ *
+ * <p>
+ * Instances of {@code Xoshiro256PlusPlus} are <em>not</em> thread-safe, and
+ * are not cryptographically secure. Additionally, default-constructed
+ * instances do not use a cryptographically random seed unless the
+ * {@linkplain System#getProperty system property}
+ * {@code java.util.secureRandomSeed} is set to {@code true}.
+ *
+ * @see L64X128MixRandom
+ */
+public final class Xoshiro256PlusPlus extends AbstractSplittableGenerator {
+
+	/** Polynomial for advancing the state by 2<sup>128</sup> steps */
+	private static final long[] JUMP = { 0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL };
+
+	/** Polynomial for advancing the state by 2<sup>192</sup> steps */
+	private static final long[] LEAP = { 0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L, 0x77710069854ee241L, 0x39109bb02acbe635L };
+
+	/** The state, never all zero */
+	private long x0, x1, x2, x3;
+
+	private Xoshiro256PlusPlus(long x0, long x1, long x2, long x3) {
+		if ((x0 | x1 | x2 | x3) == 0L) {
+			x0 = GOLDEN_GAMMA; // the all-zero state is a fixed point
+		}
+		this.x0 = x0;
+		this.x1 = x1;
+		this.x2 = x2;
+		this.x3 = x3;
+	}
+
+	/**
+	 * Creates a new instance using the specified initial seed, which is
+	 * expanded to the full state as by SplittableRandom. Instances created
+	 * with the same seed in the same program generate identical sequences of
+	 * values.
+	 *
+	 * @param seed
+	 *            the initial seed
+	 */
+	public Xoshiro256PlusPlus(long seed) {
+		this(mix64(seed += GOLDEN_GAMMA), mix64(seed += GOLDEN_GAMMA), mix64(seed += GOLDEN_GAMMA), mix64(seed + GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates a new instance that is likely to generate sequences of values
+	 * that are statistically independent of those of any other instances in
+	 * the current program; and may, and typically does, vary across program
+	 * invocations.
+	 */
+	public Xoshiro256PlusPlus() {
+		this(defaultSeed());
+	}
+
+	/**
+	 * Returns a pseudorandom {@code long} value.
+	 *
+	 * @return a pseudorandom {@code long} value
+	 */
+	public long nextLong() {
+		long s0 = x0, s1 = x1, s2 = x2, s3 = x3;
+		long result = Long.rotateLeft(s0 + s3, 23) + s0;
+		long t = s1 << 17;
+		s2 ^= s0;
+		s3 ^= s1;
+		x1 = s1 ^ s2;
+		x0 = s0 ^ s3;
+		x2 = s2 ^ t;
+		x3 = Long.rotateLeft(s3, 45);
+		return result;
+	}
+
+	/**
+	 * Returns a new generator with the same state as this one, which will
+	 * generate the same values as this one from now on.
+	 *
+	 * @return the copy
+	 */
+	public Xoshiro256PlusPlus copy() {
+		return new Xoshiro256PlusPlus(x0, x1, x2, x3);
+	}
+
+	/**
+	 * Constructs and returns a new generator that shares no mutable state with
+	 * this one, seeded from values of this one. With very high probability,
+	 * the set of values collectively generated by the two objects has the
+	 * same statistical properties as if the same quantity of values were
+	 * generated by a single generator. For substreams that are guaranteed not
+	 * to overlap, use {@link #jumps(long)} instead.
+	 *
+	 * @return the new generator
+	 */
+	public Xoshiro256PlusPlus split() {
+		return new Xoshiro256PlusPlus(mix64(nextLong()), mix64(nextLong()), mix64(nextLong()), mix64(nextLong()));
+	}
+
+	/**
+	 * Advances the state of this generator as if by 2<sup>128</sup> calls to
+	 * {@link #nextLong()}.
+	 */
+	public void jump() {
+		advance(JUMP);
+	}
+
+	/**
+	 * Advances the state of this generator as if by 2<sup>192</sup> calls to
+	 * {@link #nextLong()}.
+	 */
+	public void leap() {
+		advance(LEAP);
+	}
+
+	/**
+	 * Multiplies the state by the given jump polynomial, which takes 256 steps
+	 * of the underlying linear engine.
+	 */
+	private void advance(long[] poly) {
+		long s0 = 0L, s1 = 0L, s2 = 0L, s3 = 0L;
+		for (long p : poly) {
+			for (int b = 0; b < 64; ++b) {
+				if ((p & (1L << b)) != 0L) {
+					s0 ^= x0;
+					s1 ^= x1;
+					s2 ^= x2;
+					s3 ^= x3;
+				}
+				nextLong();
+			}
+		}
+		x0 = s0;
+		x1 = s1;
+		x2 = s2;
+		x3 = s3;
+	}
+
+	/**
+	 * Returns a copy of this generator, and then advances this one by
+	 * {@link #jump}. Successive calls return generators whose next
+	 * 2<sup>128</sup> values are pairwise disjoint.
+	 *
+	 * @return the copy
+	 */
+	public Xoshiro256PlusPlus copyAndJump() {
+		Xoshiro256PlusPlus c = copy();
+		advance(JUMP);
+		return c;
+	}
+
+	/**
+	 * Returns a copy of this generator, and then advances this one by
+	 * {@link #leap}. Successive calls return generators whose next
+	 * 2<sup>192</sup> values are pairwise disjoint.
+	 *
+	 * @return the copy
+	 */
+	public Xoshiro256PlusPlus copyAndLeap() {
+		Xoshiro256PlusPlus c = copy();
+		advance(LEAP);
+		return c;
+	}
+
+	/**
+	 * Returns a stream producing the given number of generators, obtained by
+	 * successive calls of {@link #copyAndJump}. The elements are generated in
+	 * order, by whichever thread traverses or splits the stream, so the stream
+	 * may be used in parallel; this generator is advanced by
+	 * {@code streamSize} jumps once the stream has been fully traversed.
+	 *
+	 * @param streamSize
+	 *            the number of generators
+	 * @return a stream of generators whose next 2<sup>128</sup> values are
+	 *         pairwise disjoint
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 */
+	public Stream<Xoshiro256PlusPlus> jumps(long streamSize) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		return StreamSupport.stream(new JumpsSpliterator(this, streamSize, JUMP), false);
+	}
+
+	/**
+	 * Returns a stream producing the given number of generators, obtained by
+	 * successive calls of {@link #copyAndLeap}, as for {@link #jumps(long)}.
+	 *
+	 * @param streamSize
+	 *            the number of generators
+	 * @return a stream of generators whose next 2<sup>192</sup> values are
+	 *         pairwise disjoint
+	 * @throws IllegalArgumentException
+	 *             if {@code streamSize} is less than zero
+	 */
+	public Stream<Xoshiro256PlusPlus> leaps(long streamSize) {
+		if (streamSize < 0L) {
+			throw new IllegalArgumentException(BadSize);
+		}
+		return StreamSupport.stream(new JumpsSpliterator(this, streamSize, LEAP), false);
+	}
+
+	/**
+	 * Spliterator for jumps and leaps. Splitting takes a batch of copies in
+	 * order, as for other sequential sources, so that the source generator is
+	 * only ever advanced by one thread at a time.
+	 */
+	static final class JumpsSpliterator extends Spliterators.AbstractSpliterator<Xoshiro256PlusPlus> {
+		final Xoshiro256PlusPlus rng;
+		final long[] poly;
+		long remaining;
+
+		JumpsSpliterator(Xoshiro256PlusPlus rng, long size, long[] poly) {
+			super(size, Spliterator.SIZED | Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+			this.rng = rng;
+			this.poly = poly;
+			this.remaining = size;
+		}
+
+		public long estimateSize() {
+			return remaining;
+		}
+
+		public boolean tryAdvance(java.util.function.Consumer<? super Xoshiro256PlusPlus> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (remaining <= 0L) {
+				return false;
+			}
+			--remaining;
+			Xoshiro256PlusPlus c = rng.copy();
+			rng.advance(poly);
+			action.accept(c);
+			return true;
+		}
+	}
+}
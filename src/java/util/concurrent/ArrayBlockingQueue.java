@@ -1,6 +1,7 @@
 package java.util.concurrent;
 
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockProfiler;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.AbstractQueue;
 import java.util.Collection;
@@ -110,7 +111,7 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQ
 			throw new IllegalArgumentException();
 		}
 		this.items = new Object[capacity];
-		lock = new ReentrantLock(fair);
+		lock = LockProfiler.newReentrantLock(fair, this, "lock");
 		notEmpty = lock.newCondition();
 		notFull = lock.newCondition();
 	}
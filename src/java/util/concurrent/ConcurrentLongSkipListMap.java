@@ -0,0 +1,1916 @@
+package java.util.concurrent;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A scalable concurrent map with primitive {@code long} keys, kept in
+ * ascending numerical order. This class uses the same lock-free skip list
+ * algorithm as {@link ConcurrentSkipListMap} (base-level nodes, index levels
+ * and marker-node deletion), but stores keys unboxed and compares them
+ * directly, so that lookups and navigation neither allocate nor go through
+ * {@link Comparable} dispatch.
+ *
+ * <p>
+ * Besides the {@link ConcurrentMap} methods on boxed keys, this class provides
+ * primitive variants of the retrieval, update and navigation operations, and
+ * range scans through {@link #forEachInRange}, {@link #keySpliterator(long, long)}
+ * and {@link #keyStream}. Entries returned by navigation methods are
+ * {@link LongEntry} snapshots that do not support {@code setValue}.
+ *
+ * <p>
+ * As with {@code ConcurrentSkipListMap}, iterators and spliterators are weakly
+ * consistent, the {@code size} method is not a constant-time operation, and
+ * this map does not permit {@code null} values.
+ *
+ * @param <V>
+ *            the type of mapped values
+ */
+public class ConcurrentLongSkipListMap<V> extends AbstractMap<Long, V> implements ConcurrentMap<Long, V>, Cloneable, Serializable {
+	private static final long serialVersionUID = 3405289716342850527L;
+	private static final Object BASE_HEADER = new Object();
+	private transient volatile HeadIndex<V> head;
+	private transient EntrySet<V> entrySet;
+
+	private void initialize() {
+		entrySet = null;
+		head = new HeadIndex<>(new Node<V>(0L, BASE_HEADER, null), null, null, 1);
+	}
+
+	private boolean casHead(HeadIndex<V> cmp, HeadIndex<V> val) {
+		return UNSAFE.compareAndSwapObject(this, headOffset, cmp, val);
+	}
+
+	/* ---------------- Nodes -------------- */
+	/**
+	 * Nodes hold keys and values, and are singly linked in sorted order,
+	 * possibly with some intervening marker nodes. As in ConcurrentSkipListMap,
+	 * a marker is recognized by its value field pointing to itself; its key is
+	 * never examined.
+	 */
+	static final class Node<V> {
+		final long key;
+		volatile Object value;
+		volatile Node<V> next;
+
+		Node(long key, Object value, Node<V> next) {
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+
+		/**
+		 * Creates a new marker node.
+		 */
+		Node(Node<V> next) {
+			this.key = 0L;
+			this.value = this;
+			this.next = next;
+		}
+
+		boolean casValue(Object cmp, Object val) {
+			return UNSAFE.compareAndSwapObject(this, valueOffset, cmp, val);
+		}
+
+		boolean casNext(Node<V> cmp, Node<V> val) {
+			return UNSAFE.compareAndSwapObject(this, nextOffset, cmp, val);
+		}
+
+		boolean isBaseHeader() {
+			return value == BASE_HEADER;
+		}
+
+		boolean appendMarker(Node<V> f) {
+			return casNext(f, new Node<>(f));
+		}
+
+		/**
+		 * Helps out a deletion by appending marker or unlinking from
+		 * predecessor.
+		 *
+		 * @param b
+		 *            predecessor
+		 * @param f
+		 *            successor
+		 */
+		void helpDelete(Node<V> b, Node<V> f) {
+			if ((f == next) && (this == b.next)) {
+				if ((f == null) || (f.value != f)) {
+					casNext(f, new Node<>(f));
+				} else {
+					b.casNext(this, f.next);
+				}
+			}
+		}
+
+		/**
+		 * Returns value if this node contains a valid key-value pair, else
+		 * null.
+		 */
+		V getValidValue() {
+			Object v = value;
+			if ((v == this) || (v == BASE_HEADER)) {
+				return null;
+			}
+			@SuppressWarnings("unchecked")
+			V vv = (V) v;
+			return vv;
+		}
+
+		/**
+		 * Creates and returns a new LongEntry holding current mapping if this
+		 * node holds a valid value, else null.
+		 */
+		LongEntry<V> createSnapshot() {
+			Object v = value;
+			if ((v == null) || (v == this) || (v == BASE_HEADER)) {
+				return null;
+			}
+			@SuppressWarnings("unchecked")
+			V vv = (V) v;
+			return new LongEntry<>(key, vv);
+		}
+
+		// UNSAFE mechanics
+		private static final sun.misc.Unsafe UNSAFE;
+		private static final long valueOffset;
+		private static final long nextOffset;
+		static {
+			try {
+				UNSAFE = sun.misc.Unsafe.getUnsafe();
+				Class<?> k = Node.class;
+				valueOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("value"));
+				nextOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("next"));
+			} catch (Exception e) {
+				throw new Error(e);
+			}
+		}
+	}
+
+	/* ---------------- Indexing -------------- */
+	static class Index<V> {
+		final Node<V> node;
+		final Index<V> down;
+		volatile Index<V> right;
+
+		Index(Node<V> node, Index<V> down, Index<V> right) {
+			this.node = node;
+			this.down = down;
+			this.right = right;
+		}
+
+		final boolean casRight(Index<V> cmp, Index<V> val) {
+			return UNSAFE.compareAndSwapObject(this, rightOffset, cmp, val);
+		}
+
+		final boolean indexesDeletedNode() {
+			return node.value == null;
+		}
+
+		/**
+		 * Tries to CAS newSucc as successor, unless the indexed node is known
+		 * to be deleted.
+		 */
+		final boolean link(Index<V> succ, Index<V> newSucc) {
+			Node<V> n = node;
+			newSucc.right = succ;
+			return (n.value != null) && casRight(succ, newSucc);
+		}
+
+		/**
+		 * Tries to CAS right field to skip over apparent successor succ, unless
+		 * this node is known to be deleted.
+		 */
+		final boolean unlink(Index<V> succ) {
+			return (node.value != null) && casRight(succ, succ.right);
+		}
+
+		// Unsafe mechanics
+		private static final sun.misc.Unsafe UNSAFE;
+		private static final long rightOffset;
+		static {
+			try {
+				UNSAFE = sun.misc.Unsafe.getUnsafe();
+				Class<?> k = Index.class;
+				rightOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("right"));
+			} catch (Exception e) {
+				throw new Error(e);
+			}
+		}
+	}
+
+	static final class HeadIndex<V> extends Index<V> {
+		final int level;
+
+		HeadIndex(Node<V> node, Index<V> down, Index<V> right, int level) {
+			super(node, down, right);
+			this.level = level;
+		}
+	}
+
+	/* ---------------- Traversal -------------- */
+	/**
+	 * Returns a base-level node with key strictly less than given key, or the
+	 * base-level header if there is no such node, unlinking indexes to deleted
+	 * nodes found along the way.
+	 */
+	private Node<V> findPredecessor(long key) {
+		for (;;) {
+			for (Index<V> q = head, r = q.right, d;;) {
+				if (r != null) {
+					Node<V> n = r.node;
+					long k = n.key;
+					if (n.value == null) {
+						if (!q.unlink(r)) {
+							break; // restart
+						}
+						r = q.right; // reread r
+						continue;
+					}
+					if (key > k) {
+						q = r;
+						r = r.right;
+						continue;
+					}
+				}
+				if ((d = q.down) == null) {
+					return q.node;
+				}
+				q = d;
+				r = d.right;
+			}
+		}
+	}
+
+	/**
+	 * Returns node holding key or null if no such, clearing out any deleted
+	 * nodes seen along the way.
+	 */
+	private Node<V> findNode(long key) {
+		outer: for (;;) {
+			for (Node<V> b = findPredecessor(key), n = b.next;;) {
+				Object v;
+				if (n == null) {
+					break outer;
+				}
+				Node<V> f = n.next;
+				if (n != b.next) {
+					break;
+				}
+				if ((v = n.value) == null) { // n is deleted
+					n.helpDelete(b, f);
+					break;
+				}
+				if ((b.value == null) || (v == n)) {
+					break;
+				}
+				long k = n.key;
+				if (key == k) {
+					return n;
+				}
+				if (key < k) {
+					break outer;
+				}
+				b = n;
+				n = f;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets value for key, or null if absent.
+	 */
+	private V doGet(long key) {
+		outer: for (;;) {
+			for (Node<V> b = findPredecessor(key), n = b.next;;) {
+				Object v;
+				if (n == null) {
+					break outer;
+				}
+				Node<V> f = n.next;
+				if (n != b.next) {
+					break;
+				}
+				if ((v = n.value) == null) { // n is deleted
+					n.helpDelete(b, f);
+					break;
+				}
+				if ((b.value == null) || (v == n)) {
+					break;
+				}
+				long k = n.key;
+				if (key == k) {
+					@SuppressWarnings("unchecked")
+					V vv = (V) v;
+					return vv;
+				}
+				if (key < k) {
+					break outer;
+				}
+				b = n;
+				n = f;
+			}
+		}
+		return null;
+	}
+
+	/* ---------------- Insertion -------------- */
+	/**
+	 * Main insertion method. Adds element if not present, or replaces value if
+	 * present and onlyIfAbsent is false.
+	 *
+	 * @return the old value, or null if newly inserted
+	 */
+	private V doPut(long key, V value, boolean onlyIfAbsent) {
+		Node<V> z; // added node
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		outer: for (;;) {
+			for (Node<V> b = findPredecessor(key), n = b.next;;) {
+				if (n != null) {
+					Object v;
+					Node<V> f = n.next;
+					if (n != b.next) {
+						break;
+					}
+					if ((v = n.value) == null) { // n is deleted
+						n.helpDelete(b, f);
+						break;
+					}
+					if ((b.value == null) || (v == n)) {
+						break;
+					}
+					long k = n.key;
+					if (key > k) {
+						b = n;
+						n = f;
+						continue;
+					}
+					if (key == k) {
+						if (onlyIfAbsent || n.casValue(v, value)) {
+							@SuppressWarnings("unchecked")
+							V vv = (V) v;
+							return vv;
+						}
+						break; // restart if lost race to replace value
+					}
+					// else key < k; fall through
+				}
+				z = new Node<>(key, value, n);
+				if (!b.casNext(n, z)) {
+					break; // restart if lost race to append to b
+				}
+				break outer;
+			}
+		}
+		int rnd = ThreadLocalRandom.nextSecondarySeed();
+		if ((rnd & 0x80000001) == 0) { // test highest and lowest bits
+			int level = 1, max;
+			while (((rnd >>>= 1) & 1) != 0) {
+				++level;
+			}
+			Index<V> idx = null;
+			HeadIndex<V> h = head;
+			if (level <= (max = h.level)) {
+				for (int i = 1; i <= level; ++i) {
+					idx = new Index<>(z, idx, null);
+				}
+			} else { // try to grow by one level
+				level = max + 1;
+				@SuppressWarnings("unchecked")
+				Index<V>[] idxs = (Index<V>[]) new Index<?>[level + 1];
+				for (int i = 1; i <= level; ++i) {
+					idxs[i] = idx = new Index<>(z, idx, null);
+				}
+				for (;;) {
+					h = head;
+					int oldLevel = h.level;
+					if (level <= oldLevel) {
+						break;
+					}
+					HeadIndex<V> newh = h;
+					Node<V> oldbase = h.node;
+					for (int j = oldLevel + 1; j <= level; ++j) {
+						newh = new HeadIndex<>(oldbase, newh, idxs[j], j);
+					}
+					if (casHead(h, newh)) {
+						h = newh;
+						idx = idxs[level = oldLevel];
+						break;
+					}
+				}
+			}
+			// find insertion points and splice in
+			splice: for (int insertionLevel = level;;) {
+				int j = h.level;
+				for (Index<V> q = h, r = q.right, t = idx;;) {
+					if ((q == null) || (t == null)) {
+						break splice;
+					}
+					if (r != null) {
+						Node<V> n = r.node;
+						// compare before deletion check avoids needing recheck
+						boolean after = key > n.key;
+						if (n.value == null) {
+							if (!q.unlink(r)) {
+								break;
+							}
+							r = q.right;
+							continue;
+						}
+						if (after) {
+							q = r;
+							r = r.right;
+							continue;
+						}
+					}
+					if (j == insertionLevel) {
+						if (!q.link(r, t)) {
+							break; // restart
+						}
+						if (t.node.value == null) {
+							findNode(key);
+							break splice;
+						}
+						if (--insertionLevel == 0) {
+							break splice;
+						}
+					}
+					if ((--j >= insertionLevel) && (j < level)) {
+						t = t.down;
+					}
+					q = q.down;
+					r = q.right;
+				}
+			}
+		}
+		return null;
+	}
+
+	/* ---------------- Deletion -------------- */
+	/**
+	 * Main deletion method. Locates node, nulls value, appends a deletion
+	 * marker, unlinks predecessor, removes associated index nodes, and possibly
+	 * reduces head index level.
+	 *
+	 * @param value
+	 *            if non-null, the value that must be associated with key
+	 * @return the old value, or null if not found
+	 */
+	final V doRemove(long key, Object value) {
+		outer: for (;;) {
+			for (Node<V> b = findPredecessor(key), n = b.next;;) {
+				Object v;
+				if (n == null) {
+					break outer;
+				}
+				Node<V> f = n.next;
+				if (n != b.next) {
+					break;
+				}
+				if ((v = n.value) == null) { // n is deleted
+					n.helpDelete(b, f);
+					break;
+				}
+				if ((b.value == null) || (v == n)) {
+					break;
+				}
+				long k = n.key;
+				if (key < k) {
+					break outer;
+				}
+				if (key > k) {
+					b = n;
+					n = f;
+					continue;
+				}
+				if ((value != null) && !value.equals(v)) {
+					break outer;
+				}
+				if (!n.casValue(v, null)) {
+					break;
+				}
+				if (!n.appendMarker(f) || !b.casNext(n, f)) {
+					findNode(key); // retry via findNode
+				} else {
+					findPredecessor(key); // clean index
+					if (head.right == null) {
+						tryReduceLevel();
+					}
+				}
+				@SuppressWarnings("unchecked")
+				V vv = (V) v;
+				return vv;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Possibly reduce head level if it has no nodes, as in
+	 * ConcurrentSkipListMap.
+	 */
+	private void tryReduceLevel() {
+		HeadIndex<V> h = head;
+		HeadIndex<V> d;
+		HeadIndex<V> e;
+		if ((h.level > 3) && ((d = (HeadIndex<V>) h.down) != null) && ((e = (HeadIndex<V>) d.down) != null) && (e.right == null) && (d.right == null) && (h.right == null) && casHead(h, d) && (h.right != null)) {
+			casHead(d, h); // try to backout
+		}
+	}
+
+	/* ---------------- Finding and removing first element -------------- */
+	/**
+	 * Specialized variant of findNode to get first valid node.
+	 *
+	 * @return first node or null if empty
+	 */
+	final Node<V> findFirst() {
+		for (Node<V> b, n;;) {
+			if ((n = (b = head.node).next) == null) {
+				return null;
+			}
+			if (n.value != null) {
+				return n;
+			}
+			n.helpDelete(b, n.next);
+		}
+	}
+
+	/**
+	 * Removes first entry; returns its snapshot.
+	 *
+	 * @return null if empty, else snapshot of first entry
+	 */
+	private LongEntry<V> doRemoveFirstEntry() {
+		for (Node<V> b, n;;) {
+			if ((n = (b = head.node).next) == null) {
+				return null;
+			}
+			Node<V> f = n.next;
+			if (n != b.next) {
+				continue;
+			}
+			Object v = n.value;
+			if (v == null) {
+				n.helpDelete(b, f);
+				continue;
+			}
+			if (!n.casValue(v, null)) {
+				continue;
+			}
+			if (!n.appendMarker(f) || !b.casNext(n, f)) {
+				findFirst(); // retry
+			}
+			clearIndexToFirst();
+			@SuppressWarnings("unchecked")
+			V vv = (V) v;
+			return new LongEntry<>(n.key, vv);
+		}
+	}
+
+	/**
+	 * Clears out index nodes associated with deleted first entry.
+	 */
+	private void clearIndexToFirst() {
+		for (;;) {
+			for (Index<V> q = head;;) {
+				Index<V> r = q.right;
+				if ((r != null) && r.indexesDeletedNode() && !q.unlink(r)) {
+					break;
+				}
+				if ((q = q.down) == null) {
+					if (head.right == null) {
+						tryReduceLevel();
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes last entry; returns its snapshot.
+	 *
+	 * @return null if empty, else snapshot of last entry
+	 */
+	private LongEntry<V> doRemoveLastEntry() {
+		for (;;) {
+			Node<V> b = findPredecessorOfLast();
+			Node<V> n = b.next;
+			if (n == null) {
+				if (b.isBaseHeader()) {
+					return null;
+				} else {
+					continue; // all b's successors are deleted; retry
+				}
+			}
+			for (;;) {
+				Node<V> f = n.next;
+				if (n != b.next) {
+					break;
+				}
+				Object v = n.value;
+				if (v == null) { // n is deleted
+					n.helpDelete(b, f);
+					break;
+				}
+				if ((b.value == null) || (v == n)) {
+					break;
+				}
+				if (f != null) {
+					b = n;
+					n = f;
+					continue;
+				}
+				if (!n.casValue(v, null)) {
+					break;
+				}
+				long key = n.key;
+				if (!n.appendMarker(f) || !b.casNext(n, f)) {
+					findNode(key); // retry via findNode
+				} else { // clean index
+					findPredecessor(key);
+					if (head.right == null) {
+						tryReduceLevel();
+					}
+				}
+				@SuppressWarnings("unchecked")
+				V vv = (V) v;
+				return new LongEntry<>(key, vv);
+			}
+		}
+	}
+
+	/* ---------------- Finding and removing last element -------------- */
+	/**
+	 * Specialized version of find to get last valid node.
+	 *
+	 * @return last node or null if empty
+	 */
+	final Node<V> findLast() {
+		Index<V> q = head;
+		for (;;) {
+			Index<V> d, r;
+			if ((r = q.right) != null) {
+				if (r.indexesDeletedNode()) {
+					q.unlink(r);
+					q = head; // restart
+				} else {
+					q = r;
+				}
+			} else if ((d = q.down) != null) {
+				q = d;
+			} else {
+				for (Node<V> b = q.node, n = b.next;;) {
+					if (n == null) {
+						return b.isBaseHeader() ? null : b;
+					}
+					Node<V> f = n.next; // inconsistent read
+					if (n != b.next) {
+						break;
+					}
+					Object v = n.value;
+					if (v == null) { // n is deleted
+						n.helpDelete(b, f);
+						break;
+					}
+					if ((b.value == null) || (v == n)) {
+						break;
+					}
+					b = n;
+					n = f;
+				}
+				q = head; // restart
+			}
+		}
+	}
+
+	/**
+	 * Specialized variant of findPredecessor to get predecessor of last valid
+	 * node.
+	 *
+	 * @return likely predecessor of last node
+	 */
+	private Node<V> findPredecessorOfLast() {
+		for (;;) {
+			for (Index<V> q = head;;) {
+				Index<V> d, r;
+				if ((r = q.right) != null) {
+					if (r.indexesDeletedNode()) {
+						q.unlink(r);
+						break; // must restart
+					}
+					// proceed as far across as possible without overshooting
+					if (r.node.next != null) {
+						q = r;
+						continue;
+					}
+				}
+				if ((d = q.down) != null) {
+					q = d;
+				} else {
+					return q.node;
+				}
+			}
+		}
+	}
+
+	/* ---------------- Relational operations -------------- */
+	// Control values OR'ed as arguments to findNear
+	private static final int EQ = 1;
+	private static final int LT = 2;
+	private static final int GT = 0; // Actually checked as !LT
+
+	/**
+	 * Utility for ceiling, floor, lower, higher methods.
+	 *
+	 * @param key
+	 *            the key
+	 * @param rel
+	 *            the relation -- OR'ed combination of EQ, LT, GT
+	 * @return nearest node fitting relation, or null if no such
+	 */
+	final Node<V> findNear(long key, int rel) {
+		for (;;) {
+			for (Node<V> b = findPredecessor(key), n = b.next;;) {
+				Object v;
+				if (n == null) {
+					return (((rel & LT) == 0) || b.isBaseHeader()) ? null : b;
+				}
+				Node<V> f = n.next;
+				if (n != b.next) {
+					break;
+				}
+				if ((v = n.value) == null) { // n is deleted
+					n.helpDelete(b, f);
+					break;
+				}
+				if ((b.value == null) || (v == n)) {
+					break;
+				}
+				long k = n.key;
+				if (((key == k) && ((rel & EQ) != 0)) || ((key < k) && ((rel & LT) == 0))) {
+					return n;
+				}
+				if ((key <= k) && ((rel & LT) != 0)) {
+					return b.isBaseHeader() ? null : b;
+				}
+				b = n;
+				n = f;
+			}
+		}
+	}
+
+	/**
+	 * Returns LongEntry for results of findNear.
+	 */
+	final LongEntry<V> getNear(long key, int rel) {
+		for (;;) {
+			Node<V> n = findNear(key, rel);
+			if (n == null) {
+				return null;
+			}
+			LongEntry<V> e = n.createSnapshot();
+			if (e != null) {
+				return e;
+			}
+		}
+	}
+
+	/* ---------------- Constructors -------------- */
+	/**
+	 * Constructs a new, empty map.
+	 */
+	public ConcurrentLongSkipListMap() {
+		initialize();
+	}
+
+	/**
+	 * Constructs a new map containing the same mappings as the given map.
+	 *
+	 * @param m
+	 *            the map whose mappings are to be placed in this map
+	 * @throws NullPointerException
+	 *             if the specified map or any of its keys or values are null
+	 */
+	public ConcurrentLongSkipListMap(Map<Long, ? extends V> m) {
+		initialize();
+		if (m instanceof ConcurrentLongSkipListMap) {
+			@SuppressWarnings("unchecked")
+			ConcurrentLongSkipListMap<? extends V> sm = (ConcurrentLongSkipListMap<? extends V>) m;
+			buildFrom(sm);
+		} else {
+			putAll(m);
+		}
+	}
+
+	/**
+	 * Returns a shallow copy of this {@code ConcurrentLongSkipListMap}
+	 * instance. (The values themselves are not cloned.)
+	 *
+	 * @return a shallow copy of this map
+	 */
+	public ConcurrentLongSkipListMap<V> clone() {
+		try {
+			@SuppressWarnings("unchecked")
+			ConcurrentLongSkipListMap<V> clone = (ConcurrentLongSkipListMap<V>) super.clone();
+			clone.initialize();
+			clone.buildFrom(this);
+			return clone;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError();
+		}
+	}
+
+	/**
+	 * Streamlined bulk insertion from the mappings of another map, already in
+	 * key order. Call only from constructor or clone method.
+	 */
+	private void buildFrom(ConcurrentLongSkipListMap<? extends V> map) {
+		TowerBuilder<V> builder = new TowerBuilder<>(head);
+		for (ConcurrentLongSkipListMap.Node<? extends V> n = map.findFirst(); n != null; n = n.next) {
+			V v = n.getValidValue();
+			if (v != null) {
+				builder.append(n.key, v);
+			}
+		}
+		head = builder.head;
+	}
+
+	/**
+	 * Accumulates mappings in ascending key order into a fresh base list,
+	 * indexing every fourth node at level one, every eighth at level two, and
+	 * so on.
+	 */
+	static final class TowerBuilder<V> {
+		HeadIndex<V> head;
+		Node<V> last;
+		Index<V>[] preds; // rightmost index at each level
+		long count;
+
+		@SuppressWarnings("unchecked")
+		TowerBuilder(HeadIndex<V> h) {
+			head = h;
+			last = h.node;
+			preds = (Index<V>[]) new Index<?>[64];
+			preds[1] = h;
+		}
+
+		void append(long key, V value) {
+			Node<V> z = new Node<>(key, value, null);
+			last.next = z;
+			last = z;
+			long p = ++count;
+			if ((p & 3L) == 0L) {
+				int level = 1 + Long.numberOfTrailingZeros(p >>> 2);
+				Index<V> idx = null;
+				for (int i = 1; i <= level; ++i) {
+					idx = new Index<>(z, idx, null);
+					if (i > head.level) {
+						head = new HeadIndex<>(head.node, head, idx, i);
+					} else {
+						preds[i].right = idx;
+					}
+					preds[i] = idx;
+				}
+			}
+		}
+	}
+
+	/* ---------------- Serialization -------------- */
+	/**
+	 * Saves this map to a stream (that is, serializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 * @serialData The value (Object) and key (long) for each key-value mapping
+	 *             represented by the map, in ascending key order, followed by
+	 *             {@code null}.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		for (Node<V> n = findFirst(); n != null; n = n.next) {
+			V v = n.getValidValue();
+			if (v != null) {
+				s.writeObject(v);
+				s.writeLong(n.key);
+			}
+		}
+		s.writeObject(null);
+	}
+
+	/**
+	 * Reconstitutes this map from a stream (that is, deserializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws ClassNotFoundException
+	 *             if the class of a serialized object could not be found
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(final java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		initialize();
+		TowerBuilder<V> builder = new TowerBuilder<>(head);
+		boolean first = true;
+		long prev = 0L;
+		for (Object v; (v = s.readObject()) != null;) {
+			long k = s.readLong();
+			if (!first && (k <= prev)) {
+				throw new java.io.InvalidObjectException("keys out of order");
+			}
+			builder.append(k, (V) v);
+			first = false;
+			prev = k;
+		}
+		head = builder.head;
+	}
+
+	/*
+	 * ------ Primitive Map API methods ------
+	 *
+	 * Methods taking a value argument carry a distinct name: overloading
+	 * put(Long, V) with put(long, V) would make calls such as put(k, 5) on a
+	 * map of Integer ambiguous.
+	 */
+	/**
+	 * Returns {@code true} if this map contains a mapping for the specified
+	 * key.
+	 *
+	 * @param key
+	 *            key whose presence in this map is to be tested
+	 * @return {@code true} if this map contains a mapping for the specified key
+	 */
+	public boolean containsKey(long key) {
+		return doGet(key) != null;
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or {@code null}
+	 * if this map contains no mapping for the key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or {@code null} if absent
+	 */
+	public V get(long key) {
+		return doGet(key);
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the given
+	 * defaultValue if this map contains no mapping for the key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value to return if this map contains no mapping for the
+	 *            given key
+	 * @return the mapping for the key, if present; else the defaultValue
+	 */
+	public V getLongOrDefault(long key, V defaultValue) {
+		V v;
+		return ((v = doGet(key)) == null) ? defaultValue : v;
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map. If
+	 * the map previously contained a mapping for the key, the old value is
+	 * replaced.
+	 *
+	 * @param key
+	 *            key with which the specified value is to be associated
+	 * @param value
+	 *            value to be associated with the specified key
+	 * @return the previous value associated with the specified key, or
+	 *         {@code null} if there was no mapping for the key
+	 * @throws NullPointerException
+	 *             if the specified value is null
+	 */
+	public V putLong(long key, V value) {
+		return doPut(key, value, false);
+	}
+
+	/**
+	 * If the specified key is not already associated with a value, associates
+	 * it with the given value.
+	 *
+	 * @param key
+	 *            key with which the specified value is to be associated
+	 * @param value
+	 *            value to be associated with the specified key
+	 * @return the previous value associated with the specified key, or
+	 *         {@code null} if there was no mapping for the key
+	 * @throws NullPointerException
+	 *             if the specified value is null
+	 */
+	public V putLongIfAbsent(long key, V value) {
+		return doPut(key, value, true);
+	}
+
+	/**
+	 * If the specified key is not already associated with a value, attempts to
+	 * compute its value using the given mapping function and enters it into
+	 * this map unless {@code null}. The function is <em>NOT</em> guaranteed to
+	 * be applied once atomically only if the value is not present.
+	 *
+	 * @param key
+	 *            key with which the specified value is to be associated
+	 * @param mappingFunction
+	 *            the function to compute a value
+	 * @return the current (existing or computed) value associated with the
+	 *         specified key, or null if the computed value is null
+	 * @throws NullPointerException
+	 *             if the mappingFunction is null
+	 */
+	public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+		if (mappingFunction == null) {
+			throw new NullPointerException();
+		}
+		V v, p, r;
+		if (((v = doGet(key)) == null) && ((r = mappingFunction.apply(key)) != null)) {
+			v = ((p = doPut(key, r, true)) == null) ? r : p;
+		}
+		return v;
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key
+	 *            key for which mapping should be removed
+	 * @return the previous value associated with the specified key, or
+	 *         {@code null} if there was no mapping for the key
+	 */
+	public V remove(long key) {
+		return doRemove(key, null);
+	}
+
+	/**
+	 * Removes the entry for a key only if currently mapped to a given value.
+	 *
+	 * @param key
+	 *            key with which the specified value is associated
+	 * @param value
+	 *            value expected to be associated with the specified key
+	 * @return {@code true} if the value was removed
+	 */
+	public boolean remove(long key, Object value) {
+		return (value != null) && (doRemove(key, value) != null);
+	}
+
+	/**
+	 * Replaces the entry for a key only if currently mapped to a given value.
+	 *
+	 * @param key
+	 *            key with which the specified value is associated
+	 * @param oldValue
+	 *            value expected to be associated with the specified key
+	 * @param newValue
+	 *            value to be associated with the specified key
+	 * @return {@code true} if the value was replaced
+	 * @throws NullPointerException
+	 *             if any of the arguments are null
+	 */
+	public boolean replaceLong(long key, V oldValue, V newValue) {
+		if ((oldValue == null) || (newValue == null)) {
+			throw new NullPointerException();
+		}
+		for (;;) {
+			Node<V> n;
+			Object v;
+			if ((n = findNode(key)) == null) {
+				return false;
+			}
+			if ((v = n.value) != null) {
+				if (!oldValue.equals(v)) {
+					return false;
+				}
+				if (n.casValue(v, newValue)) {
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces the entry for a key only if currently mapped to some value.
+	 *
+	 * @param key
+	 *            key with which the specified value is associated
+	 * @param value
+	 *            value to be associated with the specified key
+	 * @return the previous value associated with the specified key, or
+	 *         {@code null} if there was no mapping for the key
+	 * @throws NullPointerException
+	 *             if the specified value is null
+	 */
+	public V replaceLong(long key, V value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		for (;;) {
+			Node<V> n;
+			Object v;
+			if ((n = findNode(key)) == null) {
+				return null;
+			}
+			if (((v = n.value) != null) && n.casValue(v, value)) {
+				@SuppressWarnings("unchecked")
+				V vv = (V) v;
+				return vv;
+			}
+		}
+	}
+
+	/* ------ Map API methods ------ */
+	/**
+	 * Returns the key of the given boxed key, throwing the exceptions
+	 * specified by the Map interface for unsuitable keys.
+	 */
+	private static long longKey(Object key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		return ((Long) key).longValue();
+	}
+
+	/**
+	 * @throws ClassCastException
+	 *             if the specified key is not a {@code Long}
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public boolean containsKey(Object key) {
+		return doGet(longKey(key)) != null;
+	}
+
+	/**
+	 * @throws ClassCastException
+	 *             if the specified key is not a {@code Long}
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public V get(Object key) {
+		return doGet(longKey(key));
+	}
+
+	/**
+	 * @throws ClassCastException
+	 *             if the specified key is not a {@code Long}
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public V getOrDefault(Object key, V defaultValue) {
+		V v;
+		return ((v = doGet(longKey(key))) == null) ? defaultValue : v;
+	}
+
+	/**
+	 * @throws NullPointerException
+	 *             if the specified key or value is null
+	 */
+	public V put(Long key, V value) {
+		return doPut(longKey(key), value, false);
+	}
+
+	/**
+	 * @throws NullPointerException
+	 *             if the specified key or value is null
+	 */
+	public V putIfAbsent(Long key, V value) {
+		return doPut(longKey(key), value, true);
+	}
+
+	/**
+	 * @throws ClassCastException
+	 *             if the specified key is not a {@code Long}
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public V remove(Object key) {
+		return doRemove(longKey(key), null);
+	}
+
+	/**
+	 * @throws ClassCastException
+	 *             if the specified key is not a {@code Long}
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public boolean remove(Object key, Object value) {
+		long k = longKey(key);
+		return (value != null) && (doRemove(k, value) != null);
+	}
+
+	/**
+	 * @throws NullPointerException
+	 *             if any of the arguments are null
+	 */
+	public boolean replace(Long key, V oldValue, V newValue) {
+		return replaceLong(longKey(key), oldValue, newValue);
+	}
+
+	/**
+	 * @throws NullPointerException
+	 *             if the specified key or value is null
+	 */
+	public V replace(Long key, V value) {
+		return replaceLong(longKey(key), value);
+	}
+
+	/**
+	 * Returns {@code true} if this map maps one or more keys to the specified
+	 * value. This operation requires time linear in the map size.
+	 *
+	 * @param value
+	 *            value whose presence in this map is to be tested
+	 * @return {@code true} if a mapping to {@code value} exists; {@code false}
+	 *         otherwise
+	 * @throws NullPointerException
+	 *             if the specified value is null
+	 */
+	public boolean containsValue(Object value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		for (Node<V> n = findFirst(); n != null; n = n.next) {
+			V v = n.getValidValue();
+			if ((v != null) && value.equals(v)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map. If this map
+	 * contains more than {@code Integer.MAX_VALUE} elements, it returns
+	 * {@code Integer.MAX_VALUE}. As with ConcurrentSkipListMap, this method is
+	 * <em>NOT</em> a constant-time operation.
+	 *
+	 * @return the number of elements in this map
+	 */
+	public int size() {
+		long count = 0;
+		for (Node<V> n = findFirst(); n != null; n = n.next) {
+			if (n.getValidValue() != null) {
+				++count;
+			}
+		}
+		return (count >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) count;
+	}
+
+	/**
+	 * Returns {@code true} if this map contains no key-value mappings.
+	 *
+	 * @return {@code true} if this map contains no key-value mappings
+	 */
+	public boolean isEmpty() {
+		return findFirst() == null;
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 */
+	public void clear() {
+		for (;;) {
+			Node<V> b, n;
+			HeadIndex<V> h = head, d = (HeadIndex<V>) h.down;
+			if (d != null) {
+				casHead(h, d); // remove levels
+			} else if (((b = h.node) != null) && ((n = b.next) != null)) {
+				Node<V> f = n.next; // remove values
+				if (n == b.next) {
+					Object v = n.value;
+					if (v == null) {
+						n.helpDelete(b, f);
+					} else if (n.casValue(v, null) && n.appendMarker(f)) {
+						b.casNext(n, f);
+					}
+				}
+			} else {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@link Set} view of the mappings contained in this map, in
+	 * ascending key order. The view's iterator returns {@link LongEntry}
+	 * snapshots, which do not support {@code setValue}; removal through the
+	 * iterator or the set removes the mapping from this map. The view's
+	 * iterators are weakly consistent.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	public Set<Map.Entry<Long, V>> entrySet() {
+		EntrySet<V> es = entrySet;
+		return (es != null) ? es : (entrySet = new EntrySet<>(this));
+	}
+
+	/* ------ Navigation methods ------ */
+	/**
+	 * Returns the lowest key currently in this map.
+	 *
+	 * @return the lowest key
+	 * @throws NoSuchElementException
+	 *             if this map is empty
+	 */
+	public long firstKey() {
+		Node<V> n = findFirst();
+		if (n == null) {
+			throw new NoSuchElementException();
+		}
+		return n.key;
+	}
+
+	/**
+	 * Returns the highest key currently in this map.
+	 *
+	 * @return the highest key
+	 * @throws NoSuchElementException
+	 *             if this map is empty
+	 */
+	public long lastKey() {
+		Node<V> n = findLast();
+		if (n == null) {
+			throw new NoSuchElementException();
+		}
+		return n.key;
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the least key in this map,
+	 * or {@code null} if the map is empty.
+	 *
+	 * @return an entry with the least key, or {@code null} if this map is empty
+	 */
+	public LongEntry<V> firstEntry() {
+		for (;;) {
+			Node<V> n = findFirst();
+			if (n == null) {
+				return null;
+			}
+			LongEntry<V> e = n.createSnapshot();
+			if (e != null) {
+				return e;
+			}
+		}
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the greatest key in this
+	 * map, or {@code null} if the map is empty.
+	 *
+	 * @return an entry with the greatest key, or {@code null} if this map is
+	 *         empty
+	 */
+	public LongEntry<V> lastEntry() {
+		for (;;) {
+			Node<V> n = findLast();
+			if (n == null) {
+				return null;
+			}
+			LongEntry<V> e = n.createSnapshot();
+			if (e != null) {
+				return e;
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns a key-value mapping associated with the least key in
+	 * this map, or {@code null} if the map is empty.
+	 *
+	 * @return the removed first entry of this map, or {@code null} if this map
+	 *         is empty
+	 */
+	public LongEntry<V> pollFirstEntry() {
+		return doRemoveFirstEntry();
+	}
+
+	/**
+	 * Removes and returns a key-value mapping associated with the greatest key
+	 * in this map, or {@code null} if the map is empty.
+	 *
+	 * @return the removed last entry of this map, or {@code null} if this map
+	 *         is empty
+	 */
+	public LongEntry<V> pollLastEntry() {
+		return doRemoveLastEntry();
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the greatest key strictly
+	 * less than the given key, or {@code null} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return an entry with the greatest key less than {@code key}, or
+	 *         {@code null} if there is no such key
+	 */
+	public LongEntry<V> lowerEntry(long key) {
+		return getNear(key, LT);
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the greatest key less than
+	 * or equal to the given key, or {@code null} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return an entry with the greatest key less than or equal to
+	 *         {@code key}, or {@code null} if there is no such key
+	 */
+	public LongEntry<V> floorEntry(long key) {
+		return getNear(key, LT | EQ);
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the least key greater than
+	 * or equal to the given key, or {@code null} if there is no such entry.
+	 *
+	 * @param key
+	 *            the key
+	 * @return an entry with the least key greater than or equal to
+	 *         {@code key}, or {@code null} if there is no such key
+	 */
+	public LongEntry<V> ceilingEntry(long key) {
+		return getNear(key, GT | EQ);
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the least key strictly
+	 * greater than the given key, or {@code null} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return an entry with the least key greater than {@code key}, or
+	 *         {@code null} if there is no such key
+	 */
+	public LongEntry<V> higherEntry(long key) {
+		return getNear(key, GT);
+	}
+
+	/**
+	 * Returns the greatest key strictly less than the given key, or
+	 * {@code absent} if there is no such key. Unlike {@link #lowerEntry}, this
+	 * method does not allocate.
+	 *
+	 * @param key
+	 *            the key
+	 * @param absent
+	 *            the value to return if there is no such key
+	 * @return the greatest key less than {@code key}, or {@code absent}
+	 */
+	public long lowerKey(long key, long absent) {
+		Node<V> n = findNear(key, LT);
+		return (n == null) ? absent : n.key;
+	}
+
+	/**
+	 * Returns the greatest key less than or equal to the given key, or
+	 * {@code absent} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param absent
+	 *            the value to return if there is no such key
+	 * @return the greatest key less than or equal to {@code key}, or
+	 *         {@code absent}
+	 */
+	public long floorKey(long key, long absent) {
+		Node<V> n = findNear(key, LT | EQ);
+		return (n == null) ? absent : n.key;
+	}
+
+	/**
+	 * Returns the least key greater than or equal to the given key, or
+	 * {@code absent} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param absent
+	 *            the value to return if there is no such key
+	 * @return the least key greater than or equal to {@code key}, or
+	 *         {@code absent}
+	 */
+	public long ceilingKey(long key, long absent) {
+		Node<V> n = findNear(key, GT | EQ);
+		return (n == null) ? absent : n.key;
+	}
+
+	/**
+	 * Returns the least key strictly greater than the given key, or
+	 * {@code absent} if there is no such key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param absent
+	 *            the value to return if there is no such key
+	 * @return the least key greater than {@code key}, or {@code absent}
+	 */
+	public long higherKey(long key, long absent) {
+		Node<V> n = findNear(key, GT);
+		return (n == null) ? absent : n.key;
+	}
+
+	/* ------ Range scans ------ */
+	/**
+	 * Performs the given action for each mapping with a key from
+	 * {@code fromKey} to {@code toKey}, both inclusive, in ascending key order,
+	 * passing the value and then the key. The traversal is weakly consistent
+	 * and does not allocate.
+	 *
+	 * @param fromKey
+	 *            low endpoint (inclusive) of the keys visited
+	 * @param toKey
+	 *            high endpoint (inclusive) of the keys visited
+	 * @param action
+	 *            the action to perform for each mapping
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void forEachInRange(long fromKey, long toKey, ObjLongConsumer<? super V> action) {
+		if (action == null) {
+			throw new NullPointerException();
+		}
+		if (fromKey > toKey) {
+			return;
+		}
+		for (Node<V> n = findNear(fromKey, GT | EQ); (n != null) && (n.key <= toKey); n = n.next) {
+			V v = n.getValidValue();
+			if (v != null) {
+				action.accept(v, n.key);
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@link Spliterator.OfLong} over the keys of this map from
+	 * {@code fromKey} to {@code toKey}, both inclusive, in ascending order. The
+	 * spliterator is weakly consistent and splits along the index levels of
+	 * the map; it reports {@link Spliterator#CONCURRENT},
+	 * {@link Spliterator#NONNULL}, {@link Spliterator#DISTINCT},
+	 * {@link Spliterator#SORTED} and {@link Spliterator#ORDERED}.
+	 *
+	 * @param fromKey
+	 *            low endpoint (inclusive) of the keys
+	 * @param toKey
+	 *            high endpoint (inclusive) of the keys
+	 * @return a spliterator over the keys in the given range
+	 */
+	public Spliterator.OfLong keySpliterator(long fromKey, long toKey) {
+		if (fromKey > toKey) {
+			return new KeySpliterator<>(null, null, toKey, 0);
+		}
+		for (;;) {
+			Index<V> row = head;
+			for (Index<V> r; ((r = row.right) != null) && (r.node.key < fromKey);) {
+				row = r;
+			}
+			Node<V> origin = findNear(fromKey, GT | EQ);
+			if ((origin == null) || (origin.value != null)) {
+				return new KeySpliterator<>(row, origin, toKey, ((origin == null) || (origin.key > toKey)) ? 0 : Integer.MAX_VALUE);
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@link Spliterator.OfLong} over all keys of this map in
+	 * ascending order.
+	 *
+	 * @return a spliterator over the keys of this map
+	 * @see #keySpliterator(long, long)
+	 */
+	public Spliterator.OfLong keySpliterator() {
+		return keySpliterator(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Returns a sequential {@link LongStream} of the keys of this map from
+	 * {@code fromKey} to {@code toKey}, both inclusive, in ascending order.
+	 *
+	 * @param fromKey
+	 *            low endpoint (inclusive) of the keys
+	 * @param toKey
+	 *            high endpoint (inclusive) of the keys
+	 * @return a stream of the keys in the given range
+	 */
+	public LongStream keyStream(long fromKey, long toKey) {
+		return StreamSupport.longStream(keySpliterator(fromKey, toKey), false);
+	}
+
+	/**
+	 * Spliterator over a key range. Splitting follows that of
+	 * ConcurrentSkipListMap's spliterators, with an inclusive fence.
+	 */
+	static final class KeySpliterator<V> implements Spliterator.OfLong {
+		final long fence; // inclusive upper bound for keys
+		Index<V> row; // the level to split out
+		Node<V> current; // current traversal node; initialize at origin
+		int est; // pseudo-size estimate
+
+		KeySpliterator(Index<V> row, Node<V> origin, long fence, int est) {
+			this.row = row;
+			this.current = origin;
+			this.fence = fence;
+			this.est = est;
+		}
+
+		public Spliterator.OfLong trySplit() {
+			Node<V> e;
+			long f = fence;
+			if (((e = current) != null) && (e.value != e)) {
+				long ek = e.key;
+				for (Index<V> q = row; q != null; q = row = q.down) {
+					Index<V> s;
+					Node<V> b, n;
+					long sk;
+					if (((s = q.right) != null) && ((b = s.node) != null) && ((n = b.next) != null) && (n.value != null) && (n.value != n) && ((sk = n.key) > ek) && (sk <= f)) {
+						current = n;
+						Index<V> r = q.down;
+						row = (s.right != null) ? s : s.down;
+						est -= est >>> 2;
+						return new KeySpliterator<>(r, e, sk - 1L, est);
+					}
+				}
+			}
+			return null;
+		}
+
+		public void forEachRemaining(LongConsumer action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			long f = fence;
+			Node<V> e = current;
+			current = null;
+			for (; e != null; e = e.next) {
+				Object v = e.value;
+				if (v == e) { // marker
+					continue;
+				}
+				long k = e.key;
+				if (k > f) {
+					break;
+				}
+				if (v != null) {
+					action.accept(k);
+				}
+			}
+		}
+
+		public boolean tryAdvance(LongConsumer action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			long f = fence;
+			Node<V> e = current;
+			for (; e != null; e = e.next) {
+				Object v = e.value;
+				if (v == e) { // marker
+					continue;
+				}
+				long k = e.key;
+				if (k > f) {
+					e = null;
+					break;
+				}
+				if (v != null) {
+					current = e.next;
+					action.accept(k);
+					return true;
+				}
+			}
+			current = e;
+			return false;
+		}
+
+		public long estimateSize() {
+			return est;
+		}
+
+		public int characteristics() {
+			return Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED | Spliterator.CONCURRENT | Spliterator.NONNULL;
+		}
+
+		public Comparator<? super Long> getComparator() {
+			return null;
+		}
+	}
+
+	/* ---------------- Entries and views -------------- */
+	/**
+	 * An immutable key-value snapshot with a primitive key, as returned by the
+	 * navigation methods and entry set iterators of
+	 * {@link ConcurrentLongSkipListMap}.
+	 *
+	 * @param <V>
+	 *            the type of the value
+	 */
+	public static final class LongEntry<V> implements Map.Entry<Long, V>, Serializable {
+		private static final long serialVersionUID = -4137618218453625164L;
+		private final long key;
+		private final V value;
+
+		/**
+		 * Creates an entry representing a mapping from the specified key to
+		 * the specified value.
+		 *
+		 * @param key
+		 *            the key represented by this entry
+		 * @param value
+		 *            the value represented by this entry
+		 */
+		public LongEntry(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		/**
+		 * Returns the key corresponding to this entry, without boxing.
+		 *
+		 * @return the key corresponding to this entry
+		 */
+		public long getLongKey() {
+			return key;
+		}
+
+		public Long getKey() {
+			return key;
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		/**
+		 * Throws {@code UnsupportedOperationException}, since entries are
+		 * snapshots.
+		 *
+		 * @throws UnsupportedOperationException
+		 *             always
+		 */
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			Object k = e.getKey();
+			return (k instanceof Long) && (((Long) k).longValue() == key) && ((value == null) ? (e.getValue() == null) : value.equals(e.getValue()));
+		}
+
+		public int hashCode() {
+			return Long.hashCode(key) ^ ((value == null) ? 0 : value.hashCode());
+		}
+
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	static final class EntrySet<V> extends AbstractSet<Map.Entry<Long, V>> {
+		final ConcurrentLongSkipListMap<V> m;
+
+		EntrySet(ConcurrentLongSkipListMap<V> map) {
+			m = map;
+		}
+
+		public Iterator<Map.Entry<Long, V>> iterator() {
+			return new EntryIterator<>(m);
+		}
+
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			Object k = e.getKey();
+			if (!(k instanceof Long)) {
+				return false;
+			}
+			V v = m.get(((Long) k).longValue());
+			return (v != null) && v.equals(e.getValue());
+		}
+
+		public boolean remove(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			Object k = e.getKey();
+			return (k instanceof Long) && m.remove(((Long) k).longValue(), e.getValue());
+		}
+
+		public boolean isEmpty() {
+			return m.isEmpty();
+		}
+
+		public int size() {
+			return m.size();
+		}
+
+		public void clear() {
+			m.clear();
+		}
+	}
+
+	/**
+	 * Weakly consistent iterator over the entries of the map.
+	 */
+	static final class EntryIterator<V> implements Iterator<Map.Entry<Long, V>> {
+		final ConcurrentLongSkipListMap<V> m;
+		/** the last node returned by next() */
+		Node<V> lastReturned;
+		/** the next node to return from next(); */
+		Node<V> next;
+		/** Cache of next value field to maintain weak consistency */
+		V nextValue;
+
+		EntryIterator(ConcurrentLongSkipListMap<V> map) {
+			m = map;
+			while ((next = map.findFirst()) != null) {
+				Object x = next.value;
+				if ((x != null) && (x != next)) {
+					@SuppressWarnings("unchecked")
+					V vv = (V) x;
+					nextValue = vv;
+					break;
+				}
+			}
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Map.Entry<Long, V> next() {
+			Node<V> n = next;
+			if (n == null) {
+				throw new NoSuchElementException();
+			}
+			V v = nextValue;
+			lastReturned = n;
+			for (;;) {
+				if ((next = next.next) == null) {
+					break;
+				}
+				Object x = next.value;
+				if ((x != null) && (x != next)) {
+					@SuppressWarnings("unchecked")
+					V vv = (V) x;
+					nextValue = vv;
+					break;
+				}
+			}
+			return new LongEntry<>(n.key, v);
+		}
+
+		public void remove() {
+			Node<V> l = lastReturned;
+			if (l == null) {
+				throw new IllegalStateException();
+			}
+			m.remove(l.key);
+			lastReturned = null;
+		}
+	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe UNSAFE;
+	private static final long headOffset;
+	static {
+		try {
+			UNSAFE = sun.misc.Unsafe.getUnsafe();
+			Class<?> k = ConcurrentLongSkipListMap.class;
+			headOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("head"));
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -17,6 +18,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.BiConsumer;
@@ -31,12 +33,29 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	private transient EntrySet<K, V> entrySet;
 	private transient Values<V> values;
 	private transient ConcurrentNavigableMap<K, V> descendingMap;
+	/**
+	 * True if index spans are maintained exactly, so that rank, select and
+	 * count run in logarithmic time.
+	 */
+	final boolean orderStatistics;
+	/**
+	 * Serializes structural modifications when orderStatistics is set; null
+	 * otherwise.
+	 */
+	private transient ReentrantLock statLock;
+	/**
+	 * Sequence number, odd while a structural modification is in progress.
+	 * Used by order statistic queries to validate optimistic traversals.
+	 */
+	private transient volatile int statSeq;
 
 	private void initialize() {
 		keySet = null;
 		entrySet = null;
 		values = null;
 		descendingMap = null;
+		statLock = orderStatistics ? new ReentrantLock() : null;
+		statSeq = 0;
 		head = new HeadIndex<>(new Node<K, V>(null, BASE_HEADER, null), null, null, 1);
 	}
 
@@ -256,11 +275,31 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		}
 	}
 
+	/**
+	 * Index nodes of maps in orderStatistics mode, which also record a span.
+	 * Kept out of Index so that other maps do not pay for the field, which
+	 * would grow each of their index nodes from 24 to 32 bytes with
+	 * compressed references.
+	 */
+	static class CountedIndex<K, V> extends Index<K, V> {
+		/**
+		 * Number of live base-level nodes from this index's node (inclusive;
+		 * exclusive for heads) up to the node of its right neighbor. Exact only
+		 * in orderStatistics mode, where it is written under statLock.
+		 */
+		volatile int span;
+
+		CountedIndex(Node<K, V> node, Index<K, V> down, Index<K, V> right) {
+			super(node, down, right);
+		}
+	}
+
 	/* ---------------- Head nodes -------------- */
 	/**
-	 * Nodes heading each level keep track of their level.
+	 * Nodes heading each level keep track of their level. They are counted
+	 * in every mode, which costs them no space.
 	 */
-	static final class HeadIndex<K, V> extends Index<K, V> {
+	static final class HeadIndex<K, V> extends CountedIndex<K, V> {
 		final int level;
 
 		HeadIndex(Node<K, V> node, Index<K, V> down, Index<K, V> right, int level) {
@@ -300,6 +339,10 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 					Node<K, V> n = r.node;
 					K k = n.key;
 					if (n.value == null) {
+						if (!canUnlinkIndex()) {
+							r = r.right; // step over; writer will unlink
+							continue;
+						}
 						if (!q.unlink(r)) {
 							break; // restart
 						}
@@ -460,6 +503,20 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		if (key == null) {
 			throw new NullPointerException();
 		}
+		final ReentrantLock lock = statLock;
+		if ((lock != null) && !lock.isHeldByCurrentThread()) {
+			V old = tryPutPresent(key, value, onlyIfAbsent);
+			if (old != null) {
+				return old;
+			}
+			lock.lock();
+			try {
+				return doPut(key, value, onlyIfAbsent);
+			} finally {
+				endStatUpdate();
+				lock.unlock();
+			}
+		}
 		Comparator<? super K> cmp = comparator;
 		outer: for (;;) {
 			for (Node<K, V> b = findPredecessor(key, cmp), n = b.next;;) {
@@ -493,12 +550,19 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 					// else c < 0; fall through
 				}
 				z = new Node<>(key, value, n);
+				if (lock != null) {
+					beginStatUpdate();
+				}
 				if (!b.casNext(n, z)) {
 					break; // restart if lost race to append to b
 				}
 				break outer;
 			}
 		}
+		if (lock != null) {
+			insertCountedIndex(z, cmp);
+			return null;
+		}
 		int rnd = ThreadLocalRandom.nextSecondarySeed();
 		if ((rnd & 0x80000001) == 0) { // test highest and lowest bits
 			int level = 1, max;
@@ -607,6 +671,16 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		if (key == null) {
 			throw new NullPointerException();
 		}
+		final ReentrantLock lock = statLock;
+		if ((lock != null) && !lock.isHeldByCurrentThread()) {
+			lock.lock();
+			try {
+				return doRemove(key, value);
+			} finally {
+				endStatUpdate();
+				lock.unlock();
+			}
+		}
 		Comparator<? super K> cmp = comparator;
 		outer: for (;;) {
 			for (Node<K, V> b = findPredecessor(key, cmp), n = b.next;;) {
@@ -637,9 +711,15 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 				if ((value != null) && !value.equals(v)) {
 					break outer;
 				}
+				if (lock != null) {
+					beginStatUpdate();
+				}
 				if (!n.casValue(v, null)) {
 					break;
 				}
+				if (lock != null) {
+					unlinkCountedIndex(n, cmp);
+				}
 				if (!n.appendMarker(f) || !b.casNext(n, f)) {
 					findNode(key); // retry via findNode
 				} else {
@@ -709,6 +789,16 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 * @return null if empty, else snapshot of first entry
 	 */
 	private Map.Entry<K, V> doRemoveFirstEntry() {
+		final ReentrantLock lock = statLock;
+		if ((lock != null) && !lock.isHeldByCurrentThread()) {
+			lock.lock();
+			try {
+				return doRemoveFirstEntry();
+			} finally {
+				endStatUpdate();
+				lock.unlock();
+			}
+		}
 		for (Node<K, V> b, n;;) {
 			if ((n = (b = head.node).next) == null) {
 				return null;
@@ -722,9 +812,15 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 				n.helpDelete(b, f);
 				continue;
 			}
+			if (lock != null) {
+				beginStatUpdate();
+			}
 			if (!n.casValue(v, null)) {
 				continue;
 			}
+			if (lock != null) {
+				unlinkCountedIndex(n, comparator);
+			}
 			if (!n.appendMarker(f) || !b.casNext(n, f)) {
 				findFirst(); // retry
 			}
@@ -762,6 +858,16 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 * @return null if empty, else snapshot of last entry
 	 */
 	private Map.Entry<K, V> doRemoveLastEntry() {
+		final ReentrantLock lock = statLock;
+		if ((lock != null) && !lock.isHeldByCurrentThread()) {
+			lock.lock();
+			try {
+				return doRemoveLastEntry();
+			} finally {
+				endStatUpdate();
+				lock.unlock();
+			}
+		}
 		for (;;) {
 			Node<K, V> b = findPredecessorOfLast();
 			Node<K, V> n = b.next;
@@ -790,9 +896,15 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 					n = f;
 					continue;
 				}
+				if (lock != null) {
+					beginStatUpdate();
+				}
 				if (!n.casValue(v, null)) {
 					break;
 				}
+				if (lock != null) {
+					unlinkCountedIndex(n, comparator);
+				}
 				K key = n.key;
 				if (!n.appendMarker(f) || !b.casNext(n, f)) {
 					findNode(key); // retry via findNode
@@ -824,7 +936,7 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		Index<K, V> q = head;
 		for (;;) {
 			Index<K, V> d, r;
-			if ((r = q.right) != null) {
+			if (((r = q.right) != null) && (!r.indexesDeletedNode() || canUnlinkIndex())) {
 				if (r.indexesDeletedNode()) {
 					q.unlink(r);
 					q = head; // restart
@@ -962,6 +1074,480 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		}
 	}
 
+	/* ---------------- Order statistics -------------- */
+	/*
+	 * When constructed with orderStatistics set, each index node is a
+	 * CountedIndex recording in its span field the number of live base-level
+	 * nodes in the interval it covers, so rank and select can accumulate spans
+	 * while descending from the head instead of walking the base level.
+	 * Keeping spans exact is not compatible with fully lock-free structural
+	 * modification (an insertion racing with the linking or unlinking of an
+	 * index node would be charged to the wrong interval), so in this mode
+	 * insertions and removals of mappings are serialized on statLock, and
+	 * only the lock holder links or
+	 * unlinks index nodes. Readers skip over indexes of deleted nodes rather
+	 * than unlinking them, and value replacements remain lock-free since they
+	 * do not change any span. Writers make statSeq odd before the first change
+	 * that is visible to traversals and even again when done, so queries run
+	 * optimistically and are retried (or finally run under the lock) if a
+	 * modification overlapped them.
+	 */
+
+	/**
+	 * Number of optimistic attempts made by order statistic queries before
+	 * acquiring statLock.
+	 */
+	private static final int MAX_OPTIMISTIC_TRIES = 4;
+
+	/**
+	 * Returns true if the current thread may unlink index nodes. In
+	 * orderStatistics mode, only the thread holding statLock does, so that
+	 * the spans of neighboring indexes are adjusted along with it.
+	 */
+	private boolean canUnlinkIndex() {
+		final ReentrantLock lock = statLock;
+		return (lock == null) || lock.isHeldByCurrentThread();
+	}
+
+	/**
+	 * In orderStatistics mode, tries to complete a put for a key that is
+	 * already mapped without acquiring statLock, since replacing a value
+	 * changes no span. Never unlinks anything.
+	 *
+	 * @return the old value, or null if the key appears absent or the
+	 *         attempt raced with another update, in which case the caller
+	 *         retries holding statLock
+	 */
+	private V tryPutPresent(K key, V value, boolean onlyIfAbsent) {
+		Comparator<? super K> cmp = comparator;
+		for (Node<K, V> b = findPredecessor(key, cmp), n = b.next; n != null;) {
+			Object v;
+			int c;
+			Node<K, V> f = n.next;
+			if ((n != b.next) || ((v = n.value) == null) || (b.value == null) || (v == n)) {
+				return null;
+			}
+			if ((c = cpr(cmp, key, n.key)) > 0) {
+				b = n;
+				n = f;
+				continue;
+			}
+			if ((c == 0) && (onlyIfAbsent || n.casValue(v, value))) {
+				@SuppressWarnings("unchecked")
+				V vv = (V) v;
+				return vv;
+			}
+			return null;
+		}
+		return null;
+	}
+
+	/**
+	 * Marks the start of a structural modification. Call only while holding
+	 * statLock.
+	 */
+	private void beginStatUpdate() {
+		int s = statSeq;
+		if ((s & 1) == 0) {
+			statSeq = s + 1;
+		}
+	}
+
+	/**
+	 * Marks the end of a structural modification, if one was begun. Call
+	 * only while holding statLock.
+	 */
+	private void endStatUpdate() {
+		int s = statSeq;
+		if ((s & 1) != 0) {
+			statSeq = s + 1;
+		}
+	}
+
+	/**
+	 * Adds index nodes for newly linked node z, maintaining spans. Unlike the
+	 * splicing loop of doPut, this links levels bottom-up so that the span of
+	 * each new index can be computed from the level below it. Call only while
+	 * holding statLock.
+	 *
+	 * @param z
+	 *            the newly linked node
+	 */
+	private void insertCountedIndex(Node<K, V> z, Comparator<? super K> cmp) {
+		K key = z.key;
+		int rnd = ThreadLocalRandom.nextSecondarySeed();
+		int level = 0;
+		if ((rnd & 0x80000001) == 0) { // same distribution as doPut
+			level = 1;
+			while (((rnd >>>= 1) & 1) != 0) {
+				++level;
+			}
+		}
+		HeadIndex<K, V> h = head;
+		if (level > h.level) { // grow by one level
+			HeadIndex<K, V> newh = new HeadIndex<>(h.node, h, null, h.level + 1);
+			newh.span = (int) levelSum(h);
+			head = h = newh;
+			level = h.level;
+		}
+		@SuppressWarnings("unchecked")
+		Index<K, V>[] preds = (Index<K, V>[]) new Index<?, ?>[h.level + 1];
+		int j = h.level;
+		for (Index<K, V> q = h, r;;) { // rightmost predecessor at each level
+			while (((r = q.right) != null) && (cpr(cmp, key, r.node.key) > 0)) {
+				q = r;
+			}
+			preds[j] = q;
+			if (--j == 0) {
+				break;
+			}
+			q = q.down;
+		}
+		CountedIndex<K, V> t = null;
+		for (j = 1; j < preds.length; ++j) {
+			CountedIndex<K, V> q = (CountedIndex<K, V>) preds[j];
+			if (j > level) {
+				q.span = q.span + 1;
+				continue;
+			}
+			Index<K, V> r = q.right;
+			Node<K, V> stop = (r == null) ? null : r.node;
+			int s = 0;
+			if (t == null) {
+				for (Node<K, V> n = z; (n != null) && (n != stop); n = n.next) {
+					if (n.getValidValue() != null) {
+						++s;
+					}
+				}
+			} else {
+				for (Index<K, V> x = t; (x != null) && (x.node != stop); x = x.right) {
+					s += ((CountedIndex<K, V>) x).span;
+				}
+			}
+			t = new CountedIndex<>(z, t, r);
+			t.span = s;
+			q.right = t;
+			q.span = (q.span + 1) - s;
+		}
+	}
+
+	/**
+	 * Removes the index nodes of node z, which has just been deleted, and
+	 * adjusts spans. Call only while holding statLock.
+	 *
+	 * @param z
+	 *            the node whose value was just nulled
+	 */
+	private void unlinkCountedIndex(Node<K, V> z, Comparator<? super K> cmp) {
+		K key = z.key;
+		for (Index<K, V> q = head, r;;) {
+			while (((r = q.right) != null) && (r.node != z) && (cpr(cmp, key, r.node.key) > 0)) {
+				q = r;
+			}
+			CountedIndex<K, V> cq = (CountedIndex<K, V>) q;
+			if ((r != null) && (r.node == z)) { // absorb z's interval
+				cq.span = (cq.span + ((CountedIndex<K, V>) r).span) - 1;
+				q.right = r.right;
+			} else {
+				cq.span = cq.span - 1;
+			}
+			if ((q = q.down) == null) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the sum of spans of the given index and its successors on the
+	 * same level, which is the number of live nodes at or after q's node.
+	 */
+	static <K, V> long levelSum(Index<K, V> q) {
+		long sum = 0;
+		for (; q != null; q = q.right) {
+			sum += ((CountedIndex<K, V>) q).span;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the number of live nodes with keys less than the given key, or
+	 * less than or equal to it if inclusive, by accumulating spans. The result
+	 * is meaningful only if no structural modification overlapped the call.
+	 */
+	private long countedRank(Object key, boolean inclusive, Comparator<? super K> cmp) {
+		long rank = 0;
+		Index<K, V> q = head;
+		for (Index<K, V> r, d;;) {
+			while ((r = q.right) != null) {
+				int c = cpr(cmp, key, r.node.key);
+				if ((c < 0) || ((c == 0) && !inclusive)) {
+					break;
+				}
+				rank += ((CountedIndex<K, V>) q).span;
+				q = r;
+			}
+			if ((d = q.down) == null) {
+				break;
+			}
+			q = d;
+		}
+		Node<K, V> n = q.node;
+		if (n.isBaseHeader()) {
+			n = n.next;
+		}
+		for (; n != null; n = n.next) {
+			if (n.getValidValue() != null) {
+				int c = cpr(cmp, key, n.key);
+				if ((c < 0) || ((c == 0) && !inclusive)) {
+					break;
+				}
+				++rank;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the live node with the given rank, or null if none, by
+	 * accumulating spans. The result is meaningful only if no structural
+	 * modification overlapped the call.
+	 */
+	private Node<K, V> countedSelect(long index) {
+		long rank = 0;
+		Index<K, V> q = head;
+		for (Index<K, V> r, d;;) {
+			int span;
+			while (((r = q.right) != null) && ((rank + (span = ((CountedIndex<K, V>) q).span)) <= index)) {
+				rank += span;
+				q = r;
+			}
+			if ((d = q.down) == null) {
+				break;
+			}
+			q = d;
+		}
+		Node<K, V> n = q.node;
+		if (n.isBaseHeader()) {
+			n = n.next;
+		}
+		for (; n != null; n = n.next) {
+			if (n.getValidValue() != null) {
+				if (rank == index) {
+					return n;
+				}
+				++rank;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of mappings with keys less than the given key, or
+	 * less than or equal to it if inclusive.
+	 */
+	final long rankOf(Object key, boolean inclusive) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		Comparator<? super K> cmp = comparator;
+		final ReentrantLock lock = statLock;
+		if (lock == null) {
+			long rank = 0;
+			for (Node<K, V> n = findFirst(); n != null; n = n.next) {
+				if (n.getValidValue() != null) {
+					int c = cpr(cmp, key, n.key);
+					if ((c < 0) || ((c == 0) && !inclusive)) {
+						break;
+					}
+					++rank;
+				}
+			}
+			return rank;
+		}
+		for (int tries = 0; tries < MAX_OPTIMISTIC_TRIES; ++tries) {
+			int s = statSeq;
+			if ((s & 1) == 0) {
+				long rank = countedRank(key, inclusive, cmp);
+				if (statSeq == s) {
+					return rank;
+				}
+			}
+		}
+		lock.lock();
+		try {
+			return countedRank(key, inclusive, cmp);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of mappings with keys in the given range.
+	 */
+	final long countRange(Object lo, boolean loInclusive, Object hi, boolean hiInclusive) {
+		if ((lo == null) || (hi == null)) {
+			throw new NullPointerException();
+		}
+		Comparator<? super K> cmp = comparator;
+		if (cpr(cmp, lo, hi) > 0) {
+			throw new IllegalArgumentException("inconsistent range");
+		}
+		final ReentrantLock lock = statLock;
+		if (lock == null) {
+			@SuppressWarnings("unchecked")
+			K key = (K) lo;
+			long count = 0;
+			for (Node<K, V> n = findNear(key, loInclusive ? (GT | EQ) : GT, cmp); n != null; n = n.next) {
+				if (n.getValidValue() != null) {
+					int c = cpr(cmp, n.key, hi);
+					if ((c > 0) || ((c == 0) && !hiInclusive)) {
+						break;
+					}
+					++count;
+				}
+			}
+			return count;
+		}
+		for (int tries = 0; tries < MAX_OPTIMISTIC_TRIES; ++tries) {
+			int s = statSeq;
+			if ((s & 1) == 0) {
+				long count = countedRank(hi, hiInclusive, cmp) - countedRank(lo, !loInclusive, cmp);
+				if (statSeq == s) {
+					return Math.max(count, 0L);
+				}
+			}
+		}
+		lock.lock();
+		try {
+			return Math.max(countedRank(hi, hiInclusive, cmp) - countedRank(lo, !loInclusive, cmp), 0L);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the mapping with the given rank, or null if none.
+	 */
+	final AbstractMap.SimpleImmutableEntry<K, V> selectEntry(long index) {
+		if (index < 0) {
+			return null;
+		}
+		final ReentrantLock lock = statLock;
+		if (lock == null) {
+			long rank = 0;
+			for (Node<K, V> n = findFirst(); n != null; n = n.next) {
+				AbstractMap.SimpleImmutableEntry<K, V> e = n.createSnapshot();
+				if ((e != null) && (rank++ == index)) {
+					return e;
+				}
+			}
+			return null;
+		}
+		for (int tries = 0; tries < MAX_OPTIMISTIC_TRIES; ++tries) {
+			int s = statSeq;
+			if ((s & 1) == 0) {
+				Node<K, V> n = countedSelect(index);
+				AbstractMap.SimpleImmutableEntry<K, V> e = (n == null) ? null : n.createSnapshot();
+				if ((statSeq == s) && ((n == null) || (e != null))) {
+					return e;
+				}
+			}
+		}
+		lock.lock();
+		try {
+			Node<K, V> n = countedSelect(index);
+			return (n == null) ? null : n.createSnapshot();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of mappings, using spans of the topmost level.
+	 * Call only in orderStatistics mode.
+	 */
+	private long countedSize() {
+		for (int tries = 0; tries < MAX_OPTIMISTIC_TRIES; ++tries) {
+			int s = statSeq;
+			if ((s & 1) == 0) {
+				long size = levelSum(head);
+				if (statSeq == s) {
+					return size;
+				}
+			}
+		}
+		statLock.lock();
+		try {
+			return levelSum(head);
+		} finally {
+			statLock.unlock();
+		}
+	}
+
+	/**
+	 * Accumulates sorted mappings into a fresh base list, indexing every
+	 * fourth node at level one, every eighth at level two, and so on, so the
+	 * resulting tower is balanced and, if counted, its spans are exact.
+	 */
+	static final class TowerBuilder<K, V> {
+		final boolean counted; // true in orderStatistics mode
+		HeadIndex<K, V> head;
+		Node<K, V> last;
+		Index<K, V>[] preds; // rightmost index at each level
+		long[] starts; // position of the first node covered by each pred
+		long count;
+
+		@SuppressWarnings("unchecked")
+		TowerBuilder(HeadIndex<K, V> h, boolean counted) {
+			this.counted = counted;
+			head = h;
+			last = h.node;
+			preds = (Index<K, V>[]) new Index<?, ?>[h.level + 8];
+			starts = new long[h.level + 8];
+			for (Index<K, V> q = h; q != null; q = q.down) {
+				preds[((HeadIndex<K, V>) q).level] = q;
+				starts[((HeadIndex<K, V>) q).level] = 1L;
+			}
+		}
+
+		void append(K key, V value) {
+			Node<K, V> z = new Node<>(key, value, null);
+			last.next = z;
+			last = z;
+			long p = ++count;
+			if ((p & 3L) == 0L) {
+				int level = 1 + Long.numberOfTrailingZeros(p >>> 2);
+				Index<K, V> idx = null;
+				for (int i = 1; i <= level; ++i) {
+					idx = counted ? new CountedIndex<>(z, idx, null) : new Index<>(z, idx, null);
+					if (i > head.level) {
+						head = new HeadIndex<>(head.node, head, idx, i);
+						head.span = (int) (p - 1L);
+						if (i >= preds.length) {
+							preds = Arrays.copyOf(preds, i << 1);
+							starts = Arrays.copyOf(starts, i << 1);
+						}
+					} else {
+						Index<K, V> q = preds[i];
+						if (counted) {
+							((CountedIndex<K, V>) q).span = (int) (p - starts[i]);
+						}
+						q.right = idx;
+					}
+					preds[i] = idx;
+					starts[i] = p;
+				}
+			}
+		}
+
+		HeadIndex<K, V> finish() {
+			for (int i = 1; counted && (i <= head.level); ++i) {
+				((CountedIndex<K, V>) preds[i]).span = (int) ((count + 1L) - starts[i]);
+			}
+			return head;
+		}
+	}
+
 	/* ---------------- Constructors -------------- */
 	/**
 	 * Constructs a new, empty map, sorted according to the
@@ -969,6 +1555,7 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 */
 	public ConcurrentSkipListMap() {
 		this.comparator = null;
+		this.orderStatistics = false;
 		initialize();
 	}
 
@@ -983,6 +1570,31 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 */
 	public ConcurrentSkipListMap(Comparator<? super K> comparator) {
 		this.comparator = comparator;
+		this.orderStatistics = false;
+		initialize();
+	}
+
+	/**
+	 * Constructs a new, empty map, sorted according to the specified
+	 * comparator, that optionally maintains order statistics.
+	 *
+	 * <p>
+	 * A map maintaining order statistics answers {@link #rank},
+	 * {@link #select}, {@link #count} and {@link #size} in expected logarithmic
+	 * time. In exchange, insertions and removals of mappings are serialized
+	 * with respect to each other, although retrievals and replacements of
+	 * values remain non-blocking.
+	 *
+	 * @param comparator
+	 *            the comparator that will be used to order this map. If
+	 *            {@code null}, the {@linkplain Comparable natural ordering} of
+	 *            the keys will be used.
+	 * @param orderStatistics
+	 *            if {@code true}, this map maintains order statistics
+	 */
+	public ConcurrentSkipListMap(Comparator<? super K> comparator, boolean orderStatistics) {
+		this.comparator = comparator;
+		this.orderStatistics = orderStatistics;
 		initialize();
 	}
 
@@ -1001,13 +1613,14 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 */
 	public ConcurrentSkipListMap(Map<? extends K, ? extends V> m) {
 		this.comparator = null;
+		this.orderStatistics = false;
 		initialize();
 		putAll(m);
 	}
 
 	/**
 	 * Constructs a new map containing the same mappings and using the same
-	 * ordering as the specified sorted map.
+	 * ordering as the specified sorted map. The map is built in linear time.
 	 *
 	 * @param m
 	 *            the sorted map whose mappings are to be placed in this map,
@@ -1017,9 +1630,59 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 *             null
 	 */
 	public ConcurrentSkipListMap(SortedMap<K, ? extends V> m) {
+		this(m, false);
+	}
+
+	/**
+	 * Constructs a new map containing the same mappings and using the same
+	 * ordering as the specified sorted map, that optionally maintains order
+	 * statistics. The map is built in linear time.
+	 *
+	 * @param m
+	 *            the sorted map whose mappings are to be placed in this map,
+	 *            and whose comparator is to be used to sort this map
+	 * @param orderStatistics
+	 *            if {@code true}, this map maintains order statistics
+	 * @throws NullPointerException
+	 *             if the specified sorted map or any of its keys or values are
+	 *             null
+	 * @see #ConcurrentSkipListMap(Comparator, boolean)
+	 */
+	public ConcurrentSkipListMap(SortedMap<K, ? extends V> m, boolean orderStatistics) {
 		this.comparator = m.comparator();
+		this.orderStatistics = orderStatistics;
 		initialize();
-		buildFromSorted(m);
+		buildFromSorted(m.entrySet().iterator(), false);
+	}
+
+	/**
+	 * Constructs a new map containing the given mappings, which must be
+	 * supplied in strictly ascending key order according to the specified
+	 * comparator. Rather than inserting each mapping individually, the map is
+	 * built in linear time with evenly spaced index levels.
+	 *
+	 * @param comparator
+	 *            the comparator that will be used to order this map. If
+	 *            {@code null}, the {@linkplain Comparable natural ordering} of
+	 *            the keys will be used.
+	 * @param sortedEntries
+	 *            the mappings to be placed in this map, in ascending key order
+	 * @param orderStatistics
+	 *            if {@code true}, this map maintains order statistics
+	 * @throws ClassCastException
+	 *             if the keys are not mutually comparable
+	 * @throws NullPointerException
+	 *             if {@code sortedEntries} or any of its mappings, keys or
+	 *             values are null
+	 * @throws IllegalArgumentException
+	 *             if the keys are not in strictly ascending order
+	 * @see #ConcurrentSkipListMap(Comparator, boolean)
+	 */
+	public ConcurrentSkipListMap(Comparator<? super K> comparator, Iterable<? extends Map.Entry<? extends K, ? extends V>> sortedEntries, boolean orderStatistics) {
+		this.comparator = comparator;
+		this.orderStatistics = orderStatistics;
+		initialize();
+		buildFromSorted(sortedEntries.iterator(), true);
 	}
 
 	/**
@@ -1033,7 +1696,7 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 			@SuppressWarnings("unchecked")
 			ConcurrentSkipListMap<K, V> clone = (ConcurrentSkipListMap<K, V>) super.clone();
 			clone.initialize();
-			clone.buildFromSorted(this);
+			clone.buildFromSorted(entrySet().iterator(), false);
 			return clone;
 		} catch (CloneNotSupportedException e) {
 			throw new InternalError();
@@ -1041,65 +1704,36 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	}
 
 	/**
-	 * Streamlined bulk insertion to initialize from elements of given sorted
-	 * map. Call only from constructor or clone method.
+	 * Streamlined bulk insertion to initialize from mappings in ascending key
+	 * order. Call only from constructor or clone method.
+	 *
+	 * @param it
+	 *            iterator over the mappings
+	 * @param checkOrder
+	 *            if the ordering of the keys should be verified
 	 */
-	private void buildFromSorted(SortedMap<K, ? extends V> map) {
-		if (map == null) {
-			throw new NullPointerException();
-		}
-		HeadIndex<K, V> h = head;
-		Node<K, V> basepred = h.node;
-		// Track the current rightmost node at each level. Uses an
-		// ArrayList to avoid committing to initial or maximum level.
-		ArrayList<Index<K, V>> preds = new ArrayList<>();
-		// initialize
-		for (int i = 0; i <= h.level; ++i) {
-			preds.add(null);
-		}
-		Index<K, V> q = h;
-		for (int i = h.level; i > 0; --i) {
-			preds.set(i, q);
-			q = q.down;
-		}
-		Iterator<? extends Map.Entry<? extends K, ? extends V>> it = map.entrySet().iterator();
+	private void buildFromSorted(Iterator<? extends Map.Entry<? extends K, ? extends V>> it, boolean checkOrder) {
+		Comparator<? super K> cmp = comparator;
+		TowerBuilder<K, V> builder = new TowerBuilder<>(head, orderStatistics);
+		K prev = null;
 		while (it.hasNext()) {
 			Map.Entry<? extends K, ? extends V> e = it.next();
-			int rnd = ThreadLocalRandom.current().nextInt();
-			int j = 0;
-			if ((rnd & 0x80000001) == 0) {
-				do {
-					++j;
-				} while (((rnd >>>= 1) & 1) != 0);
-				if (j > h.level) {
-					j = h.level + 1;
-				}
-			}
 			K k = e.getKey();
 			V v = e.getValue();
 			if ((k == null) || (v == null)) {
 				throw new NullPointerException();
 			}
-			Node<K, V> z = new Node<>(k, v, null);
-			basepred.next = z;
-			basepred = z;
-			if (j > 0) {
-				Index<K, V> idx = null;
-				for (int i = 1; i <= j; ++i) {
-					idx = new Index<>(z, idx, null);
-					if (i > h.level) {
-						h = new HeadIndex<>(h.node, h, idx, i);
-					}
-					if (i < preds.size()) {
-						preds.get(i).right = idx;
-						preds.set(i, idx);
-					} else {
-						preds.add(idx);
-					}
+			if (checkOrder) {
+				if (prev == null) {
+					cpr(cmp, k, k); // type check
+				} else if (cpr(cmp, prev, k) >= 0) {
+					throw new IllegalArgumentException("keys not in ascending order");
 				}
 			}
+			builder.append(k, v);
+			prev = k;
 		}
-		head = h;
+		head = builder.finish();
 	}
 
 	/* ---------------- Serialization -------------- */
@@ -1146,24 +1780,7 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		s.defaultReadObject();
 		// Reset transients
 		initialize();
-		/*
-		 * This is nearly identical to buildFromSorted, but is distinct because
-		 * readObject calls can't be nicely adapted as the kind of iterator
-		 * needed by buildFromSorted. (They can be, but doing so requires type
-		 * cheats and/or creation of adaptor classes.) It is simpler to just
-		 * adapt the code.
-		 */
-		HeadIndex<K, V> h = head;
-		Node<K, V> basepred = h.node;
-		ArrayList<Index<K, V>> preds = new ArrayList<>();
-		for (int i = 0; i <= h.level; ++i) {
-			preds.add(null);
-		}
-		Index<K, V> q = h;
-		for (int i = h.level; i > 0; --i) {
-			preds.set(i, q);
-			q = q.down;
-		}
+		TowerBuilder<K, V> builder = new TowerBuilder<>(head, orderStatistics);
 		for (;;) {
 			Object k = s.readObject();
 			if (k == null) {
@@ -1173,38 +1790,9 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 			if (v == null) {
 				throw new NullPointerException();
 			}
-			K key = (K) k;
-			V val = (V) v;
-			int rnd = ThreadLocalRandom.current().nextInt();
-			int j = 0;
-			if ((rnd & 0x80000001) == 0) {
-				do {
-					++j;
-				} while (((rnd >>>= 1) & 1) != 0);
-				if (j > h.level) {
-					j = h.level + 1;
-				}
-			}
-			Node<K, V> z = new Node<>(key, val, null);
-			basepred.next = z;
-			basepred = z;
-			if (j > 0) {
-				Index<K, V> idx = null;
-				for (int i = 1; i <= j; ++i) {
-					idx = new Index<>(z, idx, null);
-					if (i > h.level) {
-						h = new HeadIndex<>(h.node, h, idx, i);
-					}
-					if (i < preds.size()) {
-						preds.get(i).right = idx;
-						preds.set(i, idx);
-					} else {
-						preds.add(idx);
-					}
-				}
-			}
+			builder.append((K) k, (V) v);
 		}
-		head = h;
+		head = builder.finish();
 	}
 
 	/* ------ Map API methods ------ */
@@ -1344,12 +1932,18 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 * all to count them. Additionally, it is possible for the size to change
 	 * during execution of this method, in which case the returned result will
 	 * be inaccurate. Thus, this method is typically not very useful in
-	 * concurrent applications.
+	 * concurrent applications. Maps constructed with order statistics enabled
+	 * are an exception: they answer in expected logarithmic time, with a
+	 * result reflecting a single consistent state of the map.
 	 *
 	 * @return the number of elements in this map
 	 */
 	public int size() {
 		long count = 0;
+		if (statLock != null) {
+			count = countedSize();
+			return (count >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) count;
+		}
 		for (Node<K, V> n = findFirst(); n != null; n = n.next) {
 			if (n.getValidValue() != null) {
 				++count;
@@ -1371,6 +1965,26 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 	 * Removes all of the mappings from this map.
 	 */
 	public void clear() {
+		final ReentrantLock lock = statLock;
+		if (lock != null) {
+			lock.lock();
+			try {
+				beginStatUpdate();
+				clearLevels();
+				head = new HeadIndex<>(head.node, null, null, 1);
+			} finally {
+				endStatUpdate();
+				lock.unlock();
+			}
+		} else {
+			clearLevels();
+		}
+	}
+
+	/**
+	 * Removes index levels and then all base-level nodes.
+	 */
+	private void clearLevels() {
 		for (;;) {
 			Node<K, V> b, n;
 			HeadIndex<K, V> h = head, d = (HeadIndex<K, V>) h.down;
@@ -2077,6 +2691,113 @@ public class ConcurrentSkipListMap<K, V> extends AbstractMap<K, V> implements Co
 		return doRemoveLastEntry();
 	}
 
+	/* ---------------- Order statistic operations -------------- */
+	/**
+	 * Returns the number of keys in this map strictly less than the given key;
+	 * that is, the zero-based position the key has, or would have if it were
+	 * present, in ascending key order.
+	 *
+	 * <p>
+	 * If this map was constructed with order statistics enabled, this method
+	 * runs in expected logarithmic time and its result reflects a single
+	 * consistent state of the map. Otherwise it traverses the mappings with
+	 * lesser keys, and the result may be inaccurate if the map is concurrently
+	 * modified.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the number of keys less than {@code key}
+	 * @throws ClassCastException
+	 *             if the specified key cannot be compared with the keys
+	 *             currently in the map
+	 * @throws NullPointerException
+	 *             if the specified key is null
+	 */
+	public long rank(K key) {
+		return rankOf(key, false);
+	}
+
+	/**
+	 * Returns a key-value mapping associated with the key of the given
+	 * zero-based position in ascending key order, or {@code null} if the
+	 * position is negative or not less than the size of this map. The returned
+	 * entry does <em>not</em> support the {@code Entry.setValue} method.
+	 *
+	 * <p>
+	 * If this map was constructed with order statistics enabled, this method
+	 * runs in expected logarithmic time. Otherwise it traverses the mappings
+	 * preceding the one returned.
+	 *
+	 * @param index
+	 *            the position of the mapping in ascending key order
+	 * @return the mapping at the given position, or {@code null} if there is
+	 *         no such mapping
+	 */
+	public Map.Entry<K, V> select(long index) {
+		return selectEntry(index);
+	}
+
+	/**
+	 * Returns the number of keys in this map ranging from {@code fromKey} to
+	 * {@code toKey}. If this map was constructed with order statistics
+	 * enabled, this method runs in expected logarithmic time and its result
+	 * reflects a single consistent state of the map; otherwise it traverses
+	 * the keys in range.
+	 *
+	 * @param fromKey
+	 *            low endpoint of the keys counted
+	 * @param fromInclusive
+	 *            {@code true} if the low endpoint is to be counted
+	 * @param toKey
+	 *            high endpoint of the keys counted
+	 * @param toInclusive
+	 *            {@code true} if the high endpoint is to be counted
+	 * @return the number of keys in the given range
+	 * @throws ClassCastException
+	 *             if either key cannot be compared with the keys currently in
+	 *             the map
+	 * @throws NullPointerException
+	 *             if {@code fromKey} or {@code toKey} is null
+	 * @throws IllegalArgumentException
+	 *             if {@code fromKey} is greater than {@code toKey}
+	 */
+	public long count(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		return countRange(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	/**
+	 * Returns the number of keys in this map ranging from {@code fromKey},
+	 * inclusive, to {@code toKey}, exclusive. Equivalent to
+	 * {@code count(fromKey, true, toKey, false)}.
+	 *
+	 * @param fromKey
+	 *            low endpoint (inclusive) of the keys counted
+	 * @param toKey
+	 *            high endpoint (exclusive) of the keys counted
+	 * @return the number of keys in the given range
+	 * @throws ClassCastException
+	 *             if either key cannot be compared with the keys currently in
+	 *             the map
+	 * @throws NullPointerException
+	 *             if {@code fromKey} or {@code toKey} is null
+	 * @throws IllegalArgumentException
+	 *             if {@code fromKey} is greater than {@code toKey}
+	 */
+	public long count(K fromKey, K toKey) {
+		return countRange(fromKey, true, toKey, false);
+	}
+
+	/**
+	 * Returns {@code true} if this map maintains order statistics, so that
+	 * {@link #rank}, {@link #select} and {@link #count} run in logarithmic
+	 * time.
+	 *
+	 * @return {@code true} if this map maintains order statistics
+	 */
+	public boolean hasOrderStatistics() {
+		return orderStatistics;
+	}
+
 	/* ---------------- Iterators -------------- */
 	/**
 	 * Base of iterator classes:
@@ -0,0 +1,1831 @@
+package java.util.concurrent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import sun.misc.SharedSecrets;
+
+/**
+ * A thread-safe variant of {@link java.util.ArrayList} in which all mutative
+ * operations ({@code add}, {@code set}, and so on) are implemented by making a
+ * fresh version of the underlying structure, as in {@link CopyOnWriteArrayList}.
+ * Unlike that class, the elements are not held in one array but in a
+ * persistent tree of 32-element chunks, so that each single-element update
+ * copies only the O(log<sub>32</sub> n) nodes on the path to the changed
+ * element and shares all others with the previous version. This makes the
+ * class suitable for lists that are too large, or updated too often, for a
+ * full array copy per mutation, while still being read far more often than
+ * written. Positional access is O(log<sub>32</sub> n) rather than constant.
+ *
+ * <p>
+ * The "snapshot" style iterator method uses a reference to the version of the
+ * list at the point that the iterator was created. This version never changes
+ * during the lifetime of the iterator, so interference is impossible and the
+ * iterator is guaranteed not to throw {@code ConcurrentModificationException}.
+ * The iterator will not reflect additions, removals, or changes to the list
+ * since the iterator was created. Element-changing operations on iterators
+ * themselves ({@code remove}, {@code set}, and {@code add}) are not supported.
+ * These methods throw {@code UnsupportedOperationException}.
+ *
+ * <p>
+ * Several mutations can be combined by {@link #batch}, which applies them to a
+ * private version of the list and publishes the result once, so that readers
+ * see either none or all of them.
+ *
+ * <p>
+ * All elements are permitted, including {@code null}.
+ *
+ * <p>
+ * Memory consistency effects: As with other concurrent collections, actions
+ * in a thread prior to placing an object into a {@code CopyOnWriteTrieList}
+ * <a href="package-summary.html#MemoryVisibility"><i>happen-before</i></a>
+ * actions subsequent to the access or removal of that element from the
+ * {@code CopyOnWriteTrieList} in another thread.
+ *
+ * @param <E>
+ *            the type of elements held in this collection
+ */
+public class CopyOnWriteTrieList<E> extends AbstractList<E> implements List<E>, RandomAccess, Cloneable, java.io.Serializable {
+	private static final long serialVersionUID = -3472306485328617240L;
+
+	/*
+	 * The list is a B+-tree used as a rope: leaves hold up to WIDTH elements
+	 * and branches up to WIDTH children, along with the cumulative sizes of
+	 * their children, so that an index is located by a binary search per
+	 * level. All leaves are at the same depth. Nodes are never modified once
+	 * reachable from the root; updates copy the path from the root to the
+	 * affected leaf, splitting nodes that overflow and merging nodes that
+	 * underflow with a sibling when their contents fit in one node.
+	 */
+
+	/** Maximum number of elements in a leaf or children of a branch */
+	static final int WIDTH = 32;
+
+	/** The shared empty tree */
+	static final Leaf EMPTY = new Leaf(new Object[0]);
+
+	/** The lock protecting all mutators */
+	final transient ReentrantLock lock = new ReentrantLock();
+
+	/** The tree. Accessed only via getRoot/setRoot. */
+	private transient volatile Node root;
+
+	/**
+	 * Gets the tree.
+	 */
+	final Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * Sets the tree.
+	 */
+	final void setRoot(Node n) {
+		root = n;
+	}
+
+	/**
+	 * Creates an empty list.
+	 */
+	public CopyOnWriteTrieList() {
+		setRoot(EMPTY);
+	}
+
+	/**
+	 * Creates a list containing the elements of the specified collection, in
+	 * the order they are returned by the collection's iterator.
+	 *
+	 * @param c
+	 *            the collection of initially held elements
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public CopyOnWriteTrieList(Collection<? extends E> c) {
+		if (c.getClass() == CopyOnWriteTrieList.class) {
+			setRoot(((CopyOnWriteTrieList<?>) c).getRoot());
+		} else {
+			Object[] elements = c.toArray();
+			setRoot(build(elements, 0, elements.length));
+		}
+	}
+
+	/**
+	 * Creates a list holding a copy of the given array.
+	 *
+	 * @param toCopyIn
+	 *            the array (a copy of this array is used as the internal
+	 *            storage)
+	 * @throws NullPointerException
+	 *             if the specified array is null
+	 */
+	public CopyOnWriteTrieList(E[] toCopyIn) {
+		setRoot(build(toCopyIn, 0, toCopyIn.length));
+	}
+
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	public int size() {
+		return getRoot().size;
+	}
+
+	/**
+	 * Returns {@code true} if this list contains no elements.
+	 *
+	 * @return {@code true} if this list contains no elements
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns {@code true} if this list contains the specified element.
+	 *
+	 * @param o
+	 *            element whose presence in this list is to be tested
+	 * @return {@code true} if this list contains the specified element
+	 */
+	public boolean contains(Object o) {
+		return indexOf(o, getRoot()) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int indexOf(Object o) {
+		return indexOf(o, getRoot());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int lastIndexOf(Object o) {
+		return lastIndexOf(o, getRoot());
+	}
+
+	/**
+	 * Returns a shallow copy of this list. (The elements themselves are not
+	 * copied.) Since the tree is immutable, this takes constant time.
+	 *
+	 * @return a clone of this list
+	 */
+	public Object clone() {
+		try {
+			@SuppressWarnings("unchecked")
+			CopyOnWriteTrieList<E> clone = (CopyOnWriteTrieList<E>) super.clone();
+			clone.resetLock();
+			return clone;
+		} catch (CloneNotSupportedException e) {
+			// this shouldn't happen, since we are Cloneable
+			throw new InternalError();
+		}
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this list in proper
+	 * sequence (from first to last element).
+	 *
+	 * @return an array containing all the elements in this list
+	 */
+	public Object[] toArray() {
+		Node n = getRoot();
+		Object[] a = new Object[n.size];
+		copyTo(n, a, 0);
+		return a;
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this list in proper
+	 * sequence (from first to last element); the runtime type of the returned
+	 * array is that of the specified array, as in
+	 * {@link CopyOnWriteArrayList#toArray(Object[])}.
+	 *
+	 * @param a
+	 *            the array into which the elements of the list are to be
+	 *            stored, if it is big enough; otherwise, a new array of the
+	 *            same runtime type is allocated for this purpose.
+	 * @return an array containing all the elements in this list
+	 * @throws ArrayStoreException
+	 *             if the runtime type of the specified array is not a
+	 *             supertype of the runtime type of every element in this list
+	 * @throws NullPointerException
+	 *             if the specified array is null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T a[]) {
+		Node n = getRoot();
+		int len = n.size;
+		if (a.length < len) {
+			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), len);
+		} else if (a.length > len) {
+			a[len] = null;
+		}
+		copyTo(n, a, 0);
+		return a;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Node n = getRoot();
+		checkElementIndex(index, n.size);
+		return (E) get(n, index);
+	}
+
+	/**
+	 * Replaces the element at the specified position in this list with the
+	 * specified element.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	public E set(int index, E element) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			checkElementIndex(index, n.size);
+			@SuppressWarnings("unchecked")
+			E oldValue = (E) get(n, index);
+			if (oldValue != element) {
+				setRoot(set(n, index, element));
+			}
+			return oldValue;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends the specified element to the end of this list.
+	 *
+	 * @param e
+	 *            element to be appended to this list
+	 * @return {@code true} (as specified by {@link Collection#add})
+	 */
+	public boolean add(E e) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			setRoot(insertRoot(n, n.size, e));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list.
+	 * Shifts the element currently at that position (if any) and any
+	 * subsequent elements to the right (adds one to their indices).
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	public void add(int index, E element) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			checkPositionIndex(index, n.size);
+			setRoot(insertRoot(n, index, element));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the element at the specified position in this list. Shifts any
+	 * subsequent elements to the left (subtracts one from their indices).
+	 * Returns the element that was removed from the list.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	public E remove(int index) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			checkElementIndex(index, n.size);
+			@SuppressWarnings("unchecked")
+			E oldValue = (E) get(n, index);
+			setRoot(removeRoot(n, index));
+			return oldValue;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the first occurrence of the specified element from this list, if
+	 * it is present. If this list does not contain the element, it is
+	 * unchanged.
+	 *
+	 * @param o
+	 *            element to be removed from this list, if present
+	 * @return {@code true} if this list contained the specified element
+	 */
+	public boolean remove(Object o) {
+		Node snapshot = getRoot();
+		int index = indexOf(o, snapshot);
+		return (index >= 0) && remove(o, snapshot, index);
+	}
+
+	/**
+	 * A version of remove(Object) using the strong hint that given recent
+	 * snapshot contains o at the given index.
+	 */
+	private boolean remove(Object o, Node snapshot, int index) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node current = getRoot();
+			if ((snapshot != current) && ((index >= current.size) || !Objects.equals(o, get(current, index)))) {
+				if ((index = indexOf(o, current)) < 0) {
+					return false;
+				}
+			}
+			setRoot(removeRoot(current, index));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends the element, if not present.
+	 *
+	 * @param e
+	 *            element to be added to this list, if absent
+	 * @return {@code true} if the element was added
+	 */
+	public boolean addIfAbsent(E e) {
+		Node snapshot = getRoot();
+		if (indexOf(e, snapshot) >= 0) {
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node current = getRoot();
+			if ((current != snapshot) && (indexOf(e, current) >= 0)) {
+				return false;
+			}
+			setRoot(insertRoot(current, current.size, e));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends all of the elements in the specified collection that are not
+	 * already contained in this list, to the end of this list, in the order
+	 * that they are returned by the specified collection's iterator.
+	 *
+	 * @param c
+	 *            collection containing elements to be added to this list
+	 * @return the number of elements added
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public int addAllAbsent(Collection<? extends E> c) {
+		Object[] cs = c.toArray();
+		if (cs.length == 0) {
+			return 0;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			int len = n.size;
+			Object[] elements = new Object[len + cs.length];
+			copyTo(n, elements, 0);
+			int added = 0;
+			for (Object e : cs) {
+				if ((indexOf(e, elements, 0, len) < 0) && (indexOf(e, elements, len, len + added) < 0)) {
+					elements[len + added++] = e;
+				}
+			}
+			if (added > 0) {
+				setRoot(build(elements, 0, len + added));
+			}
+			return added;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all of the elements from this list. The list will be empty after
+	 * this call returns.
+	 */
+	public void clear() {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			setRoot(EMPTY);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes from this list all of the elements whose index is between
+	 * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive. Shifts any
+	 * succeeding elements to the left (reduces their index). This call shortens
+	 * the list by {@code (toIndex - fromIndex)} elements. (If
+	 * {@code toIndex==fromIndex}, this operation has no effect.)
+	 *
+	 * @param fromIndex
+	 *            index of first element to be removed
+	 * @param toIndex
+	 *            index after last element to be removed
+	 * @throws IndexOutOfBoundsException
+	 *             if fromIndex or toIndex out of range
+	 *             ({@code fromIndex < 0 || toIndex > size() || toIndex < fromIndex})
+	 */
+	protected void removeRange(int fromIndex, int toIndex) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			if ((fromIndex < 0) || (toIndex > n.size) || (toIndex < fromIndex)) {
+				throw new IndexOutOfBoundsException();
+			}
+			if (fromIndex < toIndex) {
+				setRoot(removeRange(n, fromIndex, toIndex));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends all of the elements in the specified collection to the end of
+	 * this list, in the order that they are returned by the specified
+	 * collection's iterator.
+	 *
+	 * @param c
+	 *            collection containing elements to be added to this list
+	 * @return {@code true} if this list changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean addAll(Collection<? extends E> c) {
+		Object[] cs = c.toArray();
+		if (cs.length == 0) {
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			setRoot(insertAll(n, n.size, cs));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Inserts all of the elements in the specified collection into this list,
+	 * starting at the specified position. Shifts the element currently at that
+	 * position (if any) and any subsequent elements to the right (increases
+	 * their indices). The new elements will appear in this list in the order
+	 * that they are returned by the specified collection's iterator.
+	 *
+	 * @param index
+	 *            index at which to insert the first element from the
+	 *            specified collection
+	 * @param c
+	 *            collection containing elements to be added to this list
+	 * @return {@code true} if this list changed as a result of the call
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean addAll(int index, Collection<? extends E> c) {
+		Object[] cs = c.toArray();
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			checkPositionIndex(index, n.size);
+			if (cs.length == 0) {
+				return false;
+			}
+			setRoot(insertAll(n, index, cs));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes from this list all of its elements that are contained in the
+	 * specified collection.
+	 *
+	 * @param c
+	 *            collection containing elements to be removed from this list
+	 * @return {@code true} if this list changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+
+	/**
+	 * Retains only the elements in this list that are contained in the
+	 * specified collection.
+	 *
+	 * @param c
+	 *            collection containing elements to be retained in this list
+	 * @return {@code true} if this list changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(e -> !c.contains(e));
+	}
+
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Node n = getRoot();
+			Object[] elements = new Object[n.size];
+			copyTo(n, elements, 0);
+			int kept = 0;
+			for (Object e : elements) {
+				@SuppressWarnings("unchecked")
+				E x = (E) e;
+				if (!filter.test(x)) {
+					elements[kept++] = e;
+				}
+			}
+			if (kept == elements.length) {
+				return false;
+			}
+			setRoot(build(elements, 0, kept));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void replaceAll(UnaryOperator<E> operator) {
+		Objects.requireNonNull(operator);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Object[] elements = toArray();
+			for (int i = 0; i < elements.length; ++i) {
+				@SuppressWarnings("unchecked")
+				E e = (E) elements[i];
+				elements[i] = operator.apply(e);
+			}
+			setRoot(build(elements, 0, elements.length));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Object[] elements = toArray();
+			Arrays.sort(elements, (Comparator<Object>) c);
+			setRoot(build(elements, 0, elements.length));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		forEach(getRoot(), action);
+	}
+
+	/**
+	 * Performs the given action on a private version of this list, holding
+	 * the lock that protects all mutators, and then publishes the resulting
+	 * version in a single step. Readers and iterators see either the list as
+	 * it was before the call or the list with all of the action's changes
+	 * applied, never an intermediate state, and the tree is published once
+	 * rather than once per change. If the action throws an exception, no
+	 * change is published and the exception is relayed to the caller.
+	 *
+	 * <p>
+	 * The list passed to the action supports all optional {@code List}
+	 * operations; its iterators are snapshots as for this list. It must not be
+	 * used after the action returns, when its methods throw
+	 * {@code IllegalStateException}.
+	 *
+	 * @param action
+	 *            the changes to make
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void batch(Consumer<? super List<E>> action) {
+		Objects.requireNonNull(action);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Batch<E> b = new Batch<E>(getRoot());
+			try {
+				action.accept(b);
+			} finally {
+				b.closed = true;
+			}
+			if (b.root != getRoot()) {
+				setRoot(b.root);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Compares the specified object with this list for equality. Returns
+	 * {@code true} if the specified object is the same object as this object,
+	 * or if it is also a {@link List} and the sequence of elements returned by
+	 * an {@linkplain List#iterator() iterator} over the specified list is the
+	 * same as the sequence returned by an iterator over this list.
+	 *
+	 * @param o
+	 *            the object to be compared for equality with this list
+	 * @return {@code true} if the specified object is equal to this list
+	 */
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if ((o instanceof CopyOnWriteTrieList) && (((CopyOnWriteTrieList<?>) o).getRoot() == getRoot())) {
+			return true;
+		}
+		return super.equals(o);
+	}
+
+	/**
+	 * Returns the hash code value for this list, as specified by
+	 * {@link List#hashCode}.
+	 *
+	 * @return the hash code value for this list
+	 */
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in proper sequence.
+	 *
+	 * <p>
+	 * The returned iterator provides a snapshot of the state of the list when
+	 * the iterator was constructed. No synchronization is needed while
+	 * traversing the iterator. The iterator does <em>NOT</em> support the
+	 * {@code remove} method.
+	 *
+	 * @return an iterator over the elements in this list in proper sequence
+	 */
+	public java.util.Iterator<E> iterator() {
+		return new TrieIterator<E>(getRoot(), 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * The returned iterator provides a snapshot of the state of the list when
+	 * the iterator was constructed. No synchronization is needed while
+	 * traversing the iterator. The iterator does <em>NOT</em> support the
+	 * {@code remove}, {@code set} or {@code add} methods.
+	 */
+	public ListIterator<E> listIterator() {
+		return new TrieIterator<E>(getRoot(), 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * The returned iterator provides a snapshot of the state of the list when
+	 * the iterator was constructed. No synchronization is needed while
+	 * traversing the iterator. The iterator does <em>NOT</em> support the
+	 * {@code remove}, {@code set} or {@code add} methods.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	public ListIterator<E> listIterator(int index) {
+		Node n = getRoot();
+		checkPositionIndex(index, n.size);
+		return new TrieIterator<E>(n, index);
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the elements in this list.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#IMMUTABLE},
+	 * {@link Spliterator#ORDERED}, {@link Spliterator#SIZED}, and
+	 * {@link Spliterator#SUBSIZED}.
+	 *
+	 * <p>
+	 * The spliterator provides a snapshot of the state of the list when the
+	 * spliterator was constructed. No synchronization is needed while
+	 * operating on the spliterator.
+	 *
+	 * @return a {@code Spliterator} over the elements in this list
+	 */
+	public Spliterator<E> spliterator() {
+		Node n = getRoot();
+		return Spliterators.spliterator(new TrieIterator<E>(n, 0), n.size, Spliterator.IMMUTABLE | Spliterator.ORDERED);
+	}
+
+	/**
+	 * Returns a view of the portion of this list between {@code fromIndex},
+	 * inclusive, and {@code toIndex}, exclusive. The returned list is backed by
+	 * this list, so changes in the returned list are reflected in this list.
+	 *
+	 * <p>
+	 * The semantics of the list returned by this method become undefined if the
+	 * backing list (i.e., this list) is modified in any way other than via the
+	 * returned list.
+	 *
+	 * @param fromIndex
+	 *            low endpoint (inclusive) of the subList
+	 * @param toIndex
+	 *            high endpoint (exclusive) of the subList
+	 * @return a view of the specified range within this list
+	 * @throws IndexOutOfBoundsException
+	 *             {@inheritDoc}
+	 */
+	public List<E> subList(int fromIndex, int toIndex) {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			int len = getRoot().size;
+			if ((fromIndex < 0) || (toIndex > len) || (fromIndex > toIndex)) {
+				throw new IndexOutOfBoundsException();
+			}
+			return new COWSubList<E>(this, fromIndex, toIndex);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	static void checkElementIndex(int index, int size) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	static void checkPositionIndex(int index, int size) {
+		if ((index < 0) || (index > size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * A node of the tree. Its size is the number of elements below it.
+	 */
+	static abstract class Node {
+		final int size;
+
+		Node(int size) {
+			this.size = size;
+		}
+	}
+
+	/** A node holding up to WIDTH elements */
+	static final class Leaf extends Node {
+		final Object[] items;
+
+		Leaf(Object[] items) {
+			super(items.length);
+			this.items = items;
+		}
+	}
+
+	/**
+	 * A node holding up to WIDTH children, all of the same height, with
+	 * ends[k] the number of elements in children 0 through k.
+	 */
+	static final class Branch extends Node {
+		final Node[] kids;
+		final int[] ends;
+
+		Branch(Node[] kids, int[] ends) {
+			super(ends[ends.length - 1]);
+			this.kids = kids;
+			this.ends = ends;
+		}
+	}
+
+	/** Returns a branch over the given children. */
+	static Branch branch(Node[] kids) {
+		int[] ends = new int[kids.length];
+		int s = 0;
+		for (int k = 0; k < kids.length; ++k) {
+			ends[k] = s += kids[k].size;
+		}
+		return new Branch(kids, ends);
+	}
+
+	/** Returns the number of elements or children of n. */
+	static int width(Node n) {
+		return (n instanceof Leaf) ? ((Leaf) n).items.length : ((Branch) n).kids.length;
+	}
+
+	/**
+	 * Returns the child of b holding index i, which must be less than its
+	 * size.
+	 */
+	static int child(Branch b, int i) {
+		int[] ends = b.ends;
+		int lo = 0, hi = ends.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (ends[mid] > i) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/** Returns the index of the first element of child k of b. */
+	static int start(Branch b, int k) {
+		return (k == 0) ? 0 : b.ends[k - 1];
+	}
+
+	static Object get(Node n, int i) {
+		while (n instanceof Branch) {
+			Branch b = (Branch) n;
+			int k = child(b, i);
+			i -= start(b, k);
+			n = b.kids[k];
+		}
+		return ((Leaf) n).items[i];
+	}
+
+	static Node set(Node n, int i, Object e) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items.clone();
+			items[i] = e;
+			return new Leaf(items);
+		}
+		Branch b = (Branch) n;
+		int k = child(b, i);
+		Node[] kids = b.kids.clone();
+		kids[k] = set(kids[k], i - start(b, k), e);
+		return new Branch(kids, b.ends);
+	}
+
+	/**
+	 * Inserts e at index i of n, returning either the new node or, if it
+	 * overflowed, the two halves it was split into.
+	 */
+	static Node[] insert(Node n, int i, Object e) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items;
+			int len = items.length;
+			Object[] a = new Object[len + 1];
+			System.arraycopy(items, 0, a, 0, i);
+			a[i] = e;
+			System.arraycopy(items, i, a, i + 1, len - i);
+			if (len < WIDTH) {
+				return new Node[] { new Leaf(a) };
+			}
+			int half = (len + 1) >>> 1;
+			return new Node[] { new Leaf(Arrays.copyOfRange(a, 0, half)), new Leaf(Arrays.copyOfRange(a, half, len + 1)) };
+		}
+		Branch b = (Branch) n;
+		// an index at a boundary is appended to the left child
+		int k = (i == b.size) ? b.kids.length - 1 : child(b, i);
+		if ((k > 0) && (i == b.ends[k - 1])) {
+			--k;
+		}
+		return replace(b, k, insert(b.kids[k], i - start(b, k), e));
+	}
+
+	/**
+	 * Returns b with child k replaced by the given nodes, split into two
+	 * branches if the result has more than WIDTH children.
+	 */
+	static Node[] replace(Branch b, int k, Node[] r) {
+		Node[] kids = b.kids;
+		int len = kids.length, rlen = r.length;
+		Node[] a = new Node[len - 1 + rlen];
+		System.arraycopy(kids, 0, a, 0, k);
+		System.arraycopy(r, 0, a, k, rlen);
+		System.arraycopy(kids, k + 1, a, k + rlen, len - k - 1);
+		if (a.length <= WIDTH) {
+			return new Node[] { branch(a) };
+		}
+		int half = a.length >>> 1;
+		return new Node[] { branch(Arrays.copyOfRange(a, 0, half)), branch(Arrays.copyOfRange(a, half, a.length)) };
+	}
+
+	static Node insertRoot(Node n, int i, Object e) {
+		Node[] r = insert(n, i, e);
+		return (r.length == 1) ? r[0] : branch(r);
+	}
+
+	/**
+	 * Removes index i of n, returning the new node, which may be empty or
+	 * have fewer than WIDTH / 2 elements or children.
+	 */
+	static Node remove(Node n, int i) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items;
+			int len = items.length;
+			if (len == 1) {
+				return EMPTY;
+			}
+			Object[] a = new Object[len - 1];
+			System.arraycopy(items, 0, a, 0, i);
+			System.arraycopy(items, i + 1, a, i, len - i - 1);
+			return new Leaf(a);
+		}
+		Branch b = (Branch) n;
+		int k = child(b, i);
+		Node c = remove(b.kids[k], i - start(b, k));
+		Node[] kids = b.kids;
+		int len = kids.length;
+		if (c.size == 0) {
+			if (len == 1) {
+				return EMPTY;
+			}
+			Node[] a = new Node[len - 1];
+			System.arraycopy(kids, 0, a, 0, k);
+			System.arraycopy(kids, k + 1, a, k, len - k - 1);
+			return branch(a);
+		}
+		if ((width(c) < (WIDTH >>> 1)) && (len > 1)) {
+			int j = (k > 0) ? k - 1 : k + 1; // sibling to merge with
+			Node s = kids[j];
+			if (width(s) + width(c) <= WIDTH) {
+				Node m = (j < k) ? concat(s, c) : concat(c, s);
+				Node[] a = new Node[len - 1];
+				int lo = Math.min(j, k);
+				System.arraycopy(kids, 0, a, 0, lo);
+				a[lo] = m;
+				System.arraycopy(kids, lo + 2, a, lo + 1, len - lo - 2);
+				return branch(a);
+			}
+		}
+		Node[] a = kids.clone();
+		a[k] = c;
+		return branch(a);
+	}
+
+	/** Returns the concatenation of two nodes of the same height. */
+	static Node concat(Node x, Node y) {
+		if (x instanceof Leaf) {
+			Object[] xs = ((Leaf) x).items, ys = ((Leaf) y).items;
+			Object[] a = Arrays.copyOf(xs, xs.length + ys.length);
+			System.arraycopy(ys, 0, a, xs.length, ys.length);
+			return new Leaf(a);
+		}
+		Node[] xs = ((Branch) x).kids, ys = ((Branch) y).kids;
+		Node[] a = Arrays.copyOf(xs, xs.length + ys.length);
+		System.arraycopy(ys, 0, a, xs.length, ys.length);
+		return branch(a);
+	}
+
+	static Node removeRoot(Node n, int i) {
+		n = remove(n, i);
+		while ((n instanceof Branch) && (((Branch) n).kids.length == 1)) {
+			n = ((Branch) n).kids[0];
+		}
+		return n;
+	}
+
+	/**
+	 * Removes indices [from, to) of n. Few elements are removed one at a time,
+	 * at O(log n) each; otherwise the tree is rebuilt in O(n).
+	 */
+	static Node removeRange(Node n, int from, int to) {
+		int rlen = to - from, len = n.size;
+		if (rlen <= (len >>> 5)) {
+			while (to > from) {
+				n = removeRoot(n, --to);
+			}
+			return n;
+		}
+		Object[] a = new Object[len];
+		copyTo(n, a, 0);
+		System.arraycopy(a, to, a, from, len - to);
+		return build(a, 0, len - rlen);
+	}
+
+	/**
+	 * Inserts the given elements at index i of n. Few elements are inserted
+	 * one at a time, at O(log n) each; otherwise the tree is rebuilt in O(n).
+	 */
+	static Node insertAll(Node n, int i, Object[] cs) {
+		int clen = cs.length, len = n.size;
+		if (clen <= (len >>> 5)) {
+			for (Object e : cs) {
+				n = insertRoot(n, i++, e);
+			}
+			return n;
+		}
+		Object[] a = new Object[len + clen];
+		copyTo(n, a, 0);
+		System.arraycopy(a, i, a, i + clen, len - i);
+		System.arraycopy(cs, 0, a, i, clen);
+		return build(a, 0, len + clen);
+	}
+
+	/** Returns a tree holding a[from, to), with full nodes. */
+	static Node build(Object[] a, int from, int to) {
+		int len = to - from;
+		if (len <= WIDTH) {
+			return (len == 0) ? EMPTY : new Leaf(Arrays.copyOfRange(a, from, to, Object[].class));
+		}
+		Node[] level = new Node[(len + WIDTH - 1) / WIDTH];
+		for (int k = 0, i = from; i < to; ++k, i += WIDTH) {
+			level[k] = new Leaf(Arrays.copyOfRange(a, i, Math.min(i + WIDTH, to), Object[].class));
+		}
+		while (level.length > 1) {
+			Node[] up = new Node[(level.length + WIDTH - 1) / WIDTH];
+			for (int k = 0, i = 0; i < level.length; ++k, i += WIDTH) {
+				up[k] = branch(Arrays.copyOfRange(level, i, Math.min(i + WIDTH, level.length)));
+			}
+			level = up;
+		}
+		return level[0];
+	}
+
+	/** Copies the elements of n into a starting at off. */
+	static void copyTo(Node n, Object[] a, int off) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items;
+			System.arraycopy(items, 0, a, off, items.length);
+		} else {
+			for (Node c : ((Branch) n).kids) {
+				copyTo(c, a, off);
+				off += c.size;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> void forEach(Node n, Consumer<? super E> action) {
+		if (n instanceof Leaf) {
+			for (Object e : ((Leaf) n).items) {
+				action.accept((E) e);
+			}
+		} else {
+			for (Node c : ((Branch) n).kids) {
+				forEach(c, action);
+			}
+		}
+	}
+
+	static int indexOf(Object o, Node n) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items;
+			return indexOf(o, items, 0, items.length);
+		}
+		int off = 0;
+		for (Node c : ((Branch) n).kids) {
+			int i;
+			if ((i = indexOf(o, c)) >= 0) {
+				return off + i;
+			}
+			off += c.size;
+		}
+		return -1;
+	}
+
+	static int lastIndexOf(Object o, Node n) {
+		if (n instanceof Leaf) {
+			Object[] items = ((Leaf) n).items;
+			for (int i = items.length - 1; i >= 0; i--) {
+				if (Objects.equals(o, items[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		Branch b = (Branch) n;
+		for (int k = b.kids.length - 1; k >= 0; k--) {
+			int i;
+			if ((i = lastIndexOf(o, b.kids[k])) >= 0) {
+				return start(b, k) + i;
+			}
+		}
+		return -1;
+	}
+
+	static int indexOf(Object o, Object[] a, int from, int to) {
+		if (o == null) {
+			for (int i = from; i < to; i++) {
+				if (a[i] == null) {
+					return i;
+				}
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				if (o.equals(a[i])) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Snapshot list iterator. It keeps the leaf holding the cursor and the
+	 * index of its first element, so that stepping within a leaf takes
+	 * constant time and moving to the next leaf a descent from the root.
+	 */
+	static final class TrieIterator<E> implements ListIterator<E> {
+		/** Snapshot of the tree */
+		private final Node snapshot;
+		/** Index of element to be returned by subsequent call to next. */
+		private int cursor;
+		/** The leaf last located, and the index of its first element */
+		private Object[] items;
+		private int base;
+
+		TrieIterator(Node snapshot, int initialCursor) {
+			this.snapshot = snapshot;
+			cursor = initialCursor;
+			items = EMPTY.items;
+		}
+
+		public boolean hasNext() {
+			return cursor < snapshot.size;
+		}
+
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return (E) at(cursor++);
+		}
+
+		@SuppressWarnings("unchecked")
+		public E previous() {
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			return (E) at(--cursor);
+		}
+
+		private Object at(int i) {
+			int j = i - base;
+			if ((j < 0) || (j >= items.length)) {
+				Node n = snapshot;
+				int b = 0;
+				while (n instanceof Branch) {
+					Branch br = (Branch) n;
+					int k = child(br, i - b);
+					b += start(br, k);
+					n = br.kids[k];
+				}
+				items = ((Leaf) n).items;
+				base = b;
+				j = i - b;
+			}
+			return items[j];
+		}
+
+		public int nextIndex() {
+			return cursor;
+		}
+
+		public int previousIndex() {
+			return cursor - 1;
+		}
+
+		/**
+		 * Not supported. Always throws UnsupportedOperationException.
+		 *
+		 * @throws UnsupportedOperationException
+		 *             always; {@code remove} is not supported by this
+		 *             iterator.
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Not supported. Always throws UnsupportedOperationException.
+		 *
+		 * @throws UnsupportedOperationException
+		 *             always; {@code set} is not supported by this iterator.
+		 */
+		public void set(E e) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Not supported. Always throws UnsupportedOperationException.
+		 *
+		 * @throws UnsupportedOperationException
+		 *             always; {@code add} is not supported by this iterator.
+		 */
+		public void add(E e) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			final int size = snapshot.size;
+			for (int i = cursor; i < size; i++) {
+				action.accept((E) at(i));
+			}
+			cursor = size;
+		}
+	}
+
+	/**
+	 * The list handed to the action of {@link #batch}. It updates a private
+	 * tree, which is only published when the action completes.
+	 */
+	static final class Batch<E> extends AbstractList<E> implements RandomAccess {
+		Node root;
+		boolean closed;
+
+		Batch(Node root) {
+			this.root = root;
+		}
+
+		private Node root() {
+			if (closed) {
+				throw new IllegalStateException("batch completed");
+			}
+			return root;
+		}
+
+		public int size() {
+			return root().size;
+		}
+
+		@SuppressWarnings("unchecked")
+		public E get(int index) {
+			Node n = root();
+			checkElementIndex(index, n.size);
+			return (E) CopyOnWriteTrieList.get(n, index);
+		}
+
+		public E set(int index, E element) {
+			Node n = root();
+			checkElementIndex(index, n.size);
+			@SuppressWarnings("unchecked")
+			E oldValue = (E) CopyOnWriteTrieList.get(n, index);
+			if (oldValue != element) {
+				root = CopyOnWriteTrieList.set(n, index, element);
+			}
+			return oldValue;
+		}
+
+		public void add(int index, E element) {
+			Node n = root();
+			checkPositionIndex(index, n.size);
+			root = insertRoot(n, index, element);
+			modCount++;
+		}
+
+		public E remove(int index) {
+			Node n = root();
+			checkElementIndex(index, n.size);
+			@SuppressWarnings("unchecked")
+			E oldValue = (E) CopyOnWriteTrieList.get(n, index);
+			root = removeRoot(n, index);
+			modCount++;
+			return oldValue;
+		}
+
+		public boolean addAll(int index, Collection<? extends E> c) {
+			Node n = root();
+			checkPositionIndex(index, n.size);
+			Object[] cs = c.toArray();
+			if (cs.length == 0) {
+				return false;
+			}
+			root = insertAll(n, index, cs);
+			modCount++;
+			return true;
+		}
+
+		public boolean addAll(Collection<? extends E> c) {
+			return addAll(size(), c);
+		}
+
+		public void clear() {
+			root();
+			root = EMPTY;
+			modCount++;
+		}
+
+		public int indexOf(Object o) {
+			return CopyOnWriteTrieList.indexOf(o, root());
+		}
+
+		public int lastIndexOf(Object o) {
+			return CopyOnWriteTrieList.lastIndexOf(o, root());
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		protected void removeRange(int fromIndex, int toIndex) {
+			Node n = root();
+			root = CopyOnWriteTrieList.removeRange(n, fromIndex, toIndex);
+			modCount++;
+		}
+
+		public Object[] toArray() {
+			Node n = root();
+			Object[] a = new Object[n.size];
+			copyTo(n, a, 0);
+			return a;
+		}
+
+		public java.util.Iterator<E> iterator() {
+			return new TrieIterator<E>(root(), 0);
+		}
+
+		public ListIterator<E> listIterator(int index) {
+			Node n = root();
+			checkPositionIndex(index, n.size);
+			return new TrieIterator<E>(n, index);
+		}
+
+		public boolean removeIf(Predicate<? super E> filter) {
+			Objects.requireNonNull(filter);
+			Object[] elements = toArray();
+			int kept = 0;
+			for (Object e : elements) {
+				@SuppressWarnings("unchecked")
+				E x = (E) e;
+				if (!filter.test(x)) {
+					elements[kept++] = e;
+				}
+			}
+			if (kept == elements.length) {
+				return false;
+			}
+			root = build(elements, 0, kept);
+			modCount++;
+			return true;
+		}
+
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(c::contains);
+		}
+
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(e -> !c.contains(e));
+		}
+
+		public void replaceAll(UnaryOperator<E> operator) {
+			Objects.requireNonNull(operator);
+			Object[] elements = toArray();
+			for (int i = 0; i < elements.length; ++i) {
+				@SuppressWarnings("unchecked")
+				E e = (E) elements[i];
+				elements[i] = operator.apply(e);
+			}
+			root = build(elements, 0, elements.length);
+		}
+
+		@SuppressWarnings("unchecked")
+		public void sort(Comparator<? super E> c) {
+			Object[] elements = toArray();
+			Arrays.sort(elements, (Comparator<Object>) c);
+			root = build(elements, 0, elements.length);
+			modCount++;
+		}
+
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			CopyOnWriteTrieList.forEach(root(), action);
+		}
+
+		/**
+		 * Sublists of a batch are checked for concurrent modification
+		 * through modCount like those of other lists.
+		 */
+		public List<E> subList(int fromIndex, int toIndex) {
+			root();
+			return super.subList(fromIndex, toIndex);
+		}
+	}
+
+	/**
+	 * Sublist for CopyOnWriteTrieList, as for CopyOnWriteArrayList. Each
+	 * method checks, holding the list's lock, that the list still has the tree
+	 * this sublist last saw, and records the tree its own changes publish.
+	 */
+	static final class COWSubList<E> extends AbstractList<E> implements RandomAccess {
+		private final CopyOnWriteTrieList<E> l;
+		private final int offset;
+		private int size;
+		private Node expectedRoot;
+
+		// only call this holding l's lock
+		COWSubList(CopyOnWriteTrieList<E> list, int fromIndex, int toIndex) {
+			l = list;
+			expectedRoot = l.getRoot();
+			offset = fromIndex;
+			size = toIndex - fromIndex;
+		}
+
+		// only call this holding l's lock
+		private void checkForComodification() {
+			if (l.getRoot() != expectedRoot) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		// only call this holding l's lock
+		private void rangeCheck(int index) {
+			if ((index < 0) || (index >= size)) {
+				throw new IndexOutOfBoundsException("Index: " + index + ",Size: " + size);
+			}
+		}
+
+		public E set(int index, E element) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				rangeCheck(index);
+				checkForComodification();
+				E x = l.set(index + offset, element);
+				expectedRoot = l.getRoot();
+				return x;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public E get(int index) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				rangeCheck(index);
+				checkForComodification();
+				return l.get(index + offset);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public int size() {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				return size;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public void add(int index, E element) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				if ((index < 0) || (index > size)) {
+					throw new IndexOutOfBoundsException();
+				}
+				l.add(index + offset, element);
+				expectedRoot = l.getRoot();
+				size++;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public void clear() {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				l.removeRange(offset, offset + size);
+				expectedRoot = l.getRoot();
+				size = 0;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public E remove(int index) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				rangeCheck(index);
+				checkForComodification();
+				E result = l.remove(index + offset);
+				expectedRoot = l.getRoot();
+				size--;
+				return result;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public boolean remove(Object o) {
+			int index = indexOf(o);
+			if (index == -1) {
+				return false;
+			}
+			remove(index);
+			return true;
+		}
+
+		public java.util.Iterator<E> iterator() {
+			return listIterator(0);
+		}
+
+		public ListIterator<E> listIterator(int index) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				if ((index < 0) || (index > size)) {
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+				}
+				return new COWSubListIterator<E>(expectedRoot, index, offset, size);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public List<E> subList(int fromIndex, int toIndex) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				if ((fromIndex < 0) || (toIndex > size) || (fromIndex > toIndex)) {
+					throw new IndexOutOfBoundsException();
+				}
+				return new COWSubList<E>(l, fromIndex + offset, toIndex + offset);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			Node n = expectedRoot;
+			if (l.getRoot() != n) {
+				throw new ConcurrentModificationException();
+			}
+			TrieIterator<E> it = new TrieIterator<E>(n, offset);
+			for (int k = size; k > 0; --k) {
+				action.accept(it.next());
+			}
+		}
+
+		public void replaceAll(UnaryOperator<E> operator) {
+			Objects.requireNonNull(operator);
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				Object[] elements = l.toArray();
+				for (int i = offset, hi = offset + size; i < hi; ++i) {
+					@SuppressWarnings("unchecked")
+					E e = (E) elements[i];
+					elements[i] = operator.apply(e);
+				}
+				l.setRoot(expectedRoot = build(elements, 0, elements.length));
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		public void sort(Comparator<? super E> c) {
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				Object[] elements = l.toArray();
+				Arrays.sort(elements, offset, offset + size, (Comparator<Object>) c);
+				l.setRoot(expectedRoot = build(elements, 0, elements.length));
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(c::contains);
+		}
+
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(e -> !c.contains(e));
+		}
+
+		public boolean removeIf(Predicate<? super E> filter) {
+			Objects.requireNonNull(filter);
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try {
+				checkForComodification();
+				Object[] elements = l.toArray();
+				int hi = offset + size, kept = offset;
+				for (int i = offset; i < hi; ++i) {
+					@SuppressWarnings("unchecked")
+					E x = (E) elements[i];
+					if (!filter.test(x)) {
+						elements[kept++] = x;
+					}
+				}
+				if (kept == hi) {
+					return false;
+				}
+				System.arraycopy(elements, hi, elements, kept, elements.length - hi);
+				l.setRoot(expectedRoot = build(elements, 0, elements.length - (hi - kept)));
+				size = kept - offset;
+				return true;
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Iterator over a snapshot of a sublist's range of the tree.
+	 */
+	static final class COWSubListIterator<E> implements ListIterator<E> {
+		private final TrieIterator<E> it;
+		private final int offset;
+		private final int size;
+
+		COWSubListIterator(Node snapshot, int index, int offset, int size) {
+			this.offset = offset;
+			this.size = size;
+			it = new TrieIterator<E>(snapshot, index + offset);
+		}
+
+		public boolean hasNext() {
+			return nextIndex() < size;
+		}
+
+		public E next() {
+			if (hasNext()) {
+				return it.next();
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+
+		public boolean hasPrevious() {
+			return previousIndex() >= 0;
+		}
+
+		public E previous() {
+			if (hasPrevious()) {
+				return it.previous();
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+
+		public int nextIndex() {
+			return it.nextIndex() - offset;
+		}
+
+		public int previousIndex() {
+			return it.previousIndex() - offset;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		public void set(E e) {
+			throw new UnsupportedOperationException();
+		}
+
+		public void add(E e) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			int s = size;
+			while (nextIndex() < s) {
+				action.accept(it.next());
+			}
+		}
+	}
+
+	/**
+	 * Saves this list to a stream (that is, serializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 * @serialData The length of the list is emitted (int), followed by all of
+	 *             its elements (each an Object) in the proper order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		Object[] elements = toArray();
+		// Write out array length
+		s.writeInt(elements.length);
+		// Write out all elements in the proper order.
+		for (Object element : elements) {
+			s.writeObject(element);
+		}
+	}
+
+	/**
+	 * Reconstitutes this list from a stream (that is, deserializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws ClassNotFoundException
+	 *             if the class of a serialized object could not be found
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		// bind to new lock
+		resetLock();
+		// Read in array length and allocate array
+		int len = s.readInt();
+		SharedSecrets.getJavaOISAccess().checkArray(s, Object[].class, len);
+		Object[] elements = new Object[len];
+		// Read in all elements in the proper order.
+		for (int i = 0; i < len; i++) {
+			elements[i] = s.readObject();
+		}
+		setRoot(build(elements, 0, len));
+	}
+
+	// Support for resetting lock while deserializing
+	private void resetLock() {
+		UNSAFE.putObjectVolatile(this, lockOffset, new ReentrantLock());
+	}
+
+	private static final sun.misc.Unsafe UNSAFE;
+	private static final long lockOffset;
+	static {
+		try {
+			UNSAFE = sun.misc.Unsafe.getUnsafe();
+			Class<?> k = CopyOnWriteTrieList.class;
+			lockOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("lock"));
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -0,0 +1,814 @@
+package java.util.concurrent;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import sun.misc.SharedSecrets;
+
+/**
+ * A {@link Set} that, like {@link CopyOnWriteArraySet}, makes a fresh version
+ * of its underlying structure on each mutation, so that readers and iterators
+ * never block or see a partial update. Unlike that class, the elements are held
+ * in a persistent hash array mapped trie, so {@code contains}, {@code add} and
+ * {@code remove} take O(log<sub>32</sub> n) time instead of O(n), and each
+ * update copies only the nodes on the path to the changed element, sharing
+ * all others with the previous version.
+ *
+ * <p>
+ * Iterators and spliterators traverse a snapshot of the set taken when they
+ * were created, and never throw {@code ConcurrentModificationException}.
+ * Iteration order is determined by the elements' hash codes, not by insertion
+ * order. The iterator does not support {@code remove}.
+ *
+ * <p>
+ * Several mutations can be combined by {@link #batch}, which applies them to a
+ * private version of the set and publishes the result once, so that readers
+ * see either none or all of them.
+ *
+ * <p>
+ * All elements are permitted, including {@code null}.
+ *
+ * <p>
+ * Memory consistency effects: As with other concurrent collections, actions
+ * in a thread prior to placing an object into a {@code CopyOnWriteTrieSet}
+ * <a href="package-summary.html#MemoryVisibility"><i>happen-before</i></a>
+ * actions subsequent to the access or removal of that element from the
+ * {@code CopyOnWriteTrieSet} in another thread.
+ *
+ * @see CopyOnWriteTrieList
+ * @param <E>
+ *            the type of elements held in this collection
+ */
+public class CopyOnWriteTrieSet<E> extends AbstractSet<E> implements Cloneable, java.io.Serializable {
+	private static final long serialVersionUID = 2907513065164356738L;
+
+	/*
+	 * Each node of the trie consumes BITS bits of the spread hash code of an
+	 * element, starting with the lowest. A BitmapNode holds, for each 5-bit
+	 * digit present, either a single element or a child node, compressed into
+	 * an array indexed by the population count of the bitmap below the digit.
+	 * Elements whose hash codes are equal in all 32 bits are held in a
+	 * CollisionNode. Removals put a child left with a single element back
+	 * into its parent, so the trie stays as shallow as the hash codes allow.
+	 * The root and the size are published together in an immutable Trie.
+	 */
+
+	/** Number of hash bits consumed per level */
+	static final int BITS = 5;
+
+	static final int MASK = (1 << BITS) - 1;
+
+	/** The shared empty trie */
+	static final Trie EMPTY = new Trie(new BitmapNode(0, new Object[0]), 0);
+
+	/** The lock protecting all mutators */
+	final transient ReentrantLock lock = new ReentrantLock();
+
+	/** The trie, replaced on each mutation */
+	private transient volatile Trie trie;
+
+	/**
+	 * Creates an empty set.
+	 */
+	public CopyOnWriteTrieSet() {
+		trie = EMPTY;
+	}
+
+	/**
+	 * Creates a set containing all of the elements of the specified
+	 * collection.
+	 *
+	 * @param c
+	 *            the collection of elements to initially contain
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public CopyOnWriteTrieSet(Collection<? extends E> c) {
+		if (c.getClass() == CopyOnWriteTrieSet.class) {
+			trie = ((CopyOnWriteTrieSet<?>) c).trie;
+		} else {
+			Trie t = EMPTY;
+			for (E e : c) {
+				t = t.add(e);
+			}
+			trie = t;
+		}
+	}
+
+	public int size() {
+		return trie.size;
+	}
+
+	public boolean isEmpty() {
+		return trie.size == 0;
+	}
+
+	public boolean contains(Object o) {
+		return contains(trie.root, 0, spread(Objects.hashCode(o)), o);
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present.
+	 *
+	 * @param e
+	 *            element to be added to this set
+	 * @return {@code true} if this set did not already contain the specified
+	 *         element
+	 */
+	public boolean add(E e) {
+		if (contains(e)) {
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Trie t = trie, u = t.add(e);
+			if (u == t) {
+				return false;
+			}
+			trie = u;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present.
+	 *
+	 * @param o
+	 *            object to be removed from this set, if present
+	 * @return {@code true} if this set contained the specified element
+	 */
+	public boolean remove(Object o) {
+		if (!contains(o)) {
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Trie t = trie, u = t.remove(o);
+			if (u == t) {
+				return false;
+			}
+			trie = u;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all of the elements from this set. The set will be empty after
+	 * this call returns.
+	 */
+	public void clear() {
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			trie = EMPTY;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this set if
+	 * they're not already present, publishing the result once.
+	 *
+	 * @param c
+	 *            collection containing elements to be added to this set
+	 * @return {@code true} if this set changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean addAll(Collection<? extends E> c) {
+		Object[] cs = c.toArray();
+		if (cs.length == 0) {
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Trie t = trie, u = t;
+			for (Object e : cs) {
+				u = u.add(e);
+			}
+			if (u == t) {
+				return false;
+			}
+			trie = u;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes from this set all of its elements that are contained in the
+	 * specified collection, publishing the result once.
+	 *
+	 * @param c
+	 *            collection containing elements to be removed from this set
+	 * @return {@code true} if this set changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Trie t = trie, u = t;
+			if (c.size() < t.size) {
+				for (Object e : c) {
+					u = u.remove(e);
+				}
+			} else {
+				for (Object e : new Snapshot<Object>(t)) {
+					if (c.contains(e)) {
+						u = u.remove(e);
+					}
+				}
+			}
+			if (u == t) {
+				return false;
+			}
+			trie = u;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retains only the elements in this set that are contained in the
+	 * specified collection.
+	 *
+	 * @param c
+	 *            collection containing elements to be retained in this set
+	 * @return {@code true} if this set changed as a result of the call
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 */
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(e -> !c.contains(e));
+	}
+
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Trie t = trie, u = t;
+			for (E e : new Snapshot<E>(t)) {
+				if (filter.test(e)) {
+					u = u.remove(e);
+				}
+			}
+			if (u == t) {
+				return false;
+			}
+			trie = u;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		forEach(trie.root, action);
+	}
+
+	/**
+	 * Performs the given action on a private version of this set, holding the
+	 * lock that protects all mutators, and then publishes the resulting
+	 * version in a single step. Readers and iterators see either the set as it
+	 * was before the call or the set with all of the action's changes applied,
+	 * never an intermediate state. If the action throws an exception, no
+	 * change is published and the exception is relayed to the caller.
+	 *
+	 * <p>
+	 * The set passed to the action supports all optional {@code Set}
+	 * operations; its iterators are snapshots and do not support
+	 * {@code remove}. It must not be used after the action returns, when its
+	 * methods throw {@code IllegalStateException}.
+	 *
+	 * @param action
+	 *            the changes to make
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void batch(Consumer<? super Set<E>> action) {
+		Objects.requireNonNull(action);
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try {
+			Batch<E> b = new Batch<E>(trie);
+			try {
+				action.accept(b);
+			} finally {
+				b.closed = true;
+			}
+			if (b.trie != trie) {
+				trie = b.trie;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements contained in this set.
+	 *
+	 * <p>
+	 * The returned iterator provides a snapshot of the state of the set when
+	 * the iterator was constructed. No synchronization is needed while
+	 * traversing the iterator. The iterator does <em>NOT</em> support the
+	 * {@code remove} method.
+	 *
+	 * @return an iterator over the elements in this set
+	 */
+	public Iterator<E> iterator() {
+		return new TrieIterator<E>(trie.root);
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the elements in this set.
+	 *
+	 * <p>
+	 * The {@code Spliterator} reports {@link Spliterator#IMMUTABLE},
+	 * {@link Spliterator#DISTINCT}, {@link Spliterator#SIZED}, and
+	 * {@link Spliterator#SUBSIZED}.
+	 *
+	 * <p>
+	 * The spliterator provides a snapshot of the state of the set when the
+	 * spliterator was constructed. No synchronization is needed while
+	 * operating on the spliterator.
+	 *
+	 * @return a {@code Spliterator} over the elements in this set
+	 */
+	public Spliterator<E> spliterator() {
+		Trie t = trie;
+		return Spliterators.spliterator(new TrieIterator<E>(t.root), t.size, Spliterator.IMMUTABLE | Spliterator.DISTINCT);
+	}
+
+	/**
+	 * Returns a shallow copy of this set. (The elements themselves are not
+	 * copied.) Since the trie is immutable, this takes constant time.
+	 *
+	 * @return a clone of this set
+	 */
+	public Object clone() {
+		try {
+			@SuppressWarnings("unchecked")
+			CopyOnWriteTrieSet<E> clone = (CopyOnWriteTrieSet<E>) super.clone();
+			clone.resetLock();
+			return clone;
+		} catch (CloneNotSupportedException e) {
+			// this shouldn't happen, since we are Cloneable
+			throw new InternalError();
+		}
+	}
+
+	/**
+	 * Spreads higher bits of the hash downward, as in HashMap, so that the
+	 * first levels of the trie are not decided by the low bits alone.
+	 */
+	static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * An immutable version of the set: its root node and size.
+	 */
+	static final class Trie {
+		final Node root;
+		final int size;
+
+		Trie(Node root, int size) {
+			this.root = root;
+			this.size = size;
+		}
+
+		/** Returns this trie with e added, or this if already present. */
+		Trie add(Object e) {
+			Node r = insert(root, 0, spread(Objects.hashCode(e)), e);
+			return (r == root) ? this : new Trie(r, size + 1);
+		}
+
+		/** Returns this trie with o removed, or this if absent. */
+		Trie remove(Object o) {
+			Object r = delete(root, 0, spread(Objects.hashCode(o)), o);
+			if (r == root) {
+				return this;
+			}
+			if (r instanceof Node) {
+				return new Trie((Node) r, size - 1);
+			}
+			// the root was left with one element
+			return new Trie(new BitmapNode(1 << (spread(Objects.hashCode(r)) & MASK), new Object[] { r }), size - 1);
+		}
+	}
+
+	/** A node of the trie. Elements are never instances of this class. */
+	static abstract class Node {
+	}
+
+	/**
+	 * An interior node, holding an element or a child node for each bit set
+	 * in its bitmap, in order of the bits.
+	 */
+	static final class BitmapNode extends Node {
+		final int bitmap;
+		final Object[] array;
+
+		BitmapNode(int bitmap, Object[] array) {
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+	}
+
+	/** A node holding elements with identical hash codes */
+	static final class CollisionNode extends Node {
+		final int hash;
+		final Object[] array;
+
+		CollisionNode(int hash, Object[] array) {
+			this.hash = hash;
+			this.array = array;
+		}
+	}
+
+	static boolean contains(Node n, int shift, int h, Object o) {
+		for (;;) {
+			if (n instanceof CollisionNode) {
+				for (Object e : ((CollisionNode) n).array) {
+					if (Objects.equals(o, e)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			BitmapNode b = (BitmapNode) n;
+			int bit = 1 << ((h >>> shift) & MASK);
+			if ((b.bitmap & bit) == 0) {
+				return false;
+			}
+			Object x = b.array[Integer.bitCount(b.bitmap & (bit - 1))];
+			if (!(x instanceof Node)) {
+				return Objects.equals(o, x);
+			}
+			n = (Node) x;
+			shift += BITS;
+		}
+	}
+
+	/**
+	 * Returns n with e added, or n itself if e is already present.
+	 */
+	static Node insert(Node n, int shift, int h, Object e) {
+		if (n instanceof CollisionNode) {
+			Object[] a = ((CollisionNode) n).array;
+			for (Object x : a) {
+				if (Objects.equals(e, x)) {
+					return n;
+				}
+			}
+			Object[] r = java.util.Arrays.copyOf(a, a.length + 1);
+			r[a.length] = e;
+			return new CollisionNode(h, r);
+		}
+		BitmapNode b = (BitmapNode) n;
+		int bit = 1 << ((h >>> shift) & MASK);
+		int i = Integer.bitCount(b.bitmap & (bit - 1));
+		Object[] a = b.array;
+		if ((b.bitmap & bit) == 0) {
+			Object[] r = new Object[a.length + 1];
+			System.arraycopy(a, 0, r, 0, i);
+			r[i] = e;
+			System.arraycopy(a, i, r, i + 1, a.length - i);
+			return new BitmapNode(b.bitmap | bit, r);
+		}
+		Object x = a[i], y;
+		if (x instanceof Node) {
+			if ((y = insert((Node) x, shift + BITS, h, e)) == x) {
+				return n;
+			}
+		} else if (Objects.equals(e, x)) {
+			return n;
+		} else {
+			y = pair(shift + BITS, spread(Objects.hashCode(x)), x, h, e);
+		}
+		Object[] r = a.clone();
+		r[i] = y;
+		return new BitmapNode(b.bitmap, r);
+	}
+
+	/**
+	 * Returns a node holding two distinct elements whose hashes agree below
+	 * the given shift.
+	 */
+	static Node pair(int shift, int h1, Object e1, int h2, Object e2) {
+		if (shift >= 32) {
+			return new CollisionNode(h1, new Object[] { e1, e2 });
+		}
+		int d1 = (h1 >>> shift) & MASK, d2 = (h2 >>> shift) & MASK;
+		if (d1 == d2) {
+			return new BitmapNode(1 << d1, new Object[] { pair(shift + BITS, h1, e1, h2, e2) });
+		}
+		return new BitmapNode((1 << d1) | (1 << d2), (d1 < d2) ? new Object[] { e1, e2 } : new Object[] { e2, e1 });
+	}
+
+	/**
+	 * Returns n with o removed: n itself if o is absent, the only remaining
+	 * element if n is left with a single element and no child, or else the
+	 * new node.
+	 */
+	static Object delete(Node n, int shift, int h, Object o) {
+		if (n instanceof CollisionNode) {
+			Object[] a = ((CollisionNode) n).array;
+			for (int i = 0; i < a.length; ++i) {
+				if (Objects.equals(o, a[i])) {
+					if (a.length == 2) {
+						return a[1 - i];
+					}
+					Object[] r = new Object[a.length - 1];
+					System.arraycopy(a, 0, r, 0, i);
+					System.arraycopy(a, i + 1, r, i, a.length - i - 1);
+					return new CollisionNode(((CollisionNode) n).hash, r);
+				}
+			}
+			return n;
+		}
+		BitmapNode b = (BitmapNode) n;
+		int bit = 1 << ((h >>> shift) & MASK);
+		if ((b.bitmap & bit) == 0) {
+			return n;
+		}
+		int i = Integer.bitCount(b.bitmap & (bit - 1));
+		Object[] a = b.array;
+		Object x = a[i];
+		if (x instanceof Node) {
+			Object y = delete((Node) x, shift + BITS, h, o);
+			if (y == x) {
+				return n;
+			}
+			if ((a.length == 1) && !(y instanceof Node)) {
+				return y; // pull the remaining element up
+			}
+			Object[] r = a.clone();
+			r[i] = y;
+			return new BitmapNode(b.bitmap, r);
+		}
+		if (!Objects.equals(o, x)) {
+			return n;
+		}
+		if ((a.length == 2) && !(a[1 - i] instanceof Node)) {
+			return a[1 - i];
+		}
+		Object[] r = new Object[a.length - 1];
+		System.arraycopy(a, 0, r, 0, i);
+		System.arraycopy(a, i + 1, r, i, a.length - i - 1);
+		return new BitmapNode(b.bitmap & ~bit, r);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> void forEach(Node n, Consumer<? super E> action) {
+		Object[] a = (n instanceof BitmapNode) ? ((BitmapNode) n).array : ((CollisionNode) n).array;
+		for (Object x : a) {
+			if (x instanceof Node) {
+				forEach((Node) x, action);
+			} else {
+				action.accept((E) x);
+			}
+		}
+	}
+
+	/**
+	 * Snapshot iterator, a depth-first traversal of the trie using an
+	 * explicit stack of node arrays and positions.
+	 */
+	static final class TrieIterator<E> implements Iterator<E> {
+		/** Arrays of the nodes on the current path, at most 8 deep */
+		private final Object[][] arrays = new Object[8][];
+		private final int[] indices = new int[8];
+		private int depth;
+		private Object nextElement;
+		private boolean hasNext;
+
+		TrieIterator(Node root) {
+			arrays[0] = (root instanceof BitmapNode) ? ((BitmapNode) root).array : ((CollisionNode) root).array;
+			advance();
+		}
+
+		private void advance() {
+			while (depth >= 0) {
+				Object[] a = arrays[depth];
+				int i = indices[depth];
+				if (i >= a.length) {
+					--depth;
+					continue;
+				}
+				indices[depth] = i + 1;
+				Object x = a[i];
+				if (x instanceof Node) {
+					++depth;
+					arrays[depth] = (x instanceof BitmapNode) ? ((BitmapNode) x).array : ((CollisionNode) x).array;
+					indices[depth] = 0;
+				} else {
+					nextElement = x;
+					hasNext = true;
+					return;
+				}
+			}
+			nextElement = null;
+			hasNext = false;
+		}
+
+		public boolean hasNext() {
+			return hasNext;
+		}
+
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext) {
+				throw new NoSuchElementException();
+			}
+			E e = (E) nextElement;
+			advance();
+			return e;
+		}
+
+		/**
+		 * Not supported. Always throws UnsupportedOperationException.
+		 *
+		 * @throws UnsupportedOperationException
+		 *             always; {@code remove} is not supported by this
+		 *             iterator.
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * An iterable over a fixed trie, used by bulk operations that change the
+	 * set while traversing it.
+	 */
+	static final class Snapshot<E> implements Iterable<E> {
+		private final Trie trie;
+
+		Snapshot(Trie trie) {
+			this.trie = trie;
+		}
+
+		public Iterator<E> iterator() {
+			return new TrieIterator<E>(trie.root);
+		}
+	}
+
+	/**
+	 * The set handed to the action of {@link #batch}. It updates a private
+	 * trie, which is only published when the action completes.
+	 */
+	static final class Batch<E> extends AbstractSet<E> {
+		Trie trie;
+		boolean closed;
+
+		Batch(Trie trie) {
+			this.trie = trie;
+		}
+
+		private Trie trie() {
+			if (closed) {
+				throw new IllegalStateException("batch completed");
+			}
+			return trie;
+		}
+
+		public int size() {
+			return trie().size;
+		}
+
+		public boolean contains(Object o) {
+			return CopyOnWriteTrieSet.contains(trie().root, 0, spread(Objects.hashCode(o)), o);
+		}
+
+		public boolean add(E e) {
+			Trie t = trie();
+			return t != (trie = t.add(e));
+		}
+
+		public boolean remove(Object o) {
+			Trie t = trie();
+			return t != (trie = t.remove(o));
+		}
+
+		public void clear() {
+			trie();
+			trie = EMPTY;
+		}
+
+		public boolean removeIf(Predicate<? super E> filter) {
+			Objects.requireNonNull(filter);
+			Trie t = trie(), u = t;
+			for (E e : new Snapshot<E>(t)) {
+				if (filter.test(e)) {
+					u = u.remove(e);
+				}
+			}
+			trie = u;
+			return u != t;
+		}
+
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(c::contains);
+		}
+
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeIf(e -> !c.contains(e));
+		}
+
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			CopyOnWriteTrieSet.forEach(trie().root, action);
+		}
+
+		public Iterator<E> iterator() {
+			return new TrieIterator<E>(trie().root);
+		}
+	}
+
+	/**
+	 * Saves this set to a stream (that is, serializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 * @serialData The size of the set is emitted (int), followed by all of its
+	 *             elements (each an Object) in no particular order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		Trie t = trie;
+		s.writeInt(t.size);
+		for (Object e : new Snapshot<Object>(t)) {
+			s.writeObject(e);
+		}
+	}
+
+	/**
+	 * Reconstitutes this set from a stream (that is, deserializes it).
+	 *
+	 * @param s
+	 *            the stream
+	 * @throws ClassNotFoundException
+	 *             if the class of a serialized object could not be found
+	 * @throws java.io.IOException
+	 *             if an I/O error occurs
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		// bind to new lock
+		resetLock();
+		int len = s.readInt();
+		SharedSecrets.getJavaOISAccess().checkArray(s, Object[].class, len);
+		Trie t = EMPTY;
+		for (int i = 0; i < len; i++) {
+			t = t.add(s.readObject());
+		}
+		trie = t;
+	}
+
+	// Support for resetting lock while deserializing
+	private void resetLock() {
+		UNSAFE.putObjectVolatile(this, lockOffset, new ReentrantLock());
+	}
+
+	private static final sun.misc.Unsafe UNSAFE;
+	private static final long lockOffset;
+	static {
+		try {
+			UNSAFE = sun.misc.Unsafe.getUnsafe();
+			Class<?> k = CopyOnWriteTrieSet.class;
+			lockOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("lock"));
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -35,15 +35,47 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	private final Condition notEmpty = lock.newCondition();
 	private final Condition notFull = lock.newCondition();
 
+	/** The maximum number of spare nodes kept for reuse. */
+	private static final int MAX_SPARES = 256;
+
+	/** Whether removed nodes are reused for later insertions. */
+	private final boolean recycleNodes;
+
+	/** Spare nodes linked via next, and their number; lock held. */
+	private transient Node<E> spares;
+	private transient int spareCount;
+
 	public LinkedBlockingDeque() {
 		this(Integer.MAX_VALUE);
 	}
 
 	public LinkedBlockingDeque(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * Creates a {@code LinkedBlockingDeque} with the given (fixed) capacity,
+	 * optionally reusing the nodes of removed elements for later insertions.
+	 *
+	 * <p>
+	 * Recycling removes the per-element allocation of long-lived deques with a
+	 * high turnover, at the cost of a small bounded pool of spare nodes. When
+	 * recycling, iterators and spliterators traverse a snapshot of the deque
+	 * taken at their construction instead of the live nodes.
+	 *
+	 * @param capacity
+	 *            the capacity of this deque
+	 * @param recycleNodes
+	 *            if {@code true}, nodes of removed elements are reused
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity} is less than 1
+	 */
+	public LinkedBlockingDeque(int capacity, boolean recycleNodes) {
 		if (capacity <= 0) {
 			throw new IllegalArgumentException();
 		}
 		this.capacity = capacity;
+		this.recycleNodes = recycleNodes;
 	}
 
 	public LinkedBlockingDeque(Collection<? extends E> c) {
@@ -65,6 +97,37 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	}
 
 	// Basic linking and unlinking operations, called only while holding lock
+	/**
+	 * Returns a node holding e, reusing a spare node if one is available.
+	 */
+	private Node<E> newNode(E e) {
+		// assert lock.isHeldByCurrentThread();
+		Node<E> p = spares;
+		if (p == null) {
+			return new Node<>(e);
+		}
+		spares = p.next;
+		--spareCount;
+		p.next = null;
+		p.item = e;
+		return p;
+	}
+
+	/**
+	 * Keeps a node removed from either end for reuse, unless enough spare
+	 * nodes are already kept.
+	 */
+	private void retire(Node<E> x) {
+		// assert lock.isHeldByCurrentThread();
+		// assert x.item == null;
+		if (spareCount < MAX_SPARES) {
+			x.prev = null;
+			x.next = spares;
+			spares = x;
+			++spareCount;
+		}
+	}
+
 	/**
 	 * Links node as first element, or returns false if full.
 	 */
@@ -111,6 +174,19 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	 * Removes and returns first element, or null if empty.
 	 */
 	private E unlinkFirst() {
+		// assert lock.isHeldByCurrentThread();
+		E item = detachFirst();
+		if (item != null) {
+			notFull.signal();
+		}
+		return item;
+	}
+
+	/**
+	 * Removes and returns first element, or null if empty, without signalling
+	 * waiting putters.
+	 */
+	private E detachFirst() {
 		// assert lock.isHeldByCurrentThread();
 		Node<E> f = first;
 		if (f == null) {
@@ -127,7 +203,9 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 			n.prev = null;
 		}
 		--count;
-		notFull.signal();
+		if (recycleNodes) {
+			retire(f);
+		}
 		return item;
 	}
 
@@ -151,6 +229,9 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 			p.next = null;
 		}
 		--count;
+		if (recycleNodes) {
+			retire(l);
+		}
 		notFull.signal();
 		return item;
 	}
@@ -210,10 +291,13 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock lock = this.lock;
 		lock.lock();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			return linkFirst(node);
 		} finally {
 			lock.unlock();
@@ -228,10 +312,13 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock lock = this.lock;
 		lock.lock();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			return linkLast(node);
 		} finally {
 			lock.unlock();
@@ -248,10 +335,13 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock lock = this.lock;
 		lock.lock();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			while (!linkFirst(node)) {
 				notFull.await();
 			}
@@ -270,10 +360,13 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock lock = this.lock;
 		lock.lock();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			while (!linkLast(node)) {
 				notFull.await();
 			}
@@ -292,11 +385,14 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		long nanos = unit.toNanos(timeout);
 		final ReentrantLock lock = this.lock;
 		lock.lockInterruptibly();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			while (!linkFirst(node)) {
 				if (nanos <= 0) {
 					return false;
@@ -319,11 +415,14 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		if (e == null) {
 			throw new NullPointerException();
 		}
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		long nanos = unit.toNanos(timeout);
 		final ReentrantLock lock = this.lock;
 		lock.lockInterruptibly();
 		try {
+			if (node == null) {
+				node = newNode(e);
+			}
 			while (!linkLast(node)) {
 				if (nanos <= 0) {
 					return false;
@@ -691,6 +790,172 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		}
 	}
 
+	/**
+	 * Inserts all elements of the given collection at the end of this deque,
+	 * in the collection's iteration order, waiting if necessary for space to
+	 * become available. Elements are inserted in runs that each take the lock
+	 * once and wake waiting takers once, rather than once per element.
+	 *
+	 * <p>
+	 * If the collection holds more elements than the deque has room for, the
+	 * elements that fit are made available to takers before waiting for more
+	 * space. If interrupted while waiting, the elements inserted so far remain
+	 * in this deque.
+	 *
+	 * @param c
+	 *            the elements to insert
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws NullPointerException
+	 *             if the specified collection or any of its elements is null,
+	 *             in which case no element is inserted
+	 * @throws IllegalArgumentException
+	 *             if the specified collection is this deque
+	 */
+	public void putAll(Collection<? extends E> c) throws InterruptedException {
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		Object[] a = c.toArray();
+		final int n = a.length;
+		for (Object x : a) {
+			if (x == null) {
+				throw new NullPointerException();
+			}
+		}
+		// Unless recycling, link the nodes outside the lock
+		Node<E> chain = null;
+		if (!recycleNodes && (n > 0)) {
+			@SuppressWarnings("unchecked")
+			Node<E> t = chain = new Node<>((E) a[0]);
+			for (int i = 1; i < n; ++i) {
+				@SuppressWarnings("unchecked")
+				Node<E> p = new Node<>((E) a[i]);
+				p.prev = t;
+				t = t.next = p;
+			}
+		}
+		final ReentrantLock lock = this.lock;
+		for (int i = 0; i < n;) {
+			lock.lockInterruptibly();
+			try {
+				while (count >= capacity) {
+					notFull.await();
+				}
+				int k = Math.min(n - i, capacity - count);
+				Node<E> h, t;
+				if (chain == null) {
+					@SuppressWarnings("unchecked")
+					Node<E> f = h = t = newNode((E) a[i]);
+					for (int j = i + 1, end = i + k; j < end; ++j) {
+						@SuppressWarnings("unchecked")
+						Node<E> p = newNode((E) a[j]);
+						p.prev = t;
+						t = t.next = p;
+					}
+				} else {
+					h = t = chain;
+					for (int j = 1; j < k; ++j) {
+						t = t.next;
+					}
+					chain = t.next;
+					t.next = null;
+					if (chain != null) {
+						chain.prev = null;
+					}
+				}
+				Node<E> l = last;
+				h.prev = l;
+				last = t;
+				if (l == null) {
+					first = h;
+				} else {
+					l.next = h;
+				}
+				count += k;
+				i += k;
+				if (k == 1) {
+					notEmpty.signal();
+				} else {
+					notEmpty.signalAll();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Removes at most the given number of available elements from the front
+	 * of this deque and adds them to the given collection, waiting up to the
+	 * specified wait time for at least one element to become available. The
+	 * lock is acquired once for the whole batch, and waiting putters are woken
+	 * once.
+	 *
+	 * <p>
+	 * A failure encountered while attempting to add elements to collection
+	 * {@code c} may result in elements being in neither, either or both
+	 * collections when the associated exception is thrown.
+	 *
+	 * @param c
+	 *            the collection to transfer elements into
+	 * @param maxElements
+	 *            the maximum number of elements to transfer
+	 * @param timeout
+	 *            how long to wait before giving up, in units of {@code unit}
+	 * @param unit
+	 *            a {@code TimeUnit} determining how to interpret the
+	 *            {@code timeout} parameter
+	 * @return the number of elements transferred, or zero if the specified
+	 *         waiting time elapses before an element is available
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 * @throws IllegalArgumentException
+	 *             if the specified collection is this deque
+	 */
+	public int takeBatch(Collection<? super E> c, int maxElements, long timeout, TimeUnit unit) throws InterruptedException {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		if (maxElements <= 0) {
+			return 0;
+		}
+		long nanos = unit.toNanos(timeout);
+		final ReentrantLock lock = this.lock;
+		lock.lockInterruptibly();
+		try {
+			while (count == 0) {
+				if (nanos <= 0) {
+					return 0;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			int n = Math.min(maxElements, count);
+			int i = 0;
+			try {
+				while (i < n) {
+					c.add(first.item); // In this order, in case add() throws.
+					detachFirst();
+					++i;
+				}
+				return n;
+			} finally {
+				if (i == 1) {
+					notFull.signal();
+				} else if (i > 1) {
+					notFull.signalAll();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	// Stack methods
 	/**
 	 * @throws IllegalStateException
@@ -965,7 +1230,7 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	 * @return an iterator over the elements in this deque in proper sequence
 	 */
 	public Iterator<E> iterator() {
-		return new Itr();
+		return recycleNodes ? new SnapshotItr(false) : new Itr();
 	}
 
 	/**
@@ -980,7 +1245,7 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	 * @return an iterator over the elements in this deque in reverse order
 	 */
 	public Iterator<E> descendingIterator() {
-		return new DescendingItr();
+		return recycleNodes ? new SnapshotItr(true) : new DescendingItr();
 	}
 
 	/**
@@ -1110,6 +1375,68 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 		}
 	}
 
+	/**
+	 * Iterator over a snapshot, used when nodes are recycled and so cannot be
+	 * traversed across lock releases. The snapshot keeps each node with the
+	 * element it held, so that remove() unlinks the node that was iterated.
+	 */
+	private class SnapshotItr implements Iterator<E> {
+		private final Node<E>[] nodes;
+		private final Object[] items;
+		private int cursor;
+		private int lastRet = -1;
+
+		@SuppressWarnings("unchecked")
+		SnapshotItr(boolean descending) {
+			final ReentrantLock lock = LinkedBlockingDeque.this.lock;
+			lock.lock();
+			try {
+				nodes = (Node<E>[]) new Node<?>[count];
+				items = new Object[count];
+				int k = 0;
+				for (Node<E> p = descending ? last : first; p != null; p = descending ? p.prev : p.next) {
+					nodes[k] = p;
+					items[k++] = p.item;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public boolean hasNext() {
+			return cursor < items.length;
+		}
+
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (cursor >= items.length) {
+				throw new NoSuchElementException();
+			}
+			lastRet = cursor;
+			return (E) items[cursor++];
+		}
+
+		public void remove() {
+			if (lastRet < 0) {
+				throw new IllegalStateException();
+			}
+			Node<E> n = nodes[lastRet];
+			Object x = items[lastRet];
+			lastRet = -1;
+			final ReentrantLock lock = LinkedBlockingDeque.this.lock;
+			lock.lock();
+			try {
+				// A node still holding the element is linked; one recycled for
+				// another element is not the node that was iterated
+				if (n.item == x) {
+					unlink(n);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
 	/** A customized variant of Spliterators.IteratorSpliterator */
 	static final class LBDSpliterator<E> implements Spliterator<E> {
 		static final int MAX_BATCH = 1 << 25; // max batch array size;
@@ -1254,6 +1581,9 @@ public class LinkedBlockingDeque<E> extends AbstractQueue<E> implements Blocking
 	 * @since 1.8
 	 */
 	public Spliterator<E> spliterator() {
+		if (recycleNodes) {
+			return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+		}
 		return new LBDSpliterator<>(this);
 	}
 
@@ -2,6 +2,7 @@ package java.util.concurrent;
 
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockProfiler;
 import java.util.concurrent.locks.ReentrantLock;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -31,11 +32,30 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 	private final AtomicInteger count = new AtomicInteger();
 	transient Node<E> head;
 	private transient Node<E> last;
-	private final ReentrantLock takeLock = new ReentrantLock();
+	private final ReentrantLock takeLock = LockProfiler.newReentrantLock(false, this, "takeLock");
 	private final Condition notEmpty = takeLock.newCondition();
-	private final ReentrantLock putLock = new ReentrantLock();
+	private final ReentrantLock putLock = LockProfiler.newReentrantLock(false, this, "putLock");
 	private final Condition notFull = putLock.newCondition();
 
+	/**
+	 * The number of dequeued nodes a taker accumulates before handing them to
+	 * producers, which also bounds each of the three spare lists below.
+	 */
+	private static final int RECYCLE_BATCH = 64;
+
+	/** Whether dequeued nodes are reused for later insertions. */
+	private final boolean recycleNodes;
+
+	/** Dequeued nodes not yet handed off, linked via next; takeLock held. */
+	private transient Node<E> takerSpares;
+	private transient int takerSpareCount;
+
+	/** Nodes available for insertion, linked via next; putLock held. */
+	private transient Node<E> putterSpares;
+
+	/** A batch of spare nodes in transit from takers to putters, or null. */
+	private transient volatile Node<E> recycled;
+
 	private void signalNotEmpty() {
 		final ReentrantLock takeLock = this.takeLock;
 		takeLock.lock();
@@ -74,9 +94,54 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 		head = first;
 		E x = first.item;
 		first.item = null;
+		if (recycleNodes) {
+			retire(h);
+		}
 		return x;
 	}
 
+	/**
+	 * Returns a node holding e, reusing a retired node if one is available.
+	 * Only called while holding putLock when recycling nodes.
+	 */
+	private Node<E> newNode(E e) {
+		// assert !recycleNodes || putLock.isHeldByCurrentThread();
+		Node<E> p = putterSpares;
+		if ((p == null) && (recycled != null)) {
+			@SuppressWarnings("unchecked")
+			Node<E> batch = (Node<E>) UNSAFE.getAndSetObject(this, recycledOffset, null);
+			p = batch;
+		}
+		if (p == null) {
+			return new Node<>(e);
+		}
+		putterSpares = p.next;
+		p.next = null;
+		p.item = e;
+		return p;
+	}
+
+	/**
+	 * Keeps a dequeued former head node for reuse. Batches of retired nodes
+	 * are handed to putters through a single slot; when putters have not yet
+	 * collected the previous batch, the node is simply left to the garbage
+	 * collector, which bounds the number of spare nodes.
+	 */
+	private void retire(Node<E> h) {
+		// assert takeLock.isHeldByCurrentThread();
+		// assert h.item == null;
+		if (takerSpareCount >= RECYCLE_BATCH) {
+			if ((recycled != null) || !UNSAFE.compareAndSwapObject(this, recycledOffset, null, takerSpares)) {
+				return;
+			}
+			takerSpares = null;
+			takerSpareCount = 0;
+		}
+		h.next = takerSpares;
+		takerSpares = h;
+		++takerSpareCount;
+	}
+
 	/**
 	 * Locks to prevent both puts and takes.
 	 */
@@ -117,10 +182,32 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 	 *             if {@code capacity} is not greater than zero
 	 */
 	public LinkedBlockingQueue(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * Creates a {@code LinkedBlockingQueue} with the given (fixed) capacity,
+	 * optionally reusing the nodes of removed elements for later insertions.
+	 *
+	 * <p>
+	 * Recycling removes the per-element allocation of long-lived queues with a
+	 * high turnover, at the cost of a small bounded pool of spare nodes. When
+	 * recycling, iterators and spliterators traverse a snapshot of the queue
+	 * taken at their construction instead of the live nodes.
+	 *
+	 * @param capacity
+	 *            the capacity of this queue
+	 * @param recycleNodes
+	 *            if {@code true}, nodes of removed elements are reused
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity} is not greater than zero
+	 */
+	public LinkedBlockingQueue(int capacity, boolean recycleNodes) {
 		if (capacity <= 0) {
 			throw new IllegalArgumentException();
 		}
 		this.capacity = capacity;
+		this.recycleNodes = recycleNodes;
 		last = head = new Node<>(null);
 	}
 
@@ -201,7 +288,7 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 		// Note: convention in all put/take/etc is to preset local var
 		// holding count negative to indicate failure unless set.
 		int c = -1;
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock putLock = this.putLock;
 		final AtomicInteger count = this.count;
 		putLock.lockInterruptibly();
@@ -217,7 +304,7 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 			while (count.get() == capacity) {
 				notFull.await();
 			}
-			enqueue(node);
+			enqueue((node != null) ? node : newNode(e));
 			c = count.getAndIncrement();
 			if ((c + 1) < capacity) {
 				notFull.signal();
@@ -257,7 +344,7 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 				}
 				nanos = notFull.awaitNanos(nanos);
 			}
-			enqueue(new Node<>(e));
+			enqueue(newNode(e));
 			c = count.getAndIncrement();
 			if ((c + 1) < capacity) {
 				notFull.signal();
@@ -291,12 +378,12 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 			return false;
 		}
 		int c = -1;
-		Node<E> node = new Node<>(e);
+		Node<E> node = recycleNodes ? null : new Node<>(e);
 		final ReentrantLock putLock = this.putLock;
 		putLock.lock();
 		try {
 			if (count.get() < capacity) {
-				enqueue(node);
+				enqueue((node != null) ? node : newNode(e));
 				c = count.getAndIncrement();
 				if ((c + 1) < capacity) {
 					notFull.signal();
@@ -389,6 +476,176 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 		return x;
 	}
 
+	/**
+	 * Inserts all elements of the given collection at the tail of this queue,
+	 * in the collection's iteration order, waiting if necessary for space to
+	 * become available. Elements are inserted in runs that each take the put
+	 * lock once and wake waiting takers once, rather than once per element.
+	 *
+	 * <p>
+	 * If the collection holds more elements than the queue has room for, the
+	 * elements that fit are made available to takers before waiting for more
+	 * space. If interrupted while waiting, the elements inserted so far remain
+	 * in this queue.
+	 *
+	 * @param c
+	 *            the elements to insert
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws NullPointerException
+	 *             if the specified collection or any of its elements is null,
+	 *             in which case no element is inserted
+	 * @throws IllegalArgumentException
+	 *             if the specified collection is this queue
+	 */
+	public void putAll(Collection<? extends E> c) throws InterruptedException {
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		Object[] a = c.toArray();
+		final int n = a.length;
+		for (Object x : a) {
+			if (x == null) {
+				throw new NullPointerException();
+			}
+		}
+		// Unless recycling, link the nodes outside the lock
+		Node<E> chain = null;
+		if (!recycleNodes && (n > 0)) {
+			@SuppressWarnings("unchecked")
+			Node<E> t = chain = new Node<>((E) a[0]);
+			for (int i = 1; i < n; ++i) {
+				@SuppressWarnings("unchecked")
+				Node<E> p = new Node<>((E) a[i]);
+				t = t.next = p;
+			}
+		}
+		final ReentrantLock putLock = this.putLock;
+		final AtomicInteger count = this.count;
+		for (int i = 0; i < n;) {
+			int c0 = -1;
+			putLock.lockInterruptibly();
+			try {
+				while (count.get() == capacity) {
+					notFull.await();
+				}
+				int k = Math.min(n - i, capacity - count.get());
+				if (chain == null) {
+					for (int j = i, end = i + k; j < end; ++j) {
+						@SuppressWarnings("unchecked")
+						E e = (E) a[j];
+						enqueue(newNode(e));
+					}
+				} else {
+					Node<E> t = chain;
+					for (int j = 1; j < k; ++j) {
+						t = t.next;
+					}
+					Node<E> rest = t.next;
+					t.next = null;
+					last.next = chain;
+					last = t;
+					chain = rest;
+				}
+				i += k;
+				c0 = count.getAndAdd(k);
+				if ((c0 + k) < capacity) {
+					notFull.signal();
+				}
+			} finally {
+				putLock.unlock();
+			}
+			if (c0 == 0) {
+				signalNotEmpty();
+			}
+		}
+	}
+
+	/**
+	 * Removes at most the given number of available elements from this queue
+	 * and adds them to the given collection, waiting up to the specified wait
+	 * time for at least one element to become available. The take lock is
+	 * acquired once for the whole batch, and waiting putters are woken once.
+	 *
+	 * <p>
+	 * A failure encountered while attempting to add elements to collection
+	 * {@code c} may result in elements being in neither, either or both
+	 * collections when the associated exception is thrown.
+	 *
+	 * @param c
+	 *            the collection to transfer elements into
+	 * @param maxElements
+	 *            the maximum number of elements to transfer
+	 * @param timeout
+	 *            how long to wait before giving up, in units of {@code unit}
+	 * @param unit
+	 *            a {@code TimeUnit} determining how to interpret the
+	 *            {@code timeout} parameter
+	 * @return the number of elements transferred, or zero if the specified
+	 *         waiting time elapses before an element is available
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 * @throws IllegalArgumentException
+	 *             if the specified collection is this queue
+	 */
+	public int takeBatch(Collection<? super E> c, int maxElements, long timeout, TimeUnit unit) throws InterruptedException {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		if (maxElements <= 0) {
+			return 0;
+		}
+		long nanos = unit.toNanos(timeout);
+		boolean signalNotFull = false;
+		final AtomicInteger count = this.count;
+		final ReentrantLock takeLock = this.takeLock;
+		takeLock.lockInterruptibly();
+		try {
+			while (count.get() == 0) {
+				if (nanos <= 0) {
+					return 0;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			int n = Math.min(maxElements, count.get());
+			Node<E> h = head;
+			int i = 0;
+			try {
+				while (i < n) {
+					Node<E> p = h.next;
+					c.add(p.item);
+					p.item = null;
+					h.next = h;
+					if (recycleNodes) {
+						retire(h);
+					}
+					h = p;
+					++i;
+				}
+				return n;
+			} finally {
+				if (i > 0) {
+					head = h;
+					int c0 = count.getAndAdd(-i);
+					if (c0 > i) {
+						notEmpty.signal();
+					}
+					signalNotFull = (c0 == capacity);
+				}
+			}
+		} finally {
+			takeLock.unlock();
+			if (signalNotFull) {
+				signalNotFull();
+			}
+		}
+	}
+
 	public E peek() {
 		if (count.get() == 0) {
 			return null;
@@ -665,6 +922,9 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 					c.add(p.item);
 					p.item = null;
 					h.next = h;
+					if (recycleNodes) {
+						retire(h);
+					}
 					h = p;
 					++i;
 				}
@@ -696,7 +956,72 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 	 * @return an iterator over the elements in this queue in proper sequence
 	 */
 	public Iterator<E> iterator() {
-		return new Itr();
+		return recycleNodes ? new SnapshotItr() : new Itr();
+	}
+
+	/**
+	 * Iterator over a snapshot, used when nodes are recycled and so cannot be
+	 * traversed across lock releases. The snapshot keeps each node with the
+	 * element it held, so that remove() unlinks the node that was iterated,
+	 * unless it has since been recycled for another element.
+	 */
+	private class SnapshotItr implements Iterator<E> {
+		private final Node<E>[] nodes;
+		private final Object[] items;
+		private int cursor;
+		private int lastRet = -1;
+
+		@SuppressWarnings("unchecked")
+		SnapshotItr() {
+			fullyLock();
+			try {
+				int size = count.get();
+				nodes = (Node<E>[]) new Node<?>[size];
+				items = new Object[size];
+				int k = 0;
+				for (Node<E> p = head.next; p != null; p = p.next) {
+					nodes[k] = p;
+					items[k++] = p.item;
+				}
+			} finally {
+				fullyUnlock();
+			}
+		}
+
+		public boolean hasNext() {
+			return cursor < items.length;
+		}
+
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (cursor >= items.length) {
+				throw new NoSuchElementException();
+			}
+			lastRet = cursor;
+			return (E) items[cursor++];
+		}
+
+		public void remove() {
+			if (lastRet < 0) {
+				throw new IllegalStateException();
+			}
+			fullyLock();
+			try {
+				Node<E> node = nodes[lastRet];
+				Object x = items[lastRet];
+				lastRet = -1;
+				for (Node<E> trail = head, p = trail.next; p != null; trail = p, p = p.next) {
+					if (p == node) {
+						if (p.item == x) {
+							unlink(p, trail);
+						}
+						break;
+					}
+				}
+			} finally {
+				fullyUnlock();
+			}
+		}
 	}
 
 	private class Itr implements Iterator<E> {
@@ -922,6 +1247,9 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 	 * @since 1.8
 	 */
 	public Spliterator<E> spliterator() {
+		if (recycleNodes) {
+			return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+		}
 		return new LBQSpliterator<>(this);
 	}
 
@@ -951,4 +1279,17 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
 			add(item);
 		}
 	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe UNSAFE;
+	private static final long recycledOffset;
+	static {
+		try {
+			UNSAFE = sun.misc.Unsafe.getUnsafe();
+			Class<?> k = LinkedBlockingQueue.class;
+			recycledOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("recycled"));
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
 }
@@ -0,0 +1,808 @@
+package java.util.concurrent;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * An unbounded {@linkplain BlockingQueue blocking queue} that orders its
+ * elements approximately by priority, using the same ordering rules as
+ * {@link PriorityBlockingQueue}, while letting many threads insert and remove
+ * elements in parallel.
+ *
+ * <p>
+ * The queue is made of several independent binary heaps, each guarded by its
+ * own lock (a <em>MultiQueue</em>). An insertion adds the element to a
+ * randomly chosen heap whose lock is free. A removal samples two heaps at
+ * random, compares their least elements, and removes from the heap holding
+ * the smaller one. Threads therefore rarely contend on the same lock, and the
+ * cost of sifting grows with the size of a single heap rather than of the
+ * whole queue.
+ *
+ * <p>
+ * The price is relaxed ordering: {@link #poll()} returns an element that is
+ * close to, but not necessarily, the least element of the queue; on average
+ * its rank is proportional to the number of heaps. The number of heaps is the
+ * quality knob of this class. With a single heap, the ordering is exact and
+ * the queue behaves like a {@code PriorityBlockingQueue}; the default of twice
+ * the number of available processors favors throughput. Iteration order is
+ * unspecified.
+ *
+ * <p>
+ * This class implements all of the blocking operations of
+ * {@code PriorityBlockingQueue} and is suitable as the work queue of a
+ * {@link ThreadPoolExecutor}. It does not permit {@code null} elements. A
+ * queue relying on natural ordering does not permit insertion of
+ * non-comparable objects (doing so results in {@code ClassCastException}).
+ *
+ * @param <E>
+ *            the type of elements held in this collection
+ */
+@SuppressWarnings("unchecked")
+public class RelaxedPriorityBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/** The number of processors, for sizing and spin control. */
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	/** The number of failed polls to retry before waiting. */
+	private static final int SPINS = (NCPU < 2) ? 0 : 1 << 6;
+
+	/** The number of failed lock attempts before blocking on a heap lock. */
+	private static final int MAX_TRY_LOCKS = 8;
+
+	private static final int INITIAL_HEAP_CAPACITY = 16;
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * One binary heap and its lock. The least element is mirrored in a
+	 * volatile field so that removals can compare candidate heaps without
+	 * locking them.
+	 */
+	@sun.misc.Contended
+	static final class Heap extends ReentrantLock {
+		private static final long serialVersionUID = -3256397823405267924L;
+		Object[] queue = new Object[INITIAL_HEAP_CAPACITY];
+		int size;
+		volatile Object top;
+
+		/** Inserts x; call only while holding lock. */
+		<T> void insert(T x, Comparator<? super T> cmp) {
+			int n = size;
+			Object[] array = queue;
+			if (n >= array.length) {
+				queue = array = grow(array);
+			}
+			if (cmp == null) {
+				siftUpComparable(n, x, array);
+			} else {
+				siftUpUsingComparator(n, x, array, cmp);
+			}
+			size = n + 1;
+			top = array[0];
+		}
+
+		/** Removes the least element; call only while holding lock. */
+		<T> T removeTop(Comparator<? super T> cmp) {
+			return removeAt(0, cmp);
+		}
+
+		/** Removes the i-th element; call only while holding lock. */
+		<T> T removeAt(int i, Comparator<? super T> cmp) {
+			int n = size - 1;
+			if (n < i) {
+				return null;
+			}
+			Object[] array = queue;
+			T result = (T) array[i];
+			if (n == i) {
+				array[i] = null;
+			} else {
+				T moved = (T) array[n];
+				array[n] = null;
+				if (cmp == null) {
+					siftDownComparable(i, moved, array, n);
+				} else {
+					siftDownUsingComparator(i, moved, array, n, cmp);
+				}
+				if (array[i] == moved) {
+					if (cmp == null) {
+						siftUpComparable(i, moved, array);
+					} else {
+						siftUpUsingComparator(i, moved, array, cmp);
+					}
+				}
+			}
+			size = n;
+			top = (n > 0) ? array[0] : null;
+			return result;
+		}
+
+		int indexOf(Object o, boolean identity) {
+			Object[] array = queue;
+			for (int i = 0, n = size; i < n; i++) {
+				if (identity ? (o == array[i]) : o.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private static Object[] grow(Object[] array) {
+			int oldCap = array.length;
+			int newCap = oldCap + ((oldCap < 64) ? (oldCap + 2) : (oldCap >> 1));
+			if ((newCap - MAX_ARRAY_SIZE) > 0) {
+				if (oldCap == MAX_ARRAY_SIZE) {
+					throw new OutOfMemoryError();
+				}
+				newCap = MAX_ARRAY_SIZE;
+			}
+			return Arrays.copyOf(array, newCap);
+		}
+	}
+
+	/** The heaps; never empty. */
+	private final Heap[] heaps;
+
+	/** The comparator, or null if priority queue uses elements' natural ordering. */
+	private final Comparator<? super E> comparator;
+
+	/** Lock and condition used only by threads waiting for an element. */
+	private final ReentrantLock waitLock = new ReentrantLock();
+	private final Condition notEmpty = waitLock.newCondition();
+
+	/** The number of threads waiting on notEmpty; written under waitLock. */
+	private volatile int waiters;
+
+	/**
+	 * Creates a {@code RelaxedPriorityBlockingQueue} with twice as many heaps
+	 * as available processors that orders its elements according to their
+	 * {@linkplain Comparable natural ordering}.
+	 */
+	public RelaxedPriorityBlockingQueue() {
+		this(2 * NCPU, null);
+	}
+
+	/**
+	 * Creates a {@code RelaxedPriorityBlockingQueue} with twice as many heaps
+	 * as available processors that orders its elements according to the
+	 * specified comparator.
+	 *
+	 * @param comparator
+	 *            the comparator that will be used to order this priority
+	 *            queue. If {@code null}, the {@linkplain Comparable natural
+	 *            ordering} of the elements will be used.
+	 */
+	public RelaxedPriorityBlockingQueue(Comparator<? super E> comparator) {
+		this(2 * NCPU, comparator);
+	}
+
+	/**
+	 * Creates a {@code RelaxedPriorityBlockingQueue} with the given number of
+	 * heaps that orders its elements according to the specified comparator.
+	 * Fewer heaps give an ordering closer to exact priority order; more heaps
+	 * give more parallelism.
+	 *
+	 * @param heapCount
+	 *            the number of heaps, which is one for exact ordering
+	 * @param comparator
+	 *            the comparator that will be used to order this priority
+	 *            queue. If {@code null}, the {@linkplain Comparable natural
+	 *            ordering} of the elements will be used.
+	 * @throws IllegalArgumentException
+	 *             if {@code heapCount} is less than 1
+	 */
+	public RelaxedPriorityBlockingQueue(int heapCount, Comparator<? super E> comparator) {
+		if (heapCount < 1) {
+			throw new IllegalArgumentException();
+		}
+		Heap[] hs = new Heap[heapCount];
+		for (int i = 0; i < heapCount; ++i) {
+			hs[i] = new Heap();
+		}
+		this.heaps = hs;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns the number of heaps of this queue.
+	 *
+	 * @return the number of heaps
+	 */
+	public int heapCount() {
+		return heaps.length;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this queue, or
+	 * {@code null} if this queue uses the {@linkplain Comparable natural
+	 * ordering} of its elements.
+	 *
+	 * @return the comparator used to order the elements in this queue, or
+	 *         {@code null} if this queue uses the natural ordering of its
+	 *         elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	private int compare(Object a, Object b) {
+		Comparator<? super E> cmp = comparator;
+		return (cmp == null) ? ((Comparable<? super E>) a).compareTo((E) b) : cmp.compare((E) a, (E) b);
+	}
+
+	private void signalNotEmpty() {
+		final ReentrantLock waitLock = this.waitLock;
+		waitLock.lock();
+		try {
+			notEmpty.signal();
+		} finally {
+			waitLock.unlock();
+		}
+	}
+
+	/**
+	 * Inserts the specified element into this priority queue.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @return {@code true} (as specified by {@link Collection#add})
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in the priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean add(E e) {
+		return offer(e);
+	}
+
+	/**
+	 * Inserts the specified element into a randomly chosen heap of this
+	 * priority queue. As the queue is unbounded, this method will never return
+	 * {@code false}.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @return {@code true} (as specified by {@link java.util.Queue#offer})
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in the priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		final Heap[] hs = heaps;
+		final int n = hs.length;
+		ThreadLocalRandom r = ThreadLocalRandom.current();
+		Heap h;
+		for (int tries = 0;; ++tries) {
+			h = hs[(n == 1) ? 0 : r.nextInt(n)];
+			if (h.tryLock()) {
+				break;
+			}
+			if (tries >= MAX_TRY_LOCKS) {
+				h.lock();
+				break;
+			}
+		}
+		try {
+			h.insert(e, comparator);
+		} finally {
+			h.unlock();
+		}
+		if (waiters != 0) {
+			signalNotEmpty();
+		}
+		return true;
+	}
+
+	/**
+	 * Inserts the specified element into this priority queue. As the queue is
+	 * unbounded, this method will never block.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in the priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public void put(E e) {
+		offer(e); // never need to block
+	}
+
+	/**
+	 * Inserts the specified element into this priority queue. As the queue is
+	 * unbounded, this method will never block or return {@code false}.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @param timeout
+	 *            This parameter is ignored as the method never blocks
+	 * @param unit
+	 *            This parameter is ignored as the method never blocks
+	 * @return {@code true} (as specified by
+	 *         {@link BlockingQueue#offer(Object,long,TimeUnit)
+	 *         BlockingQueue.offer})
+	 * @throws ClassCastException
+	 *             if the specified element cannot be compared with elements
+	 *             currently in the priority queue according to the priority
+	 *             queue's ordering
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) {
+		return offer(e); // never need to block
+	}
+
+	/**
+	 * Retrieves and removes an element close to the head of this queue, or
+	 * returns {@code null} if this queue is empty. The element comes from the
+	 * better of two randomly sampled heaps, falling back to a scan of all
+	 * heaps when sampling keeps hitting empty or busy heaps.
+	 *
+	 * @return an element close to the head of this queue, or {@code null} if
+	 *         this queue is empty
+	 */
+	@Override
+	public E poll() {
+		final Heap[] hs = heaps;
+		final int n = hs.length;
+		if (n > 1) {
+			ThreadLocalRandom r = ThreadLocalRandom.current();
+			for (int tries = 0; tries < MAX_TRY_LOCKS; ++tries) {
+				Heap a = hs[r.nextInt(n)], b = hs[r.nextInt(n)];
+				Object ta = a.top, tb = b.top;
+				Heap h;
+				if (ta == null) {
+					if (tb == null) {
+						continue;
+					}
+					h = b;
+				} else {
+					h = ((tb == null) || (compare(ta, tb) <= 0)) ? a : b;
+				}
+				if (h.tryLock()) {
+					try {
+						E x = h.removeTop(comparator);
+						if (x != null) {
+							return x;
+						}
+					} finally {
+						h.unlock();
+					}
+				}
+			}
+		}
+		return scanPoll();
+	}
+
+	/**
+	 * Removes the least element of the first non-empty heap found, starting
+	 * at a random heap, or returns null if all heaps are empty.
+	 */
+	private E scanPoll() {
+		final Heap[] hs = heaps;
+		final int n = hs.length;
+		int i = (n == 1) ? 0 : ThreadLocalRandom.current().nextInt(n);
+		for (int k = 0; k < n; ++k, i = (i + 1 == n) ? 0 : i + 1) {
+			Heap h = hs[i];
+			if (h.top != null) {
+				h.lock();
+				try {
+					E x = h.removeTop(comparator);
+					if (x != null) {
+						return x;
+					}
+				} finally {
+					h.unlock();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Waits for an element, up to the given deadline if timed.
+	 *
+	 * @return an element, or null on timeout
+	 */
+	private E awaitElement(boolean timed, long nanos) throws InterruptedException {
+		E x;
+		for (int spins = SPINS; spins > 0; --spins) {
+			if ((x = poll()) != null) {
+				return x;
+			}
+		}
+		final ReentrantLock waitLock = this.waitLock;
+		waitLock.lockInterruptibly();
+		try {
+			++waiters;
+			try {
+				// Registering before polling ensures an inserter that
+				// misses this element's absence sees the waiter.
+				while ((x = poll()) == null) {
+					if (!timed) {
+						notEmpty.await();
+					} else if (nanos <= 0L) {
+						return null;
+					} else {
+						nanos = notEmpty.awaitNanos(nanos);
+					}
+				}
+			} finally {
+				--waiters;
+			}
+		} finally {
+			waitLock.unlock();
+		}
+		return x;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E x = poll();
+		return (x != null) ? x : awaitElement(false, 0L);
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E x = poll();
+		return (x != null) ? x : awaitElement(true, unit.toNanos(timeout));
+	}
+
+	/**
+	 * Retrieves, but does not remove, the least of the heads of all heaps, or
+	 * returns {@code null} if this queue is empty. This is the exact head of
+	 * the queue if no other thread modifies it concurrently.
+	 *
+	 * @return the least element of this queue, or {@code null} if empty
+	 */
+	@Override
+	public E peek() {
+		Object best = null;
+		for (Heap h : heaps) {
+			Object t = h.top;
+			if ((t != null) && ((best == null) || (compare(t, best) < 0))) {
+				best = t;
+			}
+		}
+		return (E) best;
+	}
+
+	@Override
+	public int size() {
+		long n = 0L;
+		for (Heap h : heaps) {
+			h.lock();
+			try {
+				n += h.size;
+			} finally {
+				h.unlock();
+			}
+		}
+		return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Heap h : heaps) {
+			if (h.top != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Always returns {@code Integer.MAX_VALUE} because a
+	 * {@code RelaxedPriorityBlockingQueue} is not capacity constrained.
+	 *
+	 * @return {@code Integer.MAX_VALUE} always
+	 */
+	@Override
+	public int remainingCapacity() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Removes a single instance of the specified element from this queue, if
+	 * it is present.
+	 *
+	 * @param o
+	 *            element to be removed from this queue, if present
+	 * @return {@code true} if this queue changed as a result of the call
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return (o != null) && removeElement(o, false);
+	}
+
+	/**
+	 * Removes the element o, comparing by identity or equality.
+	 */
+	private boolean removeElement(Object o, boolean identity) {
+		for (Heap h : heaps) {
+			h.lock();
+			try {
+				int i = h.indexOf(o, identity);
+				if (i >= 0) {
+					h.removeAt(i, comparator);
+					return true;
+				}
+			} finally {
+				h.unlock();
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o != null) {
+			for (Heap h : heaps) {
+				h.lock();
+				try {
+					if (h.indexOf(o, false) >= 0) {
+						return true;
+					}
+				} finally {
+					h.unlock();
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Atomically removes all of the elements of each heap from this queue.
+	 */
+	@Override
+	public void clear() {
+		for (Heap h : heaps) {
+			h.lock();
+			try {
+				Arrays.fill(h.queue, 0, h.size, null);
+				h.size = 0;
+				h.top = null;
+			} finally {
+				h.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this queue. The
+	 * returned array elements are in no particular order.
+	 *
+	 * @return an array containing all of the elements in this queue
+	 */
+	@Override
+	public Object[] toArray() {
+		ArrayList<Object> all = new ArrayList<Object>();
+		for (Heap h : heaps) {
+			h.lock();
+			try {
+				for (int i = 0, n = h.size; i < n; i++) {
+					all.add(h.queue[i]);
+				}
+			} finally {
+				h.unlock();
+			}
+		}
+		return all.toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		Object[] elements = toArray();
+		int n = elements.length;
+		if (a.length < n) {
+			return (T[]) Arrays.copyOf(elements, n, a.getClass());
+		}
+		System.arraycopy(elements, 0, a, 0, n);
+		if (a.length > n) {
+			a[n] = null;
+		}
+		return a;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             {@inheritDoc}
+	 * @throws ClassCastException
+	 *             {@inheritDoc}
+	 * @throws NullPointerException
+	 *             {@inheritDoc}
+	 * @throws IllegalArgumentException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Elements are drained heap by heap, least first within each heap.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             {@inheritDoc}
+	 * @throws ClassCastException
+	 *             {@inheritDoc}
+	 * @throws NullPointerException
+	 *             {@inheritDoc}
+	 * @throws IllegalArgumentException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		int n = 0;
+		for (Heap h : heaps) {
+			if (n >= maxElements) {
+				break;
+			}
+			if (h.top == null) {
+				continue;
+			}
+			h.lock();
+			try {
+				while ((n < maxElements) && (h.size > 0)) {
+					c.add((E) h.queue[0]); // In this order, in case add() throws.
+					h.removeTop(comparator);
+					++n;
+				}
+			} finally {
+				h.unlock();
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the elements in this queue. The
+	 * iterator does not return the elements in any particular order.
+	 *
+	 * @return an iterator over the elements in this queue
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(toArray());
+	}
+
+	/**
+	 * Snapshot iterator that works off a copy of the heaps.
+	 */
+	final class Itr implements Iterator<E> {
+		final Object[] array; // Array of all elements
+		int cursor; // index of next element to return
+		int lastRet; // index of last element, or -1 if no such
+
+		Itr(Object[] array) {
+			lastRet = -1;
+			this.array = array;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < array.length;
+		}
+
+		@Override
+		public E next() {
+			if (cursor >= array.length) {
+				throw new NoSuchElementException();
+			}
+			lastRet = cursor;
+			return (E) array[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (lastRet < 0) {
+				throw new IllegalStateException();
+			}
+			removeElement(array[lastRet], true);
+			lastRet = -1;
+		}
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.NONNULL);
+	}
+
+	// Heap mechanics, as in PriorityBlockingQueue
+
+	private static <T> void siftUpComparable(int k, T x, Object[] array) {
+		Comparable<? super T> key = (Comparable<? super T>) x;
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			Object e = array[parent];
+			if (key.compareTo((T) e) >= 0) {
+				break;
+			}
+			array[k] = e;
+			k = parent;
+		}
+		array[k] = key;
+	}
+
+	private static <T> void siftUpUsingComparator(int k, T x, Object[] array, Comparator<? super T> cmp) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			Object e = array[parent];
+			if (cmp.compare(x, (T) e) >= 0) {
+				break;
+			}
+			array[k] = e;
+			k = parent;
+		}
+		array[k] = x;
+	}
+
+	private static <T> void siftDownComparable(int k, T x, Object[] array, int n) {
+		if (n > 0) {
+			Comparable<? super T> key = (Comparable<? super T>) x;
+			int half = n >>> 1; // loop while a non-leaf
+			while (k < half) {
+				int child = (k << 1) + 1; // assume left child is least
+				Object c = array[child];
+				int right = child + 1;
+				if ((right < n) && (((Comparable<? super T>) c).compareTo((T) array[right]) > 0)) {
+					c = array[child = right];
+				}
+				if (key.compareTo((T) c) <= 0) {
+					break;
+				}
+				array[k] = c;
+				k = child;
+			}
+			array[k] = key;
+		}
+	}
+
+	private static <T> void siftDownUsingComparator(int k, T x, Object[] array, int n, Comparator<? super T> cmp) {
+		if (n > 0) {
+			int half = n >>> 1;
+			while (k < half) {
+				int child = (k << 1) + 1;
+				Object c = array[child];
+				int right = child + 1;
+				if ((right < n) && (cmp.compare((T) c, (T) array[right]) > 0)) {
+					c = array[child = right];
+				}
+				if (cmp.compare(x, (T) c) <= 0) {
+					break;
+				}
+				array[k] = c;
+				k = child;
+			}
+			array[k] = x;
+		}
+	}
+}
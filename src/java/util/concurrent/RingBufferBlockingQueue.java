@@ -0,0 +1,893 @@
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free {@linkplain BlockingQueue blocking queue} backed by a
+ * power-of-two array in which every slot carries its own sequence number. This
+ * queue orders elements FIFO (first-in-first-out) and can be used in place of
+ * an {@link ArrayBlockingQueue} when a single lock around all producers and
+ * consumers becomes the dominant point of contention.
+ *
+ * <p>
+ * Producers claim a slot by advancing the {@code tail} counter and consumers
+ * claim one by advancing the {@code head} counter; the two counters live on
+ * separate cache lines. A slot whose sequence equals the claiming producer's
+ * position is free, and a slot whose sequence is one past the claiming
+ * consumer's position holds a published element, so neither side ever waits
+ * on the other except when the queue is full or empty. A {@code drainTo} in a
+ * queue with multiple consumers holds the head, by setting its sign bit, until
+ * the elements of a batch have been added to the target collection; other
+ * consumers find the queue empty in the meantime.
+ *
+ * <p>
+ * When the queue is constructed for a single producer and/or a single consumer
+ * the corresponding counter is advanced with an ordered store instead of a
+ * CAS. It is the caller's responsibility to ensure that at most one thread at
+ * a time acts on such a side; the results are undefined otherwise.
+ *
+ * <p>
+ * Blocking operations first spin, then yield, and only then park the calling
+ * thread. Parked threads are woken by the side that makes progress, so the
+ * non-blocking {@link #offer(Object)} and {@link #poll()} never touch a lock
+ * or a condition.
+ *
+ * <p>
+ * The capacity is rounded up to the next power of two. A queue of capacity one
+ * still has two slots, so that a free slot and a published one always have
+ * different sequence numbers, and producers additionally check the distance
+ * from the head. Removal of arbitrary elements is not supported:
+ * {@link #remove(Object)} and the iterator's {@code remove} method throw
+ * {@link UnsupportedOperationException}. Iterators and spliterators traverse
+ * a snapshot of the elements present at some point during their construction
+ * and never throw {@link java.util.ConcurrentModificationException}; if
+ * consumers keep moving the head while the snapshot is taken, they settle for
+ * a weakly consistent one, of elements each present at some point during its
+ * construction.
+ *
+ * <p>
+ * This class does not permit {@code null} elements.
+ *
+ * @param <E>
+ *            the type of elements held in this queue
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/** The number of processors, for spin control. */
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The number of times to spin before yielding while waiting for space or
+	 * for an element. Spinning is useless on uniprocessors.
+	 */
+	private static final int SPINS = (NCPU < 2) ? 0 : 1 << 8;
+
+	/** The number of times to yield after spinning and before parking. */
+	private static final int YIELDS = (NCPU < 2) ? 0 : 1 << 4;
+
+	/** The largest capacity that can be requested. */
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * The number of times a snapshot is taken again because the head moved,
+	 * before settling for a weakly consistent one.
+	 */
+	private static final int SNAPSHOT_RETRIES = 4;
+
+	/** The bit of {@code head} set while a drain holds the head. */
+	private static final long DRAINING = Long.MIN_VALUE;
+
+	/** Elements; a slot is null when free or not yet published. */
+	private final Object[] items;
+
+	/** Per-slot sequence numbers; see class-level description. */
+	private final long[] sequences;
+
+	/** The mask used to map a position onto a slot index. */
+	private final int mask;
+
+	/**
+	 * The capacity, which is the number of slots except for a queue of
+	 * capacity one.
+	 */
+	private final int capacity;
+
+	/** True if at most one thread at a time inserts elements. */
+	private final boolean singleProducer;
+
+	/** True if at most one thread at a time removes elements. */
+	private final boolean singleConsumer;
+
+	/**
+	 * The position of the next element to be removed, with {@link #DRAINING}
+	 * set while a drain holds it.
+	 */
+	@sun.misc.Contended("head")
+	private volatile long head;
+
+	/** The position of the next slot to be filled. */
+	@sun.misc.Contended("tail")
+	private volatile long tail;
+
+	/** Threads waiting for an element, and their count. */
+	private final ConcurrentLinkedQueue<Thread> consumerWaiters = new ConcurrentLinkedQueue<Thread>();
+	private volatile int consumersWaiting;
+
+	/** Threads waiting for space, and their count. */
+	private final ConcurrentLinkedQueue<Thread> producerWaiters = new ConcurrentLinkedQueue<Thread>();
+	private volatile int producersWaiting;
+
+	/**
+	 * Creates a {@code RingBufferBlockingQueue} with at least the given
+	 * capacity that may be used by any number of producers and consumers.
+	 *
+	 * @param capacity
+	 *            the minimum capacity of this queue
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity < 1} or greater than {@code 2^30}
+	 */
+	public RingBufferBlockingQueue(int capacity) {
+		this(capacity, false, false);
+	}
+
+	/**
+	 * Creates a {@code RingBufferBlockingQueue} with at least the given
+	 * capacity, specialized for the given number of producers and consumers.
+	 *
+	 * @param capacity
+	 *            the minimum capacity of this queue
+	 * @param singleProducer
+	 *            if {@code true}, at most one thread at a time may insert
+	 *            elements
+	 * @param singleConsumer
+	 *            if {@code true}, at most one thread at a time may remove
+	 *            elements
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity < 1} or greater than {@code 2^30}
+	 */
+	public RingBufferBlockingQueue(int capacity, boolean singleProducer, boolean singleConsumer) {
+		if ((capacity <= 0) || (capacity > MAXIMUM_CAPACITY)) {
+			throw new IllegalArgumentException();
+		}
+		// One slot would make a published slot look free for the next lap
+		int n = (capacity == 1) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+		this.items = new Object[n];
+		this.sequences = new long[n];
+		this.mask = n - 1;
+		this.capacity = (capacity == 1) ? 1 : n;
+		this.singleProducer = singleProducer;
+		this.singleConsumer = singleConsumer;
+		for (int i = 0; i < n; ++i) {
+			sequences[i] = i;
+		}
+	}
+
+	/**
+	 * Creates a queue for exactly one producer thread and one consumer
+	 * thread.
+	 *
+	 * @param capacity
+	 *            the minimum capacity of the queue
+	 * @param <E>
+	 *            the type of elements held in the queue
+	 * @return the new queue
+	 */
+	public static <E> RingBufferBlockingQueue<E> newSingleProducerSingleConsumer(int capacity) {
+		return new RingBufferBlockingQueue<E>(capacity, true, true);
+	}
+
+	/**
+	 * Creates a queue for any number of producer threads and exactly one
+	 * consumer thread.
+	 *
+	 * @param capacity
+	 *            the minimum capacity of the queue
+	 * @param <E>
+	 *            the type of elements held in the queue
+	 * @return the new queue
+	 */
+	public static <E> RingBufferBlockingQueue<E> newMultiProducerSingleConsumer(int capacity) {
+		return new RingBufferBlockingQueue<E>(capacity, false, true);
+	}
+
+	private static void checkNotNull(Object v) {
+		if (v == null) {
+			throw new NullPointerException();
+		}
+	}
+
+	/** Returns the position of the head, whether or not a drain holds it. */
+	private long headPosition() {
+		return head & ~DRAINING;
+	}
+
+	// Slot access
+
+	private long sequenceAt(int i) {
+		return U.getLongVolatile(sequences, ((long) i << SSHIFT) + SBASE);
+	}
+
+	private void publishSequence(int i, long seq) {
+		U.putLongVolatile(sequences, ((long) i << SSHIFT) + SBASE, seq);
+	}
+
+	private void lazySetSequence(int i, long seq) {
+		U.putOrderedLong(sequences, ((long) i << SSHIFT) + SBASE, seq);
+	}
+
+	private Object itemAt(int i) {
+		return U.getObject(items, ((long) i << ASHIFT) + ABASE);
+	}
+
+	private void setItem(int i, Object x) {
+		U.putObject(items, ((long) i << ASHIFT) + ABASE, x);
+	}
+
+	/**
+	 * Publishes {@code x} into the claimed slot at position {@code pos}. All
+	 * but the last slot of a batch may be published lazily; the final
+	 * volatile write orders the batch before any subsequent wakeup check.
+	 */
+	private void publish(long pos, Object x, boolean last) {
+		int i = (int) pos & mask;
+		setItem(i, x);
+		if (last) {
+			publishSequence(i, pos + 1);
+		} else {
+			lazySetSequence(i, pos + 1);
+		}
+	}
+
+	/**
+	 * Takes the element from the claimed slot at position {@code pos} and
+	 * frees the slot for the next lap, lazily unless {@code last}.
+	 */
+	@SuppressWarnings("unchecked")
+	private E consume(long pos, boolean last) {
+		int i = (int) pos & mask;
+		Object x = itemAt(i);
+		setItem(i, null);
+		if (last) {
+			publishSequence(i, pos + items.length);
+		} else {
+			lazySetSequence(i, pos + items.length);
+		}
+		return (E) x;
+	}
+
+	// Core non-blocking operations
+
+	private boolean tryEnqueue(E e) {
+		final int mask = this.mask;
+		for (;;) {
+			long t = tail;
+			int i = (int) t & mask;
+			long dif = sequenceAt(i) - t;
+			if (dif == 0L) {
+				if ((capacity < items.length) && ((t - headPosition()) >= capacity)) {
+					return false;
+				}
+				if (singleProducer) {
+					U.putOrderedLong(this, TAIL, t + 1);
+				} else if (!U.compareAndSwapLong(this, TAIL, t, t + 1)) {
+					continue;
+				}
+				setItem(i, e);
+				publishSequence(i, t + 1);
+				return true;
+			} else if (dif < 0L) {
+				return false;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private E tryDequeue() {
+		final int mask = this.mask;
+		for (;;) {
+			long h = head;
+			if (h < 0L) {
+				return null; // a drain holds the head
+			}
+			int i = (int) h & mask;
+			long dif = sequenceAt(i) - (h + 1);
+			if (dif == 0L) {
+				if (singleConsumer) {
+					U.putOrderedLong(this, HEAD, h + 1);
+				} else if (!U.compareAndSwapLong(this, HEAD, h, h + 1)) {
+					continue;
+				}
+				Object x = itemAt(i);
+				setItem(i, null);
+				publishSequence(i, h + items.length);
+				return (E) x;
+			} else if (dif < 0L) {
+				return null;
+			}
+		}
+	}
+
+	// Waiting and signalling
+
+	private void signalNotEmpty() {
+		if (consumersWaiting != 0) {
+			Thread w = consumerWaiters.poll();
+			if (w != null) {
+				LockSupport.unpark(w);
+			}
+		}
+	}
+
+	private void signalNotFull() {
+		if (producersWaiting != 0) {
+			Thread w = producerWaiters.poll();
+			if (w != null) {
+				LockSupport.unpark(w);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the element, waiting if necessary up to the given deadline.
+	 *
+	 * @param timed
+	 *            true if the wait is bounded by {@code deadline}
+	 * @return true on success, false on timeout
+	 */
+	private boolean awaitEnqueue(E e, boolean timed, long deadline) throws InterruptedException {
+		for (int spins = SPINS, yields = YIELDS;;) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			if (tryEnqueue(e)) {
+				signalNotEmpty();
+				return true;
+			}
+			long nanos = timed ? (deadline - System.nanoTime()) : 0L;
+			if (timed && (nanos <= 0L)) {
+				return false;
+			}
+			if (spins > 0) {
+				--spins;
+			} else if (yields > 0) {
+				--yields;
+				Thread.yield();
+			} else {
+				Thread w = Thread.currentThread();
+				U.getAndAddInt(this, PRODUCERS_WAITING, 1);
+				producerWaiters.offer(w);
+				boolean added = false;
+				try {
+					if (!(added = tryEnqueue(e))) {
+						if (timed) {
+							LockSupport.parkNanos(this, nanos);
+						} else {
+							LockSupport.park(this);
+						}
+					}
+				} finally {
+					boolean signalled = !producerWaiters.remove(w);
+					U.getAndAddInt(this, PRODUCERS_WAITING, -1);
+					if (added) {
+						signalNotEmpty();
+					}
+					if (signalled && (added || (remainingCapacity() > 0))) {
+						signalNotFull(); // pass on an unused wakeup
+					}
+				}
+				if (added) {
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes an element, waiting if necessary up to the given deadline.
+	 *
+	 * @param timed
+	 *            true if the wait is bounded by {@code deadline}
+	 * @return the element, or null on timeout
+	 */
+	private E awaitDequeue(boolean timed, long deadline) throws InterruptedException {
+		for (int spins = SPINS, yields = YIELDS;;) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			E x;
+			if ((x = tryDequeue()) != null) {
+				signalNotFull();
+				return x;
+			}
+			long nanos = timed ? (deadline - System.nanoTime()) : 0L;
+			if (timed && (nanos <= 0L)) {
+				return null;
+			}
+			if (spins > 0) {
+				--spins;
+			} else if (yields > 0) {
+				--yields;
+				Thread.yield();
+			} else {
+				Thread w = Thread.currentThread();
+				U.getAndAddInt(this, CONSUMERS_WAITING, 1);
+				consumerWaiters.offer(w);
+				try {
+					if ((x = tryDequeue()) == null) {
+						if (timed) {
+							LockSupport.parkNanos(this, nanos);
+						} else {
+							LockSupport.park(this);
+						}
+					}
+				} finally {
+					boolean signalled = !consumerWaiters.remove(w);
+					U.getAndAddInt(this, CONSUMERS_WAITING, -1);
+					if (x != null) {
+						signalNotFull();
+					}
+					if (signalled && ((x != null) || !isEmpty())) {
+						signalNotEmpty(); // pass on an unused wakeup
+					}
+				}
+				if (x != null) {
+					return x;
+				}
+			}
+		}
+	}
+
+	// BlockingQueue methods
+
+	/**
+	 * Inserts the specified element at the tail of this queue if it is
+	 * possible to do so immediately without exceeding the queue's capacity,
+	 * returning {@code true} upon success and throwing an
+	 * {@code IllegalStateException} if this queue is full.
+	 *
+	 * @param e
+	 *            the element to add
+	 * @return {@code true} (as specified by {@link Collection#add})
+	 * @throws IllegalStateException
+	 *             if this queue is full
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean add(E e) {
+		return super.add(e);
+	}
+
+	/**
+	 * Inserts the specified element at the tail of this queue if it is
+	 * possible to do so immediately without exceeding the queue's capacity,
+	 * returning {@code true} upon success and {@code false} if this queue is
+	 * full.
+	 *
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean offer(E e) {
+		checkNotNull(e);
+		if (tryEnqueue(e)) {
+			signalNotEmpty();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Inserts the specified element at the tail of this queue, waiting for
+	 * space to become available if the queue is full.
+	 *
+	 * @throws InterruptedException
+	 *             {@inheritDoc}
+	 * @throws NullPointerException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public void put(E e) throws InterruptedException {
+		checkNotNull(e);
+		if (!tryEnqueue(e)) {
+			awaitEnqueue(e, false, 0L);
+		} else {
+			signalNotEmpty();
+		}
+	}
+
+	/**
+	 * Inserts the specified element at the tail of this queue, waiting up to
+	 * the specified wait time for space to become available if the queue is
+	 * full.
+	 *
+	 * @throws InterruptedException
+	 *             {@inheritDoc}
+	 * @throws NullPointerException
+	 *             {@inheritDoc}
+	 */
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(e);
+		if (tryEnqueue(e)) {
+			signalNotEmpty();
+			return true;
+		}
+		return awaitEnqueue(e, true, System.nanoTime() + unit.toNanos(timeout));
+	}
+
+	@Override
+	public E poll() {
+		E x = tryDequeue();
+		if (x != null) {
+			signalNotFull();
+		}
+		return x;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E x = tryDequeue();
+		if (x == null) {
+			return awaitDequeue(false, 0L);
+		}
+		signalNotFull();
+		return x;
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E x = tryDequeue();
+		if (x == null) {
+			return awaitDequeue(true, System.nanoTime() + unit.toNanos(timeout));
+		}
+		signalNotFull();
+		return x;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		for (;;) {
+			long r = head, h = r & ~DRAINING;
+			int i = (int) h & mask;
+			long seq = sequenceAt(i);
+			if (seq < (h + 1)) {
+				return null;
+			}
+			Object x = itemAt(i);
+			if ((seq == (h + 1)) && (x != null) && (head == r)) {
+				return (E) x;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this queue. The value is exact only
+	 * when no other thread is inserting or removing elements.
+	 *
+	 * @return the number of elements in this queue
+	 */
+	@Override
+	public int size() {
+		for (;;) {
+			long r = head;
+			long t = tail;
+			if (r == head) {
+				long n = t - (r & ~DRAINING);
+				return (n <= 0L) ? 0 : ((n >= capacity) ? capacity : (int) n);
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		long h = headPosition();
+		return sequenceAt((int) h & mask) < (h + 1);
+	}
+
+	/**
+	 * Returns the total number of elements this queue can hold, which is the
+	 * requested capacity rounded up to the next power of two.
+	 *
+	 * @return the capacity of this queue
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return capacity - size();
+	}
+
+	/**
+	 * Always throws {@code UnsupportedOperationException}: elements can only
+	 * be removed at the head of this queue.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o != null) {
+			for (Object x : toArray()) {
+				if (o.equals(x)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		int n = 0;
+		while (tryDequeue() != null) {
+			++n;
+		}
+		while ((n-- > 0) && (producersWaiting != 0)) {
+			signalNotFull();
+		}
+	}
+
+	// Batch operations
+
+	/**
+	 * Inserts as many elements of the given collection as fit without
+	 * waiting, in the collection's iteration order. Consecutive free slots are
+	 * claimed together, so a batch costs one update of the tail counter and
+	 * one wakeup of a waiting consumer.
+	 *
+	 * @param c
+	 *            the elements to insert
+	 * @return the number of elements inserted, which is a prefix of the
+	 *         collection's iteration order
+	 * @throws NullPointerException
+	 *             if the collection or any of its elements is null, in which
+	 *             case no element is inserted
+	 */
+	public int offerAll(Collection<? extends E> c) {
+		Object[] a = c.toArray();
+		for (Object x : a) {
+			checkNotNull(x);
+		}
+		return offerAll(a, 0, a.length);
+	}
+
+	private int offerAll(Object[] a, int off, int len) {
+		final int mask = this.mask;
+		int added = 0;
+		while (added < len) {
+			long t = tail;
+			int want = len - added, k = 0;
+			if (capacity < items.length) {
+				want = (int) Math.min(want, capacity - (t - headPosition()));
+				if (want <= 0) {
+					break; // full
+				}
+			}
+			while ((k < want) && (sequenceAt((int) (t + k) & mask) == (t + k))) {
+				++k;
+			}
+			if (k == 0) {
+				if (sequenceAt((int) t & mask) < t) {
+					break; // full
+				}
+				continue; // another producer moved tail
+			}
+			if (singleProducer) {
+				U.putOrderedLong(this, TAIL, t + k);
+			} else if (!U.compareAndSwapLong(this, TAIL, t, t + k)) {
+				continue;
+			}
+			for (int j = 0; j < k; ++j) {
+				publish(t + j, a[off + added + j], j == (k - 1));
+			}
+			added += k;
+		}
+		if (added > 0) {
+			signalNotEmpty();
+		}
+		return added;
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Consecutive published elements are transferred together, so a batch
+	 * costs one update of the head counter and one wakeup of a waiting
+	 * producer. The head moves past an element only once it has been added to
+	 * the collection: if adding an element throws, that element and the ones
+	 * after it remain in this queue. In a queue with multiple consumers the
+	 * head is held while a batch is being transferred, and other consumers,
+	 * including concurrent drains, find this queue empty until it is released.
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		checkNotNull(c);
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		final int mask = this.mask;
+		int n = 0;
+		try {
+			while (n < maxElements) {
+				long h = head;
+				if (h < 0L) {
+					break; // another drain holds the head
+				}
+				int want = maxElements - n, k = 0;
+				while ((k < want) && (sequenceAt((int) (h + k) & mask) == (h + k + 1))) {
+					++k;
+				}
+				if (k == 0) {
+					if (sequenceAt((int) h & mask) < (h + 1)) {
+						break; // empty
+					}
+					continue; // another consumer moved head
+				}
+				if (!singleConsumer && !U.compareAndSwapLong(this, HEAD, h, h | DRAINING)) {
+					continue;
+				}
+				int j = 0;
+				try {
+					while (j < k) {
+						@SuppressWarnings("unchecked")
+						E x = (E) itemAt((int) (h + j) & mask);
+						c.add(x);
+						++j;
+						++n;
+					}
+				} finally {
+					// only the added elements leave the queue
+					for (int m = 0; m < j; ++m) {
+						consume(h + m, m == (j - 1));
+					}
+					if (singleConsumer) {
+						U.putOrderedLong(this, HEAD, h + j);
+					} else {
+						head = h + j;
+						if (!isEmpty()) {
+							signalNotEmpty(); // consumers may have parked meanwhile
+						}
+					}
+				}
+			}
+		} finally {
+			if (n > 0) {
+				signalNotFull();
+			}
+		}
+		return n;
+	}
+
+	// Views
+
+	/**
+	 * Returns an array containing the elements present in this queue at some
+	 * point during the call, in proper sequence. If consumers keep moving the
+	 * head, the array is weakly consistent instead: each element in it was
+	 * present at some point during the call.
+	 */
+	@Override
+	public Object[] toArray() {
+		ArrayList<Object> snapshot = new ArrayList<Object>();
+		for (int retries = 0;; ++retries) {
+			long r = head, h = r & ~DRAINING;
+			long t = Math.min(tail, h + items.length);
+			snapshot.clear();
+			for (long p = h; p < t; ++p) {
+				int i = (int) p & mask;
+				Object x = itemAt(i);
+				if ((x != null) && (sequenceAt(i) == (p + 1))) {
+					snapshot.add(x);
+				}
+			}
+			if ((head == r) || (retries >= SNAPSHOT_RETRIES)) {
+				return snapshot.toArray();
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		Object[] elements = toArray();
+		int n = elements.length;
+		if (a.length < n) {
+			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), n);
+		}
+		System.arraycopy(elements, 0, a, 0, n);
+		if (a.length > n) {
+			a[n] = null;
+		}
+		return a;
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the elements in this queue, in
+	 * proper sequence. The iterator does not support {@code remove}.
+	 *
+	 * @return an iterator over the elements in this queue in proper sequence
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<E> iterator() {
+		final Object[] snapshot = toArray();
+		return new Iterator<E>() {
+			private int cursor;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < snapshot.length;
+			}
+
+			@Override
+			public E next() {
+				if (cursor >= snapshot.length) {
+					throw new NoSuchElementException();
+				}
+				return (E) snapshot[cursor++];
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe U;
+	private static final long HEAD;
+	private static final long TAIL;
+	private static final long CONSUMERS_WAITING;
+	private static final long PRODUCERS_WAITING;
+	private static final long ABASE;
+	private static final int ASHIFT;
+	private static final long SBASE;
+	private static final int SSHIFT;
+	static {
+		try {
+			U = sun.misc.Unsafe.getUnsafe();
+			Class<?> k = RingBufferBlockingQueue.class;
+			HEAD = U.objectFieldOffset(k.getDeclaredField("head"));
+			TAIL = U.objectFieldOffset(k.getDeclaredField("tail"));
+			CONSUMERS_WAITING = U.objectFieldOffset(k.getDeclaredField("consumersWaiting"));
+			PRODUCERS_WAITING = U.objectFieldOffset(k.getDeclaredField("producersWaiting"));
+			ABASE = U.arrayBaseOffset(Object[].class);
+			int scale = U.arrayIndexScale(Object[].class);
+			if ((scale & (scale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+			SBASE = U.arrayBaseOffset(long[].class);
+			scale = U.arrayIndexScale(long[].class);
+			if ((scale & (scale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			SSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -393,6 +393,253 @@ public class ThreadLocalRandom extends Random {
 		return v1 * multiplier;
 	}
 
+	/*
+	 * Bulk methods. Each reads the current thread's seed once, generates from
+	 * a local copy, and writes it back once. When no candidate can be
+	 * rejected, the seed for element i is computed directly as s + GAMMA *
+	 * (i + 1), so that iterations do not depend on each other and the loop
+	 * may be unrolled and vectorized by the compiler.
+	 */
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values, the same
+	 * values as would be returned by successive calls to {@link #nextInt()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextInts(int[] a) {
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = mix32(s + (GAMMA * (i + 1)));
+		}
+		s += GAMMA * len;
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code int} values between the
+	 * specified origin (inclusive) and the specified bound (exclusive), the
+	 * same values as would be returned by successive calls to
+	 * {@link #nextInt(int, int)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextInts(int[] a, int origin, int bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		int n = bound - origin, m = n - 1;
+		if ((n & m) == 0) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = (mix32(s + (GAMMA * (i + 1))) & m) + origin;
+			}
+			s += GAMMA * len;
+		} else if (n > 0) { // reject over-represented candidates
+			for (int i = 0; i < len; ++i) {
+				int r;
+				for (int u = mix32(s += GAMMA) >>> 1; ((u + m) - (r = u % n)) < 0; u = mix32(s += GAMMA) >>> 1) {
+					;
+				}
+				a[i] = r + origin;
+			}
+		} else { // range not representable as int
+			for (int i = 0; i < len; ++i) {
+				int r;
+				while (((r = mix32(s += GAMMA)) < origin) || (r >= bound)) {
+					;
+				}
+				a[i] = r;
+			}
+		}
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values, the same
+	 * values as would be returned by successive calls to {@link #nextLong()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextLongs(long[] a) {
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = mix64(s + (GAMMA * (i + 1)));
+		}
+		s += GAMMA * len;
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code long} values between
+	 * the specified origin (inclusive) and the specified bound (exclusive),
+	 * the same values as would be returned by successive calls to
+	 * {@link #nextLong(long, long)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextLongs(long[] a, long origin, long bound) {
+		if (origin >= bound) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		long n = bound - origin, m = n - 1;
+		if ((n & m) == 0L) {
+			for (int i = 0; i < len; ++i) {
+				a[i] = (mix64(s + (GAMMA * (i + 1))) & m) + origin;
+			}
+			s += GAMMA * len;
+		} else if (n > 0L) { // reject over-represented candidates
+			for (int i = 0; i < len; ++i) {
+				long r;
+				for (long u = mix64(s += GAMMA) >>> 1; ((u + m) - (r = u % n)) < 0L; u = mix64(s += GAMMA) >>> 1) {
+					;
+				}
+				a[i] = r + origin;
+			}
+		} else { // range not representable as long
+			for (int i = 0; i < len; ++i) {
+				long r;
+				while (((r = mix64(s += GAMMA)) < origin) || (r >= bound)) {
+					;
+				}
+				a[i] = r;
+			}
+		}
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * zero (inclusive) and one (exclusive), the same values as would be
+	 * returned by successive calls to {@link #nextDouble()}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextDoubles(double[] a) {
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		for (int i = 0; i < len; ++i) {
+			a[i] = (mix64(s + (GAMMA * (i + 1))) >>> 11) * DOUBLE_UNIT;
+		}
+		s += GAMMA * len;
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom {@code double} values between
+	 * the specified origin (inclusive) and the specified bound (exclusive),
+	 * the same values as would be returned by successive calls to
+	 * {@link #nextDouble(double, double)}.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @param origin
+	 *            the least value generated
+	 * @param bound
+	 *            the upper bound (exclusive)
+	 * @throws NullPointerException
+	 *             if the array is null
+	 * @throws IllegalArgumentException
+	 *             if {@code origin} is greater than or equal to {@code bound}
+	 */
+	public void nextDoubles(double[] a, double origin, double bound) {
+		if (!(origin < bound)) {
+			throw new IllegalArgumentException(BadRange);
+		}
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		int len = a.length;
+		double w = bound - origin;
+		double max = Double.longBitsToDouble(Double.doubleToLongBits(bound) - 1);
+		for (int i = 0; i < len; ++i) {
+			double r = ((mix64(s + (GAMMA * (i + 1))) >>> 11) * DOUBLE_UNIT * w) + origin;
+			a[i] = (r < bound) ? r : max; // correct for rounding
+		}
+		s += GAMMA * len;
+		UNSAFE.putLong(t, SEED, s);
+	}
+
+	/**
+	 * Fills the given array with pseudorandom Gaussian ("normally")
+	 * distributed {@code double} values with mean {@code 0.0} and standard
+	 * deviation {@code 1.0}. The values are those that the same number of
+	 * calls to {@link #nextGaussian()} would return: the first is any value
+	 * saved by a previous call, and the rest are generated in pairs by the
+	 * polar method, saving the second value of a last incomplete pair for the
+	 * next call.
+	 *
+	 * @param a
+	 *            the array to fill
+	 * @throws NullPointerException
+	 *             if the array is null
+	 */
+	public void nextGaussians(double[] a) {
+		int len = a.length, i = 0;
+		if (len == 0) {
+			return;
+		}
+		Double d = nextLocalGaussian.get();
+		if (d != null) {
+			nextLocalGaussian.set(null);
+			a[i++] = d.doubleValue();
+		}
+		Thread t = Thread.currentThread();
+		long s = UNSAFE.getLong(t, SEED);
+		for (; i < len; i += 2) {
+			double v1, v2, q;
+			do {
+				v1 = (2 * ((mix64(s += GAMMA) >>> 11) * DOUBLE_UNIT)) - 1; // between -1 and 1
+				v2 = (2 * ((mix64(s += GAMMA) >>> 11) * DOUBLE_UNIT)) - 1; // between -1 and 1
+				q = (v1 * v1) + (v2 * v2);
+			} while ((q >= 1) || (q == 0));
+			double multiplier = StrictMath.sqrt((-2 * StrictMath.log(q)) / q);
+			a[i] = v1 * multiplier;
+			if ((i + 1) < len) {
+				a[i + 1] = v2 * multiplier;
+			} else {
+				nextLocalGaussian.set(new Double(v2 * multiplier));
+			}
+		}
+		UNSAFE.putLong(t, SEED, s);
+	}
+
 	// stream methods, coded in a way intended to better isolate for
 	// maintenance purposes the small differences across forms.
 	/**
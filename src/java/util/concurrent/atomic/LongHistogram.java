@@ -0,0 +1,504 @@
+package java.util.concurrent.atomic;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A concurrent histogram of non-negative {@code long} values, such as request
+ * latencies in nanoseconds, supporting percentile queries. Values are counted in
+ * log-linear buckets: values below {@code 2^(p+1)} are counted exactly, and
+ * each higher power-of-two range is divided into {@code 2^p} equal buckets, so
+ * that every recorded value is known to within a relative error of
+ * {@code 2^-p}, where {@code p} is the precision given on construction.
+ *
+ * <p>
+ * As with {@link LongAdder}, updates that are contended across threads spread
+ * over a set of stripes that may grow dynamically, up to about the number of
+ * processors, each holding its own bucket array. Method {@link #record} is
+ * lock-free and does not allocate, except when contention causes the set of
+ * stripes to grow. Method {@link #snapshot} (or {@link #snapshotThenReset})
+ * combines the stripes into an immutable {@link Snapshot} that answers
+ * percentile, mean and extreme queries and can be merged with other snapshots
+ * of the same precision.
+ *
+ * <p>
+ * This class is usually preferable to a lock-protected histogram when
+ * multiple threads record samples that are used for statistics, not for
+ * fine-grained synchronization control. Its space consumption is proportional
+ * to the number of stripes times the number of buckets, which is roughly
+ * {@code 2^p} times the number of powers of two up to the highest trackable
+ * value.
+ */
+public class LongHistogram {
+	/** Maximum supported precision */
+	private static final int MAX_PRECISION = 14;
+	/** Maximum number of stripes: the power of two at least NCPU */
+	private static final int MAX_STRIPES;
+	static {
+		int n = 1;
+		while (n < Striped64.NCPU) {
+			n <<= 1;
+		}
+		MAX_STRIPES = n;
+	}
+
+	/**
+	 * Counts of one stripe. Padded to reduce cache contention on the fields
+	 * updated by every record.
+	 */
+	@sun.misc.Contended
+	static final class Stripe {
+		final long[] counts;
+		volatile long sum;
+		volatile long min = Long.MAX_VALUE;
+		volatile long max = Long.MIN_VALUE;
+
+		Stripe(int buckets) {
+			counts = new long[buckets];
+		}
+
+		final boolean casSum(long cmp, long val) {
+			return U.compareAndSwapLong(this, SUM, cmp, val);
+		}
+	}
+
+	private final int precision;
+	private final long highestTrackableValue;
+	private final int bucketCount;
+	/** Stripes; length is a power of two */
+	private volatile Stripe[] stripes;
+	/** Spinlock (locked via CAS) used when resizing stripes */
+	private volatile int stripesBusy;
+
+	/**
+	 * Creates a new histogram covering all non-negative {@code long} values
+	 * with a precision of 5 bits, that is, a relative error of at most about
+	 * 3%.
+	 */
+	public LongHistogram() {
+		this(Long.MAX_VALUE, 5);
+	}
+
+	/**
+	 * Creates a new histogram with the given range and precision. Values above
+	 * the highest trackable value are counted in the highest bucket.
+	 *
+	 * @param highestTrackableValue
+	 *            the highest value tracked to the given precision
+	 * @param precision
+	 *            the number of bits {@code p}, from 1 to 14, of the
+	 *            relative error {@code 2^-p} of recorded values
+	 * @throws IllegalArgumentException
+	 *             if highestTrackableValue is less than 1 or precision is out
+	 *             of range
+	 */
+	public LongHistogram(long highestTrackableValue, int precision) {
+		if ((highestTrackableValue < 1L) || (precision < 1) || (precision > MAX_PRECISION)) {
+			throw new IllegalArgumentException();
+		}
+		this.precision = precision;
+		this.highestTrackableValue = highestTrackableValue;
+		this.bucketCount = bucketIndex(highestTrackableValue, precision) + 1;
+		this.stripes = new Stripe[] { new Stripe(bucketCount) };
+	}
+
+	/**
+	 * Returns the bucket index of the given non-negative value.
+	 */
+	static int bucketIndex(long v, int p) {
+		if (v < (2L << p)) {
+			return (int) v;
+		}
+		int e = 63 - Long.numberOfLeadingZeros(v); // e > p
+		return (2 << p) + ((e - p - 1) << p) + (int) ((v >>> (e - p)) - (1L << p));
+	}
+
+	/**
+	 * Returns the lowest value counted in the given bucket.
+	 */
+	static long lowestValueInBucket(int i, int p) {
+		if (i < (2 << p)) {
+			return i;
+		}
+		int j = i - (2 << p), shift = (j >>> p) + 1;
+		return ((long) ((j & ((1 << p) - 1)) + (1 << p))) << shift;
+	}
+
+	/**
+	 * Returns the highest value counted in the given bucket.
+	 */
+	static long highestValueInBucket(int i, int p) {
+		if (i < (2 << p)) {
+			return i;
+		}
+		return lowestValueInBucket(i, p) + ((1L << (((i - (2 << p)) >>> p) + 1)) - 1L);
+	}
+
+	/**
+	 * Records the given value.
+	 *
+	 * @param value
+	 *            the value to record
+	 * @throws IllegalArgumentException
+	 *             if value is negative
+	 */
+	public void record(long value) {
+		add(value, 1L);
+	}
+
+	/**
+	 * Records the given value the given number of times.
+	 *
+	 * @param value
+	 *            the value to record
+	 * @param count
+	 *            the number of times to record it
+	 * @throws IllegalArgumentException
+	 *             if value or count is negative
+	 */
+	public void record(long value, long count) {
+		if (count < 0L) {
+			throw new IllegalArgumentException();
+		}
+		add(value, count);
+	}
+
+	private void add(long value, long n) {
+		Stripe[] as;
+		Stripe a;
+		long s, x;
+		int i, h;
+		if (value < 0L) {
+			throw new IllegalArgumentException();
+		}
+		if (n == 0L) {
+			return; // nothing recorded, so extremes must not move
+		}
+		if ((i = bucketIndex(value, precision)) >= bucketCount) {
+			i = bucketCount - 1;
+		}
+		as = stripes;
+		a = as[(h = Striped64.getProbe()) & (as.length - 1)];
+		U.getAndAddLong(a.counts, ((long) i << ASHIFT) + ABASE, n);
+		if (!a.casSum(s = a.sum, s + (value * n))) {
+			U.getAndAddLong(a, SUM, value * n);
+			contended(as, h);
+		}
+		if (value > a.max) {
+			while ((value > (x = a.max)) && !U.compareAndSwapLong(a, MAX, x, value)) {
+			}
+		}
+		if (value < a.min) {
+			while ((value < (x = a.min)) && !U.compareAndSwapLong(a, MIN, x, value)) {
+			}
+		}
+	}
+
+	/**
+	 * Handles a contended update by the thread with the given probe:
+	 * initializes the probe if zero, else doubles the stripes if not yet at
+	 * the maximum and moves the thread to another stripe.
+	 */
+	private void contended(Stripe[] as, int h) {
+		int n;
+		if (h == 0) {
+			ThreadLocalRandom.current(); // force initialization
+			return;
+		}
+		if (((n = as.length) < MAX_STRIPES) && (stripes == as) && (stripesBusy == 0) && U.compareAndSwapInt(this, BUSY, 0, 1)) {
+			try {
+				if (stripes == as) {
+					Stripe[] rs = Arrays.copyOf(as, n << 1);
+					for (int i = n; i < rs.length; ++i) {
+						rs[i] = new Stripe(bucketCount);
+					}
+					stripes = rs;
+				}
+			} finally {
+				stripesBusy = 0;
+			}
+		}
+		Striped64.advanceProbe(h);
+	}
+
+	/**
+	 * Returns a snapshot of the values recorded so far. The returned snapshot
+	 * is <em>NOT</em> atomic; recordings concurrent with this method might or
+	 * might not be included, and the sum and extremes might not exactly match
+	 * the bucket counts.
+	 *
+	 * @return a snapshot
+	 */
+	public Snapshot snapshot() {
+		return collect(false);
+	}
+
+	/**
+	 * Equivalent in effect to {@link #snapshot} followed by {@link #reset},
+	 * except that each bucket is read and cleared atomically, so every
+	 * concurrently recorded value is counted in exactly one interval. This
+	 * method may apply for example to report latencies over successive time
+	 * intervals.
+	 *
+	 * @return a snapshot of the values recorded since the last reset
+	 */
+	public Snapshot snapshotThenReset() {
+		return collect(true);
+	}
+
+	/**
+	 * Resets the histogram to empty. This method is only effective if there
+	 * are no concurrent updates; otherwise use {@link #snapshotThenReset}.
+	 */
+	public void reset() {
+		for (Stripe a : stripes) {
+			Arrays.fill(a.counts, 0L);
+			a.sum = 0L;
+			a.min = Long.MAX_VALUE;
+			a.max = Long.MIN_VALUE;
+		}
+	}
+
+	private Snapshot collect(boolean reset) {
+		long[] counts = new long[bucketCount];
+		long sum = 0L, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for (Stripe a : stripes) {
+			long[] cs = a.counts;
+			for (int i = 0; i < cs.length; ++i) {
+				long off = ((long) i << ASHIFT) + ABASE;
+				counts[i] += reset ? U.getAndSetLong(cs, off, 0L) : U.getLongVolatile(cs, off);
+			}
+			sum += reset ? U.getAndSetLong(a, SUM, 0L) : a.sum;
+			min = Math.min(min, reset ? U.getAndSetLong(a, MIN, Long.MAX_VALUE) : a.min);
+			max = Math.max(max, reset ? U.getAndSetLong(a, MAX, Long.MIN_VALUE) : a.max);
+		}
+		return new Snapshot(precision, counts, sum, min, max);
+	}
+
+	/**
+	 * Returns the highest value tracked to full precision.
+	 *
+	 * @return the highest trackable value
+	 */
+	public long getHighestTrackableValue() {
+		return highestTrackableValue;
+	}
+
+	/**
+	 * Returns the precision, in bits.
+	 *
+	 * @return the precision
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Returns the String representation of a {@link #snapshot}.
+	 *
+	 * @return the String representation of a {@link #snapshot}
+	 */
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	/**
+	 * An immutable set of histogram counts, as returned by
+	 * {@link LongHistogram#snapshot}.
+	 */
+	public static final class Snapshot implements Serializable {
+		private static final long serialVersionUID = -3356403318926543911L;
+
+		private final int precision;
+		private final long[] counts;
+		private final long totalCount;
+		private final long sum;
+		private final long min;
+		private final long max;
+
+		Snapshot(int precision, long[] counts, long sum, long min, long max) {
+			long total = 0L;
+			for (long c : counts) {
+				total += c;
+			}
+			this.precision = precision;
+			this.counts = counts;
+			this.totalCount = total;
+			this.sum = sum;
+			this.min = (total == 0L) ? 0L : min;
+			this.max = (total == 0L) ? 0L : max;
+		}
+
+		/**
+		 * Returns the number of recorded values.
+		 *
+		 * @return the number of recorded values
+		 */
+		public long getTotalCount() {
+			return totalCount;
+		}
+
+		/**
+		 * Returns the sum of recorded values.
+		 *
+		 * @return the sum of recorded values
+		 */
+		public long getSum() {
+			return sum;
+		}
+
+		/**
+		 * Returns the least recorded value, or zero if none.
+		 *
+		 * @return the least recorded value
+		 */
+		public long getMin() {
+			return min;
+		}
+
+		/**
+		 * Returns the greatest recorded value, or zero if none.
+		 *
+		 * @return the greatest recorded value
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * Returns the arithmetic mean of recorded values, or zero if none.
+		 *
+		 * @return the mean of recorded values
+		 */
+		public double getMean() {
+			return (totalCount == 0L) ? 0.0 : ((double) sum / totalCount);
+		}
+
+		/**
+		 * Returns the precision, in bits.
+		 *
+		 * @return the precision
+		 */
+		public int getPrecision() {
+			return precision;
+		}
+
+		/**
+		 * Returns a value such that the given percentage of recorded values
+		 * are at or below it, to within the precision of the histogram, or
+		 * zero if there are none. The result is the highest value of the
+		 * bucket holding the percentile, bounded by the recorded extremes.
+		 *
+		 * @param percentile
+		 *            the percentile, from 0 to 100
+		 * @return the value at the given percentile
+		 * @throws IllegalArgumentException
+		 *             if percentile is not between 0 and 100
+		 */
+		public long getValueAtPercentile(double percentile) {
+			if (!((percentile >= 0.0) && (percentile <= 100.0))) {
+				throw new IllegalArgumentException();
+			}
+			if (totalCount == 0L) {
+				return 0L;
+			}
+			long target = Math.max(1L, (long) Math.ceil((percentile / 100.0) * totalCount));
+			long seen = 0L;
+			for (int i = 0; i < counts.length; ++i) {
+				if ((seen += counts[i]) >= target) {
+					return Math.max(min, Math.min(max, highestValueInBucket(i, precision)));
+				}
+			}
+			return max;
+		}
+
+		/**
+		 * Returns the number of recorded values at or below the given value,
+		 * to within the precision of the histogram.
+		 *
+		 * @param value
+		 *            the value
+		 * @return the number of values counted in buckets up to the one
+		 *         holding value
+		 */
+		public long getCountAtOrBelow(long value) {
+			if (value < 0L) {
+				return 0L;
+			}
+			int n = Math.min(counts.length - 1, bucketIndex(value, precision));
+			long c = 0L;
+			for (int i = 0; i <= n; ++i) {
+				c += counts[i];
+			}
+			return c;
+		}
+
+		/**
+		 * Returns a snapshot combining the values of this snapshot and the
+		 * given one, which may come from a histogram with a different range
+		 * but must have the same precision.
+		 *
+		 * @param other
+		 *            the snapshot to merge
+		 * @return the merged snapshot
+		 * @throws IllegalArgumentException
+		 *             if the precisions differ
+		 */
+		public Snapshot merge(Snapshot other) {
+			if (other.precision != precision) {
+				throw new IllegalArgumentException("precision mismatch");
+			}
+			long[] a = counts, b = other.counts;
+			if (a.length < b.length) {
+				long[] t = a;
+				a = b;
+				b = t;
+			}
+			long[] cs = a.clone();
+			for (int i = 0; i < b.length; ++i) {
+				cs[i] += b[i];
+			}
+			long lo = (totalCount == 0L) ? other.min : (other.totalCount == 0L) ? min : Math.min(min, other.min);
+			long hi = Math.max(max, other.max);
+			return new Snapshot(precision, cs, sum + other.sum, lo, hi);
+		}
+
+		/**
+		 * Returns a string summarizing this snapshot: the count, minimum,
+		 * mean, median, 90th, 99th and 99.9th percentiles, and maximum.
+		 *
+		 * @return a string summarizing this snapshot
+		 */
+		public String toString() {
+			return "[count=" + totalCount + ", min=" + min + ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50.0) + ", p90=" + getValueAtPercentile(90.0) + ", p99=" + getValueAtPercentile(99.0) + ", p999=" + getValueAtPercentile(99.9) + ", max=" + max + "]";
+		}
+	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe U;
+	private static final long SUM;
+	private static final long MIN;
+	private static final long MAX;
+	private static final long BUSY;
+	private static final long ABASE;
+	private static final int ASHIFT;
+	static {
+		try {
+			U = sun.misc.Unsafe.getUnsafe();
+			Class<?> sk = Stripe.class;
+			SUM = U.objectFieldOffset(sk.getDeclaredField("sum"));
+			MIN = U.objectFieldOffset(sk.getDeclaredField("min"));
+			MAX = U.objectFieldOffset(sk.getDeclaredField("max"));
+			BUSY = U.objectFieldOffset(LongHistogram.class.getDeclaredField("stripesBusy"));
+			ABASE = U.arrayBaseOffset(long[].class);
+			int scale = U.arrayIndexScale(long[].class);
+			if ((scale & (scale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -0,0 +1,420 @@
+package java.util.concurrent.atomic;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.Striped64.Cell;
+
+/**
+ * An array of {@code long} sums, each maintained as by a {@link LongAdder}.
+ * Uncontended indices are kept in a compact array, updated by CAS as in
+ * {@link AtomicLongArray}. Once an update of an index fails its CAS, that index
+ * is moved to its own set of padded cells, which may grow dynamically to
+ * reduce contention, so hot indices stop sharing cache lines with their
+ * neighbors while cold ones take no extra space beyond a slot in a table of
+ * cell references, created when any index is first contended.
+ *
+ * <p>
+ * This class is usually preferable to {@link AtomicLongArray} when multiple
+ * threads update per-index counts that are used for purposes such as
+ * collecting statistics, not for fine-grained synchronization control. Methods
+ * {@link #sum}, {@link #sumAll} and {@link #snapshot} do not return atomic
+ * snapshots; invocation in the absence of concurrent updates returns accurate
+ * results, but concurrent updates that occur while sums are being calculated
+ * might not be incorporated.
+ */
+public class StripedLongArray {
+	/** Maximum number of cells per index: the power of two at least NCPU */
+	private static final int MAX_CELLS;
+	static {
+		int n = 1;
+		while (n < Striped64.NCPU) {
+			n <<= 1;
+		}
+		MAX_CELLS = n;
+	}
+
+	/** Values of indices without cells, and initial values of those with */
+	private final long[] array;
+	/** Cells of contended indices, created when first needed */
+	private volatile Cell[][] cells;
+	/** Spinlock (locked via CAS) used when creating or resizing cells */
+	private volatile int cellsBusy;
+	/** Indices moved to cells, in order of moving; null until the first */
+	private volatile int[] contended;
+	/** Number of elements of contended in use, written after them */
+	private volatile int contendedCount;
+
+	/**
+	 * Creates a new array of the given length, with all sums initially zero.
+	 *
+	 * @param length
+	 *            the length of the array
+	 */
+	public StripedLongArray(int length) {
+		array = new long[length];
+	}
+
+	private long checkedByteOffset(int i) {
+		if ((i < 0) || (i >= array.length)) {
+			throw new IndexOutOfBoundsException("index " + i);
+		}
+		return byteOffset(i);
+	}
+
+	private static long byteOffset(int i) {
+		return ((long) i << ASHIFT) + ABASE;
+	}
+
+	/**
+	 * Returns the length of the array.
+	 *
+	 * @return the length of the array
+	 */
+	public final int length() {
+		return array.length;
+	}
+
+	/**
+	 * Adds the given value to the sum at index {@code i}.
+	 *
+	 * @param i
+	 *            the index
+	 * @param x
+	 *            the value to add
+	 */
+	public void add(int i, long x) {
+		Cell[][] cs;
+		Cell[] as;
+		Cell a;
+		long b, v, offset = checkedByteOffset(i);
+		int m;
+		if (((cs = cells) == null) || ((as = cellsAt(cs, i)) == null)) {
+			if (U.compareAndSwapLong(array, offset, b = U.getLongVolatile(array, offset), b + x)) {
+				return;
+			}
+			stripedAdd(i, x, false);
+		} else if (((m = as.length - 1) < 0) || ((a = as[Striped64.getProbe() & m]) == null) || !a.cas(v = a.value, v + x)) {
+			stripedAdd(i, x, true);
+		}
+	}
+
+	/**
+	 * Equivalent to {@code add(i, 1)}.
+	 *
+	 * @param i
+	 *            the index
+	 */
+	public void increment(int i) {
+		add(i, 1L);
+	}
+
+	/**
+	 * Equivalent to {@code add(i, -1)}.
+	 *
+	 * @param i
+	 *            the index
+	 */
+	public void decrement(int i) {
+		add(i, -1L);
+	}
+
+	/**
+	 * Returns the current sum at index {@code i}.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the sum
+	 */
+	public long sum(int i) {
+		long sum = U.getLongVolatile(array, checkedByteOffset(i));
+		Cell[][] cs;
+		Cell[] as;
+		if (((cs = cells) != null) && ((as = cellsAt(cs, i)) != null)) {
+			for (Cell a : as) {
+				if (a != null) {
+					sum += a.value;
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the total of the sums at all indices.
+	 *
+	 * @return the total
+	 */
+	public long sumAll() {
+		long sum = 0L;
+		for (long v : snapshot(null)) {
+			sum += v;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the sums at all indices, stored in the given array if it is
+	 * large enough, otherwise in a new array of this array's length. The sums
+	 * are taken by a single pass over the compact array followed by one over
+	 * the cells of contended indices only.
+	 *
+	 * @param a
+	 *            the array to store into, or {@code null}
+	 * @return an array whose first {@link #length} elements are the sums
+	 */
+	public long[] snapshot(long[] a) {
+		final long[] array = this.array;
+		int n = array.length, k;
+		if ((a == null) || (a.length < n)) {
+			a = new long[n];
+		}
+		U.loadFence();
+		System.arraycopy(array, 0, a, 0, n);
+		if ((k = contendedCount) > 0) { // cells and indices written before count
+			Cell[][] cs = cells;
+			int[] ci = contended;
+			for (int j = 0; j < k; ++j) {
+				int i = ci[j];
+				long sum = a[i];
+				for (Cell c : cellsAt(cs, i)) {
+					if (c != null) {
+						sum += c.value;
+					}
+				}
+				a[i] = sum;
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * Returns the sums at all indices in a new array.
+	 *
+	 * @return the sums
+	 */
+	public long[] snapshot() {
+		return snapshot(null);
+	}
+
+	/**
+	 * Resets the sum at index {@code i} to zero. This method is only
+	 * effective if there are no concurrent updates of that index.
+	 *
+	 * @param i
+	 *            the index
+	 */
+	public void reset(int i) {
+		U.putLongVolatile(array, checkedByteOffset(i), 0L);
+		Cell[][] cs;
+		Cell[] as;
+		if (((cs = cells) != null) && ((as = cellsAt(cs, i)) != null)) {
+			for (Cell a : as) {
+				if (a != null) {
+					a.value = 0L;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Equivalent in effect to {@link #sum} followed by {@link #reset}, except
+	 * that each variable is read and cleared atomically, so that no update is
+	 * lost even if concurrent with this method.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the sum
+	 */
+	public long sumThenReset(int i) {
+		long sum = U.getAndSetLong(array, checkedByteOffset(i), 0L);
+		Cell[][] cs;
+		Cell[] as;
+		if (((cs = cells) != null) && ((as = cellsAt(cs, i)) != null)) {
+			for (Cell a : as) {
+				if (a != null) {
+					sum += U.getAndSetLong(a, VALUE, 0L);
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the number of indices that have been moved to cells because of
+	 * contention. This method is designed for use in monitoring, not for
+	 * synchronization control.
+	 *
+	 * @return the number of contended indices
+	 */
+	public int getContendedIndexCount() {
+		return contendedCount;
+	}
+
+	/**
+	 * Handles updates of index i that involve contention, initialization of
+	 * its cells, or resizing them, as in {@link Striped64#longAccumulate}.
+	 *
+	 * @param i
+	 *            the index
+	 * @param x
+	 *            the value to add
+	 * @param wasUncontended
+	 *            false if a CAS failed before call
+	 */
+	private void stripedAdd(int i, long x, boolean wasUncontended) {
+		int h;
+		if ((h = Striped64.getProbe()) == 0) {
+			ThreadLocalRandom.current(); // force initialization
+			h = Striped64.getProbe();
+			wasUncontended = true;
+		}
+		boolean collide = false; // True if last slot nonempty
+		for (;;) {
+			Cell[][] cs;
+			Cell[] as;
+			Cell a;
+			int n;
+			long v;
+			if (((cs = cells) != null) && ((as = cellsAt(cs, i)) != null) && ((n = as.length) > 0)) {
+				if ((a = as[(n - 1) & h]) == null) {
+					if (cellsBusy == 0) { // Try to attach new Cell
+						Cell r = new Cell(x); // Optimistically create
+						if ((cellsBusy == 0) && casCellsBusy()) {
+							boolean created = false;
+							try { // Recheck under lock
+								Cell[] rs;
+								int m, j;
+								if (((rs = cellsAt(cs, i)) != null) && ((m = rs.length) > 0) && (rs[j = (m - 1) & h] == null)) {
+									rs[j] = r;
+									created = true;
+								}
+							} finally {
+								cellsBusy = 0;
+							}
+							if (created) {
+								break;
+							}
+							continue; // Slot is now non-empty
+						}
+					}
+					collide = false;
+				} else if (!wasUncontended) {
+					wasUncontended = true; // Continue after rehash
+				} else if (a.cas(v = a.value, v + x)) {
+					break;
+				} else if ((n >= MAX_CELLS) || (cellsAt(cs, i) != as)) {
+					collide = false; // At max size or stale
+				} else if (!collide) {
+					collide = true;
+				} else if ((cellsBusy == 0) && casCellsBusy()) {
+					try {
+						if (cellsAt(cs, i) == as) { // Expand table unless stale
+							setCellsAt(cs, i, Arrays.copyOf(as, n << 1));
+						}
+					} finally {
+						cellsBusy = 0;
+					}
+					collide = false;
+					continue; // Retry with expanded table
+				}
+				h = Striped64.advanceProbe(h);
+			} else if ((cellsBusy == 0) && casCellsBusy()) {
+				boolean init = false;
+				try { // Move index to cells
+					if ((cs = cells) == null) {
+						cells = cs = new Cell[array.length][];
+					}
+					if (cellsAt(cs, i) == null) {
+						Cell[] rs = new Cell[2];
+						rs[h & 1] = new Cell(x);
+						setCellsAt(cs, i, rs);
+						addContended(i);
+						init = true;
+					}
+				} finally {
+					cellsBusy = 0;
+				}
+				if (init) {
+					break;
+				}
+			} else {
+				long offset = byteOffset(i), b;
+				if (U.compareAndSwapLong(array, offset, b = U.getLongVolatile(array, offset), b + x)) {
+					break; // Fall back on using base
+				}
+			}
+		}
+	}
+
+	/*
+	 * Volatile access methods for elements of cells, which are replaced
+	 * while other threads read them.
+	 */
+	private static Cell[] cellsAt(Cell[][] cs, int i) {
+		return (Cell[]) U.getObjectVolatile(cs, ((long) i << RSHIFT) + RBASE);
+	}
+
+	private static void setCellsAt(Cell[][] cs, int i, Cell[] as) {
+		U.putObjectVolatile(cs, ((long) i << RSHIFT) + RBASE, as);
+	}
+
+	/**
+	 * Appends index i to the contended indices, publishing it by the write of
+	 * contendedCount. Called only while holding cellsBusy.
+	 */
+	private void addContended(int i) {
+		int[] ci = contended;
+		int k = contendedCount;
+		if (ci == null) {
+			contended = ci = new int[Math.min(array.length, 8)];
+		} else if (k == ci.length) {
+			contended = ci = Arrays.copyOf(ci, Math.min(array.length, k << 1));
+		}
+		ci[k] = i;
+		contendedCount = k + 1;
+	}
+
+	private boolean casCellsBusy() {
+		return U.compareAndSwapInt(this, CELLSBUSY, 0, 1);
+	}
+
+	/**
+	 * Returns the String representation of the current sums of the array.
+	 *
+	 * @return the String representation of the current sums of the array
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(snapshot(null));
+	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe U;
+	private static final long CELLSBUSY;
+	private static final long VALUE;
+	private static final long ABASE;
+	private static final int ASHIFT;
+	private static final long RBASE;
+	private static final int RSHIFT;
+	static {
+		try {
+			U = sun.misc.Unsafe.getUnsafe();
+			CELLSBUSY = U.objectFieldOffset(StripedLongArray.class.getDeclaredField("cellsBusy"));
+			VALUE = U.objectFieldOffset(Cell.class.getDeclaredField("value"));
+			ABASE = U.arrayBaseOffset(long[].class);
+			int scale = U.arrayIndexScale(long[].class);
+			if ((scale & (scale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+			RBASE = U.arrayBaseOffset(Cell[][].class);
+			int rscale = U.arrayIndexScale(Cell[][].class);
+			if ((rscale & (rscale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			RSHIFT = 31 - Integer.numberOfLeadingZeros(rscale);
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
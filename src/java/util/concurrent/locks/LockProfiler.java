@@ -0,0 +1,769 @@
+package java.util.concurrent.locks;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.management.LockInfo;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An opt-in contention profiler for {@link StampedLock} and for the locks
+ * inside {@link java.util.concurrent.ArrayBlockingQueue} and
+ * {@link java.util.concurrent.LinkedBlockingQueue}. Profiling is selected when
+ * this class is initialized by the system property
+ * {@code java.util.concurrent.locks.LockProfiler.mode}:
+ *
+ * <ul>
+ *
+ * <li>{@code off} (the default): locks created while off are never profiled.
+ * The queues get plain ReentrantLocks, and a StampedLock pays only a null
+ * check.
+ *
+ * <li>{@code counters}: each lock counts exclusive acquisitions and records
+ * the count, total, maximum and histogram of waits for acquisitions that had
+ * to block. The uncontended fast path only increments a counter while holding
+ * the lock.
+ *
+ * <li>{@code sampling}: as for {@code counters}, and also times one in every
+ * {@code java.util.concurrent.locks.LockProfiler.sampleInterval} (default 64)
+ * exclusive holds. For a sampled hold of at least
+ * {@code java.util.concurrent.locks.LockProfiler.longHoldMillis} (default 10)
+ * milliseconds, the stack of the owner at the point of release is captured.
+ * The longest such hold is kept.
+ *
+ * </ul>
+ *
+ * <p>
+ * The queues obtain their locks from {@link #newReentrantLock}, which returns
+ * a profiling subclass of {@link ReentrantLock} unless profiling is off.
+ *
+ * <p>
+ * Results are published by {@link #getReports} as {@link Report} records. A
+ * Report is a {@link LockInfo} for the object that threads blocked on the lock
+ * park on, so it can be matched against the lock information reported by
+ * {@link java.lang.management.ThreadMXBean}: a StampedLock parks on itself,
+ * and a ReentrantLock on its internal synchronizer, which is also what
+ * {@link java.lang.management.ThreadInfo#getLockedSynchronizers} lists. Hold
+ * times cover exclusive modes only: the write mode of a StampedLock and the
+ * outermost holds of the ReentrantLocks of the queues. Time spent in condition
+ * waits is excluded. Statistics are gathered without synchronization between
+ * the lock and the reporting thread, so each report is only approximately
+ * consistent.
+ */
+public final class LockProfiler {
+	/** Property selecting the profiling mode */
+	private static final String MODE_PROPERTY = "java.util.concurrent.locks.LockProfiler.mode";
+	/** Mode values; order matters */
+	private static final int OFF = 0;
+	private static final int COUNTERS = 1;
+	private static final int SAMPLING = 2;
+	/** Number of histogram buckets; bucket i counts values below 2^i ns */
+	static final int BUCKETS = 64;
+
+	private static final int MODE;
+	private static final int SAMPLE_INTERVAL;
+	private static final long LONG_HOLD_NANOS;
+	static {
+		int mode = OFF, interval = 64;
+		long longHoldMillis = 10L;
+		try {
+			String[] props = AccessController.doPrivileged(new PrivilegedAction<String[]>() {
+				@Override
+				public String[] run() {
+					return new String[] { System.getProperty(MODE_PROPERTY), System.getProperty("java.util.concurrent.locks.LockProfiler.sampleInterval"), System.getProperty("java.util.concurrent.locks.LockProfiler.longHoldMillis") };
+				}
+			});
+			String mp = props[0], ip = props[1], lp = props[2];
+			if ("counters".equals(mp)) {
+				mode = COUNTERS;
+			} else if ("sampling".equals(mp)) {
+				mode = SAMPLING;
+			}
+			if (ip != null) {
+				interval = Math.max(1, Integer.parseInt(ip));
+			}
+			if (lp != null) {
+				longHoldMillis = Math.max(0L, Long.parseLong(lp));
+			}
+		} catch (Exception ignore) {
+		}
+		MODE = mode;
+		SAMPLE_INTERVAL = interval;
+		LONG_HOLD_NANOS = longHoldMillis * 1000000L;
+	}
+
+	/** Probes of live profiled locks */
+	private static final Set<Probe> probes = ConcurrentHashMap.newKeySet();
+	/** Probes whose locks have been collected */
+	private static final ReferenceQueue<Object> stale = new ReferenceQueue<Object>();
+
+	private LockProfiler() {
+	}
+
+	/**
+	 * Returns the profiling mode: {@code "off"}, {@code "counters"} or
+	 * {@code "sampling"}.
+	 *
+	 * @return the profiling mode
+	 */
+	public static String getMode() {
+		return (MODE == OFF) ? "off" : (MODE == COUNTERS) ? "counters" : "sampling";
+	}
+
+	/**
+	 * Returns {@code true} if locks created now are profiled.
+	 *
+	 * @return {@code true} if profiling is enabled
+	 */
+	public static boolean isEnabled() {
+		return MODE != OFF;
+	}
+
+	/**
+	 * Returns a new {@link ReentrantLock} with the given fairness policy,
+	 * which is profiled and reported under the given owner and name unless
+	 * profiling is off. A profiled lock and its conditions are serialized with
+	 * the owner, which must then be serializable, and are profiled again when
+	 * deserialized in a virtual machine where profiling is on.
+	 *
+	 * @param fair
+	 *            {@code true} if the lock should use a fair ordering policy
+	 * @param owner
+	 *            the object using the lock
+	 * @param name
+	 *            the name of the lock within owner
+	 * @return a new lock
+	 */
+	public static ReentrantLock newReentrantLock(boolean fair, Object owner, String name) {
+		return (MODE == OFF) ? new ReentrantLock(fair) : new ProfiledLock(fair, owner, name);
+	}
+
+	/**
+	 * Returns a probe for the given lock, registered for reporting, or
+	 * {@code null} if profiling is off.
+	 *
+	 * @param lock
+	 *            the lock object
+	 * @param owner
+	 *            the object using the lock, possibly the lock itself
+	 * @param name
+	 *            the name of the lock within owner, or {@code null} if owner is
+	 *            the lock
+	 * @return a probe, or {@code null} if profiling is off
+	 */
+	static Probe probe(Object lock, Object owner, String name) {
+		if (MODE == OFF) {
+			return null;
+		}
+		expungeStaleProbes();
+		// threads blocked on a ReentrantLock park on its synchronizer
+		Object blocker = (lock instanceof ReentrantLock) ? U.getObject(lock, SYNC) : lock;
+		String site = owner.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(owner));
+		Probe p = new Probe(lock, blocker, (name == null) ? site : (site + '.' + name));
+		probes.add(p);
+		return p;
+	}
+
+	/**
+	 * Returns reports for all profiled locks that are still reachable.
+	 *
+	 * @return a list of reports, one per lock
+	 */
+	public static List<Report> getReports() {
+		expungeStaleProbes();
+		List<Report> list = new ArrayList<Report>();
+		for (Probe p : probes) {
+			if (p.get() != null) {
+				list.add(new Report(p));
+			}
+		}
+		return list;
+	}
+
+	private static void expungeStaleProbes() {
+		for (Object r; (r = stale.poll()) != null;) {
+			probes.remove(r);
+		}
+	}
+
+	/**
+	 * A ReentrantLock that records its exclusive acquisitions and outermost
+	 * holds with a probe. Conditions are wrapped so that hold times exclude
+	 * condition waits.
+	 */
+	static final class ProfiledLock extends ReentrantLock {
+		private static final long serialVersionUID = -2851436209174535263L;
+
+		/** The object using the lock and the name of the lock within it */
+		private final Object owner;
+		private final String name;
+		private transient Probe probe;
+
+		ProfiledLock(boolean fair, Object owner, String name) {
+			super(fair);
+			this.owner = owner;
+			this.name = name;
+			probe = LockProfiler.probe(this, owner, name);
+		}
+
+		/**
+		 * Tries to acquire the lock without blocking and without barging
+		 * ahead of queued threads of a fair lock.
+		 */
+		private boolean tryLockUncontended() {
+			if (!isFair()) {
+				return super.tryLock();
+			} else if (isLocked() || hasQueuedThreads()) {
+				return false;
+			}
+			super.lock(); // wait, if any, is not recorded
+			return true;
+		}
+
+		/** Records an acquisition, unless reentrant. */
+		private void acquired(Probe p) {
+			if (getHoldCount() == 1) {
+				p.acquired();
+			}
+		}
+
+		@Override
+		public void lock() {
+			Probe p;
+			if ((p = probe) == null) {
+				super.lock();
+			} else if (tryLockUncontended()) {
+				acquired(p);
+			} else {
+				long start = System.nanoTime();
+				super.lock();
+				p.waited(start);
+				acquired(p);
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			Probe p;
+			if ((p = probe) == null) {
+				super.lockInterruptibly();
+			} else if (Thread.interrupted()) {
+				throw new InterruptedException();
+			} else if (tryLockUncontended()) {
+				acquired(p);
+			} else {
+				long start = System.nanoTime();
+				try {
+					super.lockInterruptibly();
+				} finally {
+					p.waited(start);
+				}
+				acquired(p);
+			}
+		}
+
+		@Override
+		public boolean tryLock() {
+			Probe p;
+			if (!super.tryLock()) {
+				return false;
+			} else if ((p = probe) != null) {
+				acquired(p);
+			}
+			return true;
+		}
+
+		@Override
+		public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+			Probe p;
+			if ((p = probe) == null) {
+				return super.tryLock(timeout, unit);
+			} else if (Thread.interrupted()) {
+				throw new InterruptedException();
+			} else if (tryLockUncontended()) {
+				acquired(p);
+				return true;
+			}
+			long start = System.nanoTime();
+			boolean locked = false;
+			try {
+				locked = super.tryLock(timeout, unit);
+			} finally {
+				p.waited(start);
+			}
+			if (locked) {
+				acquired(p);
+			}
+			return locked;
+		}
+
+		@Override
+		public void unlock() {
+			Probe p;
+			if (((p = probe) != null) && (getHoldCount() == 1)) {
+				p.released();
+			}
+			super.unlock();
+		}
+
+		@Override
+		public Condition newCondition() {
+			return new ProfiledCondition(this, super.newCondition());
+		}
+
+		@Override
+		public boolean hasWaiters(Condition condition) {
+			return super.hasWaiters(unwrap(condition));
+		}
+
+		@Override
+		public int getWaitQueueLength(Condition condition) {
+			return super.getWaitQueueLength(unwrap(condition));
+		}
+
+		@Override
+		protected Collection<Thread> getWaitingThreads(Condition condition) {
+			return super.getWaitingThreads(unwrap(condition));
+		}
+
+		private static Condition unwrap(Condition condition) {
+			return (condition instanceof ProfiledCondition) ? ((ProfiledCondition) condition).condition : condition;
+		}
+
+		/** Restarts a timed hold after a condition wait. */
+		void awaited() {
+			Probe p;
+			if ((p = probe) != null) {
+				p.awaited();
+			}
+		}
+
+		private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+			s.defaultReadObject();
+			probe = LockProfiler.probe(this, owner, name);
+		}
+	}
+
+	/**
+	 * A condition of a ProfiledLock, restarting the timed hold when a wait
+	 * returns.
+	 */
+	static final class ProfiledCondition implements Condition, Serializable {
+		private static final long serialVersionUID = 4187262993817328911L;
+
+		final ProfiledLock lock;
+		final Condition condition;
+
+		ProfiledCondition(ProfiledLock lock, Condition condition) {
+			this.lock = lock;
+			this.condition = condition;
+		}
+
+		@Override
+		public void await() throws InterruptedException {
+			try {
+				condition.await();
+			} finally {
+				lock.awaited();
+			}
+		}
+
+		@Override
+		public void awaitUninterruptibly() {
+			condition.awaitUninterruptibly();
+			lock.awaited();
+		}
+
+		@Override
+		public long awaitNanos(long nanosTimeout) throws InterruptedException {
+			try {
+				return condition.awaitNanos(nanosTimeout);
+			} finally {
+				lock.awaited();
+			}
+		}
+
+		@Override
+		public boolean await(long time, TimeUnit unit) throws InterruptedException {
+			try {
+				return condition.await(time, unit);
+			} finally {
+				lock.awaited();
+			}
+		}
+
+		@Override
+		public boolean awaitUntil(Date deadline) throws InterruptedException {
+			try {
+				return condition.awaitUntil(deadline);
+			} finally {
+				lock.awaited();
+			}
+		}
+
+		@Override
+		public void signal() {
+			condition.signal();
+		}
+
+		@Override
+		public void signalAll() {
+			condition.signalAll();
+		}
+	}
+
+	/**
+	 * Returns the histogram bucket for the given number of nanoseconds.
+	 */
+	static int bucketFor(long nanos) {
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, nanos)));
+	}
+
+	/**
+	 * Profiling state for one lock. Wait statistics are updated atomically
+	 * since waiters need not end up holding the lock; all other statistics
+	 * are updated only by the exclusive holder.
+	 */
+	static final class Probe extends WeakReference<Object> {
+		final String className;
+		final int identityHashCode;
+		final String site;
+		final AtomicLong contended = new AtomicLong();
+		final AtomicLong waitNanos = new AtomicLong();
+		final AtomicLong maxWaitNanos = new AtomicLong();
+		final AtomicLongArray waitHistogram = new AtomicLongArray(BUCKETS);
+		long acquisitions;
+		int countdown = SAMPLE_INTERVAL;
+		long holdStart; // nonzero while a sampled hold is being timed
+		long holdSamples;
+		long holdNanos;
+		long maxHoldNanos;
+		final long[] holdHistogram = new long[BUCKETS];
+		volatile StackTraceElement[] longestHoldTrace;
+		volatile String longestHoldThread;
+		volatile long longestHoldNanos;
+
+		/**
+		 * Creates a probe for the given lock, reported as the object on
+		 * which threads blocked on the lock park.
+		 */
+		Probe(Object lock, Object blocker, String site) {
+			super(lock, stale);
+			this.className = blocker.getClass().getName();
+			this.identityHashCode = System.identityHashCode(blocker);
+			this.site = site;
+		}
+
+		/**
+		 * Records a wait for the lock that started at the given
+		 * System.nanoTime value.
+		 *
+		 * @param start
+		 *            the time the wait started
+		 */
+		void waited(long start) {
+			long d = System.nanoTime() - start, m;
+			contended.incrementAndGet();
+			waitNanos.addAndGet(d);
+			waitHistogram.incrementAndGet(bucketFor(d));
+			while ((d > (m = maxWaitNanos.get())) && !maxWaitNanos.compareAndSet(m, d)) {
+			}
+		}
+
+		/**
+		 * Records an exclusive acquisition, starting to time the hold if it is
+		 * sampled. Called only while holding the lock exclusively.
+		 */
+		void acquired() {
+			++acquisitions;
+			if ((MODE == SAMPLING) && (--countdown <= 0)) {
+				countdown = SAMPLE_INTERVAL;
+				holdStart = System.nanoTime();
+			}
+		}
+
+		/**
+		 * Restarts a timed hold after a condition wait, during which the lock
+		 * was not held. Called only while holding the lock exclusively.
+		 */
+		void awaited() {
+			if (holdStart != 0L) {
+				holdStart = System.nanoTime();
+			}
+		}
+
+		/**
+		 * Records the end of an exclusive hold. Called only while still
+		 * holding the lock exclusively.
+		 */
+		void released() {
+			long start, d;
+			if ((start = holdStart) != 0L) {
+				holdStart = 0L;
+				d = System.nanoTime() - start;
+				++holdSamples;
+				holdNanos += d;
+				++holdHistogram[bucketFor(d)];
+				if (d > maxHoldNanos) {
+					maxHoldNanos = d;
+				}
+				if ((d >= LONG_HOLD_NANOS) && (d > longestHoldNanos)) {
+					Thread t = Thread.currentThread();
+					longestHoldTrace = t.getStackTrace();
+					longestHoldThread = t.getName();
+					longestHoldNanos = d;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A snapshot of the profile of one lock. As a {@link LockInfo}, its class
+	 * name and identity hash code are those of the object on which threads
+	 * blocked on the lock park: the lock itself for a StampedLock, and the
+	 * internal synchronizer for a ReentrantLock.
+	 */
+	public static final class Report extends LockInfo {
+		private final String site;
+		private final long acquisitions;
+		private final long contendedAcquisitions;
+		private final long totalWaitNanos;
+		private final long maxWaitNanos;
+		private final long[] waitHistogram;
+		private final long holdSamples;
+		private final long totalHoldNanos;
+		private final long maxHoldNanos;
+		private final long[] holdHistogram;
+		private final StackTraceElement[] longestHoldTrace;
+		private final String longestHoldThread;
+		private final long longestHoldNanos;
+
+		Report(Probe p) {
+			super(p.className, p.identityHashCode);
+			site = p.site;
+			acquisitions = p.acquisitions;
+			contendedAcquisitions = p.contended.get();
+			totalWaitNanos = p.waitNanos.get();
+			maxWaitNanos = p.maxWaitNanos.get();
+			waitHistogram = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; ++i) {
+				waitHistogram[i] = p.waitHistogram.get(i);
+			}
+			holdSamples = p.holdSamples;
+			totalHoldNanos = p.holdNanos;
+			maxHoldNanos = p.maxHoldNanos;
+			holdHistogram = p.holdHistogram.clone();
+			longestHoldNanos = p.longestHoldNanos;
+			longestHoldThread = p.longestHoldThread;
+			StackTraceElement[] trace = p.longestHoldTrace;
+			longestHoldTrace = (trace == null) ? new StackTraceElement[0] : trace.clone();
+		}
+
+		/**
+		 * Returns the class name and identity of the object using the lock,
+		 * followed by the lock's field name if the lock is not that object.
+		 *
+		 * @return the site of the lock
+		 */
+		public String getSite() {
+			return site;
+		}
+
+		/**
+		 * Returns the number of exclusive acquisitions.
+		 *
+		 * @return the number of exclusive acquisitions
+		 */
+		public long getAcquisitions() {
+			return acquisitions;
+		}
+
+		/**
+		 * Returns the number of acquisitions, in any mode, that had to wait.
+		 *
+		 * @return the number of contended acquisitions
+		 */
+		public long getContendedAcquisitions() {
+			return contendedAcquisitions;
+		}
+
+		/**
+		 * Returns the total time spent waiting in contended acquisitions.
+		 *
+		 * @return the total wait time in nanoseconds
+		 */
+		public long getTotalWaitNanos() {
+			return totalWaitNanos;
+		}
+
+		/**
+		 * Returns the longest wait of a contended acquisition.
+		 *
+		 * @return the maximum wait time in nanoseconds
+		 */
+		public long getMaxWaitNanos() {
+			return maxWaitNanos;
+		}
+
+		/**
+		 * Returns the histogram of wait times, in which element {@code i}
+		 * counts waits of at least {@code 2^(i-1)} and less than {@code 2^i}
+		 * nanoseconds (the last element also counts all longer waits).
+		 *
+		 * @return the wait histogram
+		 */
+		public long[] getWaitHistogram() {
+			return waitHistogram.clone();
+		}
+
+		/**
+		 * Returns an upper bound on the given percentile of contended wait
+		 * times, based on the histogram, or zero if there were none.
+		 *
+		 * @param percentile
+		 *            the percentile, from 0 to 100
+		 * @return the bound in nanoseconds
+		 * @throws IllegalArgumentException
+		 *             if percentile is not between 0 and 100
+		 */
+		public long getWaitPercentileNanos(double percentile) {
+			return percentileOf(waitHistogram, percentile);
+		}
+
+		/**
+		 * Returns the number of timed holds.
+		 *
+		 * @return the number of sampled holds
+		 */
+		public long getHoldSamples() {
+			return holdSamples;
+		}
+
+		/**
+		 * Returns the total time of sampled holds.
+		 *
+		 * @return the total sampled hold time in nanoseconds
+		 */
+		public long getTotalHoldNanos() {
+			return totalHoldNanos;
+		}
+
+		/**
+		 * Returns the longest sampled hold.
+		 *
+		 * @return the maximum sampled hold time in nanoseconds
+		 */
+		public long getMaxHoldNanos() {
+			return maxHoldNanos;
+		}
+
+		/**
+		 * Returns the histogram of sampled hold times, with buckets as for
+		 * {@link #getWaitHistogram}.
+		 *
+		 * @return the hold histogram
+		 */
+		public long[] getHoldHistogram() {
+			return holdHistogram.clone();
+		}
+
+		/**
+		 * Returns an upper bound on the given percentile of sampled hold
+		 * times, based on the histogram, or zero if there were none.
+		 *
+		 * @param percentile
+		 *            the percentile, from 0 to 100
+		 * @return the bound in nanoseconds
+		 * @throws IllegalArgumentException
+		 *             if percentile is not between 0 and 100
+		 */
+		public long getHoldPercentileNanos(double percentile) {
+			return percentileOf(holdHistogram, percentile);
+		}
+
+		/**
+		 * Returns the duration of the longest sampled hold that reached the
+		 * long-hold threshold, or zero if none did.
+		 *
+		 * @return the longest captured hold time in nanoseconds
+		 */
+		public long getLongestHoldNanos() {
+			return longestHoldNanos;
+		}
+
+		/**
+		 * Returns the name of the thread that made the longest captured hold,
+		 * or {@code null} if none.
+		 *
+		 * @return the thread name, or {@code null}
+		 */
+		public String getLongestHoldThreadName() {
+			return longestHoldThread;
+		}
+
+		/**
+		 * Returns the stack of the owner when releasing the longest captured
+		 * hold, or an empty array if none.
+		 *
+		 * @return the owner stack trace
+		 */
+		public StackTraceElement[] getLongestHoldStackTrace() {
+			return longestHoldTrace.clone();
+		}
+
+		private static long percentileOf(long[] histogram, double percentile) {
+			if (!((percentile >= 0.0) && (percentile <= 100.0))) {
+				throw new IllegalArgumentException();
+			}
+			long total = 0L, seen = 0L;
+			for (long c : histogram) {
+				total += c;
+			}
+			if (total == 0L) {
+				return 0L;
+			}
+			double target = (percentile / 100.0) * total;
+			for (int i = 0; i < histogram.length; ++i) {
+				if (((seen += histogram[i]) >= target) && (seen > 0L)) {
+					return (i >= 63) ? Long.MAX_VALUE : (1L << i) - 1L;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		/**
+		 * Returns a string identifying the lock and its site, followed by the
+		 * main statistics.
+		 *
+		 * @return a string describing this report
+		 */
+		@Override
+		public String toString() {
+			return super.toString() + "[site=" + site + ", acquisitions=" + acquisitions + ", contended=" + contendedAcquisitions + ", waitNanos=" + totalWaitNanos + ", maxWaitNanos=" + maxWaitNanos + ", holdSamples=" + holdSamples + ", maxHoldNanos=" + maxHoldNanos + "]";
+		}
+	}
+
+	// Unsafe mechanics
+	private static final sun.misc.Unsafe U;
+	private static final long SYNC;
+	static {
+		try {
+			U = sun.misc.Unsafe.getUnsafe();
+			SYNC = U.objectFieldOffset(ReentrantLock.class.getDeclaredField("sync"));
+		} catch (Exception e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package java.util.concurrent.locks;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.Condition;
@@ -210,6 +211,27 @@ public class StampedLock implements java.io.Serializable {
 	 * validation and the validation itself in those cases where this is not
 	 * already forced, we use Unsafe.loadFence.
 	 *
+	 * Locks constructed in reader-biased mode use a variant of BRAVO (see Dice
+	 * and Kogan https://arxiv.org/abs/1810.01553). While field readerBias is
+	 * set, readers register by incrementing one of an array of padded slots
+	 * (indexed by thread probe) rather than updating state, and then recheck
+	 * readerBias and state, backing out to the normal path if either shows a
+	 * writer. The resulting stamps carry access bits RBITS, which no other
+	 * stamp has. Writers first move state from unlocked to access bits ABITS
+	 * (the "drain" state, which no other state has). Normal readers treat it
+	 * like a write lock, failing or enqueuing, as do other writers. Draining
+	 * adds only WBIT to the sequence, so validate and biased releases compare
+	 * stamps against the sequence the drain state was installed from, and
+	 * stamps issued before it stay valid. If bias is set, the writer then
+	 * clears it and waits for the slots to sum to zero before setting WBIT,
+	 * parking for increasing periods because biased readers release without
+	 * signalling, and giving up on timeout or interrupt as it would in the
+	 * queue. All of these accesses are volatile or atomic, so either a reader
+	 * sees the drain state or the writer sees the reader's slot. To avoid
+	 * paying for revocation on every write under write-heavy loads, readers
+	 * re-enable bias only after an inhibition period proportional to the time
+	 * the last revocation took.
+	 *
 	 * The memory layout keeps lock state and queue pointers together (normally
 	 * on the same cache line). This usually works well for read-mostly loads.
 	 * In most other cases, the natural tendency of adaptive-spin CLH locks to
@@ -229,6 +251,16 @@ public class StampedLock implements java.io.Serializable {
 	private static final int OVERFLOW_YIELD_RATE = 7; // must be power 2 - 1
 	/** The number of bits to use for reader count before overflowing */
 	private static final int LG_READERS = 7;
+	/** Spacing, in longs, between reader slots, to avoid false sharing */
+	private static final int SLOT_STRIDE = 16;
+	/** Maximum number of reader slots; must be a power of two */
+	private static final int MAX_READER_SLOTS = 256;
+	/** Multiple of revocation time for which reader bias stays disabled */
+	private static final long INHIBIT_MULTIPLIER = 9L;
+	/** Initial nanoseconds to park while awaiting biased readers */
+	private static final long MIN_REVOKE_PARK = 1L << 10;
+	/** Maximum nanoseconds to park while awaiting biased readers */
+	private static final long MAX_REVOKE_PARK = 1L << 20;
 	// Values for lock state and stamp operations
 	private static final long RUNIT = 1L;
 	private static final long WBIT = 1L << LG_READERS;
@@ -274,12 +306,46 @@ public class StampedLock implements java.io.Serializable {
 	private transient volatile long state;
 	/** extra reader count when state read count saturated */
 	private transient int readerOverflow;
+	/** Whether readers may register in per-processor slots */
+	private final boolean readerBiased;
+	/** Padded biased reader counts, or null if not reader-biased */
+	private transient long[] readerSlots;
+	/** True if readers may currently register in readerSlots */
+	private transient volatile boolean readerBias;
+	/** System.nanoTime value before which readers do not re-enable bias */
+	private transient volatile long inhibitUntil;
+	/** Contention profile, or null if not profiled */
+	private transient LockProfiler.Probe profile;
 
 	/**
 	 * Creates a new lock, initially in unlocked state.
 	 */
 	public StampedLock() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new lock, initially in unlocked state, with the given reader
+	 * policy. A reader-biased lock lets read-lock methods register readers in
+	 * per-processor slots rather than in the shared lock state, so that
+	 * concurrent readers do not contend on a single memory location. Write
+	 * acquisition becomes more expensive, because a writer must revoke the bias
+	 * and wait for biased readers to release, so after each revocation readers
+	 * use the shared state for a while. Optimistic reads are unaffected. Read
+	 * stamps obtained while biased are never converted by
+	 * {@link #tryConvertToWriteLock}.
+	 *
+	 * @param readerBiased
+	 *            {@code true} if readers should use per-processor slots
+	 */
+	public StampedLock(boolean readerBiased) {
+		this.readerBiased = readerBiased;
+		if (readerBiased) {
+			readerSlots = newReaderSlots();
+			readerBias = true;
+		}
 		state = ORIGIN;
+		profile = LockProfiler.probe(this, this, null);
 	}
 
 	/**
@@ -289,7 +355,7 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	public long writeLock() {
 		long s, next; // bypass acquireWrite in fully unlocked case only
-		return (((((s = state) & ABITS) == 0L) && U.compareAndSwapLong(this, STATE, s, next = s + WBIT)) ? next : acquireWrite(false, 0L));
+		return (((((s = state) & ABITS) == 0L) && ((next = tryWriteState(s, s, true, false, 0L)) != 0L)) ? next : awaitWrite(false, 0L));
 	}
 
 	/**
@@ -299,8 +365,8 @@ public class StampedLock implements java.io.Serializable {
 	 *         the lock is not available
 	 */
 	public long tryWriteLock() {
-		long s, next;
-		return (((((s = state) & ABITS) == 0L) && U.compareAndSwapLong(this, STATE, s, next = s + WBIT)) ? next : 0L);
+		long s;
+		return (((s = state) & ABITS) == 0L) ? tryWriteState(s, s, false, false, 0L) : 0L;
 	}
 
 	/**
@@ -332,7 +398,7 @@ public class StampedLock implements java.io.Serializable {
 			if ((deadline = System.nanoTime() + nanos) == 0L) {
 				deadline = 1L;
 			}
-			if ((next = acquireWrite(true, deadline)) != INTERRUPTED) {
+			if ((next = awaitWrite(true, deadline)) != INTERRUPTED) {
 				return next;
 			}
 		}
@@ -351,7 +417,7 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	public long writeLockInterruptibly() throws InterruptedException {
 		long next;
-		if (!Thread.interrupted() && ((next = acquireWrite(true, 0L)) != INTERRUPTED)) {
+		if (!Thread.interrupted() && ((next = awaitWrite(true, 0L)) != INTERRUPTED)) {
 			return next;
 		}
 		throw new InterruptedException();
@@ -363,8 +429,20 @@ public class StampedLock implements java.io.Serializable {
 	 * @return a stamp that can be used to unlock or convert mode
 	 */
 	public long readLock() {
+		return readLock(true);
+	}
+
+	/**
+	 * Implements {@link #readLock}, trying a biased acquire first only if
+	 * biased is true. View classes use unbiased forms because they release
+	 * without stamps.
+	 */
+	private long readLock(boolean biased) {
 		long s = state, next; // bypass acquireRead on common uncontended case
-		return (((whead == wtail) && ((s & ABITS) < RFULL) && U.compareAndSwapLong(this, STATE, s, next = s + RUNIT)) ? next : acquireRead(false, 0L));
+		if (biased && (readerSlots != null) && ((next = tryBiasedRead()) != 0L)) {
+			return next;
+		}
+		return (((whead == wtail) && ((s & ABITS) < RFULL) && U.compareAndSwapLong(this, STATE, s, next = s + RUNIT)) ? next : awaitRead(false, 0L));
 	}
 
 	/**
@@ -374,9 +452,21 @@ public class StampedLock implements java.io.Serializable {
 	 *         the lock is not available
 	 */
 	public long tryReadLock() {
+		return tryReadLock(true);
+	}
+
+	/**
+	 * Implements {@link #tryReadLock()}, trying a biased acquire first only if
+	 * biased is true.
+	 */
+	private long tryReadLock(boolean biased) {
+		long stamp;
+		if (biased && (readerSlots != null) && ((stamp = tryBiasedRead()) != 0L)) {
+			return stamp;
+		}
 		for (;;) {
 			long s, m, next;
-			if ((m = (s = state) & ABITS) == WBIT) {
+			if ((m = (s = state) & ABITS) >= WBIT) {
 				return 0L;
 			} else if (m < RFULL) {
 				if (U.compareAndSwapLong(this, STATE, s, next = s + RUNIT)) {
@@ -405,10 +495,21 @@ public class StampedLock implements java.io.Serializable {
 	 *             lock
 	 */
 	public long tryReadLock(long time, TimeUnit unit) throws InterruptedException {
+		return tryReadLock(time, unit, true);
+	}
+
+	/**
+	 * Implements {@link #tryReadLock(long,TimeUnit)}, trying a biased acquire
+	 * first only if biased is true.
+	 */
+	private long tryReadLock(long time, TimeUnit unit, boolean biased) throws InterruptedException {
 		long s, m, next, deadline;
 		long nanos = unit.toNanos(time);
 		if (!Thread.interrupted()) {
-			if ((m = (s = state) & ABITS) != WBIT) {
+			if (biased && (readerSlots != null) && ((next = tryBiasedRead()) != 0L)) {
+				return next;
+			}
+			if ((m = (s = state) & ABITS) < WBIT) {
 				if (m < RFULL) {
 					if (U.compareAndSwapLong(this, STATE, s, next = s + RUNIT)) {
 						return next;
@@ -423,7 +524,7 @@ public class StampedLock implements java.io.Serializable {
 			if ((deadline = System.nanoTime() + nanos) == 0L) {
 				deadline = 1L;
 			}
-			if ((next = acquireRead(true, deadline)) != INTERRUPTED) {
+			if ((next = awaitRead(true, deadline)) != INTERRUPTED) {
 				return next;
 			}
 		}
@@ -441,8 +542,16 @@ public class StampedLock implements java.io.Serializable {
 	 *             lock
 	 */
 	public long readLockInterruptibly() throws InterruptedException {
+		return readLockInterruptibly(true);
+	}
+
+	/**
+	 * Implements {@link #readLockInterruptibly}, trying a biased acquire first
+	 * only if biased is true.
+	 */
+	private long readLockInterruptibly(boolean biased) throws InterruptedException {
 		long next;
-		if (!Thread.interrupted() && ((next = acquireRead(true, 0L)) != INTERRUPTED)) {
+		if (!Thread.interrupted() && ((biased && (readerSlots != null) && ((next = tryBiasedRead()) != 0L)) || ((next = awaitRead(true, 0L)) != INTERRUPTED))) {
 			return next;
 		}
 		throw new InterruptedException();
@@ -473,7 +582,7 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	public boolean validate(long stamp) {
 		U.loadFence();
-		return (stamp & SBITS) == (state & SBITS);
+		return inSequence(stamp, state);
 	}
 
 	/**
@@ -486,9 +595,10 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	public void unlockWrite(long stamp) {
 		WNode h;
-		if ((state != stamp) || ((stamp & WBIT) == 0L)) {
+		if ((state != stamp) || ((stamp & ABITS) != WBIT)) {
 			throw new IllegalMonitorStateException();
 		}
+		endWriteHold();
 		state = (stamp += WBIT) == 0L ? ORIGIN : stamp;
 		if (((h = whead) != null) && (h.status != 0)) {
 			release(h);
@@ -507,6 +617,12 @@ public class StampedLock implements java.io.Serializable {
 	public void unlockRead(long stamp) {
 		long s, m;
 		WNode h;
+		if ((stamp & ABITS) == RBITS) {
+			if (!releaseBiasedRead(stamp)) {
+				throw new IllegalMonitorStateException();
+			}
+			return;
+		}
 		for (;;) {
 			if ((((s = state) & SBITS) != (stamp & SBITS)) || ((stamp & ABITS) == 0L) || ((m = s & ABITS) == 0L) || (m == WBIT)) {
 				throw new IllegalMonitorStateException();
@@ -536,6 +652,12 @@ public class StampedLock implements java.io.Serializable {
 	public void unlock(long stamp) {
 		long a = stamp & ABITS, m, s;
 		WNode h;
+		if (a == RBITS) {
+			if (!releaseBiasedRead(stamp)) {
+				throw new IllegalMonitorStateException();
+			}
+			return;
+		}
 		while (((s = state) & SBITS) == (stamp & SBITS)) {
 			if ((m = s & ABITS) == 0L) {
 				break;
@@ -543,6 +665,7 @@ public class StampedLock implements java.io.Serializable {
 				if (a != m) {
 					break;
 				}
+				endWriteHold();
 				state = (s += WBIT) == 0L ? ORIGIN : s;
 				if (((h = whead) != null) && (h.status != 0)) {
 					release(h);
@@ -570,7 +693,7 @@ public class StampedLock implements java.io.Serializable {
 	 * a read lock, if the write lock is available, releases the read lock and
 	 * returns a write stamp. Or, if an optimistic read, returns a write stamp
 	 * only if immediately available. This method returns zero in all other
-	 * cases.
+	 * cases, including read stamps obtained through reader bias.
 	 *
 	 * @param stamp
 	 *            a stamp
@@ -578,13 +701,18 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	public long tryConvertToWriteLock(long stamp) {
 		long a = stamp & ABITS, m, s, next;
+		if (a == RBITS) {
+			return 0L;
+		}
 		while (((s = state) & SBITS) == (stamp & SBITS)) {
 			if ((m = s & ABITS) == 0L) {
 				if (a != 0L) {
 					break;
 				}
-				if (U.compareAndSwapLong(this, STATE, s, next = s + WBIT)) {
+				if ((next = tryWriteState(s, s, false, false, 0L)) != 0L) {
 					return next;
+				} else if (readerSlots != null) {
+					break; // biased readers may remain
 				}
 			} else if (m == WBIT) {
 				if (a != m) {
@@ -592,8 +720,10 @@ public class StampedLock implements java.io.Serializable {
 				}
 				return stamp;
 			} else if ((m == RUNIT) && (a != 0L)) {
-				if (U.compareAndSwapLong(this, STATE, s, next = (s - RUNIT) + WBIT)) {
+				if ((next = tryWriteState(s, s - RUNIT, false, false, 0L)) != 0L) {
 					return next;
+				} else if (readerSlots != null) {
+					break;
 				}
 			} else {
 				break;
@@ -616,6 +746,9 @@ public class StampedLock implements java.io.Serializable {
 	public long tryConvertToReadLock(long stamp) {
 		long a = stamp & ABITS, m, s, next;
 		WNode h;
+		if (a == RBITS) {
+			return ((readerSlots != null) && inSequence(stamp, state)) ? stamp : 0L;
+		}
 		while (((s = state) & SBITS) == (stamp & SBITS)) {
 			if ((m = s & ABITS) == 0L) {
 				if (a != 0L) {
@@ -631,6 +764,7 @@ public class StampedLock implements java.io.Serializable {
 				if (a != m) {
 					break;
 				}
+				endWriteHold();
 				state = next = s + (WBIT + RUNIT);
 				if (((h = whead) != null) && (h.status != 0)) {
 					release(h);
@@ -659,6 +793,9 @@ public class StampedLock implements java.io.Serializable {
 		long a = stamp & ABITS, m, s, next;
 		WNode h;
 		U.loadFence();
+		if (a == RBITS) {
+			return releaseBiasedRead(stamp) ? (stamp & SBITS) : 0L;
+		}
 		for (;;) {
 			if (((s = state) & SBITS) != (stamp & SBITS)) {
 				break;
@@ -672,6 +809,7 @@ public class StampedLock implements java.io.Serializable {
 				if (a != m) {
 					break;
 				}
+				endWriteHold();
 				state = next = (s += WBIT) == 0L ? ORIGIN : s;
 				if (((h = whead) != null) && (h.status != 0)) {
 					release(h);
@@ -702,7 +840,8 @@ public class StampedLock implements java.io.Serializable {
 	public boolean tryUnlockWrite() {
 		long s;
 		WNode h;
-		if (((s = state) & WBIT) != 0L) {
+		if (((s = state) & ABITS) == WBIT) {
+			endWriteHold();
 			state = (s += WBIT) == 0L ? ORIGIN : s;
 			if (((h = whead) != null) && (h.status != 0)) {
 				release(h);
@@ -733,6 +872,11 @@ public class StampedLock implements java.io.Serializable {
 				return true;
 			}
 		}
+		long[] slots;
+		if (((slots = readerSlots) != null) && (biasedReaders() > 0L)) {
+			U.getAndAddLong(slots, slotOffset(slots), -1L);
+			return true;
+		}
 		return false;
 	}
 
@@ -742,7 +886,9 @@ public class StampedLock implements java.io.Serializable {
 	 */
 	private int getReadLockCount(long s) {
 		long readers;
-		if ((readers = s & RBITS) >= RFULL) {
+		if ((s & WBIT) != 0L) {
+			readers = 0L; // write-locked or draining
+		} else if ((readers = s & RBITS) >= RFULL) {
 			readers = RFULL + readerOverflow;
 		}
 		return (int) readers;
@@ -754,7 +900,7 @@ public class StampedLock implements java.io.Serializable {
 	 * @return {@code true} if the lock is currently held exclusively
 	 */
 	public boolean isWriteLocked() {
-		return (state & WBIT) != 0L;
+		return (state & ABITS) == WBIT;
 	}
 
 	/**
@@ -763,7 +909,8 @@ public class StampedLock implements java.io.Serializable {
 	 * @return {@code true} if the lock is currently held non-exclusively
 	 */
 	public boolean isReadLocked() {
-		return (state & RBITS) != 0L;
+		long m;
+		return (((m = state & ABITS) != 0L) && (m < WBIT)) || (biasedReaders() > 0L);
 	}
 
 	/**
@@ -774,7 +921,7 @@ public class StampedLock implements java.io.Serializable {
 	 * @return the number of read locks held
 	 */
 	public int getReadLockCount() {
-		return getReadLockCount(state);
+		return getReadLockCount(state) + (int) biasedReaders();
 	}
 
 	/**
@@ -786,8 +933,8 @@ public class StampedLock implements java.io.Serializable {
 	 * @return a string identifying this lock, as well as its lock state
 	 */
 	public String toString() {
-		long s = state;
-		return super.toString() + ((s & ABITS) == 0L ? "[Unlocked]" : (s & WBIT) != 0L ? "[Write-locked]" : "[Read-locks:" + getReadLockCount(s) + "]");
+		long s = state, r = getReadLockCount(s) + biasedReaders();
+		return super.toString() + (((s & ABITS) == WBIT) ? "[Write-locked]" : (r == 0L) ? "[Unlocked]" : "[Read-locks:" + r + "]");
 	}
 
 	// views
@@ -835,19 +982,19 @@ public class StampedLock implements java.io.Serializable {
 	// view classes
 	final class ReadLockView implements Lock {
 		public void lock() {
-			readLock();
+			readLock(false);
 		}
 
 		public void lockInterruptibly() throws InterruptedException {
-			readLockInterruptibly();
+			readLockInterruptibly(false);
 		}
 
 		public boolean tryLock() {
-			return tryReadLock() != 0L;
+			return tryReadLock(false) != 0L;
 		}
 
 		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
-			return tryReadLock(time, unit) != 0L;
+			return tryReadLock(time, unit, false) != 0L;
 		}
 
 		public void unlock() {
@@ -900,9 +1047,10 @@ public class StampedLock implements java.io.Serializable {
 	final void unstampedUnlockWrite() {
 		WNode h;
 		long s;
-		if (((s = state) & WBIT) == 0L) {
+		if (((s = state) & ABITS) != WBIT) {
 			throw new IllegalMonitorStateException();
 		}
+		endWriteHold();
 		state = (s += WBIT) == 0L ? ORIGIN : s;
 		if (((h = whead) != null) && (h.status != 0)) {
 			release(h);
@@ -930,7 +1078,12 @@ public class StampedLock implements java.io.Serializable {
 
 	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
 		s.defaultReadObject();
+		if (readerBiased) {
+			readerSlots = newReaderSlots();
+			readerBias = true;
+		}
 		state = ORIGIN; // reset to unlocked state
+		profile = LockProfiler.probe(this, this, null);
 	}
 
 	// internals
@@ -985,6 +1138,231 @@ public class StampedLock implements java.io.Serializable {
 		return 0L;
 	}
 
+	/**
+	 * Creates reader slots for a reader-biased lock: a power of two number of
+	 * slots at least NCPU (up to MAX_READER_SLOTS), each SLOT_STRIDE longs
+	 * apart, with the first stride left unused as padding.
+	 */
+	private static long[] newReaderSlots() {
+		int n = 1;
+		while ((n < NCPU) && (n < MAX_READER_SLOTS)) {
+			n <<= 1;
+		}
+		return new long[(n + 1) * SLOT_STRIDE];
+	}
+
+	/**
+	 * Returns the address offset of the current thread's reader slot,
+	 * initializing the thread probe if necessary.
+	 */
+	private static long slotOffset(long[] slots) {
+		Thread t = Thread.currentThread();
+		int probe;
+		if ((probe = U.getInt(t, PROBE)) == 0) {
+			ThreadLocalRandom.current(); // force initialization
+			probe = U.getInt(t, PROBE);
+		}
+		int i = ((probe & ((slots.length / SLOT_STRIDE) - 2)) + 1) * SLOT_STRIDE;
+		return ((long) i << SLOTSHIFT) + SLOTBASE;
+	}
+
+	/**
+	 * Returns the number of biased read holds, or zero if not reader-biased.
+	 */
+	private long biasedReaders() {
+		long[] slots;
+		long sum = 0L;
+		if ((slots = readerSlots) != null) {
+			for (int i = SLOT_STRIDE; i < slots.length; i += SLOT_STRIDE) {
+				sum += U.getLongVolatile(slots, ((long) i << SLOTSHIFT) + SLOTBASE);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Tries to acquire a biased read lock by registering in the current
+	 * thread's slot, first re-enabling bias if it is disabled, no writer is
+	 * present, and the inhibition period has passed.
+	 *
+	 * @return a biased read stamp, or zero if bias is disabled or a writer is
+	 *         present
+	 */
+	private long tryBiasedRead() {
+		long[] slots = readerSlots;
+		long s, off;
+		if (!readerBias) {
+			if (((state & ABITS) >= RBITS) || ((System.nanoTime() - inhibitUntil) < 0L)) {
+				return 0L;
+			}
+			readerBias = true;
+		}
+		U.getAndAddLong(slots, off = slotOffset(slots), 1L);
+		if (readerBias && (((s = state) & ABITS) < RBITS)) {
+			return (s & SBITS) | RBITS;
+		}
+		U.getAndAddLong(slots, off, -1L); // back out
+		return 0L;
+	}
+
+	/**
+	 * Returns true if the stamp has the sequence of state s, or of the state
+	 * from which the drain state s was installed.
+	 */
+	private static boolean inSequence(long stamp, long s) {
+		return ((stamp & SBITS) == (s & SBITS)) || (((s & ABITS) == ABITS) && ((stamp & SBITS) == ((s - WBIT) & SBITS)));
+	}
+
+	/**
+	 * Releases a biased read hold if the stamp matches the current sequence.
+	 *
+	 * @param stamp
+	 *            a biased read stamp: (stamp & ABITS) == RBITS
+	 * @return true if released
+	 */
+	private boolean releaseBiasedRead(long stamp) {
+		long[] slots;
+		if (((slots = readerSlots) == null) || !inSequence(stamp, state)) {
+			return false;
+		}
+		U.getAndAddLong(slots, slotOffset(slots), -1L);
+		return true;
+	}
+
+	/**
+	 * Tries to move state from s to write-locked with the sequence of base,
+	 * where (base & ABITS) == 0. For reader-biased locks, first installs the
+	 * drain state and revokes bias; if biased readers remain and wait is
+	 * false, or they do not release before the deadline or an interrupt,
+	 * restores bias and state s and fails. Records a successful acquisition
+	 * with the contention profiler, if enabled.
+	 *
+	 * @param s
+	 *            the expected state
+	 * @param base
+	 *            s without any read hold being converted
+	 * @param wait
+	 *            true if should wait for biased readers to release
+	 * @param interruptible
+	 *            true if should stop waiting on interrupt
+	 * @param deadline
+	 *            if nonzero, the System.nanoTime value to stop waiting at
+	 * @return write stamp on success, else zero
+	 */
+	private long tryWriteState(long s, long base, boolean wait, boolean interruptible, long deadline) {
+		long next = base + WBIT;
+		LockProfiler.Probe p;
+		if (readerSlots == null) {
+			if (!U.compareAndSwapLong(this, STATE, s, next)) {
+				return 0L;
+			}
+		} else if (!U.compareAndSwapLong(this, STATE, s, base | ABITS)) {
+			return 0L;
+		} else if (readerBias && !revokeBias(wait, interruptible, deadline)) {
+			WNode h;
+			readerBias = true; // remaining readers are still biased
+			state = s;
+			if (((h = whead) != null) && (h.status != 0)) {
+				release(h);
+			}
+			return 0L;
+		} else {
+			state = next;
+		}
+		if ((p = profile) != null) {
+			p.acquired();
+		}
+		return next;
+	}
+
+	/**
+	 * Clears readerBias and, if wait is true, waits for biased readers to
+	 * release, then sets the inhibition period. Biased readers release without
+	 * signalling, so after spinning this parks for periods doubling from
+	 * MIN_REVOKE_PARK up to MAX_REVOKE_PARK. Called only in drain state. An
+	 * interrupt stays set for the caller to observe.
+	 *
+	 * @param wait
+	 *            true if should wait for biased readers to release
+	 * @param interruptible
+	 *            true if should stop waiting on interrupt
+	 * @param deadline
+	 *            if nonzero, the System.nanoTime value to stop waiting at
+	 * @return true if no biased readers remain
+	 */
+	private boolean revokeBias(boolean wait, boolean interruptible, long deadline) {
+		long start = System.nanoTime(), delay = MIN_REVOKE_PARK, now;
+		boolean interrupted = false, revoked = true;
+		readerBias = false;
+		for (int spins = SPINS; biasedReaders() > 0L;) {
+			long time = delay;
+			if (!wait || (interrupted && interruptible)) {
+				revoked = false;
+				break;
+			} else if (spins > 0) {
+				if (LockSupport.nextSecondarySeed() >= 0) {
+					--spins;
+				}
+			} else if ((deadline != 0L) && ((time = Math.min(deadline - System.nanoTime(), delay)) <= 0L)) {
+				revoked = false;
+				break;
+			} else {
+				LockSupport.parkNanos(this, time);
+				interrupted |= Thread.interrupted();
+				if (delay < MAX_REVOKE_PARK) {
+					delay <<= 1;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (revoked) {
+			now = System.nanoTime();
+			inhibitUntil = now + ((now - start) * INHIBIT_MULTIPLIER);
+		}
+		return revoked;
+	}
+
+	/**
+	 * Records the end of a write hold with the contention profiler, if
+	 * enabled. Called while still holding the write lock.
+	 */
+	private void endWriteHold() {
+		LockProfiler.Probe p;
+		if ((p = profile) != null) {
+			p.released();
+		}
+	}
+
+	/**
+	 * Calls acquireWrite, recording the wait with the contention profiler, if
+	 * enabled.
+	 */
+	private long awaitWrite(boolean interruptible, long deadline) {
+		LockProfiler.Probe p;
+		if ((p = profile) == null) {
+			return acquireWrite(interruptible, deadline);
+		}
+		long start = System.nanoTime(), next = acquireWrite(interruptible, deadline);
+		p.waited(start);
+		return next;
+	}
+
+	/**
+	 * Calls acquireRead, recording the wait with the contention profiler, if
+	 * enabled.
+	 */
+	private long awaitRead(boolean interruptible, long deadline) {
+		LockProfiler.Probe p;
+		if ((p = profile) == null) {
+			return acquireRead(interruptible, deadline);
+		}
+		long start = System.nanoTime(), next = acquireRead(interruptible, deadline);
+		p.waited(start);
+		return next;
+	}
+
 	/**
 	 * Wakes up the successor of h (normally whead). This is normally just
 	 * h.next, but may require traversal from wtail if next pointers are
@@ -1025,8 +1403,12 @@ public class StampedLock implements java.io.Serializable {
 		for (int spins = -1;;) { // spin while enqueuing
 			long m, s, ns;
 			if ((m = (s = state) & ABITS) == 0L) {
-				if (U.compareAndSwapLong(this, STATE, s, ns = s + WBIT)) {
+				if ((ns = tryWriteState(s, s, true, interruptible, deadline)) != 0L) {
 					return ns;
+				} else if (interruptible && Thread.interrupted()) {
+					return INTERRUPTED;
+				} else if ((deadline != 0L) && ((deadline - System.nanoTime()) <= 0L)) {
+					return 0L;
 				}
 			} else if (spins < 0) {
 				spins = ((m == WBIT) && (wtail == whead)) ? SPINS : 0;
@@ -1060,10 +1442,14 @@ public class StampedLock implements java.io.Serializable {
 				for (int k = spins;;) { // spin at head
 					long s, ns;
 					if (((s = state) & ABITS) == 0L) {
-						if (U.compareAndSwapLong(this, STATE, s, ns = s + WBIT)) {
+						if ((ns = tryWriteState(s, s, true, interruptible, deadline)) != 0L) {
 							whead = node;
 							node.prev = null;
 							return ns;
+						} else if (interruptible && Thread.interrupted()) {
+							return cancelWaiter(node, node, true);
+						} else if ((deadline != 0L) && ((deadline - System.nanoTime()) <= 0L)) {
+							return cancelWaiter(node, node, false);
 						}
 					} else if ((LockSupport.nextSecondarySeed() >= 0) && (--k <= 0)) {
 						break;
@@ -1193,7 +1579,7 @@ public class StampedLock implements java.io.Serializable {
 						Thread wt = Thread.currentThread();
 						U.putObject(wt, PARKBLOCKER, this);
 						node.thread = wt;
-						if (((h != pp) || ((state & ABITS) == WBIT)) && (whead == h) && (p.prev == pp)) {
+						if (((h != pp) || ((state & ABITS) >= WBIT)) && (whead == h) && (p.prev == pp)) {
 							U.park(false, time);
 						}
 						node.thread = null;
@@ -1262,7 +1648,7 @@ public class StampedLock implements java.io.Serializable {
 					Thread wt = Thread.currentThread();
 					U.putObject(wt, PARKBLOCKER, this);
 					node.thread = wt;
-					if ((p.status < 0) && ((p != h) || ((state & ABITS) == WBIT)) && (whead == h) && (node.prev == p)) {
+					if ((p.status < 0) && ((p != h) || ((state & ABITS) >= WBIT)) && (whead == h) && (node.prev == p)) {
 						U.park(false, time);
 					}
 					node.thread = null;
@@ -1357,7 +1743,7 @@ public class StampedLock implements java.io.Serializable {
 				}
 			}
 			if (h == whead) {
-				if ((q != null) && (h.status == 0) && (((s = state) & ABITS) != WBIT) && ((s == 0L) || (q.mode == RMODE))) {
+				if ((q != null) && (h.status == 0) && (((s = state) & ABITS) < WBIT) && ((s == 0L) || (q.mode == RMODE))) {
 					release(h);
 				}
 				break;
@@ -1374,6 +1760,9 @@ public class StampedLock implements java.io.Serializable {
 	private static final long WSTATUS;
 	private static final long WCOWAIT;
 	private static final long PARKBLOCKER;
+	private static final long PROBE;
+	private static final long SLOTBASE;
+	private static final int SLOTSHIFT;
 	static {
 		try {
 			U = sun.misc.Unsafe.getUnsafe();
@@ -1387,6 +1776,13 @@ public class StampedLock implements java.io.Serializable {
 			WCOWAIT = U.objectFieldOffset(wk.getDeclaredField("cowait"));
 			Class<?> tk = Thread.class;
 			PARKBLOCKER = U.objectFieldOffset(tk.getDeclaredField("parkBlocker"));
+			PROBE = U.objectFieldOffset(tk.getDeclaredField("threadLocalRandomProbe"));
+			SLOTBASE = U.arrayBaseOffset(long[].class);
+			int scale = U.arrayIndexScale(long[].class);
+			if ((scale & (scale - 1)) != 0) {
+				throw new Error("data type scale not a power of two");
+			}
+			SLOTSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
 		} catch (Exception e) {
 			throw new Error(e);
 		}
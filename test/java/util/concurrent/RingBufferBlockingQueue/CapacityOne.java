@@ -0,0 +1,59 @@
+/*
+ * @test
+ * @summary A RingBufferBlockingQueue of capacity one holds exactly one element
+ * @run main/timeout=60 CapacityOne
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RingBufferBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class CapacityOne {
+	public static void main(String[] args) throws Throwable {
+		for (boolean single : new boolean[] { false, true }) {
+			RingBufferBlockingQueue<Integer> q = new RingBufferBlockingQueue<>(1, single, single);
+			check(q.capacity() == 1, "capacity");
+			check(q.remainingCapacity() == 1, "remainingCapacity");
+			check(q.offer(1), "first offer");
+			check(!q.offer(2), "second offer must fail");
+			check(!q.offer(3, 10, TimeUnit.MILLISECONDS), "timed offer must time out");
+			check(q.offerAll(Arrays.asList(4, 5)) == 0, "offerAll must add nothing");
+			check((q.size() == 1) && (q.remainingCapacity() == 0), "size when full");
+			check(Arrays.equals(q.toArray(), new Object[] { 1 }), "toArray");
+			check(q.poll() == 1, "poll");
+			check(q.poll() == null, "poll when empty");
+			check(q.offerAll(Arrays.asList(6, 7)) == 1, "offerAll must add one");
+			List<Integer> drained = new ArrayList<>();
+			check((q.drainTo(drained) == 1) && drained.equals(Arrays.asList(6)), "drainTo");
+		}
+
+		// A producer blocked on a full queue is released by each take
+		RingBufferBlockingQueue<Integer> q = new RingBufferBlockingQueue<>(1);
+		final int n = 10000;
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < n; i++) {
+					q.put(i);
+				}
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		});
+		producer.start();
+		for (int i = 0; i < n; i++) {
+			check(q.size() <= 1, "size exceeds capacity");
+			Integer x = q.take();
+			check(x == i, "expected " + i + " but took " + x);
+		}
+		producer.join();
+		check(q.isEmpty(), "empty at end");
+	}
+
+	static void check(boolean cond, String msg) {
+		if (!cond) {
+			throw new AssertionError(msg);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * @test
+ * @summary Elements that drainTo fails to add stay in a RingBufferBlockingQueue
+ * @run main/timeout=120 DrainToThrowing
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RingBufferBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DrainToThrowing {
+
+	/** A sink that accepts the given number of elements, then throws. */
+	static class FailingList extends ArrayList<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		int accept;
+
+		FailingList(int accept) {
+			this.accept = accept;
+		}
+
+		@Override
+		public boolean add(Integer x) {
+			if (accept-- <= 0) {
+				throw new IllegalStateException("sink full");
+			}
+			return super.add(x);
+		}
+	}
+
+	public static void main(String[] args) throws Throwable {
+		for (boolean single : new boolean[] { false, true }) {
+			RingBufferBlockingQueue<Integer> q = new RingBufferBlockingQueue<>(16, single, single);
+			for (int i = 0; i < 10; i++) {
+				q.add(i);
+			}
+			FailingList sink = new FailingList(3);
+			try {
+				q.drainTo(sink);
+				throw new AssertionError("drainTo must propagate the failure");
+			} catch (IllegalStateException expected) {
+			}
+			check(sink.equals(Arrays.asList(0, 1, 2)), "drained " + sink);
+			check(q.size() == 7, "size " + q.size());
+			check(Arrays.equals(q.toArray(), new Object[] { 3, 4, 5, 6, 7, 8, 9 }), "remaining " + Arrays.toString(q.toArray()));
+
+			// the first add failing removes nothing
+			try {
+				q.drainTo(new FailingList(0), 4);
+				throw new AssertionError("drainTo must propagate the failure");
+			} catch (IllegalStateException expected) {
+			}
+			check(q.size() == 7, "size after failed first add " + q.size());
+			check(q.peek() == 3, "head after failed first add");
+
+			// the queue stays usable: its slots were neither lost nor leaked
+			for (int i = 10; q.remainingCapacity() > 0; i++) {
+				check(q.offer(i), "offer " + i);
+			}
+			check(!q.offer(-1), "offer past capacity");
+			List<Integer> rest = new ArrayList<>();
+			check(q.drainTo(rest) == 16, "drain all");
+			check(rest.get(0) == 3, "order after failure");
+			check(q.isEmpty() && (q.poll() == null), "empty at end");
+		}
+
+		// Concurrent consumers mixing poll and failing drains see every
+		// element exactly once
+		final RingBufferBlockingQueue<Integer> q = new RingBufferBlockingQueue<>(64);
+		final int n = 200000, consumers = 3;
+		final ConcurrentLinkedQueue<Integer> taken = new ConcurrentLinkedQueue<>();
+		final AtomicInteger count = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(consumers);
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < n; i++) {
+					q.put(i);
+				}
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		});
+		producer.start();
+		for (int c = 0; c < consumers; c++) {
+			final int id = c;
+			Thread t = new Thread(() -> {
+				try {
+					int k = 0;
+					while (count.get() < n) {
+						if ((id == 0) || ((++k & 1) == 0)) {
+							FailingList sink = new FailingList((id + k++) % 5);
+							try {
+								q.drainTo(sink, 8);
+							} catch (IllegalStateException expected) {
+							}
+							taken.addAll(sink);
+							count.addAndGet(sink.size());
+						} else {
+							Integer x = q.poll(1, TimeUnit.MILLISECONDS);
+							if (x != null) {
+								taken.add(x);
+								count.incrementAndGet();
+							}
+						}
+					}
+				} catch (InterruptedException e) {
+					throw new AssertionError(e);
+				} finally {
+					done.countDown();
+				}
+			});
+			t.start();
+		}
+		producer.join();
+		check(done.await(60, TimeUnit.SECONDS), "consumers did not finish");
+		boolean[] seen = new boolean[n];
+		for (Integer x : taken) {
+			check(!seen[x], "duplicate " + x);
+			seen[x] = true;
+		}
+		check(taken.size() == n, "taken " + taken.size() + " of " + n);
+		check(q.isEmpty(), "empty after concurrent drains");
+	}
+
+	static void check(boolean cond, String msg) {
+		if (!cond) {
+			throw new AssertionError(msg);
+		}
+	}
+}